@@ -39,9 +39,11 @@ import org.jsonschema2pojo.AllFileFilter;
 import org.jsonschema2pojo.AnnotationStyle;
 import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.GenerationResult;
 import org.jsonschema2pojo.InclusionLevel;
 import org.jsonschema2pojo.Jsonschema2Pojo;
 import org.jsonschema2pojo.NoopAnnotator;
+import org.jsonschema2pojo.OutputType;
 import org.jsonschema2pojo.SourceType;
 import org.jsonschema2pojo.URLProtocol;
 import org.jsonschema2pojo.rules.RuleFactory;
@@ -146,6 +148,46 @@ public class Jsonschema2PojoTask extends Task implements GenerationConfig {
 
     private boolean formatDateTimes = false;
 
+    private int generationThreads = 1;
+
+    private boolean incrementalGeneration = false;
+
+    private boolean writeOnlyChangedFiles = false;
+
+    private File contentCacheDirectory;
+
+    private long contentCacheMaxSize = 52428800L;
+
+    private File httpCacheDirectory;
+
+    private boolean httpOffline = false;
+
+    private int httpTimeout = 30000;
+
+    private boolean mergeExamples = false;
+
+    private boolean reflectionFreeToString = false;
+
+    private boolean allocationFreeHashcodeAndEquals = false;
+
+    private boolean immutableTypes = false;
+
+    private boolean generateSerializers = false;
+
+    private boolean lazyAdditionalProperties = false;
+
+    private boolean generateValidators = false;
+
+    private OutputType outputType = OutputType.SOURCES;
+
+    private boolean externalizable = false;
+
+    private boolean usePrimitiveArrays = false;
+
+    private boolean trackPresence = false;
+
+    private boolean generateReset = false;
+
 
     /**
      * Execute this task (it's expected that all relevant setters will have been
@@ -195,7 +237,8 @@ public class Jsonschema2PojoTask extends Task implements GenerationConfig {
         Thread.currentThread().setContextClassLoader(extendedClassloader);
 
         try {
-            Jsonschema2Pojo.generate(this);
+            GenerationResult result = Jsonschema2Pojo.generateWithResult(this);
+            log(result.toString());
         } catch (IOException e) {
             throw new BuildException("Error generating classes from JSON Schema file(s) " + source, e);
         }
@@ -696,6 +739,350 @@ public class Jsonschema2PojoTask extends Task implements GenerationConfig {
         this.formatDateTimes = formatDateTimes;
     }
 
+    /**
+     * Sets the 'generationThreads' property of this class
+     *
+     * @param generationThreads
+     *            The number of threads used to read and parse schema documents,
+     *            and the documents they reference, before types are generated.
+     *            Types are still generated in order, so the output is the same
+     *            as a single threaded run.
+     *            <p>
+     *            Default: <code>1</code>.
+     */
+    public void setGenerationThreads(int generationThreads) {
+        this.generationThreads = generationThreads;
+    }
+
+    /**
+     * Sets the 'incrementalGeneration' property of this class
+     *
+     * @param incrementalGeneration
+     *            Whether to generate types only for sources whose content, or
+     *            the content of the documents they reference, has changed since
+     *            the last run. A manifest of each source's documents and
+     *            generated classes is kept in the target directory, and output
+     *            that is no longer generated is deleted.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setIncrementalGeneration(boolean incrementalGeneration) {
+        this.incrementalGeneration = incrementalGeneration;
+    }
+
+    /**
+     * Sets the 'writeOnlyChangedFiles' property of this class
+     *
+     * @param writeOnlyChangedFiles
+     *            Whether to leave existing output files untouched when their
+     *            content is unchanged. Each file is rendered in memory and
+     *            compared with the existing file, so the modification time of
+     *            unchanged files is preserved and downstream compilation can be
+     *            skipped. With <code>removeOldOutput</code>, files that are not
+     *            part of the new output are deleted after generation instead of
+     *            emptying the target directory first.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setWriteOnlyChangedFiles(boolean writeOnlyChangedFiles) {
+        this.writeOnlyChangedFiles = writeOnlyChangedFiles;
+    }
+
+    /**
+     * Sets the 'contentCacheDirectory' property of this class
+     *
+     * @param contentCacheDirectory
+     *            The directory used to cache the parsed content of schema
+     *            files. Content is stored in a binary (Smile) form keyed by the
+     *            file URI, size and modification time, so that later builds can
+     *            load it without parsing the JSON text again. The cache may be
+     *            shared by many builds.
+     *            <p>
+     *            Default: <code>null</code> (no cache).
+     */
+    public void setContentCacheDirectory(File contentCacheDirectory) {
+        this.contentCacheDirectory = contentCacheDirectory;
+    }
+
+    /**
+     * Sets the 'contentCacheMaxSize' property of this class
+     *
+     * @param contentCacheMaxSize
+     *            The maximum size, in bytes, of the content cache directory
+     *            (see contentCacheDirectory). When the cache grows beyond this
+     *            size, the least recently used entries are removed.
+     *            <p>
+     *            Default: <code>52428800</code> (50 MiB).
+     */
+    public void setContentCacheMaxSize(long contentCacheMaxSize) {
+        this.contentCacheMaxSize = contentCacheMaxSize;
+    }
+
+    /**
+     * Sets the 'httpCacheDirectory' property of this class
+     *
+     * @param httpCacheDirectory
+     *            The directory used to cache schemas read over http/https.
+     *            Cached responses are revalidated using conditional requests
+     *            (ETag/If-Modified-Since), so unchanged schemas are not
+     *            transferred again.
+     *            <p>
+     *            Default: <code>null</code> (no cache).
+     */
+    public void setHttpCacheDirectory(File httpCacheDirectory) {
+        this.httpCacheDirectory = httpCacheDirectory;
+    }
+
+    /**
+     * Sets the 'httpOffline' property of this class
+     *
+     * @param httpOffline
+     *            Whether schemas referenced using http/https should only be
+     *            read from the HTTP cache (see httpCacheDirectory), without
+     *            making any requests.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setHttpOffline(boolean httpOffline) {
+        this.httpOffline = httpOffline;
+    }
+
+    /**
+     * Sets the 'httpTimeout' property of this class
+     *
+     * @param httpTimeout
+     *            The connect and read timeout, in milliseconds, used when
+     *            reading schemas over http/https. Requests that fail (or
+     *            receive a server error) are retried twice before generation
+     *            fails.
+     *            <p>
+     *            Default: <code>30000</code>.
+     */
+    public void setHttpTimeout(int httpTimeout) {
+        this.httpTimeout = httpTimeout;
+    }
+
+    /**
+     * Sets the 'mergeExamples' property of this class
+     *
+     * @param mergeExamples
+     *            Whether to merge every JSON example found in a source
+     *            directory into one type, named after the directory, rather
+     *            than generating a type for each example. Only applies when the
+     *            source type is json. Examples are read in parallel when
+     *            generationThreads is greater than one, and the generated type
+     *            does not depend on the order in which the examples are read.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setMergeExamples(boolean mergeExamples) {
+        this.mergeExamples = mergeExamples;
+    }
+
+    /**
+     * Sets the 'reflectionFreeToString' property of this class
+     *
+     * @param reflectionFreeToString
+     *            Whether generated toString methods should append each field to
+     *            a StringBuilder directly, rather than calling
+     *            ToStringBuilder.reflectionToString. The output has the same
+     *            format. Only applies when includeToString is true.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setReflectionFreeToString(boolean reflectionFreeToString) {
+        this.reflectionFreeToString = reflectionFreeToString;
+    }
+
+    /**
+     * Sets the 'allocationFreeHashcodeAndEquals' property of this class
+     *
+     * @param allocationFreeHashcodeAndEquals
+     *            Whether generated hashCode and equals methods should compare
+     *            and combine each field directly, rather than creating a
+     *            HashCodeBuilder or EqualsBuilder. Primitive fields are not
+     *            boxed, equals returns on the first field that differs, and
+     *            super.hashCode and super.equals are still used for types that
+     *            extend another type. Only applies when
+     *            includeHashcodeAndEquals is true.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setAllocationFreeHashcodeAndEquals(boolean allocationFreeHashcodeAndEquals) {
+        this.allocationFreeHashcodeAndEquals = allocationFreeHashcodeAndEquals;
+    }
+
+    /**
+     * Sets the 'immutableTypes' property of this class
+     *
+     * @param immutableTypes
+     *            Whether to generate immutable types. Fields are final, no
+     *            setters are generated and each type has a nested Builder that
+     *            is used to create instances. Collections are copied into
+     *            unmodifiable collections and hashCode, when included, is
+     *            computed once and cached. Immutable types can be read by
+     *            Jackson 2.x (using the builder), Gson and Moshi. Immutable
+     *            types can't be combined with 'parcelable' or
+     *            'includeConstructors', generation fails if either is also set.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setImmutableTypes(boolean immutableTypes) {
+        this.immutableTypes = immutableTypes;
+    }
+
+    /**
+     * Sets the 'generateSerializers' property of this class
+     *
+     * @param generateSerializers
+     *            Whether to generate a serializer and deserializer for each
+     *            type that reads and writes its fields directly, so that types
+     *            can be read and written without reflection. With Jackson 2.x,
+     *            each type gets a nested Jackson2Serializer and
+     *            Jackson2Deserializer, and a Jackson2Module that registers them
+     *            is generated in the target package. With Gson, each type gets
+     *            a nested GsonTypeAdapter, and a GsonTypeAdapterFactory that
+     *            creates them is generated in the target package. With Moshi,
+     *            each type gets a nested MoshiJsonAdapter, and a
+     *            MoshiJsonAdapterFactory that creates them is generated in the
+     *            target package. Additional properties are then supported with
+     *            Gson and Moshi too. Types that use polymorphic
+     *            deserialization, custom formats or views are still handled by
+     *            reflection. When generating incrementally, every source is
+     *            generated again on each run so that the module or factory
+     *            registers all types.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setGenerateSerializers(boolean generateSerializers) {
+        this.generateSerializers = generateSerializers;
+    }
+
+    /**
+     * Sets the 'lazyAdditionalProperties' property of this class
+     *
+     * @param lazyAdditionalProperties
+     *            Whether to leave the additionalProperties map of each type
+     *            null until the first additional property is set. The getter
+     *            returns an empty map until then, and the map that is allocated
+     *            is an insertion-ordered map sized for a few properties. Only
+     *            useful when additional properties are included.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setLazyAdditionalProperties(boolean lazyAdditionalProperties) {
+        this.lazyAdditionalProperties = lazyAdditionalProperties;
+    }
+
+    /**
+     * Sets the 'generateValidators' property of this class
+     *
+     * @param generateValidators
+     *            Whether to generate a validate method for each type that
+     *            checks its values against the required, pattern, minLength,
+     *            maxLength, minimum, maximum, minItems and maxItems constraints
+     *            of the schema, and validates nested generated types.
+     *            Violations are reported as a list of descriptions, without
+     *            reflection or a Bean Validation provider. Patterns are
+     *            compiled once, into static constants.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setGenerateValidators(boolean generateValidators) {
+        this.generateValidators = generateValidators;
+    }
+
+    /**
+     * Sets the 'outputType' property of this class
+     *
+     * @param outputType
+     *            The type of output written to the target directory. Supported
+     *            values: SOURCES (Java source files), CLASSES (class files,
+     *            compiled in-process by the system Java compiler) or JAR (a
+     *            single jar of class files, named jsonschema2pojo.jar).
+     *            Compiling requires a JDK, and the generated types are compiled
+     *            against the classpath of the current thread (for the Maven
+     *            plugin, the project classpath).
+     *            <p>
+     *            Default: <code>SOURCES</code>.
+     */
+    public void setOutputType(OutputType outputType) {
+        this.outputType = outputType;
+    }
+
+    /**
+     * Sets the 'externalizable' property of this class
+     *
+     * @param externalizable
+     *            Whether serializable types should implement Externalizable,
+     *            writing their fields in declaration order in a compact binary
+     *            form rather than relying on default Java serialization. Only
+     *            applies when serializable is enabled, and can't be combined
+     *            with immutableTypes.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setExternalizable(boolean externalizable) {
+        this.externalizable = externalizable;
+    }
+
+    /**
+     * Sets the 'usePrimitiveArrays' property of this class
+     *
+     * @param usePrimitiveArrays
+     *            Whether array properties whose items are integers, numbers or
+     *            booleans (and which do not require uniqueItems) should be
+     *            generated as primitive arrays, e.g. <code>int[]</code>,
+     *            <code>long[]</code> or <code>double[]</code>, rather than
+     *            lists of boxed values.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setUsePrimitiveArrays(boolean usePrimitiveArrays) {
+        this.usePrimitiveArrays = usePrimitiveArrays;
+    }
+
+    /**
+     * Sets the 'trackPresence' property of this class
+     *
+     * @param trackPresence
+     *            Whether to track which properties have been set, so that
+     *            properties can use primitive types and still tell a value that
+     *            is absent from one that has been set to the default. Each
+     *            primitive property gets a bit in a presence bitmask, along
+     *            with <code>hasX()</code> and <code>clearX()</code> methods,
+     *            and generated serializers skip properties that aren't set.
+     *            Requires generateSerializers with Jackson 2.x, Gson or Moshi,
+     *            since a serializer that reflects over fields would write
+     *            unset properties; a type that can't be given a generated
+     *            serializer fails generation. Implies primitive property
+     *            types. Has no effect on immutable types, or when accessors
+     *            are not included.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setTrackPresence(boolean trackPresence) {
+        this.trackPresence = trackPresence;
+    }
+
+    /**
+     * Sets the 'generateReset' property of this class
+     *
+     * @param generateReset
+     *            Whether to generate a <code>reset()</code> method for each
+     *            type, which returns an instance to its schema defaults so that
+     *            it can be reused (for instance from a pool), clearing and
+     *            refilling the collections it already holds rather than
+     *            allocating new ones. Generated serializers (see
+     *            generateSerializers) also get a method that populates an
+     *            existing instance. Can't be combined with immutableTypes.
+     *            <p>
+     *            Default: <code>false</code>.
+     */
+    public void setGenerateReset(boolean generateReset) {
+        this.generateReset = generateReset;
+    }
+
     @Override
     public boolean isGenerateBuilders() {
         return generateBuilders;
@@ -938,4 +1325,104 @@ public class Jsonschema2PojoTask extends Task implements GenerationConfig {
         return formatDateTimes;
     }
 
+    @Override
+    public int getGenerationThreads() {
+        return generationThreads;
+    }
+
+    @Override
+    public boolean isIncrementalGeneration() {
+        return incrementalGeneration;
+    }
+
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return writeOnlyChangedFiles;
+    }
+
+    @Override
+    public File getContentCacheDirectory() {
+        return contentCacheDirectory;
+    }
+
+    @Override
+    public long getContentCacheMaxSize() {
+        return contentCacheMaxSize;
+    }
+
+    @Override
+    public File getHttpCacheDirectory() {
+        return httpCacheDirectory;
+    }
+
+    @Override
+    public boolean isHttpOffline() {
+        return httpOffline;
+    }
+
+    @Override
+    public int getHttpTimeout() {
+        return httpTimeout;
+    }
+
+    @Override
+    public boolean isMergeExamples() {
+        return mergeExamples;
+    }
+
+    @Override
+    public boolean isReflectionFreeToString() {
+        return reflectionFreeToString;
+    }
+
+    @Override
+    public boolean isAllocationFreeHashcodeAndEquals() {
+        return allocationFreeHashcodeAndEquals;
+    }
+
+    @Override
+    public boolean isImmutableTypes() {
+        return immutableTypes;
+    }
+
+    @Override
+    public boolean isGenerateSerializers() {
+        return generateSerializers;
+    }
+
+    @Override
+    public boolean isLazyAdditionalProperties() {
+        return lazyAdditionalProperties;
+    }
+
+    @Override
+    public boolean isGenerateValidators() {
+        return generateValidators;
+    }
+
+    @Override
+    public OutputType getOutputType() {
+        return outputType;
+    }
+
+    @Override
+    public boolean isExternalizable() {
+        return externalizable;
+    }
+
+    @Override
+    public boolean isUsePrimitiveArrays() {
+        return usePrimitiveArrays;
+    }
+
+    @Override
+    public boolean isTrackPresence() {
+        return trackPresence;
+    }
+
+    @Override
+    public boolean isGenerateReset() {
+        return generateReset;
+    }
+
 }
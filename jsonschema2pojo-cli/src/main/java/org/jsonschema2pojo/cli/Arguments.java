@@ -30,6 +30,7 @@ import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.GenerationConfig;
 import org.jsonschema2pojo.InclusionLevel;
 import org.jsonschema2pojo.NoopAnnotator;
+import org.jsonschema2pojo.OutputType;
 import org.jsonschema2pojo.SourceType;
 import org.jsonschema2pojo.rules.RuleFactory;
 
@@ -169,6 +170,66 @@ public class Arguments implements GenerationConfig {
     @Parameter(names = { "-fdt", "--format-date-times" }, description = "Whether the fields of type `date-time` have the `@JsonFormat` annotation with pattern set to the default value of `yyyy-MM-dd'T'HH:mm:ss.SSS` and timezone set to default value of `UTC`")
     private boolean formatDateTimes = false;
     
+    @Parameter(names = { "-gt", "--generation-threads" }, description = "The number of threads used to read and parse schema documents before types are generated. Output is the same as a single threaded run.")
+    private int generationThreads = 1;
+
+    @Parameter(names = { "-ig", "--incremental-generation" }, description = "Whether to generate types only for sources whose content, or the content of the documents they reference, has changed since the last run. A manifest of each source's documents and generated classes is kept in the target directory, and output that is no longer generated is deleted.")
+    private boolean incrementalGeneration = false;
+
+    @Parameter(names = { "-wc", "--write-only-changed-files" }, description = "Whether to leave existing output files untouched when their content is unchanged. Each file is rendered in memory and compared with the existing file, so the modification time of unchanged files is preserved and downstream compilation can be skipped. With --remove-old-output, files that are not part of the new output are deleted after generation instead of emptying the target directory first.")
+    private boolean writeOnlyChangedFiles = false;
+
+    @Parameter(names = { "-cd", "--content-cache-directory" }, description = "The directory used to cache the parsed content of schema files. Content is stored in a binary (Smile) form keyed by the file URI, size and modification time, so that later builds can load it without parsing the JSON text again. The cache may be shared by many builds.")
+    private File contentCacheDirectory;
+
+    @Parameter(names = { "-cm", "--content-cache-max-size" }, description = "The maximum size, in bytes, of the content cache directory (see --content-cache-directory). When the cache grows beyond this size, the least recently used entries are removed.")
+    private long contentCacheMaxSize = 52428800L;
+
+    @Parameter(names = { "-hc", "--http-cache-directory" }, description = "The directory used to cache schemas read over http/https. Cached responses are revalidated using conditional requests (ETag/If-Modified-Since), so unchanged schemas are not transferred again.")
+    private File httpCacheDirectory;
+
+    @Parameter(names = { "-ho", "--http-offline" }, description = "Whether schemas referenced using http/https should only be read from the HTTP cache (see --http-cache-directory), without making any requests.")
+    private boolean httpOffline = false;
+
+    @Parameter(names = { "-ht", "--http-timeout" }, description = "The connect and read timeout, in milliseconds, used when reading schemas over http/https. Requests that fail (or receive a server error) are retried twice before generation fails.")
+    private int httpTimeout = 30000;
+
+    @Parameter(names = { "-me", "--merge-examples" }, description = "Whether to merge every JSON example found in a source directory into one type, named after the directory, rather than generating a type for each example. Only applies when the source type is json. Examples are read in parallel when --generation-threads is greater than one, and the generated type does not depend on the order in which the examples are read.")
+    private boolean mergeExamples = false;
+
+    @Parameter(names = { "-rt", "--reflection-free-to-string" }, description = "Whether generated toString methods should append each field to a StringBuilder directly, rather than calling ToStringBuilder.reflectionToString. The output has the same format. Only applies when toString is included (see --omit-tostring).")
+    private boolean reflectionFreeToString = false;
+
+    @Parameter(names = { "-ae", "--allocation-free-hashcode-equals" }, description = "Whether generated hashCode and equals methods should compare and combine each field directly, rather than creating a HashCodeBuilder or EqualsBuilder. Primitive fields are not boxed, equals returns on the first field that differs, and super.hashCode and super.equals are still used for types that extend another type. Only applies when hashCode and equals are included (see --omit-hashcode-and-equals).")
+    private boolean allocationFreeHashcodeAndEquals = false;
+
+    @Parameter(names = { "-im", "--immutable-types" }, description = "Whether to generate immutable types. Fields are final, no setters are generated and each type has a nested Builder that is used to create instances. Collections are copied into unmodifiable collections and hashCode, when included, is computed once and cached. Immutable types can be read by Jackson 2.x (using the builder), Gson and Moshi. Immutable types can't be combined with --parcelable or --generate-constructors, generation fails if either is also set.")
+    private boolean immutableTypes = false;
+
+    @Parameter(names = { "-gs", "--generate-serializers" }, description = "Whether to generate a serializer and deserializer for each type that reads and writes its fields directly, so that types can be read and written without reflection. With Jackson 2.x, each type gets a nested Jackson2Serializer and Jackson2Deserializer, and a Jackson2Module that registers them is generated in the target package. With Gson, each type gets a nested GsonTypeAdapter, and a GsonTypeAdapterFactory that creates them is generated in the target package. With Moshi, each type gets a nested MoshiJsonAdapter, and a MoshiJsonAdapterFactory that creates them is generated in the target package. Additional properties are then supported with Gson and Moshi too. Types that use polymorphic deserialization, custom formats or views are still handled by reflection. When generating incrementally, every source is generated again on each run so that the module or factory registers all types.")
+    private boolean generateSerializers = false;
+
+    @Parameter(names = { "-la", "--lazy-additional-properties" }, description = "Whether to leave the additionalProperties map of each type null until the first additional property is set. The getter returns an empty map until then, and the map that is allocated is an insertion-ordered map sized for a few properties. Only useful when additional properties are included.")
+    private boolean lazyAdditionalProperties = false;
+
+    @Parameter(names = { "-gv", "--generate-validators" }, description = "Whether to generate a validate method for each type that checks its values against the required, pattern, minLength, maxLength, minimum, maximum, minItems and maxItems constraints of the schema, and validates nested generated types. Violations are reported as a list of descriptions, without reflection or a Bean Validation provider. Patterns are compiled once, into static constants.")
+    private boolean generateValidators = false;
+
+    @Parameter(names = { "-ot", "--output-type" }, description = "The type of output written to the target directory. Supported values: SOURCES (Java source files), CLASSES (class files, compiled in-process by the system Java compiler) or JAR (a single jar of class files, named jsonschema2pojo.jar). Compiling requires a JDK, and the generated types are compiled against the classpath of the current thread (for the Maven plugin, the project classpath).")
+    private OutputType outputType = OutputType.SOURCES;
+
+    @Parameter(names = { "-ex", "--externalizable" }, description = "Whether serializable types should implement Externalizable, writing their fields in declaration order in a compact binary form rather than relying on default Java serialization. Only applies when serializable is enabled, and can't be combined with immutableTypes.")
+    private boolean externalizable = false;
+
+    @Parameter(names = { "-pa", "--use-primitive-arrays" }, description = "Whether array properties whose items are integers, numbers or booleans (and which do not require uniqueItems) should be generated as primitive arrays, e.g. <code>int[]</code>, <code>long[]</code> or <code>double[]</code>, rather than lists of boxed values.")
+    private boolean usePrimitiveArrays = false;
+
+    @Parameter(names = { "-tp", "--track-presence" }, description = "Whether to track which properties have been set, so that properties can use primitive types and still tell a value that is absent from one that has been set to the default. Each primitive property gets a bit in a presence bitmask, along with <code>hasX()</code> and <code>clearX()</code> methods, and generated serializers skip properties that aren't set. Requires generateSerializers with Jackson 2.x, Gson or Moshi, since a serializer that reflects over fields would write unset properties; a type that can't be given a generated serializer fails generation. Implies primitive property types. Has no effect on immutable types, or when accessors are not included.")
+    private boolean trackPresence = false;
+
+    @Parameter(names = { "-rs", "--generate-reset" }, description = "Whether to generate a <code>reset()</code> method for each type, which returns an instance to its schema defaults so that it can be reused (for instance from a pool), clearing and refilling the collections it already holds rather than allocating new ones. Generated serializers (see generateSerializers) also get a method that populates an existing instance. Can't be combined with immutableTypes.")
+    private boolean generateReset = false;
+
     private static final int EXIT_OKAY = 0;
     private static final int EXIT_ERROR = 1;
 
@@ -418,4 +479,104 @@ public class Arguments implements GenerationConfig {
         return formatDateTimes;
     }
 
+    @Override
+    public int getGenerationThreads() {
+        return generationThreads;
+    }
+
+    @Override
+    public boolean isIncrementalGeneration() {
+        return incrementalGeneration;
+    }
+
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return writeOnlyChangedFiles;
+    }
+
+    @Override
+    public File getContentCacheDirectory() {
+        return contentCacheDirectory;
+    }
+
+    @Override
+    public long getContentCacheMaxSize() {
+        return contentCacheMaxSize;
+    }
+
+    @Override
+    public File getHttpCacheDirectory() {
+        return httpCacheDirectory;
+    }
+
+    @Override
+    public boolean isHttpOffline() {
+        return httpOffline;
+    }
+
+    @Override
+    public int getHttpTimeout() {
+        return httpTimeout;
+    }
+
+    @Override
+    public boolean isMergeExamples() {
+        return mergeExamples;
+    }
+
+    @Override
+    public boolean isReflectionFreeToString() {
+        return reflectionFreeToString;
+    }
+
+    @Override
+    public boolean isAllocationFreeHashcodeAndEquals() {
+        return allocationFreeHashcodeAndEquals;
+    }
+
+    @Override
+    public boolean isImmutableTypes() {
+        return immutableTypes;
+    }
+
+    @Override
+    public boolean isGenerateSerializers() {
+        return generateSerializers;
+    }
+
+    @Override
+    public boolean isLazyAdditionalProperties() {
+        return lazyAdditionalProperties;
+    }
+
+    @Override
+    public boolean isGenerateValidators() {
+        return generateValidators;
+    }
+
+    @Override
+    public OutputType getOutputType() {
+        return outputType;
+    }
+
+    @Override
+    public boolean isExternalizable() {
+        return externalizable;
+    }
+
+    @Override
+    public boolean isUsePrimitiveArrays() {
+        return usePrimitiveArrays;
+    }
+
+    @Override
+    public boolean isTrackPresence() {
+        return trackPresence;
+    }
+
+    @Override
+    public boolean isGenerateReset() {
+        return generateReset;
+    }
+
 }
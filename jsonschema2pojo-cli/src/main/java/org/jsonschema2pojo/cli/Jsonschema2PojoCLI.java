@@ -18,6 +18,7 @@ package org.jsonschema2pojo.cli;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import org.jsonschema2pojo.GenerationResult;
 import org.jsonschema2pojo.Jsonschema2Pojo;
 
 /**
@@ -45,7 +46,11 @@ public final class Jsonschema2PojoCLI {
 
         Arguments arguments = new Arguments().parse(args);
 
-        Jsonschema2Pojo.generate(arguments);
+        GenerationResult result = Jsonschema2Pojo.generateWithResult(arguments);
+
+        if (arguments.isWriteOnlyChangedFiles()) {
+            System.out.println(result);
+        }
     }
 
 
@@ -29,6 +29,10 @@ import com.sun.codemodel.JMethod;
  * Annotators that need the generation configuration should add a constructor
  * with {@link GenerationConfig} arg. Annotators that don't need the
  * configuration need only add a default constructor.
+ * <p>
+ * Custom annotators that need to annotate immutable types (see
+ * {@link #immutableType(JDefinedClass, JDefinedClass)}) must extend this
+ * class.
  */
 public abstract class AbstractAnnotator implements Annotator {
 
@@ -99,4 +103,21 @@ public abstract class AbstractAnnotator implements Annotator {
     public void dateField(JFieldVar field, JsonNode node) {
     }
 
+    /**
+     * Add the necessary annotations to allow an immutable type to be created
+     * using its builder when it is deserialized.
+     * <p>
+     * This method is not part of the {@link Annotator} interface, so that
+     * existing annotators keep compiling. It is only called on annotators that
+     * extend this class; custom annotators that implement {@link Annotator}
+     * directly are not asked to annotate immutable types.
+     *
+     * @param clazz
+     *            the immutable type
+     * @param builder
+     *            the builder that creates instances of the immutable type
+     */
+    public void immutableType(JDefinedClass clazz, JDefinedClass builder) {
+    }
+
 }
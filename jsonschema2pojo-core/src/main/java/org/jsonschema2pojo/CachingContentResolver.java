@@ -0,0 +1,266 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jsonschema2pojo.util.DigestUtil;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * A content resolver that keeps the parsed content of schema files in a cache
+ * directory, so that the content can be loaded by later builds without
+ * parsing the JSON text again.
+ * <p>
+ * Content is stored in the binary Smile format. Each entry is keyed by the
+ * file URI, size and modification time, so an entry is never used once the
+ * file it was read from changes. Only <code>file:</code> URIs are cached,
+ * content found using any other protocol (and any content that is not found
+ * in the cache) is read using a delegate resolver.
+ * <p>
+ * When the total size of the cache grows beyond the given limit, the least
+ * recently used entries are removed. The cache directory may be shared by
+ * many builds (and many threads) at once.
+ */
+public class CachingContentResolver extends ContentResolver {
+
+    private static final String ENTRY_EXTENSION = ".sml";
+
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory())
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private static final FileFilter ENTRY_FILTER = new FileFilter() {
+        @Override
+        public boolean accept(File file) {
+            return file.isFile() && file.getName().endsWith(ENTRY_EXTENSION);
+        }
+    };
+
+    private final ContentResolver delegate;
+    private final File cacheDirectory;
+    private final long maxSize;
+
+    private final AtomicLong size;
+    private final AtomicInteger hitCount = new AtomicInteger();
+    private final AtomicInteger missCount = new AtomicInteger();
+
+    /**
+     * Create a resolver that caches content in the given directory.
+     *
+     * @param cacheDirectory
+     *            the directory that holds cached content, created if it
+     *            doesn't exist
+     * @param maxSize
+     *            the maximum total size (in bytes) of the cached content
+     */
+    public CachingContentResolver(File cacheDirectory, long maxSize) {
+        this(new ContentResolver(), cacheDirectory, maxSize);
+    }
+
+    /**
+     * Create a resolver that caches content in the given directory, reading
+     * content that is not cached using the given resolver.
+     *
+     * @param delegate
+     *            the resolver used to read content that is not cached
+     * @param cacheDirectory
+     *            the directory that holds cached content, created if it
+     *            doesn't exist
+     * @param maxSize
+     *            the maximum total size (in bytes) of the cached content
+     */
+    public CachingContentResolver(ContentResolver delegate, File cacheDirectory, long maxSize) {
+        if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create or access content cache directory " + cacheDirectory.getAbsolutePath());
+        }
+        this.delegate = delegate;
+        this.cacheDirectory = cacheDirectory;
+        this.maxSize = maxSize;
+        this.size = new AtomicLong(sizeOf(listEntries()));
+    }
+
+    @Override
+    public JsonNode resolve(URI uri) {
+
+        File file = toFile(uri);
+
+        if (file == null || !file.isFile()) {
+            return delegate.resolve(uri);
+        }
+
+        File entry = new File(cacheDirectory, key(uri, file) + ENTRY_EXTENSION);
+        JsonNode content = readEntry(entry);
+
+        if (content != null && entry.setLastModified(System.currentTimeMillis())) {
+            hitCount.incrementAndGet();
+            return content;
+        }
+
+        // an entry that can't be marked as recently used would break the
+        // eviction order, so it's treated as a miss and written again
+        missCount.incrementAndGet();
+        if (content == null) {
+            content = delegate.resolve(uri);
+        } else {
+            removeEntry(entry);
+        }
+        writeEntry(entry, content);
+        return content;
+    }
+
+    /**
+     * The cache only holds parsed content, so the raw content is always read
+     * using the delegate resolver.
+     */
+    @Override
+    public String digest(URI uri) {
+        return delegate.digest(uri);
+    }
+
+    /**
+     * Gets the number of documents that were loaded from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public int getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of documents that had to be read and parsed because
+     * they were not found in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public int getMissCount() {
+        return missCount.get();
+    }
+
+    private static File toFile(URI uri) {
+        if (!"file".equals(uri.getScheme())) {
+            return null;
+        }
+        try {
+            return new File(uri);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private JsonNode readEntry(File entry) {
+        if (!entry.isFile()) {
+            return null;
+        }
+        try {
+            return SMILE_MAPPER.readTree(entry);
+        } catch (IOException e) {
+            // a damaged entry is removed and replaced
+            removeEntry(entry);
+            return null;
+        }
+    }
+
+    private boolean removeEntry(File entry) {
+        long length = entry.length();
+        if (entry.delete()) {
+            size.addAndGet(-length);
+            return true;
+        }
+        return false;
+    }
+
+    private void writeEntry(File entry, JsonNode content) {
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("entry", ".tmp", cacheDirectory);
+            SMILE_MAPPER.writeValue(tempFile, content);
+
+            // replace an entry that couldn't be removed (renameTo won't
+            // overwrite on some platforms)
+            if (tempFile.renameTo(entry) || removeEntry(entry) && tempFile.renameTo(entry)) {
+                tempFile = null;
+                if (size.addAndGet(entry.length()) > maxSize) {
+                    evict();
+                }
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization, content is still returned
+        } finally {
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Remove the least recently used entries until the cache is no bigger
+     * than the maximum size.
+     */
+    private synchronized void evict() {
+        File[] entries = listEntries();
+
+        Arrays.sort(entries, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                long difference = a.lastModified() - b.lastModified();
+                return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+            }
+        });
+
+        long remaining = sizeOf(entries);
+        for (File entry : entries) {
+            if (remaining <= maxSize) {
+                break;
+            }
+            long length = entry.length();
+            if (entry.delete()) {
+                remaining -= length;
+            }
+        }
+
+        size.set(remaining);
+    }
+
+    private File[] listEntries() {
+        File[] entries = cacheDirectory.listFiles(ENTRY_FILTER);
+        return entries == null ? new File[0] : entries;
+    }
+
+    private static long sizeOf(File[] entries) {
+        long total = 0;
+        for (File entry : entries) {
+            total += entry.length();
+        }
+        return total;
+    }
+
+    private static String key(URI uri, File file) {
+        return DigestUtil.sha1Hex(uri + "\n" + file.length() + "\n" + file.lastModified());
+    }
+
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.URLUtil;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JPackage;
+
+/**
+ * Compiles the types in a code model in-process, using the system Java
+ * compiler. Sources are rendered to memory and the compiled class files are
+ * collected in memory too, so nothing but the final output touches the disk.
+ * <p>
+ * Generated types are compiled against the target directory (which may hold
+ * the class files of an earlier, incremental run) and the classpath of the
+ * current thread's context class loader (for the Maven plugin and Ant task,
+ * the project classpath).
+ */
+class CodeModelCompiler {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The modification time given to every jar entry, so that the same class
+     * files always produce the same jar.
+     */
+    private static final long JAR_ENTRY_TIME = new GregorianCalendar(1980, Calendar.FEBRUARY, 1).getTimeInMillis();
+
+    private final GenerationConfig config;
+
+    CodeModelCompiler(GenerationConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Compile every type in the given code model.
+     *
+     * @param codeModel
+     *            the code model holding the generated types
+     * @return the compiled class files and any resource files found in the
+     *         code model, keyed by their '/' separated path relative to the
+     *         target directory
+     * @throws GenerationException
+     *             if no Java compiler is available or the generated types fail
+     *             to compile
+     */
+    Map<String, byte[]> compile(JCodeModel codeModel) throws IOException {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new GenerationException("No system Java compiler was found, writing " + config.getOutputType() + " output requires a JDK");
+        }
+
+        MemoryCodeWriter sourcesWriter = new MemoryCodeWriter();
+        MemoryCodeWriter resourcesWriter = new MemoryCodeWriter();
+        codeModel.build(sourcesWriter, resourcesWriter);
+
+        List<JavaFileObject> sourceFiles = new ArrayList<JavaFileObject>();
+        for (Map.Entry<String, byte[]> source : sourcesWriter.getFiles().entrySet()) {
+            sourceFiles.add(new SourceFile(source.getKey(), new String(source.getValue(), UTF_8)));
+        }
+
+        Map<String, byte[]> output = new TreeMap<String, byte[]>(resourcesWriter.getFiles());
+        if (sourceFiles.isEmpty()) {
+            return output;
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        ClassFileManager fileManager = new ClassFileManager(compiler.getStandardFileManager(diagnostics, Locale.ROOT, UTF_8));
+
+        try {
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics, getOptions(compiler), null, sourceFiles).call();
+            if (!compiled) {
+                throw new GenerationException(describeErrors(diagnostics));
+            }
+        } finally {
+            fileManager.close();
+        }
+
+        output.putAll(fileManager.getClassFiles());
+        return output;
+    }
+
+    /**
+     * Package the given files into a jar.
+     *
+     * @param files
+     *            the content of each file, keyed by its '/' separated path
+     * @return the content of the jar
+     */
+    byte[] createJar(Map<String, byte[]> files) throws IOException {
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Created-By", "jsonschema2pojo");
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        JarOutputStream jar = new JarOutputStream(content);
+        try {
+            jar.putNextEntry(createJarEntry(JarFile.MANIFEST_NAME));
+            manifest.write(jar);
+            jar.closeEntry();
+
+            for (Map.Entry<String, byte[]> file : new TreeMap<String, byte[]>(files).entrySet()) {
+                jar.putNextEntry(createJarEntry(file.getKey()));
+                jar.write(file.getValue());
+                jar.closeEntry();
+            }
+        } finally {
+            jar.close();
+        }
+
+        return content.toByteArray();
+    }
+
+    private static JarEntry createJarEntry(String name) {
+        JarEntry entry = new JarEntry(name);
+        entry.setTime(JAR_ENTRY_TIME);
+        return entry;
+    }
+
+    private List<String> getOptions(JavaCompiler compiler) {
+        List<String> options = new ArrayList<String>();
+
+        // newer compilers drop support for old versions, so an unsupported
+        // target version falls back to the compiler's own default
+        String version = StringUtils.removeStart(config.getTargetVersion(), "1.");
+        if (compiler.getSourceVersions().contains(sourceVersion(version))) {
+            options.addAll(Arrays.asList("-source", version, "-target", version));
+        }
+
+        options.addAll(Arrays.asList("-classpath", getClasspath(), "-proc:none", "-nowarn"));
+        return options;
+    }
+
+    private static SourceVersion sourceVersion(String version) {
+        try {
+            return SourceVersion.valueOf("RELEASE_" + version);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String getClasspath() {
+        Set<String> entries = new LinkedHashSet<String>();
+        entries.add(config.getTargetDirectory().getAbsolutePath());
+
+        for (ClassLoader loader = Thread.currentThread().getContextClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if (URLUtil.parseProtocol(url.toString()) == URLProtocol.FILE) {
+                        entries.add(URLUtil.getFileFromURL(url).getAbsolutePath());
+                    }
+                }
+            }
+        }
+
+        entries.addAll(Arrays.asList(StringUtils.split(System.getProperty("java.class.path", ""), File.pathSeparator)));
+        return StringUtils.join(entries, File.pathSeparator);
+    }
+
+    private static String describeErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder message = new StringBuilder("Generated types failed to compile:");
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                message.append(String.format("%n%s:%d: %s", diagnostic.getSource() == null ? "" : diagnostic.getSource().getName(), diagnostic.getLineNumber(), diagnostic.getMessage(Locale.ROOT)));
+            }
+        }
+        return message.toString();
+    }
+
+    private static URI createUri(String scheme, String path) {
+        try {
+            return new URI(scheme, null, "/" + path, null);
+        } catch (URISyntaxException e) {
+            throw new GenerationException("Unable to create a URI for generated file " + path, e);
+        }
+    }
+
+    /**
+     * Collects the files written by a code model in memory.
+     */
+    private static final class MemoryCodeWriter extends CodeWriter {
+
+        private final Map<String, ByteArrayOutputStream> files = new TreeMap<String, ByteArrayOutputStream>();
+
+        MemoryCodeWriter() {
+            this.encoding = UTF_8.name();
+        }
+
+        @Override
+        public OutputStream openBinary(JPackage pkg, String fileName) {
+            ByteArrayOutputStream file = new ByteArrayOutputStream();
+            files.put(pkg.isUnnamed() ? fileName : pkg.name().replace('.', '/') + "/" + fileName, file);
+            return file;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        Map<String, byte[]> getFiles() {
+            Map<String, byte[]> content = new TreeMap<String, byte[]>();
+            for (Map.Entry<String, ByteArrayOutputStream> file : files.entrySet()) {
+                content.put(file.getKey(), file.getValue().toByteArray());
+            }
+            return content;
+        }
+
+    }
+
+    /**
+     * A source file rendered in memory.
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String content;
+
+        SourceFile(String path, String content) {
+            super(createUri("string", path), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+
+    }
+
+    /**
+     * Keeps the class files written by the compiler in memory, rather than
+     * writing them to disk.
+     */
+    private static final class ClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, ByteArrayOutputStream> classFiles = new TreeMap<String, ByteArrayOutputStream>();
+
+        ClassFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location, String className, Kind kind, FileObject sibling) {
+            final String path = className.replace('.', '/') + kind.extension;
+
+            return new SimpleJavaFileObject(createUri("bytes", path), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream classFile = new ByteArrayOutputStream();
+                    classFiles.put(path, classFile);
+                    return classFile;
+                }
+            };
+        }
+
+        Map<String, byte[]> getClassFiles() {
+            Map<String, byte[]> content = new TreeMap<String, byte[]>();
+            for (Map.Entry<String, ByteArrayOutputStream> classFile : classFiles.entrySet()) {
+                content.put(classFile.getKey(), classFile.getValue().toByteArray());
+            }
+            return content;
+        }
+
+    }
+
+}
@@ -136,4 +136,36 @@ public class CompositeAnnotator implements Annotator {
             annotator.dateField(field, propertyNode);
         }
    }
+
+    /**
+     * Passes the immutable type to each child annotator that extends
+     * {@link AbstractAnnotator} (or is itself a composite).
+     *
+     * @see AbstractAnnotator#immutableType(JDefinedClass, JDefinedClass)
+     */
+    public void immutableType(JDefinedClass clazz, JDefinedClass builder) {
+        for (Annotator annotator : annotators) {
+            immutableType(annotator, clazz, builder);
+        }
+    }
+
+    /**
+     * Asks the given annotator to annotate an immutable type, if it supports
+     * doing so. Only annotators that extend {@link AbstractAnnotator}, and
+     * composites of them, are called.
+     *
+     * @param annotator
+     *            the annotator to call
+     * @param clazz
+     *            the immutable type
+     * @param builder
+     *            the builder that creates instances of the immutable type
+     */
+    public static void immutableType(Annotator annotator, JDefinedClass clazz, JDefinedClass builder) {
+        if (annotator instanceof AbstractAnnotator) {
+            ((AbstractAnnotator) annotator).immutableType(clazz, builder);
+        } else if (annotator instanceof CompositeAnnotator) {
+            ((CompositeAnnotator) annotator).immutableType(clazz, builder);
+        }
+    }
 }
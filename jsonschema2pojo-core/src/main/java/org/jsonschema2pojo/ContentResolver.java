@@ -26,6 +26,9 @@ import java.net.URI;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.apache.commons.io.IOUtils;
+import org.jsonschema2pojo.util.DigestUtil;
+
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -75,14 +78,75 @@ public class ContentResolver {
 
     }
 
-    private JsonNode resolveFromClasspath(URI uri) {
+    /**
+     * Create a hash of the raw content found at the given URI. The content is
+     * read as a stream and never parsed, so every byte of the document (not
+     * only its first JSON value) contributes to the hash.
+     *
+     * @param uri
+     *            the URI to read content from
+     * @return a hex encoded SHA-1 hash of the content found at the given URI
+     */
+    public String digest(URI uri) {
 
-        String path = removeStart(removeStart(uri.toString(), uri.getScheme() + ":"), "/");
-        InputStream contentAsStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+        InputStream contentAsStream = null;
 
-        if (contentAsStream == null) {
-            throw new IllegalArgumentException("Couldn't read content from the classpath, file not found: " + uri);
+        try {
+            if (CLASSPATH_SCHEMES.contains(uri.getScheme())) {
+                contentAsStream = openFromClasspath(uri);
+            } else {
+                contentAsStream = uri.toURL().openStream();
+            }
+            return DigestUtil.sha1Hex(contentAsStream);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
+        } finally {
+            IOUtils.closeQuietly(contentAsStream);
+        }
+
+    }
+
+    /**
+     * Create a hash of content that has already been read and parsed. The
+     * tree is serialized to hash it, so nothing is read again and the hash
+     * covers exactly what {@link #resolve(URI)} returned.
+     *
+     * @param content
+     *            the parsed content of a document
+     * @return a hex encoded SHA-1 hash of the given content
+     */
+    public String digest(JsonNode content) {
+        try {
+            return DigestUtil.sha1Hex(OBJECT_MAPPER.writeValueAsBytes(content));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize content to hash it", e);
+        }
+    }
+
+    /**
+     * Parse content that has already been read from the given URI.
+     *
+     * @param content
+     *            the raw content of the document
+     * @param uri
+     *            the URI the content was read from (used to report errors)
+     * @return the JSON tree found in the given content
+     */
+    protected JsonNode parse(byte[] content, URI uri) {
+        try {
+            return OBJECT_MAPPER.readTree(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error parsing document: " + uri, e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
         }
+    }
+
+    private JsonNode resolveFromClasspath(URI uri) {
+
+        InputStream contentAsStream = openFromClasspath(uri);
 
         try {
             return OBJECT_MAPPER.readTree(contentAsStream);
@@ -95,4 +159,16 @@ public class ContentResolver {
         }
     }
 
+    private InputStream openFromClasspath(URI uri) {
+
+        String path = removeStart(removeStart(uri.toString(), uri.getScheme() + ":"), "/");
+        InputStream contentAsStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+
+        if (contentAsStream == null) {
+            throw new IllegalArgumentException("Couldn't read content from the classpath, file not found: " + uri);
+        }
+
+        return contentAsStream;
+    }
+
 }
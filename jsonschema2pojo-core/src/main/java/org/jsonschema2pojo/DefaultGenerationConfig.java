@@ -332,4 +332,165 @@ public class DefaultGenerationConfig implements GenerationConfig {
    public boolean isFormatDateTimes() {
       return false;
    }
+
+    /**
+     * @return <code>1</code>
+     */
+    @Override
+    public int getGenerationThreads() {
+        return 1;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isIncrementalGeneration() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return false;
+    }
+
+    /**
+     * @return <code>null</code> (no cache)
+     */
+    @Override
+    public File getContentCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @return <code>52428800</code> (50 MiB)
+     */
+    @Override
+    public long getContentCacheMaxSize() {
+        return 52428800L;
+    }
+
+    /**
+     * @return <code>null</code> (no cache)
+     */
+    @Override
+    public File getHttpCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isHttpOffline() {
+        return false;
+    }
+
+    /**
+     * @return <code>30000</code>
+     */
+    @Override
+    public int getHttpTimeout() {
+        return 30000;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isMergeExamples() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isReflectionFreeToString() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isAllocationFreeHashcodeAndEquals() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isImmutableTypes() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isGenerateSerializers() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isLazyAdditionalProperties() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isGenerateValidators() {
+        return false;
+    }
+
+    /**
+     * @return <code>SOURCES</code>
+     */
+    @Override
+    public OutputType getOutputType() {
+        return OutputType.SOURCES;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isExternalizable() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isUsePrimitiveArrays() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isTrackPresence() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isGenerateReset() {
+        return false;
+    }
+
 }
@@ -0,0 +1,335 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * The shape of one or more JSON example values: the names of object
+ * properties, the item shapes of arrays and the kind of scalar values, but
+ * none of the values themselves.
+ * <p>
+ * Shapes are read directly from a stream of JSON tokens, and the items of an
+ * array are merged as they are read, so the memory needed depends on the
+ * variety of the examples, not their size.
+ * <p>
+ * Shapes of a single example are merged using the same rules that apply when
+ * array items are merged: object properties are merged, arrays are
+ * concatenated and any other value replaces the value before it. Merging is
+ * associative, so an example may be read in separate parts and merged later,
+ * provided that the order of the parts is kept.
+ * <p>
+ * Shapes read for merging many examples (see
+ * {@link GenerationConfig#isMergeExamples()}) are merged by widening instead,
+ * so that the result doesn't depend on the order of the examples: object
+ * properties are merged, numbers are widened (an integer merged with a
+ * decimal number is a decimal number), a null value is an identity (it is
+ * merged with any value without changing it) and values of different kinds
+ * (e.g. a string and a number, or an object and a string) give a shape of
+ * any kind, whose type is <code>Object</code>. The items of an array are
+ * all merged by the same rules. Merging is then both associative and
+ * commutative. The rules are not applied to single examples, so that the
+ * types inferred from them don't change.
+ */
+final class ExampleShape {
+
+    enum Kind {
+        OBJECT, ARRAY, SCALAR,
+        /**
+         * Values of different kinds, only found when widening
+         */
+        ANY
+    }
+
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    private final Kind kind;
+
+    /**
+     * Whether this shape was read for merging many examples, so that it is
+     * merged by widening.
+     */
+    private final boolean widening;
+
+    /**
+     * Whether this shape replaced an earlier shape of a different kind when
+     * it was merged (and must therefore replace, not be merged with, any shape
+     * that came before it). Never set when widening.
+     */
+    private boolean replacing;
+
+    // OBJECT
+    private final Map<String, ExampleShape> properties;
+
+    // ARRAY
+    private boolean hasItems;
+    private boolean firstItemIsObject;
+    /**
+     * The first item, or when widening the merged shape of every item
+     */
+    private ExampleShape firstItem;
+    private ExampleShape objectItems;
+    private boolean firstItemKnown;
+
+    // SCALAR
+    private final JsonNode example;
+
+    private ExampleShape(Kind kind, JsonNode example, boolean widening) {
+        this.kind = kind;
+        this.example = example;
+        this.widening = widening;
+        this.properties = kind == Kind.OBJECT ? new LinkedHashMap<String, ExampleShape>() : null;
+    }
+
+    /**
+     * Read the shape of every value found in the given stream, merging them
+     * (in order) into one shape. A stream of many root values (e.g. newline
+     * delimited JSON) is therefore treated like the items of an array.
+     *
+     * @param parser
+     *            a parser positioned before the first value to read
+     * @param widening
+     *            whether the shape is read for merging many examples, so that
+     *            it is merged by widening
+     * @return the merged shape of every value, or <code>null</code> if the
+     *         stream holds no values
+     * @throws IOException
+     *             if the stream can't be read or isn't valid JSON
+     */
+    static ExampleShape readAll(JsonParser parser, boolean widening) throws IOException {
+        ExampleShape shape = null;
+        while (parser.nextToken() != null) {
+            shape = merge(shape, read(parser, widening));
+        }
+        return shape;
+    }
+
+    /**
+     * Read the shape of the value at the current token of the given parser,
+     * leaving the parser at the last token of that value.
+     */
+    static ExampleShape read(JsonParser parser, boolean widening) throws IOException {
+
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                ExampleShape object = new ExampleShape(Kind.OBJECT, null, widening);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    object.properties.put(name, read(parser, widening));
+                }
+                return object;
+            case START_ARRAY:
+                ExampleShape array = new ExampleShape(Kind.ARRAY, null, widening);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.addItem(read(parser, widening));
+                }
+                return array;
+            case VALUE_STRING:
+                return scalar(NODE_FACTORY.textNode(""), widening);
+            case VALUE_NUMBER_INT:
+                return scalar(NODE_FACTORY.numberNode(0), widening);
+            case VALUE_NUMBER_FLOAT:
+                return scalar(NODE_FACTORY.numberNode(BigDecimal.ZERO), widening);
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return scalar(NODE_FACTORY.booleanNode(true), widening);
+            case VALUE_EMBEDDED_OBJECT:
+                return scalar(NODE_FACTORY.pojoNode(parser.getEmbeddedObject()), widening);
+            case VALUE_NULL:
+                return scalar(NODE_FACTORY.nullNode(), widening);
+            default:
+                throw new IOException("Unexpected token in example: " + parser.getCurrentToken());
+        }
+
+    }
+
+    private static ExampleShape scalar(JsonNode example, boolean widening) {
+        return new ExampleShape(Kind.SCALAR, example, widening);
+    }
+
+    private static ExampleShape any() {
+        return new ExampleShape(Kind.ANY, null, true);
+    }
+
+    /**
+     * Merge two shapes, where the second shape describes values that came
+     * after those described by the first (when widening, the order makes no
+     * difference to the kind of the result). Either shape may be changed and
+     * neither should be used again.
+     *
+     * @param first
+     *            the shape of the earlier values (may be <code>null</code>)
+     * @param second
+     *            the shape of the later values
+     * @return the merged shape
+     */
+    static ExampleShape merge(ExampleShape first, ExampleShape second) {
+
+        if (first == null) {
+            return second;
+        }
+
+        if (second.widening) {
+            return widen(first, second);
+        }
+
+        if (first.kind == second.kind && !second.replacing) {
+            switch (first.kind) {
+                case OBJECT:
+                    return first.mergeProperties(second);
+                case ARRAY:
+                    return first.concat(second);
+                default:
+                    second.replacing = first.replacing;
+                    return second;
+            }
+        }
+
+        second.replacing = true;
+        return second;
+
+    }
+
+    /**
+     * Merge two shapes read for merging many examples, giving a shape that
+     * describes the values of both whichever order they are given in.
+     */
+    private static ExampleShape widen(ExampleShape first, ExampleShape second) {
+
+        if (first.isNull() || second.kind == Kind.ANY) {
+            return second;
+        }
+        if (second.isNull() || first.kind == Kind.ANY) {
+            return first;
+        }
+
+        if (first.kind == second.kind) {
+            switch (first.kind) {
+                case OBJECT:
+                    return first.mergeProperties(second);
+                case ARRAY:
+                    return first.concat(second);
+                default:
+                    if (first.example.isNumber() && second.example.isNumber()) {
+                        return first.example.isIntegralNumber() ? second : first;
+                    }
+                    if (first.example.getNodeType() == second.example.getNodeType()) {
+                        return first;
+                    }
+            }
+        }
+
+        return any();
+
+    }
+
+    private boolean isNull() {
+        return kind == Kind.SCALAR && example.isNull();
+    }
+
+    private void addItem(ExampleShape item) {
+        hasItems = true;
+        if (widening) {
+            firstItem = merge(firstItem, item);
+            return;
+        }
+        if (!firstItemKnown) {
+            firstItemKnown = true;
+            firstItemIsObject = item.kind == Kind.OBJECT;
+            firstItem = firstItemIsObject ? null : item;
+        }
+        if (item.kind == Kind.OBJECT) {
+            objectItems = objectItems == null ? item : objectItems.mergeProperties(item);
+        }
+    }
+
+    private ExampleShape mergeProperties(ExampleShape other) {
+        for (Map.Entry<String, ExampleShape> property : other.properties.entrySet()) {
+            properties.put(property.getKey(), merge(properties.get(property.getKey()), property.getValue()));
+        }
+        return this;
+    }
+
+    private ExampleShape concat(ExampleShape other) {
+        if (!other.hasItems) {
+            return this;
+        }
+        if (widening) {
+            hasItems = true;
+            firstItem = merge(firstItem, other.firstItem);
+            return this;
+        }
+        if (!firstItemKnown && other.firstItemKnown) {
+            firstItemKnown = true;
+            firstItemIsObject = other.firstItemIsObject;
+            firstItem = other.firstItem;
+        }
+        hasItems = true;
+        if (other.objectItems != null) {
+            objectItems = objectItems == null ? other.objectItems : objectItems.mergeProperties(other.objectItems);
+        }
+        return this;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the properties of an object shape, in the order they were
+     *         first seen
+     */
+    Map<String, ExampleShape> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * @return the shape that describes the items of an array shape, or
+     *         <code>null</code> if every array was empty. Like the items of an
+     *         array example, this is the merged shape of every object item if
+     *         the first item is an object, otherwise the shape of the first
+     *         item (or, when widening, the merged shape of every item).
+     */
+    ExampleShape getItems() {
+        if (!hasItems) {
+            return null;
+        }
+        if (widening) {
+            return firstItem;
+        }
+        return firstItemIsObject ? objectItems : firstItem;
+    }
+
+    /**
+     * @return a value of the same type as the scalar values described by this
+     *         shape (<code>null</code> for any other kind of shape)
+     */
+    JsonNode getExample() {
+        return example;
+    }
+
+}
@@ -16,12 +16,25 @@
 
 package org.jsonschema2pojo;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
 
 import com.sun.codemodel.JPackage;
 import com.sun.codemodel.util.UnicodeEscapeWriter;
@@ -30,11 +43,127 @@ import com.sun.codemodel.util.UnicodeEscapeWriter;
  * A writer that honours the given character encoding (workaround for an issue
  * with {@link com.sun.codemodel.util.EncoderFactory#createEncoder(String)} that
  * causes the given encoding to be ignored).
+ * <p>
+ * When <code>writeOnlyChanged</code> is set, each file is rendered in memory
+ * and compared with any existing file of the same name (first by size, then by
+ * digest). Existing files with identical content are left untouched, so their
+ * modification time is preserved.
  */
 public class FileCodeWriterWithEncoding extends com.sun.codemodel.writer.FileCodeWriter {
 
+    private final File target;
+    private final boolean writeOnlyChanged;
+
+    private int writtenFileCount;
+    private int skippedFileCount;
+    private final Set<File> outputFiles = new HashSet<File>();
+
     public FileCodeWriterWithEncoding(File target, String encoding) throws IOException {
+        this(target, encoding, false);
+    }
+
+    public FileCodeWriterWithEncoding(File target, String encoding, boolean writeOnlyChanged) throws IOException {
         super(target, encoding);
+        this.target = target;
+        this.writeOnlyChanged = writeOnlyChanged;
+    }
+
+    @Override
+    public OutputStream openBinary(final JPackage pkg, final String fileName) throws IOException {
+        if (!writeOnlyChanged) {
+            writtenFileCount++;
+            outputFiles.add(getOutputFile(pkg, fileName));
+            return super.openBinary(pkg, fileName);
+        }
+
+        return new ByteArrayOutputStream() {
+            private boolean closed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    writeIfChanged(pkg, fileName, toByteArray());
+                }
+            }
+        };
+    }
+
+    private void writeIfChanged(JPackage pkg, String fileName, byte[] content) throws IOException {
+        File existing = getOutputFile(pkg, fileName);
+        outputFiles.add(existing);
+
+        if (existing.isFile() && existing.length() == content.length && Arrays.equals(digest(existing), digest(content))) {
+            skippedFileCount++;
+            return;
+        }
+
+        OutputStream out = new FileOutputStream(getFile(pkg, fileName));
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        writtenFileCount++;
+    }
+
+    private File getOutputFile(JPackage pkg, String fileName) {
+        return new File(pkg.isUnnamed() ? target : new File(target, pkg.name().replace('.', File.separatorChar)), fileName).getAbsoluteFile();
+    }
+
+    private static byte[] digest(File file) throws IOException {
+        MessageDigest digest = createDigest();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        return digest.digest();
+    }
+
+    private static byte[] digest(byte[] content) {
+        return createDigest().digest(content);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 algorithm not found when comparing generated output", e);
+        }
+    }
+
+    /**
+     * Gets the number of files this writer has created or replaced.
+     *
+     * @return the number of files written
+     */
+    public int getWrittenFileCount() {
+        return writtenFileCount;
+    }
+
+    /**
+     * Gets the number of files this writer left untouched because the
+     * existing file already had the same content.
+     *
+     * @return the number of files skipped
+     */
+    public int getSkippedFileCount() {
+        return skippedFileCount;
+    }
+
+    /**
+     * Gets the files this writer has created, replaced or left untouched
+     * because they were unchanged.
+     *
+     * @return the absolute paths of every file opened by this writer
+     */
+    public Set<File> getOutputFiles() {
+        return Collections.unmodifiableSet(outputFiles);
     }
 
     @Override
@@ -16,44 +16,111 @@
 
 package org.jsonschema2pojo;
 
-import static java.util.Arrays.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+/**
+ * Resolves fragment paths (e.g. <code>#/definitions/address</code>) against
+ * a document.
+ * <p>
+ * Paths may be resolved using an index of the document, holding every path
+ * (and every prefix of a path) that has been resolved. A path that has been
+ * seen before is found with a single lookup, and a new path is resolved from
+ * the deepest prefix that has already been seen, rather than from the
+ * document root. The resolver keeps no state of its own: the caller owns the
+ * index, so that it is freed along with the document.
+ */
 public class FragmentResolver {
 
     public JsonNode resolve(JsonNode tree, String path) {
 
-        return resolve(tree, new ArrayList<String>(asList(split(path, "#/."))));
+        return resolve(tree, path, new HashMap<String, JsonNode>());
 
     }
 
-    private JsonNode resolve(JsonNode tree, List<String> path) {
+    /**
+     * Resolve a path against a document, using (and adding to) the given index
+     * of that document.
+     *
+     * @param tree
+     *            the document
+     * @param path
+     *            the fragment path to resolve
+     * @param index
+     *            the paths already resolved in this document, must only ever
+     *            be used with this document and must be thread-safe if it is
+     *            shared between threads. Documents are expected not to change
+     *            once paths within them have been indexed.
+     * @return the node found at the given path
+     */
+    public JsonNode resolve(JsonNode tree, String path, Map<String, JsonNode> index) {
 
-        if (path.isEmpty()) {
-            return tree;
-        } else {
-            String part = path.remove(0);
-
-            if (tree.isArray()) {
-                try {
-                    int index = Integer.parseInt(part);
-                    return resolve(tree.get(index), path);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Not a valid array index: " + part);
+        JsonNode resolved = index.get(path);
+        if (resolved == null) {
+            resolved = resolve(tree, split(path, "#/."), index);
+            if (resolved != null) {
+                index.put(path, resolved);
+            }
+        }
+        return resolved;
+
+    }
+
+    private JsonNode resolve(JsonNode tree, String[] parts, Map<String, JsonNode> index) {
+
+        String[] prefixes = new String[parts.length];
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            prefixes[i] = prefix.append('/').append(parts[i]).toString();
+        }
+
+        JsonNode node = tree;
+        int start = 0;
+        for (int i = parts.length - 1; i >= 0; i--) {
+            JsonNode indexed = index.get(prefixes[i]);
+            if (indexed != null) {
+                node = indexed;
+                start = i + 1;
+                break;
+            }
+        }
+
+        for (int i = start; i < parts.length; i++) {
+            node = resolvePart(node, parts[i]);
+            if (node == null) {
+                if (i < parts.length - 1) {
+                    throw new IllegalArgumentException("Path not present: " + parts[i + 1]);
                 }
+                return null;
             }
+            index.put(prefixes[i], node);
+        }
+
+        return node;
+
+    }
 
-            if (tree.has(part)) {
-                return resolve(tree.get(part), path);
-            } else {
-                throw new IllegalArgumentException("Path not present: " + part);
+    private JsonNode resolvePart(JsonNode tree, String part) {
+
+        if (tree.isArray()) {
+            try {
+                int index = Integer.parseInt(part);
+                return tree.get(index);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a valid array index: " + part);
             }
         }
 
+        if (tree.has(part)) {
+            return tree.get(part);
+        } else {
+            throw new IllegalArgumentException("Path not present: " + part);
+        }
+
     }
+
 }
@@ -241,7 +241,9 @@ public interface GenerationConfig {
      *         previously. <strong>Be warned</strong>, when activated this
      *         option will cause jsonschema2pojo to <strong>indiscriminately
      *         delete the entire contents of the target directory (all files and
-     *         folders)</strong> before it begins generating sources.
+     *         folders)</strong> before it begins generating sources. With
+     *         'writeOnlyChangedFiles', everything but the new output is deleted
+     *         once generation is complete.
      */
     boolean isRemoveOldOutput();
 
@@ -441,4 +443,253 @@ public interface GenerationConfig {
      */
     boolean isFormatDateTimes();
 
+    /**
+     * Gets the 'generationThreads' configuration option.
+     *
+     * @return The number of threads used to read and parse schema
+     *         documents (and the documents they reference) before types are
+     *         generated. Types are always generated in the same order, so the
+     *         output does not depend on this value. A value of 1 reads each
+     *         schema on the calling thread, as it is needed.
+     */
+    int getGenerationThreads();
+
+    /**
+     * Gets the 'incrementalGeneration' configuration option.
+     *
+     * @return Whether to generate types only for sources whose content,
+     *         or the content of the documents they reference, has changed since
+     *         the last run. A manifest of the documents and generated classes
+     *         for each source is kept in the target directory. Output that is
+     *         no longer generated is deleted, and 'removeOldOutput' only
+     *         applies when every source must be generated again (e.g. because
+     *         the config has changed).
+     */
+    boolean isIncrementalGeneration();
+
+    /**
+     * Gets the 'writeOnlyChangedFiles' configuration option.
+     *
+     * @return Whether to leave existing output files untouched when
+     *         their content is unchanged. Each generated file is rendered in
+     *         memory and compared with the existing file (by size, then by
+     *         digest) and only written if different, so the modification time
+     *         of unchanged files is preserved. When combined with
+     *         'removeOldOutput', the target directory is not emptied before
+     *         generation; instead every file that isn't part of the new output
+     *         is deleted after it has been written.
+     */
+    boolean isWriteOnlyChangedFiles();
+
+    /**
+     * Gets the 'contentCacheDirectory' configuration option.
+     *
+     * @return The directory used to cache the parsed content of schema
+     *         files, or <code>null</code> if parsed content should not be
+     *         cached. The content of each file is stored in a binary (Smile)
+     *         form keyed by the file URI, size and modification time, so that
+     *         later builds can load it without parsing the JSON text again. The
+     *         cache may be shared by many builds.
+     */
+    File getContentCacheDirectory();
+
+    /**
+     * Gets the 'contentCacheMaxSize' configuration option.
+     *
+     * @return The maximum size, in bytes, of the content cache
+     *         directory. When the cache grows beyond this size, the least
+     *         recently used entries are removed.
+     */
+    long getContentCacheMaxSize();
+
+    /**
+     * Gets the 'httpCacheDirectory' configuration option.
+     *
+     * @return The directory used to cache schemas read over http/https,
+     *         or <code>null</code> if responses should not be cached. Cached
+     *         responses are revalidated using conditional requests
+     *         (ETag/If-Modified-Since), so unchanged schemas are not
+     *         transferred again.
+     */
+    File getHttpCacheDirectory();
+
+    /**
+     * Gets the 'httpOffline' configuration option.
+     *
+     * @return Whether schemas referenced using http/https should only
+     *         be read from the HTTP cache (see {@link
+     *         #getHttpCacheDirectory()}), without making any requests.
+     */
+    boolean isHttpOffline();
+
+    /**
+     * Gets the 'httpTimeout' configuration option.
+     *
+     * @return The connect and read timeout, in milliseconds, used when
+     *         reading schemas over http/https. Requests that fail (or receive a
+     *         server error) are retried twice before generation fails.
+     */
+    int getHttpTimeout();
+
+    /**
+     * Gets the 'mergeExamples' configuration option.
+     *
+     * @return Whether to merge every JSON example found in a source
+     *         directory into one type, named after the directory, rather than
+     *         generating a type for each example. Only applies when the source
+     *         type is json. Examples are read in parallel when
+     *         generationThreads is greater than one, and the generated type
+     *         does not depend on the order in which the examples are read.
+     *         When examples are merged, a property that is an integer in one
+     *         example and a decimal number in another is a decimal number, and
+     *         a null value doesn't change the type of a property.
+     */
+    boolean isMergeExamples();
+
+    /**
+     * Gets the 'reflectionFreeToString' configuration option.
+     *
+     * @return Whether generated toString methods should append each
+     *         field to a StringBuilder directly, rather than calling
+     *         ToStringBuilder.reflectionToString. The output has the same
+     *         format. Only applies when includeToString is true.
+     */
+    boolean isReflectionFreeToString();
+
+    /**
+     * Gets the 'allocationFreeHashcodeAndEquals' configuration option.
+     *
+     * @return Whether generated hashCode and equals methods should
+     *         compare and combine each field directly, rather than creating a
+     *         HashCodeBuilder or EqualsBuilder. Primitive fields are not boxed,
+     *         equals returns on the first field that differs, and
+     *         super.hashCode and super.equals are still used for types that
+     *         extend another type. Only applies when includeHashcodeAndEquals
+     *         is true.
+     */
+    boolean isAllocationFreeHashcodeAndEquals();
+
+    /**
+     * Gets the 'immutableTypes' configuration option.
+     *
+     * @return Whether to generate immutable types. Fields are final, no
+     *         setters are generated and each type has a nested Builder that is
+     *         used to create instances. Collections are copied into
+     *         unmodifiable collections and hashCode, when included, is computed
+     *         once and cached. Immutable types can be read by Jackson 2.x
+     *         (using the builder), Gson and Moshi. Immutable types can't be
+     *         combined with 'parcelable' or 'includeConstructors', generation
+     *         fails if either is also set.
+     */
+    boolean isImmutableTypes();
+
+    /**
+     * Gets the 'generateSerializers' configuration option.
+     *
+     * @return Whether to generate a serializer and deserializer for each type
+     *         that reads and writes its fields directly, so that types can be
+     *         read and written without reflection. With Jackson 2.x, each type
+     *         gets a nested Jackson2Serializer and Jackson2Deserializer, and a
+     *         Jackson2Module that registers them is generated in the target
+     *         package. With Gson, each type gets a nested GsonTypeAdapter, and
+     *         a GsonTypeAdapterFactory that creates them is generated in the
+     *         target package. With Moshi, each type gets a nested
+     *         MoshiJsonAdapter, and a MoshiJsonAdapterFactory that creates them
+     *         is generated in the target package. Additional properties are
+     *         then supported with Gson and Moshi too. Types that use
+     *         polymorphic deserialization, custom formats or views are still
+     *         handled by reflection. When generating incrementally, every
+     *         source is generated again on each run so that the module or
+     *         factory registers all types.
+     */
+    boolean isGenerateSerializers();
+
+    /**
+     * Gets the 'lazyAdditionalProperties' configuration option.
+     *
+     * @return Whether to leave the additionalProperties map of each
+     *         type null until the first additional property is set. The getter
+     *         returns an empty map until then, and the map that is allocated is
+     *         an insertion-ordered map sized for a few properties. Only useful
+     *         when additional properties are included.
+     */
+    boolean isLazyAdditionalProperties();
+
+    /**
+     * Gets the 'generateValidators' configuration option.
+     *
+     * @return Whether to generate a validate method for each type that
+     *         checks its values against the required, pattern, minLength,
+     *         maxLength, minimum, maximum, minItems and maxItems constraints of
+     *         the schema, and validates nested generated types. Violations are
+     *         reported as a list of descriptions, without reflection or a Bean
+     *         Validation provider. Patterns are compiled once, into static
+     *         constants.
+     */
+    boolean isGenerateValidators();
+
+    /**
+     * Gets the 'outputType' configuration option.
+     *
+     * @return The type of output written to the target directory:
+     *         SOURCES (Java source files), CLASSES (class files, compiled
+     *         in-process by the system Java compiler) or JAR (a single jar of
+     *         class files). Compiling requires a JDK, and the generated types
+     *         are compiled against the classpath of the current thread (for the
+     *         Maven plugin, the project classpath).
+     */
+    OutputType getOutputType();
+
+    /**
+     * Gets the 'externalizable' configuration option.
+     *
+     * @return Whether serializable types should implement
+     *         Externalizable, writing their fields in declaration order in a
+     *         compact binary form rather than relying on default Java
+     *         serialization. Only applies when serializable is enabled, and
+     *         can't be combined with {@link #isImmutableTypes()}.
+     */
+    boolean isExternalizable();
+
+    /**
+     * Gets the 'usePrimitiveArrays' configuration option.
+     *
+     * @return Whether array properties whose items are integers,
+     *         numbers or booleans (and which do not require uniqueItems) should
+     *         be generated as primitive arrays, e.g. <code>int[]</code>,
+     *         <code>long[]</code> or <code>double[]</code>, rather than lists
+     *         of boxed values.
+     */
+    boolean isUsePrimitiveArrays();
+
+    /**
+     * Gets the 'trackPresence' configuration option.
+     *
+     * @return Whether to track which properties have been set, so that
+     *         properties can use primitive types and still tell a value that is
+     *         absent from one that has been set to the default. Each primitive
+     *         property gets a bit in a presence bitmask, along with
+     *         <code>hasX()</code> and <code>clearX()</code> methods, and
+     *         generated serializers skip properties that aren't set. Requires
+     *         {@link #isGenerateSerializers()} with Jackson 2.x, Gson or Moshi,
+     *         since a serializer that reflects over fields would write unset
+     *         properties; a type that can't be given a generated serializer
+     *         fails generation. Implies primitive property types. Has no
+     *         effect on immutable types, or when accessors are not included.
+     */
+    boolean isTrackPresence();
+
+    /**
+     * Gets the 'generateReset' configuration option.
+     *
+     * @return Whether to generate a <code>reset()</code> method for
+     *         each type, which returns an instance to its schema defaults so
+     *         that it can be reused (for instance from a pool), clearing and
+     *         refilling the collections it already holds rather than allocating
+     *         new ones. The readers added by {@link #isGenerateSerializers()}
+     *         also get a method that populates an existing instance. Can't be
+     *         combined with {@link #isImmutableTypes()}.
+     */
+    boolean isGenerateReset();
+
 }
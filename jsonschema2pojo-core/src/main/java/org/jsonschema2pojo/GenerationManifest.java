@@ -0,0 +1,251 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.DigestUtil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A record of a previous generation run, kept in the target directory so that
+ * an incremental run can tell which sources need to be generated again.
+ * <p>
+ * For each source, the manifest holds the documents it references (directly
+ * or transitively via <code>$ref</code>) and the top-level classes that were
+ * generated for it. For each document, it holds a hash of the document
+ * content (the parsed schema, or the raw text of an example). A fingerprint of the generation config (and of the generator
+ * version) is also kept, since a change to the config, or an upgrade of the
+ * generator, may change every generated type.
+ */
+public class GenerationManifest {
+
+    public static final String FILE_NAME = ".jsonschema2pojo-manifest.json";
+
+    /**
+     * The version of the generated output, fingerprinted along with the
+     * implementation version of the generator (which isn't known when running
+     * from classes rather than a jar). Increase it when a change to the
+     * generator changes its output for the same config and schemas.
+     */
+    private static final int OUTPUT_VERSION = 1;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final Set<String> UNTRACKED_CONFIG = new TreeSet<String>(Arrays.asList(
+            "getSource", "getGenerationThreads", "isWriteOnlyChangedFiles",
+            "getContentCacheDirectory", "getContentCacheMaxSize",
+            "getHttpCacheDirectory", "isHttpOffline", "getHttpTimeout"));
+
+    private String configFingerprint;
+    private final Map<String, String> documentHashes = new TreeMap<String, String>();
+    private final Map<String, Set<String>> sourceDocuments = new LinkedHashMap<String, Set<String>>();
+    private final Map<String, Set<String>> sourceClasses = new LinkedHashMap<String, Set<String>>();
+
+    /**
+     * Read the manifest found in the given target directory.
+     *
+     * @param targetDirectory
+     *            the directory that output was generated to
+     * @return the manifest written by the previous run, or an empty manifest
+     *         if there is none (or it can't be read)
+     */
+    public static GenerationManifest read(File targetDirectory) {
+
+        GenerationManifest manifest = new GenerationManifest();
+        File manifestFile = new File(targetDirectory, FILE_NAME);
+
+        if (!manifestFile.isFile()) {
+            return manifest;
+        }
+
+        try {
+            JsonNode content = OBJECT_MAPPER.readTree(manifestFile);
+
+            manifest.configFingerprint = content.path("config").asText();
+
+            for (Iterator<Map.Entry<String, JsonNode>> documents = content.path("documents").fields(); documents.hasNext();) {
+                Map.Entry<String, JsonNode> document = documents.next();
+                manifest.documentHashes.put(document.getKey(), document.getValue().asText());
+            }
+
+            for (Iterator<Map.Entry<String, JsonNode>> sources = content.path("sources").fields(); sources.hasNext();) {
+                Map.Entry<String, JsonNode> source = sources.next();
+                manifest.sourceDocuments.put(source.getKey(), readStrings(source.getValue().path("documents")));
+                manifest.sourceClasses.put(source.getKey(), readStrings(source.getValue().path("classes")));
+            }
+
+            return manifest;
+        } catch (IOException e) {
+            return new GenerationManifest();
+        }
+
+    }
+
+    private static Set<String> readStrings(JsonNode array) {
+        Set<String> strings = new TreeSet<String>();
+        for (JsonNode value : array) {
+            strings.add(value.asText());
+        }
+        return strings;
+    }
+
+    /**
+     * Write this manifest to the given target directory, replacing any
+     * existing manifest.
+     *
+     * @param targetDirectory
+     *            the directory that output was generated to
+     * @throws IOException
+     *             if the manifest can't be written
+     */
+    public void write(File targetDirectory) throws IOException {
+
+        ObjectNode content = OBJECT_MAPPER.createObjectNode();
+        content.put("config", configFingerprint);
+
+        ObjectNode documents = content.putObject("documents");
+        for (Map.Entry<String, String> documentHash : documentHashes.entrySet()) {
+            documents.put(documentHash.getKey(), documentHash.getValue());
+        }
+
+        ObjectNode sources = content.putObject("sources");
+        for (String source : sourceDocuments.keySet()) {
+            ObjectNode sourceNode = sources.putObject(source);
+            writeStrings(sourceNode.putArray("documents"), sourceDocuments.get(source));
+            writeStrings(sourceNode.putArray("classes"), getClasses(source));
+        }
+
+        OBJECT_MAPPER.writeValue(new File(targetDirectory, FILE_NAME), content);
+
+    }
+
+    private static void writeStrings(ArrayNode array, Set<String> strings) {
+        for (String string : strings) {
+            array.add(string);
+        }
+    }
+
+    public String getConfigFingerprint() {
+        return configFingerprint;
+    }
+
+    public void setConfigFingerprint(String configFingerprint) {
+        this.configFingerprint = configFingerprint;
+    }
+
+    public Set<String> getSources() {
+        return Collections.unmodifiableSet(sourceDocuments.keySet());
+    }
+
+    public Set<String> getDocuments(String source) {
+        return sourceDocuments.containsKey(source) ? sourceDocuments.get(source) : Collections.<String> emptySet();
+    }
+
+    public Set<String> getClasses(String source) {
+        return sourceClasses.containsKey(source) ? sourceClasses.get(source) : Collections.<String> emptySet();
+    }
+
+    public String getDocumentHash(String document) {
+        return documentHashes.get(document);
+    }
+
+    /**
+     * Record the documents that a source references and the classes that
+     * were generated for it.
+     */
+    public void putSource(String source, Set<String> documents, Set<String> classes) {
+        sourceDocuments.put(source, new TreeSet<String>(documents));
+        sourceClasses.put(source, new TreeSet<String>(classes));
+    }
+
+    public void putDocumentHash(String document, String hash) {
+        documentHashes.put(document, hash);
+    }
+
+    /**
+     * Create a fingerprint of every config option that can influence the
+     * generated types, along with the version of the generator, so that an
+     * upgrade of the generator forces every type to be generated again.
+     *
+     * @param config
+     *            the generation config
+     * @return a hex encoded SHA-1 hash of the config option values
+     */
+    public static String fingerprint(GenerationConfig config) {
+
+        Map<String, String> values = new TreeMap<String, String>();
+
+        for (Method method : GenerationConfig.class.getMethods()) {
+            if (method.getParameterTypes().length > 0 || UNTRACKED_CONFIG.contains(method.getName())) {
+                continue;
+            }
+            try {
+                values.put(method.getName(), describe(method.invoke(config)));
+            } catch (IllegalAccessException e) {
+                throw new GenerationException("Unable to read config option " + method.getName(), e);
+            } catch (InvocationTargetException e) {
+                throw new GenerationException("Unable to read config option " + method.getName(), e.getCause());
+            }
+        }
+
+        values.put("generatorVersion", String.valueOf(Jsonschema2Pojo.class.getPackage().getImplementationVersion()));
+        values.put("outputVersion", String.valueOf(OUTPUT_VERSION));
+
+        return hash(values.toString());
+    }
+
+    private static String describe(Object value) {
+        if (value instanceof Class) {
+            return ((Class<?>) value).getName();
+        }
+        if (value instanceof FileFilter) {
+            return value.getClass().getName();
+        }
+        if (value instanceof File) {
+            return ((File) value).getAbsolutePath();
+        }
+        if (value != null && value.getClass().isArray()) {
+            return ArrayUtils.toString(value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String hash(String value) {
+        return DigestUtil.sha1Hex(value);
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+/**
+ * A summary of the output of a generation run.
+ */
+public class GenerationResult {
+
+    private int writtenFileCount;
+    private int skippedFileCount;
+    private int contentCacheHitCount;
+    private int contentCacheMissCount;
+
+    /**
+     * Gets the number of files written to the target directory.
+     *
+     * @return the number of files that were created or replaced
+     */
+    public int getWrittenFileCount() {
+        return writtenFileCount;
+    }
+
+    /**
+     * Gets the number of files left untouched because their content was
+     * unchanged (see {@link GenerationConfig#isWriteOnlyChangedFiles()}).
+     *
+     * @return the number of files that were not written
+     */
+    public int getSkippedFileCount() {
+        return skippedFileCount;
+    }
+
+    /**
+     * Gets the number of schema documents loaded from the content cache (see
+     * {@link GenerationConfig#getContentCacheDirectory()}).
+     *
+     * @return the number of content cache hits
+     */
+    public int getContentCacheHitCount() {
+        return contentCacheHitCount;
+    }
+
+    /**
+     * Gets the number of schema documents that had to be parsed because they
+     * were not found in the content cache.
+     *
+     * @return the number of content cache misses
+     */
+    public int getContentCacheMissCount() {
+        return contentCacheMissCount;
+    }
+
+    void addWrittenFiles(int count) {
+        writtenFileCount += count;
+    }
+
+    void addSkippedFiles(int count) {
+        skippedFileCount += count;
+    }
+
+    void addContentCacheUsage(int hitCount, int missCount) {
+        contentCacheHitCount += hitCount;
+        contentCacheMissCount += missCount;
+    }
+
+    @Override
+    public String toString() {
+        String summary = writtenFileCount + " file(s) written, " + skippedFileCount + " unchanged file(s) skipped";
+        if (contentCacheHitCount + contentCacheMissCount > 0) {
+            summary += ", " + contentCacheHitCount + " content cache hit(s), " + contentCacheMissCount + " miss(es)";
+        }
+        return summary;
+    }
+
+}
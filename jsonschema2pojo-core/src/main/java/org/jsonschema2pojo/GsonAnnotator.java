@@ -54,9 +54,14 @@ public class GsonAnnotator extends AbstractAnnotator {
         constant.annotate(SerializedName.class).param("value", value);
     }
 
+    /**
+     * Gson has no equivalent of an 'any setter', so additional properties are
+     * only supported when they are read and written by generated type
+     * adapters (see {@link GenerationConfig#isGenerateSerializers()}).
+     */
     @Override
     public boolean isAdditionalPropertiesSupported() {
-        return false;
+        return getGenerationConfig().isGenerateSerializers();
     }
 
 }
@@ -0,0 +1,288 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static java.util.Arrays.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.jsonschema2pojo.util.DigestUtil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A content resolver that reads http/https content with timeouts, retries and
+ * (optionally) a local cache of responses.
+ * <p>
+ * When a cache directory is given, every response is stored along with its
+ * <code>ETag</code> and <code>Last-Modified</code> headers. Later requests
+ * for the same URI are made conditional (<code>If-None-Match</code>,
+ * <code>If-Modified-Since</code>) so that unchanged content isn't transferred
+ * again. In offline mode no requests are made at all, content is only served
+ * from the cache.
+ * <p>
+ * Responses are always read in full and closed, so that connections to the
+ * same server are kept alive and reused. Content found using any other
+ * protocol is read using a delegate resolver.
+ */
+public class HttpContentResolver extends ContentResolver {
+
+    private static final Set<String> HTTP_SCHEMES = new HashSet<String>(asList("http", "https"));
+
+    private static final int RETRIES = 2;
+    private static final long RETRY_DELAY = 100L;
+
+    private final ContentResolver delegate;
+    private final File cacheDirectory;
+    private final boolean offline;
+    private final int timeout;
+
+    /**
+     * Create a resolver for http/https content.
+     *
+     * @param cacheDirectory
+     *            the directory used to cache responses (created if it doesn't
+     *            exist), or <code>null</code> if responses should not be cached
+     * @param offline
+     *            whether content should only be served from the cache
+     * @param timeout
+     *            the connect and read timeout, in milliseconds (zero means
+     *            no timeout)
+     */
+    public HttpContentResolver(File cacheDirectory, boolean offline, int timeout) {
+        this(new ContentResolver(), cacheDirectory, offline, timeout);
+    }
+
+    /**
+     * Create a resolver for http/https content, reading content found using
+     * any other protocol with the given resolver.
+     *
+     * @param delegate
+     *            the resolver used to read content that isn't http/https
+     * @param cacheDirectory
+     *            the directory used to cache responses (created if it doesn't
+     *            exist), or <code>null</code> if responses should not be cached
+     * @param offline
+     *            whether content should only be served from the cache
+     * @param timeout
+     *            the connect and read timeout, in milliseconds (zero means
+     *            no timeout)
+     */
+    public HttpContentResolver(ContentResolver delegate, File cacheDirectory, boolean offline, int timeout) {
+        if (offline && cacheDirectory == null) {
+            throw new IllegalArgumentException("Offline mode requires an HTTP cache directory");
+        }
+        if (cacheDirectory != null && !cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create or access HTTP cache directory " + cacheDirectory.getAbsolutePath());
+        }
+        this.delegate = delegate;
+        this.cacheDirectory = cacheDirectory;
+        this.offline = offline;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public JsonNode resolve(URI uri) {
+
+        if (!HTTP_SCHEMES.contains(uri.getScheme())) {
+            return delegate.resolve(uri);
+        }
+
+        return parse(read(uri), uri);
+    }
+
+    @Override
+    public String digest(URI uri) {
+
+        if (!HTTP_SCHEMES.contains(uri.getScheme())) {
+            return delegate.digest(uri);
+        }
+
+        try {
+            return DigestUtil.sha1Hex(new ByteArrayInputStream(read(uri)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
+        }
+    }
+
+    private byte[] read(URI uri) {
+
+        CachedResponse cached = readCachedResponse(uri);
+
+        if (offline) {
+            if (cached == null) {
+                throw new IllegalArgumentException("Offline mode is enabled and there is no cached copy of: " + uri);
+            }
+            return cached.content;
+        }
+
+        IOException failure = null;
+
+        for (int attempt = 0; attempt <= RETRIES; attempt++) {
+            if (attempt > 0) {
+                pause(attempt * RETRY_DELAY, uri);
+            }
+            try {
+                return fetch(uri, cached);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, failure);
+    }
+
+    private byte[] fetch(URI uri, CachedResponse cached) throws IOException {
+
+        HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setRequestProperty("Accept", "application/schema+json, application/json, */*");
+
+        if (cached != null) {
+            if (cached.etag != null) {
+                connection.setRequestProperty("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        int status = connection.getResponseCode();
+
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            read(connection.getInputStream());
+            return cached.content;
+        }
+
+        if (status == HttpURLConnection.HTTP_OK) {
+            byte[] content = read(connection.getInputStream());
+            writeCachedResponse(uri, new CachedResponse(connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"), content));
+            return content;
+        }
+
+        read(connection.getErrorStream());
+
+        if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+            throw new IOException("Server responded with status " + status + " for: " + uri);
+        }
+        throw new IllegalArgumentException("Unable to read " + uri + ", server responded with status " + status);
+    }
+
+    private static byte[] read(InputStream stream) throws IOException {
+        if (stream == null) {
+            return new byte[0];
+        }
+        try {
+            return IOUtils.toByteArray(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static void pause(long millis, URI uri) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException("Interrupted while reading " + uri, e);
+        }
+    }
+
+    private File getCacheFile(URI uri) {
+        return new File(cacheDirectory, DigestUtil.sha1Hex(uri.toString()) + ".http");
+    }
+
+    private CachedResponse readCachedResponse(URI uri) {
+        if (cacheDirectory == null || !getCacheFile(uri).isFile()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(getCacheFile(uri)));
+            String etag = in.readUTF();
+            String lastModified = in.readUTF();
+            byte[] content = new byte[in.readInt()];
+            in.readFully(content);
+            return new CachedResponse(etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, content);
+        } catch (IOException e) {
+            // a damaged response is ignored and replaced by the next fetch
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private void writeCachedResponse(URI uri, CachedResponse response) {
+        if (cacheDirectory == null) {
+            return;
+        }
+
+        File tempFile = null;
+        DataOutputStream out = null;
+        try {
+            tempFile = File.createTempFile("response", ".tmp", cacheDirectory);
+            out = new DataOutputStream(new FileOutputStream(tempFile));
+            out.writeUTF(response.etag == null ? "" : response.etag);
+            out.writeUTF(response.lastModified == null ? "" : response.lastModified);
+            out.writeInt(response.content.length);
+            out.write(response.content);
+            out.close();
+
+            // replace an older response (renameTo won't overwrite on some platforms)
+            File cacheFile = getCacheFile(uri);
+            if (tempFile.renameTo(cacheFile) || cacheFile.delete() && tempFile.renameTo(cacheFile)) {
+                tempFile = null;
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization, content is still returned
+        } finally {
+            IOUtils.closeQuietly(out);
+            if (tempFile != null && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private static final class CachedResponse {
+
+        private final String etag;
+        private final String lastModified;
+        private final byte[] content;
+
+        CachedResponse(String etag, String lastModified, byte[] content) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.content = content;
+        }
+
+    }
+
+}
@@ -33,6 +33,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import com.sun.codemodel.JAnnotationArrayMember;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JEnumConstant;
@@ -152,6 +153,12 @@ public class Jackson2Annotator extends AbstractAnnotator {
         field.annotate(JsonIgnore.class);
     }
 
+    @Override
+    public void immutableType(JDefinedClass clazz, JDefinedClass builder) {
+        clazz.annotate(JsonDeserialize.class).param("builder", builder);
+        builder.annotate(JsonPOJOBuilder.class).param("withPrefix", "with");
+    }
+
     @Override
     public void dateField(JFieldVar field, JsonNode node) {
         boolean formatDateTime = getGenerationConfig().isFormatDateTimes();
@@ -20,14 +20,24 @@ import static org.apache.commons.lang3.StringUtils.*;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.io.FilenameUtils;
 import org.jsonschema2pojo.exception.GenerationException;
@@ -35,10 +45,18 @@ import org.jsonschema2pojo.rules.RuleFactory;
 import org.jsonschema2pojo.util.NameHelper;
 import org.jsonschema2pojo.util.URLUtil;
 
-import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JPackage;
 
 public class Jsonschema2Pojo {
+
+    /**
+     * The name of the jar written to the target directory when the output
+     * type is {@link OutputType#JAR}.
+     */
+    public static final String JAR_FILE_NAME = "jsonschema2pojo.jar";
+
     /**
      * Reads the contents of the given source and initiates schema generation.
      *
@@ -50,41 +68,154 @@ public class Jsonschema2Pojo {
      *             if the source path is not found
      * @throws IOException
      *             if the application is unable to read data from the source
+     * @see #generateWithResult(GenerationConfig)
      */
     public static void generate(GenerationConfig config) throws IOException {
+        generateWithResult(config);
+    }
+
+    /**
+     * Reads the contents of the given source and initiates schema generation,
+     * as {@link #generate(GenerationConfig)} does, and reports the files that
+     * were written.
+     *
+     * @param config
+     *            the configuration options (including source and target paths,
+     *            and other behavioural options) that will control code
+     *            generation
+     * @return a summary of the files written to the target directory
+     * @throws FileNotFoundException
+     *             if the source path is not found
+     * @throws IOException
+     *             if the application is unable to read data from the source
+     */
+    public static GenerationResult generateWithResult(GenerationConfig config) throws IOException {
         Annotator annotator = getAnnotator(config);
         RuleFactory ruleFactory = createRuleFactory(config);
 
         ruleFactory.setAnnotator(annotator);
         ruleFactory.setGenerationConfig(config);
 
-        SchemaMapper mapper = new SchemaMapper(ruleFactory, new SchemaGenerator());
+        // the resolvers wrap the one already used by the store, so that a
+        // custom rule factory keeps its own store
+        SchemaStore schemaStore = ruleFactory.getSchemaStore();
+        ContentResolver contentResolver = new HttpContentResolver(schemaStore.getContentResolver(), config.getHttpCacheDirectory(), config.isHttpOffline(),
+                config.getHttpTimeout());
 
-        JCodeModel codeModel = new JCodeModel();
+        CachingContentResolver contentCache = null;
+        if (config.getContentCacheDirectory() != null) {
+            contentCache = new CachingContentResolver(contentResolver, config.getContentCacheDirectory(), config.getContentCacheMaxSize());
+            contentResolver = contentCache;
+        }
+
+        schemaStore.setContentResolver(contentResolver);
+
+        SchemaMapper mapper = new SchemaMapper(ruleFactory, new SchemaGenerator());
 
-        if (config.isRemoveOldOutput()) {
+        if (config.isRemoveOldOutput() && !config.isIncrementalGeneration() && !config.isWriteOnlyChangedFiles()) {
             removeOldOutput(config.getTargetDirectory());
         }
 
-        for (Iterator<URL> sources = config.getSource(); sources.hasNext();) {
-            URL source = sources.next();
+        List<Source> sources = new ArrayList<Source>();
 
-            if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()) {
-                generateRecursive(config, mapper, codeModel, defaultString(config.getTargetPackage()), Arrays.asList(URLUtil.getFileFromURL(source).listFiles(config.getFileFilter())));
+        for (Iterator<URL> sourceUrls = config.getSource(); sourceUrls.hasNext();) {
+            URL source = sourceUrls.next();
+
+            if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()
+                    && config.getSourceType() == SourceType.JSON && config.isMergeExamples()) {
+                File directory = URLUtil.getFileFromURL(source);
+                List<URL> examples = new ArrayList<URL>();
+                collectExamples(config, Arrays.asList(directory.listFiles(config.getFileFilter())), examples);
+                sources.add(new Source(source, defaultString(config.getTargetPackage()), directory.getName(), examples));
+            } else if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()) {
+                collectRecursive(config, defaultString(config.getTargetPackage()), Arrays.asList(URLUtil.getFileFromURL(source).listFiles(config.getFileFilter())), sources);
             } else {
-                mapper.generate(codeModel, getNodeName(source, config), defaultString(config.getTargetPackage()), source);
+                sources.add(new Source(source, defaultString(config.getTargetPackage())));
             }
         }
 
+        if (config.getGenerationThreads() > 1 && config.getSourceType() == SourceType.JSONSCHEMA) {
+            preload(config, ruleFactory.getSchemaStore(), sources);
+        }
+
+        GenerationResult result = new GenerationResult();
+
+        if (config.isIncrementalGeneration()) {
+            generateIncrementally(config, mapper, ruleFactory.getSchemaStore(), sources, result);
+            recordCacheUsage(contentCache, result);
+            return result;
+        }
+
+        JCodeModel codeModel = new JCodeModel();
+
+        for (Source source : sources) {
+            generate(config, mapper, codeModel, source);
+        }
+
+        Set<File> outputFiles = write(config, codeModel, result);
+        if (config.isRemoveOldOutput() && config.isWriteOnlyChangedFiles()) {
+            removeOldOutput(config.getTargetDirectory(), outputFiles);
+        }
+        recordCacheUsage(contentCache, result);
+        return result;
+    }
+
+    private static void recordCacheUsage(CachingContentResolver contentCache, GenerationResult result) {
+        if (contentCache != null) {
+            result.addContentCacheUsage(contentCache.getHitCount(), contentCache.getMissCount());
+        }
+    }
+
+    /**
+     * Writes the generated output to the target directory.
+     *
+     * @return the files that make up the output, including those left
+     *         untouched because they were unchanged
+     */
+    private static Set<File> write(GenerationConfig config, JCodeModel codeModel, GenerationResult result) throws IOException {
         if (config.getTargetDirectory().exists() || config.getTargetDirectory().mkdirs()) {
-            CodeWriter sourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding());
-            CodeWriter resourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding());
-            codeModel.build(sourcesWriter, resourcesWriter);
+            FileCodeWriterWithEncoding sourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding(), config.isWriteOnlyChangedFiles());
+            FileCodeWriterWithEncoding resourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding(), config.isWriteOnlyChangedFiles());
+            if (config.getOutputType() == OutputType.SOURCES) {
+                codeModel.build(sourcesWriter, resourcesWriter);
+            } else {
+                writeCompiled(config, codeModel, sourcesWriter);
+            }
+            result.addWrittenFiles(sourcesWriter.getWrittenFileCount() + resourcesWriter.getWrittenFileCount());
+            result.addSkippedFiles(sourcesWriter.getSkippedFileCount() + resourcesWriter.getSkippedFileCount());
+
+            Set<File> outputFiles = new HashSet<File>(sourcesWriter.getOutputFiles());
+            outputFiles.addAll(resourcesWriter.getOutputFiles());
+            return outputFiles;
         } else {
             throw new GenerationException("Could not create or access target directory " + config.getTargetDirectory().getAbsolutePath());
         }
     }
 
+    private static void writeCompiled(GenerationConfig config, JCodeModel codeModel, FileCodeWriterWithEncoding writer) throws IOException {
+        CodeModelCompiler compiler = new CodeModelCompiler(config);
+        Map<String, byte[]> files = compiler.compile(codeModel);
+
+        if (config.getOutputType() == OutputType.JAR) {
+            files = Collections.singletonMap(JAR_FILE_NAME, compiler.createJar(files));
+        }
+
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            String path = file.getKey();
+            int separator = path.lastIndexOf('/');
+            JPackage pkg = codeModel._package(separator == -1 ? "" : path.substring(0, separator).replace('/', '.'));
+
+            OutputStream out = writer.openBinary(pkg, path.substring(separator + 1));
+            try {
+                out.write(file.getValue());
+            } finally {
+                out.close();
+            }
+        }
+
+        writer.close();
+    }
+
     private static RuleFactory createRuleFactory(GenerationConfig config) {
         Class<? extends RuleFactory> clazz = config.getCustomRuleFactory();
 
@@ -101,16 +232,279 @@ public class Jsonschema2Pojo {
         }
     }
 
-    private static void generateRecursive(GenerationConfig config, SchemaMapper mapper, JCodeModel codeModel, String packageName, List<File> schemaFiles) throws IOException {
+    private static void collectRecursive(GenerationConfig config, String packageName, List<File> schemaFiles, List<Source> sources) throws IOException {
         Collections.sort(schemaFiles);
 
         for (File child : schemaFiles) {
             if (child.isFile()) {
-                mapper.generate(codeModel, getNodeName(child.toURI().toURL(), config), defaultString(packageName), child.toURI().toURL());
+                sources.add(new Source(child.toURI().toURL(), defaultString(packageName)));
             } else {
-                generateRecursive(config, mapper, codeModel, childQualifiedName(packageName, child.getName()), Arrays.asList(child.listFiles(config.getFileFilter())));
+                collectRecursive(config, childQualifiedName(packageName, child.getName()), Arrays.asList(child.listFiles(config.getFileFilter())), sources);
+            }
+        }
+    }
+
+    private static void collectExamples(GenerationConfig config, List<File> exampleFiles, List<URL> examples) throws IOException {
+        for (File child : exampleFiles) {
+            if (child.isFile()) {
+                examples.add(child.toURI().toURL());
+            } else {
+                collectExamples(config, Arrays.asList(child.listFiles(config.getFileFilter())), examples);
+            }
+        }
+    }
+
+    private static void generate(GenerationConfig config, SchemaMapper mapper, JCodeModel codeModel, Source source) throws IOException {
+        if (source.examples != null) {
+            mapper.generate(codeModel, source.className, source.packageName, source.examples, config.getGenerationThreads());
+        } else {
+            mapper.generate(codeModel, getNodeName(source.url, config), source.packageName, source.url);
+        }
+    }
+
+    private static void preload(GenerationConfig config, SchemaStore schemaStore, List<Source> sources) {
+        List<URI> ids = new ArrayList<URI>();
+
+        for (Source source : sources) {
+            try {
+                ids.add(URI.create(source.getId()));
+            } catch (IllegalArgumentException e) {
+                // not usable as a schema id, generation will report this
+            }
+        }
+
+        new SchemaPreloader(schemaStore, config.getGenerationThreads()).preload(ids);
+    }
+
+    /**
+     * Generates types only for the sources whose documents (or the documents
+     * they reference) have changed since the last run, as recorded in the
+     * {@link GenerationManifest} found in the target directory. Sources that
+     * share a referenced document with a changed source are generated again
+     * too, so that shared types are named exactly as they would be in a full
+     * run. Output that is no longer generated by any source is deleted.
+     */
+    private static void generateIncrementally(GenerationConfig config, SchemaMapper mapper, SchemaStore schemaStore, List<Source> sources, GenerationResult result) throws IOException {
+        File targetDirectory = config.getTargetDirectory();
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = new GenerationManifest();
+        manifest.setConfigFingerprint(GenerationManifest.fingerprint(config));
+
+        Map<String, Set<String>> documents = new HashMap<String, Set<String>>();
+        Map<URI, Set<URI>> references = new HashMap<URI, Set<URI>>();
+
+        for (Source source : sources) {
+            documents.put(source.getId(), findDocuments(config, schemaStore, source, manifest, references));
+        }
+
+        // generated serializers are registered by a single module (or factory)
+        // covering every source, so a partial run would leave types unregistered.
+        // a jar is always written whole, so it needs every type too
+        boolean full = config.isGenerateSerializers() || config.getOutputType() == OutputType.JAR || !manifest.getConfigFingerprint().equals(previous.getConfigFingerprint());
+
+        Set<String> changed = new HashSet<String>();
+        Set<String> changedDocuments = new HashSet<String>();
+
+        for (String id : previous.getSources()) {
+            if (!documents.containsKey(id)) {
+                changedDocuments.addAll(previous.getDocuments(id));
+            }
+        }
+
+        for (Source source : sources) {
+            String id = source.getId();
+            if (full || !previous.getDocuments(id).equals(documents.get(id)) || hasChanged(documents.get(id), previous, manifest)) {
+                changed.add(id);
+                changedDocuments.addAll(documents.get(id));
+                changedDocuments.addAll(previous.getDocuments(id));
+            }
+        }
+
+        boolean spread = true;
+        while (spread) {
+            spread = false;
+            for (Source source : sources) {
+                String id = source.getId();
+                if (!changed.contains(id) && !Collections.disjoint(documents.get(id), changedDocuments)) {
+                    changed.add(id);
+                    changedDocuments.addAll(documents.get(id));
+                    spread = true;
+                }
             }
         }
+
+        if (changed.isEmpty() && changedDocuments.isEmpty()) {
+            return;
+        }
+
+        if (full && config.isRemoveOldOutput() && !config.isWriteOnlyChangedFiles()) {
+            removeOldOutput(targetDirectory);
+        }
+
+        JCodeModel codeModel = new JCodeModel();
+        Map<String, Set<String>> classes = generate(config, mapper, codeModel, sources, changed);
+
+        if (!full && collidesWithUnchangedOutput(classes, previous, documents.keySet(), changed)) {
+            // a changed source now generates a class belonging to an unchanged
+            // one (e.g. a name that was previously made unique) so a partial
+            // run can't reproduce the output of a full run
+            schemaStore.clearCache();
+            changed.addAll(documents.keySet());
+            codeModel = new JCodeModel();
+            classes = generate(config, mapper, codeModel, sources, changed);
+        }
+
+        Set<File> outputFiles = write(config, codeModel, result);
+        if (full && config.isRemoveOldOutput() && config.isWriteOnlyChangedFiles()) {
+            removeOldOutput(targetDirectory, outputFiles);
+        }
+
+        Set<String> retainedClasses = new HashSet<String>();
+        for (Source source : sources) {
+            String id = source.getId();
+            Set<String> sourceClasses = changed.contains(id) ? classes.get(id) : previous.getClasses(id);
+            manifest.putSource(id, documents.get(id), sourceClasses);
+            retainedClasses.addAll(sourceClasses);
+        }
+
+        for (String id : previous.getSources()) {
+            if (changed.contains(id) || !documents.containsKey(id)) {
+                for (String className : previous.getClasses(id)) {
+                    if (!retainedClasses.contains(className)) {
+                        deleteOutput(config, className);
+                    }
+                }
+            }
+        }
+
+        manifest.write(targetDirectory);
+    }
+
+    /**
+     * Delete the output written for a class that is no longer generated (a
+     * jar holds every class and is always written again, so has nothing to
+     * delete).
+     */
+    private static void deleteOutput(GenerationConfig config, String className) {
+        File file = new File(config.getTargetDirectory(), className.replace('.', File.separatorChar));
+
+        if (config.getOutputType() == OutputType.SOURCES) {
+            delete(new File(file.getPath() + ".java"));
+        } else if (config.getOutputType() == OutputType.CLASSES) {
+            delete(new File(file.getPath() + ".class"));
+
+            final String nestedPrefix = file.getName() + "$";
+            File[] nestedClasses = file.getParentFile().listFiles(new FilenameFilter() {
+                @Override
+                public boolean accept(File dir, String name) {
+                    return name.startsWith(nestedPrefix) && name.endsWith(".class");
+                }
+            });
+            if (nestedClasses != null) {
+                for (File nestedClass : nestedClasses) {
+                    delete(nestedClass);
+                }
+            }
+        }
+    }
+
+    private static Set<String> findDocuments(GenerationConfig config, SchemaStore schemaStore, Source source, GenerationManifest manifest, Map<URI, Set<URI>> references) {
+        Set<String> documents = new TreeSet<String>();
+        LinkedList<URI> pending = new LinkedList<URI>();
+
+        if (source.examples != null) {
+            for (URL example : source.examples) {
+                pending.add(URI.create(example.toString()));
+            }
+        } else {
+            try {
+                pending.add(URI.create(source.getId()));
+            } catch (IllegalArgumentException e) {
+                documents.add(source.getId());
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            URI documentId = pending.removeFirst();
+
+            if (!documents.add(documentId.toString())) {
+                continue;
+            }
+
+            if (!references.containsKey(documentId)) {
+                Set<URI> documentReferences = Collections.emptySet();
+                try {
+                    if (config.getSourceType() == SourceType.JSONSCHEMA) {
+                        // the content read to find the references is hashed, so it isn't read again
+                        documentReferences = schemaStore.findReferences(documentId);
+                        manifest.putDocumentHash(documentId.toString(), schemaStore.digest(documentId));
+                    } else {
+                        // examples aren't read by the store, so are only hashed
+                        manifest.putDocumentHash(documentId.toString(), schemaStore.getContentResolver().digest(documentId));
+                    }
+                } catch (IllegalArgumentException e) {
+                    // unreadable, so always treated as changed
+                }
+                references.put(documentId, documentReferences);
+            }
+
+            pending.addAll(references.get(documentId));
+        }
+
+        return documents;
+    }
+
+    private static boolean hasChanged(Set<String> documents, GenerationManifest previous, GenerationManifest current) {
+        for (String document : documents) {
+            String hash = current.getDocumentHash(document);
+            if (hash == null || !hash.equals(previous.getDocumentHash(document))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean collidesWithUnchangedOutput(Map<String, Set<String>> classes, GenerationManifest previous, Set<String> current, Set<String> changed) {
+        for (String id : previous.getSources()) {
+            if (current.contains(id) && !changed.contains(id)) {
+                for (Set<String> generatedClasses : classes.values()) {
+                    if (!Collections.disjoint(generatedClasses, previous.getClasses(id))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Set<String>> generate(GenerationConfig config, SchemaMapper mapper, JCodeModel codeModel, List<Source> sources, Set<String> selected) throws IOException {
+        Map<String, Set<String>> classes = new HashMap<String, Set<String>>();
+        Set<String> existingClasses = getClassNames(codeModel);
+
+        for (Source source : sources) {
+            if (selected.contains(source.getId())) {
+                generate(config, mapper, codeModel, source);
+
+                Set<String> generatedClasses = getClassNames(codeModel);
+                generatedClasses.removeAll(existingClasses);
+                existingClasses.addAll(generatedClasses);
+
+                classes.put(source.getId(), generatedClasses);
+            }
+        }
+
+        return classes;
+    }
+
+    private static Set<String> getClassNames(JCodeModel codeModel) {
+        Set<String> classNames = new HashSet<String>();
+        for (Iterator<JPackage> packages = codeModel.packages(); packages.hasNext();) {
+            for (Iterator<JDefinedClass> classes = packages.next().classes(); classes.hasNext();) {
+                classNames.add(classes.next().fullName());
+            }
+        }
+        return classNames;
     }
 
     private static String childQualifiedName(String parentQualifiedName, String childSimpleName) {
@@ -126,6 +520,33 @@ public class Jsonschema2Pojo {
         }
     }
 
+    /**
+     * Empties the target directory, except for the given files (so that
+     * unchanged output keeps its modification time) and the directories that
+     * hold them.
+     */
+    private static void removeOldOutput(File targetDirectory, Set<File> retainedFiles) {
+        if (targetDirectory.exists()) {
+            for (File f : targetDirectory.listFiles()) {
+                deleteExcept(f, retainedFiles);
+            }
+        }
+    }
+
+    @edu.umd.cs.findbugs.annotations.SuppressWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE")
+    private static void deleteExcept(File f, Set<File> retainedFiles) {
+        if (f.isDirectory()) {
+            for (File child : f.listFiles()) {
+                deleteExcept(child, retainedFiles);
+            }
+            if (f.list().length == 0) {
+                f.delete();
+            }
+        } else if (!retainedFiles.contains(f.getAbsoluteFile())) {
+            f.delete();
+        }
+    }
+
     @edu.umd.cs.findbugs.annotations.SuppressWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE")
     private static void delete(File f) {
         if (f.isDirectory()) {
@@ -141,6 +562,33 @@ public class Jsonschema2Pojo {
         return factory.getAnnotator(factory.getAnnotator(config.getAnnotationStyle()), factory.getAnnotator(config.getCustomAnnotator()));
     }
 
+    private static final class Source {
+
+        private final URL url;
+        private final String packageName;
+        private final String className;
+        private final List<URL> examples;
+
+        Source(URL url, String packageName) {
+            this(url, packageName, null, null);
+        }
+
+        /**
+         * A source made up of many examples that are merged into one type.
+         */
+        Source(URL url, String packageName, String className, List<URL> examples) {
+            this.url = url;
+            this.packageName = packageName;
+            this.className = className;
+            this.examples = examples;
+        }
+
+        String getId() {
+            return url.toString();
+        }
+
+    }
+
     private static String getNodeName(URL file, GenerationConfig config) {
         try {
             String fileName = FilenameUtils.getName(URLDecoder.decode(file.toString(), "UTF-8"));
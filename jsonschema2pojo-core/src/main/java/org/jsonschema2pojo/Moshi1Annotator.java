@@ -47,9 +47,14 @@ public class Moshi1Annotator extends AbstractAnnotator {
         constant.annotate(Json.class).param("name", value);
     }
 
+    /**
+     * Moshi has no equivalent of an 'any setter', so additional properties
+     * are only supported when they are read and written by generated JSON
+     * adapters (see {@link GenerationConfig#isGenerateSerializers()}).
+     */
     @Override
     public boolean isAdditionalPropertiesSupported() {
-        return false;
+        return getGenerationConfig().isGenerateSerializers();
     }
 
 }
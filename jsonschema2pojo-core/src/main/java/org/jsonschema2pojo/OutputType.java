@@ -0,0 +1,40 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+/**
+ * The type of output written to the target directory by jsonschema2pojo.
+ */
+public enum OutputType {
+
+    /**
+     * Java source files, to be compiled along with the rest of a project.
+     */
+    SOURCES,
+
+    /**
+     * Class files, compiled in-process from the generated sources (the sources
+     * themselves are not written).
+     */
+    CLASSES,
+
+    /**
+     * A single jar containing the compiled class files, written to the target
+     * directory as {@value Jsonschema2Pojo#JAR_FILE_NAME}.
+     */
+    JAR
+}
@@ -18,7 +18,17 @@ package org.jsonschema2pojo;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jsonschema2pojo.exception.GenerationException;
 
@@ -31,7 +41,6 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsonschema.SchemaAware;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
 import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
@@ -39,104 +48,210 @@ import com.fasterxml.jackson.databind.ser.std.NullSerializer;
 
 public class SchemaGenerator {
 
+    private static final int EXAMPLE_GROUPS_PER_THREAD = 4;
+
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .enable(JsonParser.Feature.ALLOW_COMMENTS)
             .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
 
+    /**
+     * Infer a schema from the example (or examples) found at the given URL.
+     * <p>
+     * The example is read as a stream of tokens, so it needn't fit in memory.
+     * If the URL holds many root values (e.g. newline delimited JSON, one
+     * example record per line) they are merged into one schema, in the same
+     * way as the items of an array.
+     *
+     * @param example
+     *            the location of the JSON example
+     * @return a schema that describes the example
+     */
     public ObjectNode schemaFromExample(URL example) {
 
         try {
-            JsonNode content = OBJECT_MAPPER.readTree(example);
-            return schemaFromExample(content);
+            JsonParser parser = OBJECT_MAPPER.getFactory().createParser(example);
+            try {
+                return schemaFromExample(parser);
+            } finally {
+                parser.close();
+            }
         } catch (IOException e) {
             throw new GenerationException("Could not process JSON in source file", e);
         }
 
     }
 
-    public ObjectNode schemaFromExample(JsonNode example) {
+    /**
+     * Infer one schema from many examples, merging the shape of every
+     * example.
+     * <p>
+     * The examples are divided into contiguous groups that are read in
+     * parallel, and the shapes of the groups are then merged in order. Since
+     * the shapes are merged associatively and commutatively, the types in the
+     * schema are the same whatever the number of threads and whatever the
+     * order (or names) of the examples. The examples are still taken in order
+     * of their URL, so that properties are always listed in the same order.
+     * <p>
+     * Unlike a single example, numbers are widened, null values are ignored
+     * and values of different kinds are untyped as the examples are merged, so
+     * an integer in one example and a decimal number in another gives a
+     * decimal number, and a string in one example and a number in another
+     * gives an <code>Object</code>.
+     *
+     * @param examples
+     *            the locations of the JSON examples
+     * @param threads
+     *            the number of threads used to read examples
+     * @return a schema that describes every example
+     */
+    public ObjectNode schemaFromExamples(Collection<URL> examples, int threads) {
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required to read examples, found: " + threads);
+        }
 
-        if (example.isObject()) {
-            return objectSchema(example);
-        } else if (example.isArray()) {
-            return arraySchema(example);
-        } else {
-            return simpleTypeSchema(example);
+        List<URL> orderedExamples = new ArrayList<URL>(examples);
+        Collections.sort(orderedExamples, new Comparator<URL>() {
+            @Override
+            public int compare(URL a, URL b) {
+                return a.toString().compareTo(b.toString());
+            }
+        });
+
+        int groups = Math.min(orderedExamples.size(), threads * EXAMPLE_GROUPS_PER_THREAD);
+
+        if (threads == 1 || groups <= 1) {
+            return schemaFromShape(readShapes(orderedExamples));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ExampleShape>> shapes = new ArrayList<Future<ExampleShape>>();
+            for (int group = 0; group < groups; group++) {
+                final List<URL> groupExamples = orderedExamples.subList(group * orderedExamples.size() / groups, (group + 1) * orderedExamples.size() / groups);
+                shapes.add(executor.submit(new Callable<ExampleShape>() {
+                    @Override
+                    public ExampleShape call() {
+                        return readShapes(groupExamples);
+                    }
+                }));
+            }
+
+            ExampleShape merged = null;
+            for (Future<ExampleShape> shape : shapes) {
+                merged = ExampleShape.merge(merged, shape.get());
+            }
+            return schemaFromShape(merged);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerationException("Interrupted while reading JSON examples", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GenerationException) {
+                throw (GenerationException) e.getCause();
+            }
+            throw new GenerationException("Could not process JSON examples", e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
 
     }
 
-    private ObjectNode objectSchema(JsonNode exampleObject) {
+    private ExampleShape readShapes(List<URL> examples) {
 
-        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
-        schema.put("type", "object");
+        ExampleShape merged = null;
 
-        ObjectNode properties = OBJECT_MAPPER.createObjectNode();
-        for (Iterator<String> iter = exampleObject.fieldNames(); iter.hasNext();) {
-            String property = iter.next();
-            properties.set(property, schemaFromExample(exampleObject.get(property)));
+        for (URL example : examples) {
+            try {
+                JsonParser parser = OBJECT_MAPPER.getFactory().createParser(example);
+                try {
+                    ExampleShape shape = ExampleShape.readAll(parser, true);
+                    if (shape != null) {
+                        merged = ExampleShape.merge(merged, shape);
+                    }
+                } finally {
+                    parser.close();
+                }
+            } catch (IOException e) {
+                throw new GenerationException("Could not process JSON in source file: " + example, e);
+            }
         }
-        schema.set("properties", properties);
 
-        return schema;
+        if (merged == null) {
+            throw new GenerationException("No JSON content found in examples");
+        }
+
+        return merged;
+
     }
 
-    private ObjectNode arraySchema(JsonNode exampleArray) {
-        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+    public ObjectNode schemaFromExample(JsonNode example) {
 
-        schema.put("type", "array");
+        try {
+            return schemaFromExample(example.traverse(OBJECT_MAPPER));
+        } catch (IOException e) {
+            throw new GenerationException("Could not process JSON example: " + example, e);
+        }
 
-        if (exampleArray.size() > 0) {
+    }
 
-            JsonNode exampleItem = exampleArray.get(0).isObject() ? mergeArrayItems(exampleArray) : exampleArray.get(0);
+    private ObjectNode schemaFromExample(JsonParser parser) throws IOException {
 
-            schema.set("items", schemaFromExample(exampleItem));
+        ExampleShape shape = ExampleShape.readAll(parser, false);
+
+        if (shape == null) {
+            throw new GenerationException("No JSON content found in example");
         }
 
-        return schema;
+        return schemaFromShape(shape);
+
     }
 
-    private JsonNode mergeArrayItems(JsonNode exampleArray) {
+    private ObjectNode schemaFromShape(ExampleShape shape) {
+
+        switch (shape.getKind()) {
+            case OBJECT:
+                return objectSchema(shape);
+            case ARRAY:
+                return arraySchema(shape);
+            case ANY:
+                return anySchema();
+            default:
+                return simpleTypeSchema(shape.getExample());
+        }
+
+    }
 
-        ObjectNode mergedItems = OBJECT_MAPPER.createObjectNode();
+    private ObjectNode objectSchema(ExampleShape objectShape) {
 
-        for (JsonNode item : exampleArray) {
-            if (item.isObject()) {
-                mergeObjectNodes(mergedItems, (ObjectNode) item);
-            }
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+        schema.put("type", "object");
+
+        ObjectNode properties = OBJECT_MAPPER.createObjectNode();
+        for (Map.Entry<String, ExampleShape> property : objectShape.getProperties().entrySet()) {
+            properties.set(property.getKey(), schemaFromShape(property.getValue()));
         }
+        schema.set("properties", properties);
 
-        return mergedItems;
+        return schema;
     }
 
-    private ObjectNode mergeObjectNodes(ObjectNode targetNode, ObjectNode updateNode) {
-        Iterator<String> fieldNames = updateNode.fieldNames();
-        while (fieldNames.hasNext()) {
-
-            String fieldName = fieldNames.next();
-            JsonNode targetValue = targetNode.get(fieldName);
-            JsonNode updateValue = updateNode.get(fieldName);
-
-            if (targetValue == null) {
-                // Target node doesn't have this field from update node: just add it
-                targetNode.set(fieldName, updateValue);
-
-            } else {
-                // Both nodes have the same field: merge the values
-                if (targetValue.isObject() && updateValue.isObject()) {
-                    // Both values are objects: recurse
-                    targetNode.set(fieldName, mergeObjectNodes((ObjectNode) targetValue, (ObjectNode) updateValue));
-                } else if (targetValue.isArray() && updateValue.isArray()) {
-                    // Both values are arrays: concatenate them to be merged later
-                    ((ArrayNode) targetValue).addAll((ArrayNode) updateValue);
-                } else {
-                    // Values have different types: use the one from the update node
-                    targetNode.set(fieldName, updateValue);
-                }
-            }
+    private ObjectNode arraySchema(ExampleShape arrayShape) {
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+
+        schema.put("type", "array");
+
+        ExampleShape items = arrayShape.getItems();
+        if (items != null) {
+            schema.set("items", schemaFromShape(items));
         }
 
-        return targetNode;
+        return schema;
+    }
+
+    private ObjectNode anySchema() {
+        ObjectNode schema = OBJECT_MAPPER.createObjectNode();
+        schema.put("type", "any");
+        return schema;
     }
 
     private ObjectNode simpleTypeSchema(JsonNode exampleValue) {
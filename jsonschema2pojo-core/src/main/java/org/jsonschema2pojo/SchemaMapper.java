@@ -19,6 +19,7 @@ package org.jsonschema2pojo;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.util.Collection;
 
 import org.jsonschema2pojo.rules.RuleFactory;
 
@@ -93,6 +94,35 @@ public class SchemaMapper {
 
     }
 
+    /**
+     * Reads many JSON examples, infers one schema that describes all of
+     * them, and adds the generated types to the given code model.
+     *
+     * @param codeModel
+     *            the java code-generation context that should be used to
+     *            generated new types
+     * @param className
+     *            the name of the parent class the represented by the examples
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param exampleUrls
+     *            locations of the JSON examples to be used as input
+     * @param threads
+     *            the number of threads used to read the examples
+     * @return The top-most type generated from the given examples
+     * @throws IOException
+     *             if the example content cannot be read
+     */
+    public JType generate(JCodeModel codeModel, String className, String packageName, Collection<URL> exampleUrls, int threads) throws IOException {
+
+        JPackage jpackage = codeModel._package(packageName);
+
+        ObjectNode schemaNode = schemaGenerator.schemaFromExamples(exampleUrls, threads);
+
+        return ruleFactory.getSchemaRule().apply(className, schemaNode, jpackage, new Schema(null, schemaNode, schemaNode));
+
+    }
+
     private ObjectNode readSchema(URL schemaUrl) {
 
         switch (ruleFactory.getGenerationConfig().getSourceType()) {
@@ -0,0 +1,143 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.jsonschema2pojo.exception.GenerationException;
+
+/**
+ * Reads schema documents, and every document they reference via
+ * <code>$ref</code>, on a pool of threads and adds the parsed content to a
+ * {@link SchemaStore}.
+ * <p>
+ * Preloading does not generate any types. Types are still generated in order
+ * on a single code model, so the output is the same as if no preloading had
+ * taken place. Documents that can't be read are skipped here, the same error
+ * will be reported when the document is needed for generation.
+ */
+public class SchemaPreloader {
+
+    private final SchemaStore schemaStore;
+    private final int threads;
+
+    /**
+     * Create a preloader that adds content to the given store.
+     *
+     * @param schemaStore
+     *            the store that will hold the parsed documents
+     * @param threads
+     *            the number of threads used to read documents
+     */
+    public SchemaPreloader(SchemaStore schemaStore, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required to preload schemas, found: " + threads);
+        }
+        this.schemaStore = schemaStore;
+        this.threads = threads;
+    }
+
+    /**
+     * Read the documents with the given ids, and the transitive closure of
+     * documents they reference, returning once all of them have been read.
+     *
+     * @param ids
+     *            the ids of the documents to read
+     */
+    public void preload(Collection<URI> ids) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+        CompletionService<Set<URI>> completionService = new ExecutorCompletionService<Set<URI>>(executor);
+
+        Set<URI> seen = new HashSet<URI>();
+        int pending = 0;
+
+        try {
+            for (URI id : ids) {
+                URI documentId = schemaStore.removeFragment(id);
+                if (seen.add(documentId)) {
+                    completionService.submit(new PreloadTask(documentId));
+                    pending++;
+                }
+            }
+
+            while (pending > 0) {
+                Set<URI> references = completionService.take().get();
+                pending--;
+
+                for (URI reference : references) {
+                    if (seen.add(reference)) {
+                        completionService.submit(new PreloadTask(reference));
+                        pending++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerationException("Interrupted while reading schemas", e);
+        } catch (ExecutionException e) {
+            throw new GenerationException("Failed to read schemas", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    private class PreloadTask implements Callable<Set<URI>> {
+
+        private final URI documentId;
+
+        PreloadTask(URI documentId) {
+            this.documentId = documentId;
+        }
+
+        @Override
+        public Set<URI> call() {
+            try {
+                return schemaStore.findReferences(documentId);
+            } catch (IllegalArgumentException e) {
+                return Collections.emptySet();
+            }
+        }
+
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = delegate.newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
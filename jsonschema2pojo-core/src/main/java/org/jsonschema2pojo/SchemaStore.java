@@ -20,18 +20,86 @@ import static org.apache.commons.lang3.StringUtils.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+/**
+ * A store of the schemas that have been read, keyed by id.
+ * <p>
+ * The store may be shared by many threads. Each document is read and parsed
+ * only once: if several threads need the same document at the same time, one
+ * of them reads it and the others wait for the result. Threads needing
+ * different documents never wait for each other.
+ */
 public class SchemaStore {
 
-    protected Map<URI, Schema> schemas = new HashMap<URI, Schema>();
+    protected Map<URI, Schema> schemas = new ConcurrentHashMap<URI, Schema>();
+    protected Map<URI, JsonNode> contents = new ConcurrentHashMap<URI, JsonNode>();
+
+    /**
+     * The hashes of the documents in {@link #contents}, taken when each hash
+     * is first asked for (only incremental generation needs them).
+     */
+    private final Map<URI, String> digests = new ConcurrentHashMap<URI, String>();
+
+    /**
+     * The reads of documents that are in progress, so that threads needing a
+     * document that is being read wait for that read rather than starting
+     * another.
+     */
+    private final ConcurrentMap<URI, FutureTask<JsonNode>> loads = new ConcurrentHashMap<URI, FutureTask<JsonNode>>();
+
+    /**
+     * The fragment paths resolved in each document, kept with the document
+     * content so that both are freed together.
+     */
+    private final ConcurrentMap<URI, Map<String, JsonNode>> fragmentIndexes = new ConcurrentHashMap<URI, Map<String, JsonNode>>();
 
     protected FragmentResolver fragmentResolver = new FragmentResolver();
     protected ContentResolver contentResolver = new ContentResolver();
 
+    public SchemaStore() {
+    }
+
+    /**
+     * Create a store that reads documents using the given resolver.
+     *
+     * @param contentResolver
+     *            the resolver used to read and parse documents
+     */
+    public SchemaStore(ContentResolver contentResolver) {
+        this.contentResolver = contentResolver;
+    }
+
+    /**
+     * Gets the resolver used to read and parse documents.
+     *
+     * @return the content resolver used by this store
+     */
+    public ContentResolver getContentResolver() {
+        return contentResolver;
+    }
+
+    /**
+     * Sets the resolver used to read and parse documents. Documents that have
+     * already been read are not read again.
+     *
+     * @param contentResolver
+     *            the resolver used to read and parse documents
+     */
+    public void setContentResolver(ContentResolver contentResolver) {
+        this.contentResolver = contentResolver;
+    }
+
     /**
      * Create or look up a new schema which has the given ID and read the
      * contents of the given ID as a URL. If a schema with the given ID is
@@ -41,21 +109,186 @@ public class SchemaStore {
      *            the id of the schema being created
      * @return a schema object containing the contents of the given path
      */
-    public synchronized Schema create(URI id) {
+    public Schema create(URI id) {
+
+        Schema schema = schemas.get(id);
 
-        if (!schemas.containsKey(id)) {
+        if (schema == null) {
 
-            JsonNode content = contentResolver.resolve(removeFragment(id));
+            JsonNode content = preload(id);
 
             if (id.toString().contains("#")) {
-                JsonNode childContent = fragmentResolver.resolve(content, '#' + id.getFragment());
-                schemas.put(id, new Schema(id, childContent, content));
+                JsonNode childContent = fragmentResolver.resolve(content, '#' + id.getFragment(), getFragmentIndex(removeFragment(id)));
+                schema = new Schema(id, childContent, content);
             } else {
-                schemas.put(id, new Schema(id, content, content));
+                schema = new Schema(id, content, content);
+            }
+
+            Schema existing = putIfAbsent(id, schema);
+            if (existing != null) {
+                schema = existing;
             }
         }
 
-        return schemas.get(id);
+        return schema;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Schema putIfAbsent(URI id, Schema schema) {
+        if (schemas instanceof ConcurrentMap) {
+            return ((ConcurrentMap<URI, Schema>) schemas).putIfAbsent(id, schema);
+        }
+
+        // a subclass has replaced the map
+        synchronized (schemas) {
+            Schema existing = schemas.get(id);
+            if (existing == null) {
+                schemas.put(id, schema);
+            }
+            return existing;
+        }
+    }
+
+    private Map<String, JsonNode> getFragmentIndex(URI documentId) {
+        Map<String, JsonNode> index = fragmentIndexes.get(documentId);
+        if (index == null) {
+            Map<String, JsonNode> newIndex = new ConcurrentHashMap<String, JsonNode>();
+            index = fragmentIndexes.putIfAbsent(documentId, newIndex);
+            if (index == null) {
+                index = newIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Read the document found at the given ID (ignoring any fragment) so that
+     * later calls to {@link #create(URI)} for this document, or any fragment
+     * of it, can use the parsed content without reading it again.
+     * <p>
+     * If another thread is already reading the same document, this method
+     * waits for that thread and returns the content it read. A document that
+     * can't be read is not remembered, so a later call will try again.
+     *
+     * @param id
+     *            the id of the document to read
+     * @return the parsed content of the document
+     */
+    public JsonNode preload(URI id) {
+
+        final URI documentId = removeFragment(id);
+
+        JsonNode content = contents.get(documentId);
+        if (content != null) {
+            return content;
+        }
+
+        FutureTask<JsonNode> load = loads.get(documentId);
+
+        if (load == null) {
+            FutureTask<JsonNode> newLoad = new FutureTask<JsonNode>(new Callable<JsonNode>() {
+                @Override
+                public JsonNode call() {
+                    // the document may have been read since it was looked up
+                    JsonNode read = contents.get(documentId);
+                    if (read == null) {
+                        read = contentResolver.resolve(documentId);
+                        contents.put(documentId, read);
+                    }
+                    return read;
+                }
+            });
+
+            load = loads.putIfAbsent(documentId, newLoad);
+            if (load == null) {
+                load = newLoad;
+                try {
+                    newLoad.run();
+                } finally {
+                    loads.remove(documentId, newLoad);
+                }
+            }
+        }
+
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + documentId + " to be read", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            } else {
+                throw new IllegalArgumentException("Unable to read " + documentId, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Gets a hash of the content of the document with the given ID. The
+     * parsed content held by this store is hashed, so a document that has
+     * already been read (or is read by this call, see {@link #preload(URI)})
+     * is not read again.
+     *
+     * @param id
+     *            the id of the document to hash, any fragment is ignored
+     * @return a hex encoded SHA-1 hash of the document content
+     * @see ContentResolver#digest(JsonNode)
+     */
+    public String digest(URI id) {
+        URI documentId = removeFragment(id);
+
+        String digest = digests.get(documentId);
+        if (digest == null) {
+            digest = contentResolver.digest(preload(documentId));
+            digests.put(documentId, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Find the documents referenced (via <code>$ref</code>) from anywhere
+     * within the document with the given ID. References to fragments of the
+     * same document are ignored.
+     *
+     * @param id
+     *            the id of the document to search, any fragment is ignored
+     * @return the ids of the referenced documents, without fragments
+     */
+    public Set<URI> findReferences(URI id) {
+
+        URI documentId = removeFragment(id);
+        Set<URI> references = new LinkedHashSet<URI>();
+
+        collectReferences(documentId, preload(documentId), references);
+
+        references.remove(documentId);
+        return references;
+    }
+
+    private void collectReferences(URI documentId, JsonNode node, Set<URI> references) {
+
+        if (node.isObject() && node.has("$ref") && node.get("$ref").isTextual()) {
+            String path = substringBefore(node.get("$ref").asText(), "#");
+
+            if (!path.isEmpty()) {
+                try {
+                    URI reference = documentId.resolve(path);
+                    if (reference.isAbsolute()) {
+                        references.add(reference);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // not a valid URI, generation will report this
+                }
+            }
+        }
+
+        for (Iterator<JsonNode> children = node.elements(); children.hasNext();) {
+            collectReferences(documentId, children.next(), references);
+        }
+
     }
 
     protected URI removeFragment(URI id) {
@@ -109,8 +342,23 @@ public class SchemaStore {
         }
 
         if (selfReferenceWithoutParentFile(parent, path) || substringBefore(stringId, "#").isEmpty()) {
-            schemas.put(id, new Schema(id, fragmentResolver.resolve(parent.getParentContent(), path), parent.getParentContent()));
-            return schemas.get(id);
+            JsonNode parentContent = parent.getParentContent();
+
+            Schema existing = schemas.get(id);
+            if (existing != null && existing.getParentContent() == parentContent) {
+                return existing;
+            }
+
+            Schema schema = new Schema(id, fragmentResolver.resolve(parentContent, path), parentContent);
+            existing = putIfAbsent(id, schema);
+            if (existing != null) {
+                if (existing.getParentContent() == parentContent) {
+                    return existing;
+                }
+                // the same fragment of a different document without an id
+                schemas.put(id, schema);
+            }
+            return schema;
         }
 
         return create(id);
@@ -121,8 +369,12 @@ public class SchemaStore {
         return parent != null && (parent.getId() == null || parent.getId().toString().startsWith("#/")) && path.startsWith("#/");
     }
 
-    public synchronized void clearCache() {
+    public void clearCache() {
         schemas.clear();
+        contents.clear();
+        digests.clear();
+        loads.clear();
+        fragmentIndexes.clear();
     }
 
 }
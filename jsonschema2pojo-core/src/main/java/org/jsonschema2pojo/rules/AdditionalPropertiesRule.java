@@ -16,10 +16,15 @@
 
 package org.jsonschema2pojo.rules;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.ImmutableHelper;
+import org.jsonschema2pojo.util.ResetHelper;
+import org.jsonschema2pojo.util.ValidatorHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JBlock;
@@ -42,6 +47,12 @@ import com.sun.codemodel.JVar;
  */
 public class AdditionalPropertiesRule implements Rule<JDefinedClass, JDefinedClass> {
 
+    /**
+     * The initial capacity of a lazily allocated map, enough for a handful of
+     * additional properties without the map having to grow.
+     */
+    private static final int LAZY_MAP_INITIAL_CAPACITY = 8;
+
     private final RuleFactory ruleFactory;
 
     protected AdditionalPropertiesRule(RuleFactory ruleFactory) {
@@ -69,6 +80,13 @@ public class AdditionalPropertiesRule implements Rule<JDefinedClass, JDefinedCla
      * additionalProperties schema provided. If the schema does not specify the
      * javaType property, the name of the newly generated type will be derived
      * from the nodeName and the suffix 'Property'.
+     * <p>
+     * If lazy additional properties are enabled, the map is left null until
+     * the first additional property is set, and the getter returns an empty
+     * map until then.
+     * <p>
+     * If reset methods are generated, the reset method of the type clears the
+     * map (keeping it allocated), or releases it if it is allocated lazily.
      *
      * @param nodeName
      *            the name of the schema node for which the additionalProperties
@@ -105,40 +123,84 @@ public class AdditionalPropertiesRule implements Rule<JDefinedClass, JDefinedCla
             propertyType = jclass.owner().ref(Object.class);
         }
 
-        JFieldVar field = addAdditionalPropertiesField(jclass, propertyType);
+        boolean immutable = ruleFactory.getGenerationConfig().isImmutableTypes();
+        boolean lazy = ruleFactory.getGenerationConfig().isLazyAdditionalProperties();
 
-        addGetter(jclass, field);
+        JFieldVar field = addAdditionalPropertiesField(jclass, propertyType, immutable, lazy);
 
-        addSetter(jclass, propertyType, field);
+        addGetter(jclass, field, lazy);
+
+        if (!immutable) {
+            addSetter(jclass, propertyType, field, lazy);
+        }
 
         if (ruleFactory.getGenerationConfig().isIncludeJsr303Annotations()) {
             ruleFactory.getValidRule().apply(nodeName, node, field, schema);
         }
 
-        if (ruleFactory.getGenerationConfig().isGenerateBuilders()) {
-            addBuilder(jclass, propertyType, field);
+        if (ruleFactory.getGenerationConfig().isGenerateValidators()) {
+            ValidatorHelper.addAdditionalPropertiesChecks(jclass, field);
+        }
+
+        if (ruleFactory.getGenerationConfig().isGenerateReset()) {
+            if (lazy) {
+                ResetHelper.addAssign(jclass, field, JExpr._null());
+            } else {
+                ResetHelper.addClear(jclass, field);
+            }
+        }
+
+        if (immutable) {
+            JDefinedClass builder = ImmutableHelper.getBuilder(jclass);
+            JFieldVar builderField = builder.field(JMod.PRIVATE, field.type(), field.name());
+            if (!lazy) {
+                builderField.init(JExpr._new(propertiesMapImplType(jclass, propertyType)));
+            }
+            ruleFactory.getAnnotator().anySetter(addBuilder(builder, propertyType, builderField, lazy));
+        } else if (ruleFactory.getGenerationConfig().isGenerateBuilders()) {
+            addBuilder(jclass, propertyType, field, lazy);
         }
 
         return jclass;
     }
 
-    private JFieldVar addAdditionalPropertiesField(JDefinedClass jclass, JType propertyType) {
+    private JFieldVar addAdditionalPropertiesField(JDefinedClass jclass, JType propertyType, boolean immutable, boolean lazy) {
         JClass propertiesMapType = jclass.owner().ref(Map.class);
         propertiesMapType = propertiesMapType.narrow(jclass.owner().ref(String.class), propertyType.boxify());
 
-        JClass propertiesMapImplType = jclass.owner().ref(HashMap.class);
-        propertiesMapImplType = propertiesMapImplType.narrow(jclass.owner().ref(String.class), propertyType.boxify());
-
-        JFieldVar field = jclass.field(JMod.PRIVATE, propertiesMapType, "additionalProperties");
+        JFieldVar field = jclass.field(immutable ? JMod.PRIVATE | JMod.FINAL : JMod.PRIVATE, propertiesMapType, "additionalProperties");
 
         ruleFactory.getAnnotator().additionalPropertiesField(field, jclass, "additionalProperties");
 
-        field.init(JExpr._new(propertiesMapImplType));
+        if (!immutable && !lazy) {
+            field.init(JExpr._new(propertiesMapImplType(jclass, propertyType)));
+        }
 
         return field;
     }
 
-    private void addSetter(JDefinedClass jclass, JType propertyType, JFieldVar field) {
+    private JClass propertiesMapImplType(JDefinedClass jclass, JType propertyType) {
+        JClass propertiesMapImplType = jclass.owner().ref(HashMap.class);
+        return propertiesMapImplType.narrow(jclass.owner().ref(String.class), propertyType.boxify());
+    }
+
+    private JClass lazyPropertiesMapImplType(JDefinedClass jclass, JType propertyType) {
+        JClass propertiesMapImplType = jclass.owner().ref(LinkedHashMap.class);
+        return propertiesMapImplType.narrow(jclass.owner().ref(String.class), propertyType.boxify());
+    }
+
+    private void addPut(JDefinedClass jclass, JBlock body, JType propertyType, JFieldVar field, JVar nameParam, JVar valueParam, boolean lazy) {
+        if (lazy) {
+            body._if(JExpr._this().ref(field).eq(JExpr._null()))._then()
+                    .assign(JExpr._this().ref(field), JExpr._new(lazyPropertiesMapImplType(jclass, propertyType)).arg(JExpr.lit(LAZY_MAP_INITIAL_CAPACITY)));
+        }
+
+        JInvocation mapInvocation = body.invoke(JExpr._this().ref(field), "put");
+        mapInvocation.arg(nameParam);
+        mapInvocation.arg(valueParam);
+    }
+
+    private void addSetter(JDefinedClass jclass, JType propertyType, JFieldVar field, boolean lazy) {
         JMethod setter = jclass.method(JMod.PUBLIC, void.class, "setAdditionalProperty");
 
         ruleFactory.getAnnotator().anySetter(setter);
@@ -146,31 +208,33 @@ public class AdditionalPropertiesRule implements Rule<JDefinedClass, JDefinedCla
         JVar nameParam = setter.param(String.class, "name");
         JVar valueParam = setter.param(propertyType, "value");
 
-        JInvocation mapInvocation = setter.body().invoke(JExpr._this().ref(field), "put");
-        mapInvocation.arg(nameParam);
-        mapInvocation.arg(valueParam);
+        addPut(jclass, setter.body(), propertyType, field, nameParam, valueParam, lazy);
     }
 
-    private JMethod addGetter(JDefinedClass jclass, JFieldVar field) {
+    private JMethod addGetter(JDefinedClass jclass, JFieldVar field, boolean lazy) {
         JMethod getter = jclass.method(JMod.PUBLIC, field.type(), "getAdditionalProperties");
 
         ruleFactory.getAnnotator().anyGetter(getter);
 
+        if (lazy) {
+            getter.body()._if(JExpr._this().ref(field).eq(JExpr._null()))._then()
+                    ._return(jclass.owner().ref(Collections.class).staticInvoke("emptyMap"));
+        }
         getter.body()._return(JExpr._this().ref(field));
         return getter;
     }
 
-    private void addBuilder(JDefinedClass jclass, JType propertyType, JFieldVar field) {
+    private JMethod addBuilder(JDefinedClass jclass, JType propertyType, JFieldVar field, boolean lazy) {
         JMethod builder = jclass.method(JMod.PUBLIC, jclass, "withAdditionalProperty");
 
         JVar nameParam = builder.param(String.class, "name");
         JVar valueParam = builder.param(propertyType, "value");
 
         JBlock body = builder.body();
-        JInvocation mapInvocation = body.invoke(JExpr._this().ref(field), "put");
-        mapInvocation.arg(nameParam);
-        mapInvocation.arg(valueParam);
+        addPut(jclass, body, propertyType, field, nameParam, valueParam, lazy);
         body._return(JExpr._this());
+
+        return builder;
     }
 
 }
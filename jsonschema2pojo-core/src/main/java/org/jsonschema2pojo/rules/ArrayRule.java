@@ -51,6 +51,11 @@ public class ArrayRule implements Rule<JPackage, JClass> {
      * the resulting Java type is {@link List}. The schema given by "items" will
      * decide the generic type of the collection.</p>
      *
+     * <p>If primitive arrays are enabled and the items map to a primitive type
+     * (or its wrapper), then an array that is not marked as having
+     * "uniqueItems" is mapped to a primitive Java array instead, e.g.
+     * {@code int[]} or {@code double[]}.</p>
+     *
      * <p>If the "items" property requires newly generated types, then the type
      * name will be the singular version of the nodeName (unless overridden by
      * the javaType property) e.g. 
@@ -68,7 +73,8 @@ public class ArrayRule implements Rule<JPackage, JClass> {
      * @param jpackage
      *            the package into which newly generated types should be added
      * @return the Java type associated with this array rule, either {@link Set}
-     *         or {@link List}, narrowed by the "items" type
+     *         or {@link List}, narrowed by the "items" type, or a primitive
+     *         array
      */
     @Override
     public JClass apply(String nodeName, JsonNode node, JPackage jpackage, Schema schema) {
@@ -84,7 +90,9 @@ public class ArrayRule implements Rule<JPackage, JClass> {
         }
 
         JClass arrayType;
-        if (uniqueItems) {
+        if (!uniqueItems && ruleFactory.getGenerationConfig().isUsePrimitiveArrays() && itemType.unboxify().isPrimitive()) {
+            arrayType = itemType.unboxify().array();
+        } else if (uniqueItems) {
             arrayType = jpackage.owner().ref(Set.class).narrow(itemType);
         } else {
             arrayType = jpackage.owner().ref(List.class).narrow(itemType);
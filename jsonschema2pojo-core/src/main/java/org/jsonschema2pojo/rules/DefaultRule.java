@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
 import com.sun.codemodel.ClassType;
+import com.sun.codemodel.JArray;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JExpr;
@@ -65,8 +66,9 @@ public class DefaultRule implements Rule<JFieldVar, JFieldVar> {
      * field (so when instances of the generated POJO are created, its fields
      * will then contain their default values).
      * <p>
-     * Collections (Lists and Sets) are initialized to an empty collection, even
-     * when no default value is present in the schema (node is null).
+     * Collections (Lists and Sets) and arrays are initialized to an empty
+     * collection or array, even when no default value is present in the schema
+     * (node is null).
      *
      * @param nodeName
      *            the name of the property which has (or may have) a default
@@ -81,29 +83,75 @@ public class DefaultRule implements Rule<JFieldVar, JFieldVar> {
     @Override
     public JFieldVar apply(String nodeName, JsonNode node, JFieldVar field, Schema currentSchema) {
 
+        JExpression defaultValue = getDefault(field.type(), node);
+
+        if (defaultValue != null) {
+            field.init(defaultValue);
+        }
+
+        return field;
+    }
+
+    /**
+     * Gets the default rule of the given rule factory, so that other rules can
+     * restore the same default values that it assigns.
+     *
+     * @param ruleFactory
+     *            the rule factory of the rule being applied
+     * @return the default rule of the factory
+     * @throws IllegalStateException
+     *             if the default rule of the factory isn't a DefaultRule
+     */
+    static DefaultRule getDefaultRule(RuleFactory ruleFactory) {
+        Rule<JFieldVar, JFieldVar> defaultRule = ruleFactory.getDefaultRule();
+        if (!(defaultRule instanceof DefaultRule)) {
+            throw new IllegalStateException("Default values can only be restored by a default rule that extends " + DefaultRule.class.getName()
+                    + ", found " + defaultRule.getClass().getName());
+        }
+        return (DefaultRule) defaultRule;
+    }
+
+    /**
+     * Creates the default value of a field of the given type, as it is
+     * assigned when instances of the generated POJO are created.
+     *
+     * @param fieldType
+     *            the java type of the field
+     * @param node
+     *            the default node (may be null if no default node was present
+     *            for this property)
+     * @return an expression that creates the default value, or null if the
+     *         field is left with the Java default for its type
+     */
+    JExpression getDefault(JType fieldType, JsonNode node) {
+
         boolean defaultPresent = node != null && isNotEmpty(node.asText());
 
-        String fieldType = field.type().fullName();
+        String fieldTypeName = fieldType.fullName();
+
+        if (defaultPresent && !fieldType.isPrimitive() && node.isNull()) {
+            return JExpr._null();
 
-        if (defaultPresent && !field.type().isPrimitive() && node.isNull()) {
-            field.init(JExpr._null());
+        } else if (fieldTypeName.startsWith(List.class.getName())) {
+            return getDefaultList(fieldType, node);
 
-        } else if (fieldType.startsWith(List.class.getName())) {
-            field.init(getDefaultList(field.type(), node));
+        } else if (fieldTypeName.startsWith(Set.class.getName())) {
+            return getDefaultSet(fieldType, node);
 
-        } else if (fieldType.startsWith(Set.class.getName())) {
-            field.init(getDefaultSet(field.type(), node));
-        } else if (fieldType.startsWith(String.class.getName()) && node != null ) {
-            field.init(getDefaultValue(field.type(), node));
+        } else if (fieldType.isArray()) {
+            return getDefaultArray(fieldType, node);
+
+        } else if (fieldTypeName.startsWith(String.class.getName()) && node != null ) {
+            return getDefaultValue(fieldType, node);
         } else if (defaultPresent) {
-            field.init(getDefaultValue(field.type(), node));
+            return getDefaultValue(fieldType, node);
 
         }
 
-        return field;
+        return null;
     }
 
-    private JExpression getDefaultValue(JType fieldType, JsonNode node) {
+    JExpression getDefaultValue(JType fieldType, JsonNode node) {
 
         fieldType = fieldType.unboxify();
 
@@ -243,6 +291,37 @@ public class DefaultRule implements Rule<JFieldVar, JFieldVar> {
 
     }
 
+    /**
+     * Creates a default value for a primitive array property by creating a new
+     * array that holds the default values (or an empty array when there are no
+     * default values).
+     *
+     * @param fieldType
+     *            the java type that applies for this field (an array of some
+     *            primitive type)
+     * @param node
+     *            the node containing default values for this array
+     * @return an expression that creates a default value that can be assigned
+     *         to this field
+     */
+    private JExpression getDefaultArray(JType fieldType, JsonNode node) {
+
+        JType componentType = fieldType.elementType();
+
+        if (node instanceof ArrayNode && node.size() > 0) {
+            JArray newArray = JExpr.newArray(componentType);
+            for (JsonNode defaultValue : node) {
+                newArray.add(getDefaultValue(componentType, defaultValue));
+            }
+            return newArray;
+        } else if (!ruleFactory.getGenerationConfig().isInitializeCollections()) {
+            return JExpr._null();
+        }
+
+        return JExpr.newArray(componentType, 0);
+
+    }
+
     private JExpression getDefaultEnum(JType fieldType, JsonNode node) {
 
         JInvocation invokeFromValue = ((JClass) fieldType).staticInvoke("fromValue");
@@ -20,23 +20,22 @@ import static com.sun.codemodel.JExpr.*;
 import static com.sun.codemodel.JMod.*;
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.jsonschema2pojo.Schema;
-import org.jsonschema2pojo.util.LanguageFeatures;
 import org.jsonschema2pojo.util.Models;
+import org.jsonschema2pojo.util.StringSwitchHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JDefinedClass;
-import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JFieldRef;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JOp;
-import com.sun.codemodel.JSwitch;
 import com.sun.codemodel.JType;
 import com.sun.codemodel.JTypeVar;
 import com.sun.codemodel.JVar;
@@ -70,6 +69,8 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
      * methods first attempt to call the appropriate getter or setter for the property.  If the named property is not defined,
      * then the additional properties map is used.
      * <p>
+     * If immutable types are being generated, then only the method for getting properties by name is added.
+     * <p>
      * If builders are being generated, then a method for building properties by name will be added.  This method first
      * attempts to call the builder for the property.  If no property with the supplied name is defined, then the additional
      * properties map is used.
@@ -95,15 +96,22 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
             return jclass;
         }
 
+        Map<String, DeclaredProperty> properties = new LinkedHashMap<String, DeclaredProperty>();
+        JDefinedClass lastFlattenedClass = addDeclaredProperties(jclass, node, currentSchema, properties);
+
+        if (ruleFactory.getGenerationConfig().isImmutableTypes()) {
+            // immutable types have no setters, so values can only be read by name
+            if (ruleFactory.getGenerationConfig().isIncludeAccessors()) {
+                addInternalGetMethod(jclass, properties, lastFlattenedClass);
+                addGetMethods(jclass);
+            }
+            return jclass;
+        }
+
         if (ruleFactory.getGenerationConfig().isIncludeAccessors() ||
                 ruleFactory.getGenerationConfig().isGenerateBuilders()) {
-            if (LanguageFeatures.canUseJava7(ruleFactory.getGenerationConfig())) {
-                addInternalSetMethodJava7(jclass, node);
-                addInternalGetMethodJava7(jclass, node);
-            } else {
-                addInternalSetMethodJava6(jclass, node);
-                addInternalGetMethodJava6(jclass, node);
-            }
+            addInternalSetMethod(jclass, properties, lastFlattenedClass);
+            addInternalGetMethod(jclass, properties, lastFlattenedClass);
         }
 
         if (ruleFactory.getGenerationConfig().isIncludeAccessors()) {
@@ -153,84 +161,33 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         return method;
     }
 
-    private JMethod addInternalGetMethodJava7(JDefinedClass jclass, JsonNode propertiesNode) {
+    private JMethod addInternalGetMethod(JDefinedClass jclass, Map<String, DeclaredProperty> properties, JDefinedClass lastFlattenedClass) {
         JMethod method = jclass.method(PROTECTED, jclass.owner()._ref(Object.class), DEFINED_GETTER_NAME);
         JVar nameParam = method.param(String.class, "name");
         JVar notFoundParam = method.param(jclass.owner()._ref(Object.class), "notFoundValue");
         JBlock body = method.body();
-        JSwitch propertySwitch = body._switch(nameParam);
-        if (propertiesNode != null) {
-            for (Iterator<Map.Entry<String, JsonNode>> properties = propertiesNode.fields(); properties.hasNext();) {
-                Map.Entry<String, JsonNode> property = properties.next();
-                String propertyName = property.getKey();
-                JsonNode node = property.getValue();
-                String fieldName = ruleFactory.getNameHelper().getPropertyName(propertyName, node);
-                JType propertyType = jclass.fields().get(fieldName).type();
 
-                addGetPropertyCase(jclass, propertySwitch, propertyName, propertyType, node);
-            }
-        }
-        JClass extendsType = jclass._extends();
-        if (extendsType != null && extendsType instanceof JDefinedClass) {
-            JDefinedClass parentClass = (JDefinedClass) extendsType;
-            JMethod parentMethod = parentClass.getMethod(DEFINED_GETTER_NAME,
-                    new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
-            propertySwitch._default().body()
-            ._return(_super().invoke(parentMethod).arg(nameParam).arg(notFoundParam));
-        } else {
-            propertySwitch._default().body()
-            ._return(notFoundParam);
+        // a null name is never a declared property, it falls through to the supertype or additional properties
+        JBlock lookup = properties.isEmpty() ? body : body._if(nameParam.ne(_null()))._then();
+        Map<String, JBlock> cases = StringSwitchHelper.addSwitch(lookup, nameParam, properties.keySet(), ruleFactory.getGenerationConfig());
+        for (DeclaredProperty property : properties.values()) {
+            JMethod propertyGetter = property.declaringClass.getMethod(getGetterName(property.name, property.type, property.node), new JType[] {});
+            cases.get(property.name)._return(invoke(propertyGetter));
         }
 
-        return method;
-    }
-
-    private JMethod addInternalGetMethodJava6(JDefinedClass jclass, JsonNode propertiesNode) {
-        JMethod method = jclass.method(PROTECTED, jclass.owner()._ref(Object.class), DEFINED_GETTER_NAME);
-        JVar nameParam = method.param(String.class, "name");
-        JVar notFoundParam = method.param(jclass.owner()._ref(Object.class), "notFoundValue");
-        JBlock body = method.body();
-        JConditional propertyConditional = null;
-
-        if (propertiesNode != null) {
-            for (Iterator<Map.Entry<String, JsonNode>> properties = propertiesNode.fields(); properties.hasNext();) {
-                Map.Entry<String, JsonNode> property = properties.next();
-                String propertyName = property.getKey();
-                JsonNode node = property.getValue();
-                String fieldName = ruleFactory.getNameHelper().getPropertyName(propertyName, node);
-                JType propertyType = jclass.fields().get(fieldName).type();
-
-                JExpression condition = lit(propertyName).invoke("equals").arg(nameParam);
-                if (propertyConditional == null) {
-                    propertyConditional = body._if(condition);
-                } else {
-                    propertyConditional = propertyConditional._elseif(condition);
-                }
-                JMethod propertyGetter = jclass.getMethod(getGetterName(propertyName, propertyType, node), new JType[] {});
-                propertyConditional._then()._return(invoke(propertyGetter));
-            }
-        }
-
-        JClass extendsType = jclass._extends();
-        JBlock lastBlock = propertyConditional == null ? body : propertyConditional._else();
+        JClass extendsType = lastFlattenedClass._extends();
         if (extendsType != null && extendsType instanceof JDefinedClass) {
             JDefinedClass parentClass = (JDefinedClass) extendsType;
             JMethod parentMethod = parentClass.getMethod(DEFINED_GETTER_NAME,
                     new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
-            lastBlock._return(_super().invoke(parentMethod).arg(nameParam).arg(notFoundParam));
+            body._return(_super().invoke(parentMethod).arg(nameParam).arg(notFoundParam));
         } else {
-            lastBlock._return(notFoundParam);
+            body._return(notFoundParam);
         }
 
         return method;
     }
 
-    private void addGetPropertyCase(JDefinedClass jclass, JSwitch propertySwitch, String propertyName, JType propertyType, JsonNode node) {
-        JMethod propertyGetter = jclass.getMethod(getGetterName(propertyName, propertyType, node), new JType[] {});
-        propertySwitch._case(lit(propertyName)).body()
-        ._return(invoke(propertyGetter));
-    }
-
     private void addSetMethods(JDefinedClass jclass) {
         JMethod internalSetMethod = getInternalSetMethod(jclass);
         addPublicSetMethod(jclass, internalSetMethod);
@@ -243,12 +200,13 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JBlock body = method.body();
         JBlock notFound = body._if(JOp.not(invoke(internalSetMethod).arg(nameParam).arg(valueParam)))._then();
 
-        // if we have additional properties, then put value.
+        // if we have additional properties, then set value.
         JMethod getAdditionalProperties = jclass.getMethod("getAdditionalProperties", new JType[] {});
         if (getAdditionalProperties != null) {
             JType additionalPropertiesType = ((JClass) (getAdditionalProperties.type())).getTypeParameters().get(1);
-            notFound.add(invoke(getAdditionalProperties).invoke("put").arg(nameParam)
-                    .arg(cast(additionalPropertiesType, valueParam)));
+            JMethod setAdditionalProperty = getAdditionalPropertySetter(jclass);
+            notFound.invoke(setAdditionalProperty).arg(nameParam)
+                    .arg(cast(additionalPropertiesType, valueParam));
         }
         // else throw exception.
         else {
@@ -270,12 +228,13 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JBlock body = method.body();
         JBlock notFound = body._if(JOp.not(invoke(internalSetMethod).arg(nameParam).arg(valueParam)))._then();
 
-        // if we have additional properties, then put value.
+        // if we have additional properties, then set value.
         JMethod getAdditionalProperties = jclass.getMethod("getAdditionalProperties", new JType[] {});
         if (getAdditionalProperties != null) {
             JType additionalPropertiesType = ((JClass) (getAdditionalProperties.type())).getTypeParameters().get(1);
-            notFound.add(invoke(getAdditionalProperties).invoke("put").arg(nameParam)
-                    .arg(cast(additionalPropertiesType, valueParam)));
+            JMethod setAdditionalProperty = getAdditionalPropertySetter(jclass);
+            notFound.invoke(setAdditionalProperty).arg(nameParam)
+                    .arg(cast(additionalPropertiesType, valueParam));
         }
         // else throw exception.
         else {
@@ -286,70 +245,87 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         return method;
     }
 
-    private JMethod addInternalSetMethodJava7(JDefinedClass jclass, JsonNode propertiesNode) {
+    private JMethod addInternalSetMethod(JDefinedClass jclass, Map<String, DeclaredProperty> properties, JDefinedClass lastFlattenedClass) {
         JMethod method = jclass.method(PROTECTED, jclass.owner().BOOLEAN, DEFINED_SETTER_NAME);
         JVar nameParam = method.param(String.class, "name");
         JVar valueParam = method.param(Object.class, "value");
         JBlock body = method.body();
-        JSwitch propertySwitch = body._switch(nameParam);
-        if (propertiesNode != null) {
-            for (Iterator<Map.Entry<String, JsonNode>> properties = propertiesNode.fields(); properties.hasNext();) {
-                Map.Entry<String, JsonNode> property = properties.next();
-                String propertyName = property.getKey();
-                JsonNode node = property.getValue();
-                String fieldName = ruleFactory.getNameHelper().getPropertyName(propertyName, node);
-                JType propertyType = jclass.fields().get(fieldName).type();
 
-                addSetPropertyCase(jclass, propertySwitch, propertyName, propertyType, valueParam, node);
-            }
+        // as in the getter, a null name falls through
+        JBlock lookup = properties.isEmpty() ? body : body._if(nameParam.ne(_null()))._then();
+        Map<String, JBlock> cases = StringSwitchHelper.addSwitch(lookup, nameParam, properties.keySet(), ruleFactory.getGenerationConfig());
+        for (DeclaredProperty property : properties.values()) {
+            JBlock callSite = cases.get(property.name);
+            addSetProperty(jclass, property.declaringClass, callSite, property.name, property.type, valueParam, property.node);
+            callSite._return(TRUE);
         }
-        JBlock defaultBlock = propertySwitch._default().body();
-        JClass extendsType = jclass._extends();
+
+        JClass extendsType = lastFlattenedClass._extends();
         if (extendsType != null && extendsType instanceof JDefinedClass) {
             JDefinedClass parentClass = (JDefinedClass) extendsType;
             JMethod parentMethod = parentClass.getMethod(DEFINED_SETTER_NAME,
                     new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
-            defaultBlock._return(_super().invoke(parentMethod).arg(nameParam).arg(valueParam));
+            body._return(_super().invoke(parentMethod).arg(nameParam).arg(valueParam));
         } else {
-            defaultBlock._return(FALSE);
+            body._return(FALSE);
         }
         return method;
     }
 
-    private JMethod addInternalSetMethodJava6(JDefinedClass jclass, JsonNode propertiesNode) {
-        JMethod method = jclass.method(PROTECTED, jclass.owner().BOOLEAN, DEFINED_SETTER_NAME);
-        JVar nameParam = method.param(String.class, "name");
-        JVar valueParam = method.param(Object.class, "value");
-        JBlock body = method.body();
-        JConditional propertyConditional = null;
+    /**
+     * Collects the properties that can be accessed by name on the given type:
+     * those declared by its schema, then those declared by each generated
+     * supertype whose schema can be found. Collecting the properties of the
+     * supertypes means that a single switch finds any property, however deep
+     * the hierarchy is, rather than each type calling its supertype in turn.
+     *
+     * @return the last type whose properties were collected, whose supertype
+     *         (if generated) must be called for any other property
+     */
+    private JDefinedClass addDeclaredProperties(JDefinedClass jclass, JsonNode propertiesNode, Schema schema, Map<String, DeclaredProperty> properties) {
+        addDeclaredProperties(jclass, propertiesNode, properties);
+
+        JDefinedClass lastFlattenedClass = jclass;
+        Schema lastFlattenedSchema = schema;
+        while (lastFlattenedSchema != null && lastFlattenedSchema.getJavaType() == lastFlattenedClass
+                && lastFlattenedClass._extends() instanceof JDefinedClass) {
+            Schema superSchema = ObjectRule.getSuperSchema(ruleFactory.getSchemaStore(), lastFlattenedSchema.getContent(), lastFlattenedSchema, true);
+            if (superSchema == null || superSchema.getJavaType() != lastFlattenedClass._extends()) {
+                break;
+            }
+
+            lastFlattenedClass = (JDefinedClass) lastFlattenedClass._extends();
+            lastFlattenedSchema = superSchema;
+            addDeclaredProperties(lastFlattenedClass, superSchema.getContent().get("properties"), properties);
+        }
+
+        return lastFlattenedClass;
+    }
+
+    private void addDeclaredProperties(JDefinedClass declaringClass, JsonNode propertiesNode, Map<String, DeclaredProperty> properties) {
         if (propertiesNode != null) {
-            for (Iterator<Map.Entry<String, JsonNode>> properties = propertiesNode.fields(); properties.hasNext();) {
-                Map.Entry<String, JsonNode> property = properties.next();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = propertiesNode.fields(); fields.hasNext();) {
+                Map.Entry<String, JsonNode> property = fields.next();
                 String propertyName = property.getKey();
                 JsonNode node = property.getValue();
                 String fieldName = ruleFactory.getNameHelper().getPropertyName(propertyName, node);
-                JType propertyType = jclass.fields().get(fieldName).type();
-                JExpression condition = lit(propertyName).invoke("equals").arg(nameParam);
-                propertyConditional = propertyConditional == null ? propertyConditional = body._if(condition)
-                        : propertyConditional._elseif(condition);
-
-                JBlock callSite = propertyConditional._then();
-                addSetProperty(jclass, callSite, propertyName, propertyType, valueParam, node);
-                callSite._return(TRUE);
+
+                // a property redeclared by a subtype is accessed through the subtype
+                if (!properties.containsKey(propertyName)) {
+                    JType propertyType = declaringClass.fields().get(fieldName).type();
+                    properties.put(propertyName, new DeclaredProperty(declaringClass, propertyName, node, propertyType));
+                }
             }
         }
-        JClass extendsType = jclass._extends();
-        JBlock lastBlock = propertyConditional == null ? body : propertyConditional._else();
+    }
 
-        if (extendsType != null && extendsType instanceof JDefinedClass) {
-            JDefinedClass parentClass = (JDefinedClass) extendsType;
-            JMethod parentMethod = parentClass.getMethod(DEFINED_SETTER_NAME,
-                    new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
-            lastBlock._return(_super().invoke(parentMethod).arg(nameParam).arg(valueParam));
-        } else {
-            lastBlock._return(FALSE);
+    private JMethod getAdditionalPropertySetter(JDefinedClass jclass) {
+        for (JMethod method : jclass.methods()) {
+            if (method.name().equals("setAdditionalProperty") && method.params().size() == 2) {
+                return method;
+            }
         }
-        return method;
+        throw new IllegalStateException("No setAdditionalProperty method found on " + jclass.fullName());
     }
 
     private JMethod getInternalSetMethod(JDefinedClass jclass) {
@@ -362,14 +338,8 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
                 new JType[] { jclass.owner().ref(String.class), jclass.owner().ref(Object.class) });
     }
 
-    private void addSetPropertyCase(JDefinedClass jclass, JSwitch setterSwitch, String propertyName, JType propertyType, JVar valueVar, JsonNode node) {
-        JBlock setterBody = setterSwitch._case(lit(propertyName)).body();
-        addSetProperty(jclass, setterBody, propertyName, propertyType, valueVar, node);
-        setterBody._return(TRUE);
-    }
-
-    private void addSetProperty(JDefinedClass jclass, JBlock callSite, String propertyName, JType propertyType, JVar valueVar, JsonNode node) {
-        JMethod propertySetter = jclass.getMethod(getSetterName(propertyName, node), new JType[] { propertyType });
+    private void addSetProperty(JDefinedClass jclass, JDefinedClass declaringClass, JBlock callSite, String propertyName, JType propertyType, JVar valueVar, JsonNode node) {
+        JMethod propertySetter = declaringClass.getMethod(getSetterName(propertyName, node), new JType[] { propertyType });
         JConditional isInstance = callSite._if(valueVar._instanceof(propertyType.boxify().erasure()));
         isInstance._then()
         .invoke(propertySetter).arg(cast(propertyType.boxify(), valueVar));
@@ -395,4 +365,20 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
     private String getGetterName(String propertyName, JType type, JsonNode node) {
         return ruleFactory.getNameHelper().getGetterName(propertyName, type, node);
     }
+
+    private static class DeclaredProperty {
+
+        private final JDefinedClass declaringClass;
+        private final String name;
+        private final JsonNode node;
+        private final JType type;
+
+        DeclaredProperty(JDefinedClass declaringClass, String name, JsonNode node, JType type) {
+            this.declaringClass = declaringClass;
+            this.name = name;
+            this.node = node;
+            this.type = type;
+        }
+
+    }
 }
@@ -25,12 +25,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.jsonschema2pojo.Schema;
 import org.jsonschema2pojo.exception.ClassAlreadyExistsException;
 import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.StringSwitchHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -39,7 +42,6 @@ import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JClassContainer;
-import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JEnumConstant;
 import com.sun.codemodel.JExpr;
@@ -49,6 +51,7 @@ import com.sun.codemodel.JForEach;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JSwitch;
 import com.sun.codemodel.JType;
 import com.sun.codemodel.JVar;
 
@@ -129,8 +132,8 @@ public class EnumRule implements Rule<JClassContainer, JType> {
 
                 addValueMethod(_enum, valueField);
 
-                addEnumConstants(node.path("enum"), _enum, node.path("javaEnumNames"), backingType);
-                addFactoryMethod(_enum, backingType);
+                Map<Object, JEnumConstant> constants = addEnumConstants(node.path("enum"), _enum, node.path("javaEnumNames"), backingType);
+                addFactoryMethod(_enum, backingType, constants);
 
                 return _enum;
     }
@@ -163,17 +166,27 @@ public class EnumRule implements Rule<JClassContainer, JType> {
         }
     }
 
-    private void addFactoryMethod(JDefinedClass _enum, JType backingType) {
-        JFieldVar quickLookupMap = addQuickLookupMap(_enum, backingType);
-
+    private void addFactoryMethod(JDefinedClass _enum, JType backingType, Map<Object, JEnumConstant> constants) {
         JMethod fromValue = _enum.method(JMod.PUBLIC | JMod.STATIC, _enum, "fromValue");
         JVar valueParam = fromValue.param(backingType, "value");
 
         JBlock body = fromValue.body();
-        JVar constant = body.decl(_enum, "constant");
-        constant.init(quickLookupMap.invoke("get").arg(valueParam));
-
-        JConditional _if = body._if(constant.eq(JExpr._null()));
+        JBlock lookup = backingType.isPrimitive() ? body : body._if(valueParam.ne(JExpr._null()))._then();
+
+        String typeName = backingType.unboxify().fullName();
+        if (isString(backingType)) {
+            addStringLookup(lookup, valueParam, constants);
+        } else if (typeName.equals("int")) {
+            addIntLookup(lookup, valueParam, constants);
+        } else if (typeName.equals("long")) {
+            addLongLookup(lookup, valueParam, constants);
+        } else if (typeName.equals("double")) {
+            addDoubleLookup(lookup, valueParam, constants);
+        } else if (typeName.equals("boolean")) {
+            addBooleanLookup(lookup, valueParam, constants);
+        } else {
+            addMapLookup(lookup, valueParam, _enum, backingType);
+        }
 
         JInvocation illegalArgumentException = JExpr._new(_enum.owner().ref(IllegalArgumentException.class));
         JExpression expr = valueParam;
@@ -184,12 +197,104 @@ public class EnumRule implements Rule<JClassContainer, JType> {
         }
 
         illegalArgumentException.arg(expr);
-        _if._then()._throw(illegalArgumentException);
-        _if._else()._return(constant);
+        body._throw(illegalArgumentException);
 
         ruleFactory.getAnnotator().enumCreatorMethod(fromValue);
     }
 
+    private void addStringLookup(JBlock lookup, JVar valueParam, Map<Object, JEnumConstant> constants) {
+        Map<String, JEnumConstant> constantsByValue = new LinkedHashMap<String, JEnumConstant>();
+        for (Map.Entry<Object, JEnumConstant> constant : constants.entrySet()) {
+            constantsByValue.put((String) constant.getKey(), constant.getValue());
+        }
+
+        Map<String, JBlock> cases = StringSwitchHelper.addSwitch(lookup, valueParam, constantsByValue.keySet(), ruleFactory.getGenerationConfig());
+        for (Map.Entry<String, JBlock> valueCase : cases.entrySet()) {
+            valueCase.getValue()._return(constantsByValue.get(valueCase.getKey()));
+        }
+    }
+
+    private void addIntLookup(JBlock lookup, JVar valueParam, Map<Object, JEnumConstant> constants) {
+        if (constants.isEmpty()) {
+            return;
+        }
+
+        // the compiler turns a switch on dense values into a table lookup
+        JSwitch valueSwitch = lookup._switch(valueParam);
+        for (Map.Entry<Object, JEnumConstant> constant : constants.entrySet()) {
+            valueSwitch._case(JExpr.lit((Integer) constant.getKey())).body()._return(constant.getValue());
+        }
+    }
+
+    private void addLongLookup(JBlock lookup, JVar valueParam, Map<Object, JEnumConstant> constants) {
+        Map<Integer, Map<JExpression, JEnumConstant>> buckets = new TreeMap<Integer, Map<JExpression, JEnumConstant>>();
+        for (Map.Entry<Object, JEnumConstant> constant : constants.entrySet()) {
+            long value = (Long) constant.getKey();
+            addToBucket(buckets, Long.valueOf(value).hashCode(), valueParam.eq(JExpr.lit(value)), constant.getValue());
+        }
+
+        addHashSwitch(lookup, JExpr.cast(valueParam.type().owner().INT, valueParam.xor(valueParam.shrz(JExpr.lit(32)))), buckets);
+    }
+
+    private void addDoubleLookup(JBlock lookup, JVar valueParam, Map<Object, JEnumConstant> constants) {
+        if (constants.isEmpty()) {
+            return;
+        }
+
+        // compare bits, as Double.equals does
+        JVar bits = lookup.decl(valueParam.type().owner().LONG, "bits", valueParam.type().owner().ref(Double.class).staticInvoke("doubleToLongBits").arg(valueParam));
+
+        Map<Integer, Map<JExpression, JEnumConstant>> buckets = new TreeMap<Integer, Map<JExpression, JEnumConstant>>();
+        for (Map.Entry<Object, JEnumConstant> constant : constants.entrySet()) {
+            long value = Double.doubleToLongBits((Double) constant.getKey());
+            addToBucket(buckets, Long.valueOf(value).hashCode(), bits.eq(JExpr.lit(value)), constant.getValue());
+        }
+
+        addHashSwitch(lookup, JExpr.cast(valueParam.type().owner().INT, bits.xor(bits.shrz(JExpr.lit(32)))), buckets);
+    }
+
+    private void addBooleanLookup(JBlock lookup, JVar valueParam, Map<Object, JEnumConstant> constants) {
+        for (Map.Entry<Object, JEnumConstant> constant : constants.entrySet()) {
+            JExpression test = (Boolean) constant.getKey() ? valueParam : valueParam.not();
+            lookup._if(test)._then()._return(constant.getValue());
+        }
+    }
+
+    private void addToBucket(Map<Integer, Map<JExpression, JEnumConstant>> buckets, int hashCode, JExpression test, JEnumConstant constant) {
+        if (!buckets.containsKey(hashCode)) {
+            buckets.put(hashCode, new LinkedHashMap<JExpression, JEnumConstant>());
+        }
+        buckets.get(hashCode).put(test, constant);
+    }
+
+    /**
+     * Adds a switch on a hash code computed from the value, where each case
+     * tests the value against the constants that have that hash code.
+     */
+    private void addHashSwitch(JBlock lookup, JExpression hashCode, Map<Integer, Map<JExpression, JEnumConstant>> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        JSwitch hashSwitch = lookup._switch(hashCode);
+        for (Map.Entry<Integer, Map<JExpression, JEnumConstant>> bucket : buckets.entrySet()) {
+            JBlock caseBody = hashSwitch._case(JExpr.lit(bucket.getKey())).body();
+            for (Map.Entry<JExpression, JEnumConstant> candidate : bucket.getValue().entrySet()) {
+                caseBody._if(candidate.getKey())._then()._return(candidate.getValue());
+            }
+            caseBody._break();
+        }
+    }
+
+    private void addMapLookup(JBlock lookup, JVar valueParam, JDefinedClass _enum, JType backingType) {
+        JFieldVar quickLookupMap = addQuickLookupMap(_enum, backingType);
+
+        JVar constant = lookup.decl(_enum, "constant");
+        constant.init(quickLookupMap.invoke("get").arg(valueParam));
+
+        lookup._if(constant.ne(JExpr._null()))._then()._return(constant);
+    }
+
     private JFieldVar addQuickLookupMap(JDefinedClass _enum, JType backingType) {
 
         JClass lookupType = _enum.owner().ref(Map.class).narrow(backingType.boxify(), _enum);
@@ -244,7 +349,12 @@ public class EnumRule implements Rule<JClassContainer, JType> {
         return type.fullName().equals(String.class.getName());
     }
 
-    private void addEnumConstants(JsonNode node, JDefinedClass _enum, JsonNode customNames, JType type) {
+    /**
+     * @return the constants added, keyed by their value (the last constant
+     *         with a given value wins, as it would in a lookup map)
+     */
+    private Map<Object, JEnumConstant> addEnumConstants(JsonNode node, JDefinedClass _enum, JsonNode customNames, JType type) {
+        Map<Object, JEnumConstant> constants = new LinkedHashMap<Object, JEnumConstant>();
         Collection<String> existingConstantNames = new ArrayList<String>();
         for (int i = 0; i < node.size(); i++) {
             JsonNode value = node.path(i);
@@ -259,18 +369,25 @@ public class EnumRule implements Rule<JClassContainer, JType> {
                 String typeName = type.unboxify().fullName();
                 if(typeName.equals("int")){ // integer
                     constant.arg(JExpr.lit(value.intValue()));
+                    constants.put(value.intValue(), constant);
                 } else if(typeName.equals("long")){ // integer-as-long
                     constant.arg(JExpr.lit(value.longValue()));
+                    constants.put(value.longValue(), constant);
                 } else if(typeName.equals("double")){ // number
                     constant.arg(JExpr.lit(value.doubleValue()));
+                    constants.put(value.doubleValue(), constant);
                 } else if(typeName.equals("boolean")){ // boolean
                     constant.arg(JExpr.lit(value.booleanValue()));
+                    constants.put(value.booleanValue(), constant);
                 } else {
                     constant.arg(JExpr.lit(value.asText()));
+                    constants.put(value.asText(), constant);
                 }
                 ruleFactory.getAnnotator().enumConstant(constant, value.asText());
             }
         }
+
+        return constants;
     }
 
     private String getEnumName(String nodeName, JsonNode node, JClassContainer container) {
@@ -27,6 +27,7 @@ import org.joda.time.LocalTime;
 import org.jsonschema2pojo.GenerationConfig;
 import org.jsonschema2pojo.Schema;
 import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.PresenceHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JType;
@@ -173,7 +174,8 @@ public class FormatRule implements Rule<JType, JType> {
     }
 
     private JType unboxIfNecessary(JType type, GenerationConfig config) {
-        if (config.isUsePrimitives()) {
+        // tracked properties are primitive, with their presence kept apart
+        if (config.isUsePrimitives() || PresenceHelper.isTracked(config)) {
             return type.unboxify();
         } else {
             return type;
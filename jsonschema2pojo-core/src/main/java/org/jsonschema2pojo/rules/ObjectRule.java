@@ -22,20 +22,35 @@ import static org.jsonschema2pojo.util.TypeUtil.*;
 
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.jsonschema2pojo.AnnotationStyle;
+import org.jsonschema2pojo.CompositeAnnotator;
+import org.jsonschema2pojo.GenerationConfig;
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.SchemaStore;
 import org.jsonschema2pojo.exception.ClassAlreadyExistsException;
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.util.ExternalizableHelper;
+import org.jsonschema2pojo.util.GsonTypeAdapterHelper;
+import org.jsonschema2pojo.util.ImmutableHelper;
+import org.jsonschema2pojo.util.Jackson2SerializerHelper;
+import org.jsonschema2pojo.util.LanguageFeatures;
+import org.jsonschema2pojo.util.MoshiJsonAdapterHelper;
 import org.jsonschema2pojo.util.NameHelper;
 import org.jsonschema2pojo.util.ParcelableHelper;
+import org.jsonschema2pojo.util.PresenceHelper;
+import org.jsonschema2pojo.util.ResetHelper;
 import org.jsonschema2pojo.util.SerializableHelper;
+import org.jsonschema2pojo.util.ValidatorHelper;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -44,12 +59,17 @@ import com.sun.codemodel.JAnnotationUse;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForLoop;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
 import com.sun.codemodel.JPackage;
 import com.sun.codemodel.JType;
 import com.sun.codemodel.JVar;
@@ -65,6 +85,8 @@ import android.os.Parcelable;
  */
 public class ObjectRule implements Rule<JPackage, JType> {
 
+    private static final String ADDITIONAL_PROPERTIES_GETTER = "getAdditionalProperties";
+
     private final RuleFactory ruleFactory;
     private final ParcelableHelper parcelableHelper;
 
@@ -100,6 +122,23 @@ public class ObjectRule implements Rule<JPackage, JType> {
 
         schema.setJavaTypeIfEmpty(jclass);
 
+        if (ruleFactory.getGenerationConfig().isImmutableTypes()) {
+            checkImmutableTypesOptions();
+            ImmutableHelper.addBuilder(jclass);
+        }
+
+        if (PresenceHelper.isTracked(ruleFactory.getGenerationConfig())) {
+            checkTrackPresenceOptions();
+        }
+
+        if (ruleFactory.getGenerationConfig().isGenerateValidators()) {
+            ValidatorHelper.addValidateMethods(jclass);
+        }
+
+        if (ruleFactory.getGenerationConfig().isGenerateReset()) {
+            ResetHelper.addResetMethod(jclass);
+        }
+
         if (node.has("deserializationClassProperty")) {
             addJsonTypeInfoAnnotation(jclass, node);
         }
@@ -114,7 +153,7 @@ public class ObjectRule implements Rule<JPackage, JType> {
 
         ruleFactory.getPropertiesRule().apply(nodeName, node.get("properties"), jclass, schema);
 
-        if (ruleFactory.getGenerationConfig().isIncludeToString()) {
+        if (ruleFactory.getGenerationConfig().isIncludeToString() && !ruleFactory.getGenerationConfig().isReflectionFreeToString()) {
             addToString(jclass);
         }
 
@@ -130,20 +169,41 @@ public class ObjectRule implements Rule<JPackage, JType> {
             ruleFactory.getRequiredArrayRule().apply(nodeName, node.get("required"), jclass, schema);
         }
 
-        if (ruleFactory.getGenerationConfig().isIncludeHashcodeAndEquals()) {
+        if (ruleFactory.getGenerationConfig().isIncludeToString() && ruleFactory.getGenerationConfig().isReflectionFreeToString()) {
+            addReflectionFreeToString(jclass);
+        }
+
+        if (ruleFactory.getGenerationConfig().isIncludeHashcodeAndEquals() && ruleFactory.getGenerationConfig().isAllocationFreeHashcodeAndEquals()) {
+            addAllocationFreeHashCode(jclass);
+            addAllocationFreeEquals(jclass);
+        } else if (ruleFactory.getGenerationConfig().isIncludeHashcodeAndEquals()) {
             addHashCode(jclass);
             addEquals(jclass);
         }
 
-        if (ruleFactory.getGenerationConfig().isParcelable()) {
-            addParcelSupport(jclass);
+        if (ruleFactory.getGenerationConfig().isImmutableTypes()) {
+            ImmutableHelper.addConstructors(jclass);
+            CompositeAnnotator.immutableType(ruleFactory.getAnnotator(), jclass, ImmutableHelper.getBuilder(jclass));
+        } else {
+            if (ruleFactory.getGenerationConfig().isParcelable()) {
+                addParcelSupport(jclass);
+            }
+
+            if (ruleFactory.getGenerationConfig().isIncludeConstructors()) {
+                addConstructors(jclass, node, schema, ruleFactory.getGenerationConfig().isConstructorsRequiredPropertiesOnly());
+            }
         }
 
-        if (ruleFactory.getGenerationConfig().isIncludeConstructors()) {
-            addConstructors(jclass, node, schema, ruleFactory.getGenerationConfig().isConstructorsRequiredPropertiesOnly());
+        if (ruleFactory.getGenerationConfig().isGenerateSerializers()) {
+            addSerializers(jclass, node);
         }
 
         if (ruleFactory.getGenerationConfig().isSerializable()) {
+            if (ruleFactory.getGenerationConfig().isExternalizable()) {
+                ExternalizableHelper.addExternalizableSupport(jclass);
+            } else {
+                PresenceHelper.addSerializationSupport(jclass);
+            }
             SerializableHelper.addSerializableSupport(jclass);
         }
 
@@ -159,6 +219,53 @@ public class ObjectRule implements Rule<JPackage, JType> {
         parcelableHelper.addCreator(jclass);
     }
 
+    private void addSerializers(JDefinedClass jclass, JsonNode node) {
+        boolean added;
+        switch (ruleFactory.getGenerationConfig().getAnnotationStyle()) {
+            case JACKSON:
+            case JACKSON2:
+                added = Jackson2SerializerHelper.addSerializers(jclass, getPropertyFields(jclass, node), ruleFactory.getGenerationConfig());
+                break;
+            case GSON:
+                added = GsonTypeAdapterHelper.addTypeAdapter(jclass, getPropertyFields(jclass, node), node.path("properties"), ruleFactory.getGenerationConfig());
+                break;
+            case MOSHI1:
+                added = MoshiJsonAdapterHelper.addJsonAdapter(jclass, getPropertyFields(jclass, node), ruleFactory.getGenerationConfig());
+                break;
+            default:
+                added = false;
+                break;
+        }
+
+        // a serializer that reflects over the fields would write unset properties as 0 or false
+        if (!added && PresenceHelper.hasTrackedProperties(jclass)) {
+            throw new GenerationException("The 'trackPresence' option needs a generated serializer for " + jclass.fullName()
+                    + ", which can't be generated with the '" + ruleFactory.getGenerationConfig().getAnnotationStyle().name().toLowerCase()
+                    + "' annotation style, or for types that use polymorphic deserialization, formats, views or custom serializers");
+        }
+    }
+
+    /**
+     * Finds the fields generated for the properties declared in the given
+     * node, keyed by property name, in the order they are declared.
+     */
+    private Map<String, JFieldVar> getPropertyFields(JDefinedClass jclass, JsonNode node) {
+        Map<String, JFieldVar> fields = new LinkedHashMap<String, JFieldVar>();
+
+        if (node.has("properties")) {
+            NameHelper nameHelper = ruleFactory.getNameHelper();
+            for (Iterator<Map.Entry<String, JsonNode>> properties = node.get("properties").fields(); properties.hasNext();) {
+                Map.Entry<String, JsonNode> property = properties.next();
+                JFieldVar field = jclass.fields().get(nameHelper.getPropertyName(property.getKey(), property.getValue()));
+                if (field != null) {
+                    fields.put(property.getKey(), field);
+                }
+            }
+        }
+
+        return fields;
+    }
+
     /**
      * Retrieve the list of properties to go in the constructor from node. This
      * is all properties listed in node["properties"] if ! onlyRequired, and
@@ -214,7 +321,7 @@ public class ObjectRule implements Rule<JPackage, JType> {
      * Recursive, walks the schema tree and assembles a list of all properties of this schema's super schemas
      */
     private LinkedHashSet<String> getSuperTypeConstructorPropertiesRecursive(JsonNode node, Schema schema, boolean onlyRequired) {
-        Schema superTypeSchema = getSuperSchema(node, schema, true);
+        Schema superTypeSchema = getSuperSchema(ruleFactory.getSchemaStore(), node, schema, true);
 
         if (superTypeSchema == null) {
             return new LinkedHashSet<String>();
@@ -303,13 +410,40 @@ public class ObjectRule implements Rule<JPackage, JType> {
         }
     }
 
+    /**
+     * Immutable types are only created through their builder, so they can't
+     * have the public constructors or the Parcelable CREATOR that other
+     * options would add.
+     */
+    private void checkImmutableTypesOptions() {
+        GenerationConfig config = ruleFactory.getGenerationConfig();
+        if (config.isParcelable()) {
+            throw new GenerationException("The 'immutableTypes' option can't be combined with the 'parcelable' option");
+        }
+        if (config.isIncludeConstructors()) {
+            throw new GenerationException("The 'immutableTypes' option can't be combined with the 'includeConstructors' option");
+        }
+        if (config.isExternalizable()) {
+            throw new GenerationException("The 'immutableTypes' option can't be combined with the 'externalizable' option");
+        }
+        if (config.isGenerateReset()) {
+            throw new GenerationException("The 'immutableTypes' option can't be combined with the 'generateReset' option");
+        }
+    }
+
+    private void checkTrackPresenceOptions() {
+        if (!ruleFactory.getGenerationConfig().isGenerateSerializers()) {
+            throw new GenerationException("The 'trackPresence' option requires the 'generateSerializers' option");
+        }
+    }
+
     private JType getSuperType(String nodeName, JsonNode node, JPackage jPackage, Schema schema) {
         if (node.has("extends") && node.has("extendsJavaClass")) {
             throw new IllegalStateException("'extends' and 'extendsJavaClass' defined simultaneously");
         }
 
         JType superType = jPackage.owner().ref(Object.class);
-        Schema superTypeSchema = getSuperSchema(node, schema, false);
+        Schema superTypeSchema = getSuperSchema(ruleFactory.getSchemaStore(), node, schema, false);
         if (superTypeSchema != null) {
             superType = ruleFactory.getSchemaRule().apply(nodeName + "Parent", node.get("extends"), jPackage, superTypeSchema);
         } else if (node.has("extendsJavaClass")) {
@@ -319,7 +453,11 @@ public class ObjectRule implements Rule<JPackage, JType> {
         return superType;
     }
 
-    private Schema getSuperSchema(JsonNode node, Schema schema, boolean followRefs) {
+    /**
+     * Finds the schema named by the 'extends' rule of the given node, if any,
+     * optionally following any chain of '$ref' to the schema it points to.
+     */
+    static Schema getSuperSchema(SchemaStore schemaStore, JsonNode node, Schema schema, boolean followRefs) {
         if (node.has("extends")) {
             String path;
             if (schema.getId().getFragment() == null) {
@@ -328,10 +466,10 @@ public class ObjectRule implements Rule<JPackage, JType> {
                 path = "#" + schema.getId().getFragment() + "/extends";
             }
 
-            Schema superSchema = ruleFactory.getSchemaStore().create(schema, path);
+            Schema superSchema = schemaStore.create(schema, path);
 
             if (followRefs) {
-                superSchema = resolveSchemaRefsRecursive(superSchema);
+                superSchema = resolveSchemaRefsRecursive(schemaStore, superSchema);
             }
 
             return superSchema;
@@ -339,11 +477,11 @@ public class ObjectRule implements Rule<JPackage, JType> {
         return null;
     }
 
-    private Schema resolveSchemaRefsRecursive(Schema schema) {
+    private static Schema resolveSchemaRefsRecursive(SchemaStore schemaStore, Schema schema) {
         JsonNode schemaNode = schema.getContent();
         if (schemaNode.has("$ref")) {
-            schema = ruleFactory.getSchemaStore().create(schema, schemaNode.get("$ref").asText());
-            return resolveSchemaRefsRecursive(schema);
+            schema = schemaStore.create(schema, schemaNode.get("$ref").asText());
+            return resolveSchemaRefsRecursive(schemaStore, schema);
         }
         return schema;
     }
@@ -371,10 +509,117 @@ public class ObjectRule implements Rule<JPackage, JType> {
         toString.annotate(Override.class);
     }
 
-    private void addHashCode(JDefinedClass jclass) {
+    /**
+     * Adds a toString method that gives the same output as
+     * <code>ToStringBuilder.reflectionToString(this)</code>, without
+     * reflection. The fields of this class are appended first, followed by the
+     * fields found between the brackets of <code>super.toString()</code>.
+     */
+    private void addReflectionFreeToString(JDefinedClass jclass) {
         Map<String, JFieldVar> fields = jclass.fields();
 
+        JMethod toString = jclass.method(JMod.PUBLIC, String.class, "toString");
+
+        int capacity = jclass.fullName().length() + 11;
+        for (JFieldVar fieldVar : fields.values()) {
+            capacity += fieldVar.name().length() + 18;
+        }
+
+        JBlock body = toString.body();
+        JClass stringBuilderClass = jclass.owner().ref(StringBuilder.class);
+        JVar sb = body.decl(stringBuilderClass, "sb", JExpr._new(stringBuilderClass).arg(JExpr.lit(capacity)));
+
+        JInvocation identityHashCode = jclass.owner().ref(System.class).staticInvoke("identityHashCode").arg(JExpr._this());
+        body.add(sb.invoke("append").arg(JExpr.invoke("getClass").invoke("getName"))
+                .invoke("append").arg(JExpr.lit('@'))
+                .invoke("append").arg(jclass.owner().ref(Integer.class).staticInvoke("toHexString").arg(identityHashCode))
+                .invoke("append").arg(JExpr.lit('[')));
+
+        for (JFieldVar fieldVar : fields.values()) {
+            if ((fieldVar.mods().getValue() & (JMod.STATIC | JMod.TRANSIENT)) != 0) {
+                continue;
+            }
+
+            JExpression value = JExpr._this().ref(fieldVar);
+            if (fieldVar.type().isArray()) {
+                body.add(sb.invoke("append").arg(JExpr.lit(fieldVar.name()))
+                        .invoke("append").arg(JExpr.lit('=')));
+                appendArray(body, sb, value, fieldVar.type().elementType());
+                body.add(sb.invoke("append").arg(JExpr.lit(',')));
+                continue;
+            }
+            if (!fieldVar.type().isPrimitive()) {
+                value = JOp.cond(value.eq(JExpr._null()), JExpr.lit("<null>"), value);
+            }
+
+            body.add(sb.invoke("append").arg(JExpr.lit(fieldVar.name()))
+                    .invoke("append").arg(JExpr.lit('='))
+                    .invoke("append").arg(value)
+                    .invoke("append").arg(JExpr.lit(',')));
+        }
+
+        if (!jclass._extends().fullName().equals(Object.class.getName())) {
+            JVar superString = body.decl(jclass.owner().ref(String.class), "superString", JExpr._super().invoke("toString"));
+            JVar contentStart = body.decl(jclass.owner().INT, "contentStart", superString.invoke("indexOf").arg(JExpr.lit('[')));
+            JVar contentEnd = body.decl(jclass.owner().INT, "contentEnd", superString.invoke("lastIndexOf").arg(JExpr.lit(']')));
+            body._if(contentStart.gte(JExpr.lit(0)).cand(contentEnd.gt(contentStart.plus(JExpr.lit(1)))))._then()
+                    .add(sb.invoke("append").arg(superString).arg(contentStart.plus(JExpr.lit(1))).arg(contentEnd)
+                            .invoke("append").arg(JExpr.lit(',')));
+        }
+
+        JExpression last = sb.invoke("length").minus(JExpr.lit(1));
+        JConditional hasFields = body._if(sb.invoke("charAt").arg(last).eq(JExpr.lit(',')));
+        hasFields._then().add(sb.invoke("setCharAt").arg(last).arg(JExpr.lit(']')));
+        hasFields._else().add(sb.invoke("append").arg(JExpr.lit(']')));
+
+        body._return(sb.invoke("toString"));
+
+        toString.annotate(Override.class);
+    }
+
+    /**
+     * Appends an array in the form used by <code>ToStringBuilder</code>, i.e.
+     * <code>{1,2,3}</code>, or <code>&lt;null&gt;</code> for a null array.
+     * Null elements are also appended as <code>&lt;null&gt;</code>.
+     */
+    private void appendArray(JBlock body, JVar sb, JExpression array, JType elementType) {
+        JConditional isNull = body._if(array.eq(JExpr._null()));
+        isNull._then().add(sb.invoke("append").arg(JExpr.lit("<null>")));
+
+        JBlock notNull = isNull._else();
+        notNull.add(sb.invoke("append").arg(JExpr.lit('{')));
+        JForLoop forLoop = notNull._for();
+        JVar i = forLoop.init(sb.type().owner().INT, "i", JExpr.lit(0));
+        forLoop.test(i.lt(array.ref("length")));
+        forLoop.update(i.incr());
+        forLoop.body()._if(i.gt(JExpr.lit(0)))._then().add(sb.invoke("append").arg(JExpr.lit(',')));
+        JExpression element = array.component(i);
+        if (!elementType.isPrimitive()) {
+            element = JOp.cond(element.eq(JExpr._null()), JExpr.lit("<null>"), element);
+        }
+        forLoop.body().add(sb.invoke("append").arg(element));
+        notNull.add(sb.invoke("append").arg(JExpr.lit('}')));
+    }
+
+    /**
+     * Adds the method that computes the hash code. For immutable types this is
+     * a private method, called once by a hashCode method that caches the
+     * result.
+     */
+    private JMethod addHashCodeMethod(JDefinedClass jclass) {
+        if (ruleFactory.getGenerationConfig().isImmutableTypes()) {
+            return ImmutableHelper.addCachedHashCode(jclass);
+        }
+
         JMethod hashCode = jclass.method(JMod.PUBLIC, int.class, "hashCode");
+        hashCode.annotate(Override.class);
+        return hashCode;
+    }
+
+    private void addHashCode(JDefinedClass jclass) {
+        Map<String, JFieldVar> fields = jclass.fields();
+
+        JMethod hashCode = addHashCodeMethod(jclass);
 
         Class<?> hashCodeBuilder = ruleFactory.getGenerationConfig().isUseCommonsLang3() ? org.apache.commons.lang3.builder.HashCodeBuilder.class : org.apache.commons.lang.builder.HashCodeBuilder.class;
 
@@ -387,15 +632,14 @@ public class ObjectRule implements Rule<JPackage, JType> {
         }
 
         for (JFieldVar fieldVar : fields.values()) {
-            if ((fieldVar.mods().getValue() & JMod.STATIC) == JMod.STATIC) {
+            if (!isCompared(jclass, fieldVar)) {
                 continue;
             }
-            hashCodeBuilderInvocation = hashCodeBuilderInvocation.invoke("append").arg(fieldVar);
+            hashCodeBuilderInvocation = hashCodeBuilderInvocation.invoke("append").arg(isLazyAdditionalProperties(jclass, fieldVar) ? JExpr.invoke(ADDITIONAL_PROPERTIES_GETTER) : fieldVar);
         }
 
         body._return(hashCodeBuilderInvocation.invoke("toHashCode"));
 
-        hashCode.annotate(Override.class);
     }
 
     private void addConstructors(JDefinedClass jclass, JsonNode node, Schema schema, boolean onlyRequired) {
@@ -490,6 +734,31 @@ public class ObjectRule implements Rule<JPackage, JType> {
         return field;
     }
 
+    /**
+     * Whether the given field is compared by equals and included in the hash
+     * code. Static and transient fields aren't, except for the presence
+     * fields of tracked properties.
+     */
+    private boolean isCompared(JDefinedClass jclass, JFieldVar field) {
+        int mods = field.mods().getValue();
+        if ((mods & JMod.STATIC) != 0) {
+            return false;
+        }
+        return (mods & JMod.TRANSIENT) == 0 || PresenceHelper.isPresenceField(jclass, field);
+    }
+
+    /**
+     * Whether the given field is an additional properties map that is only
+     * allocated when the first additional property is set. Such a map is
+     * compared and hashed through its getter, so that an instance that never
+     * had an additional property equals one whose map has been emptied.
+     */
+    private boolean isLazyAdditionalProperties(JDefinedClass jclass, JFieldVar field) {
+        return ruleFactory.getGenerationConfig().isLazyAdditionalProperties()
+                && field.name().equals("additionalProperties")
+                && jclass.getMethod(ADDITIONAL_PROPERTIES_GETTER, new JType[0]) != null;
+    }
+
     private void addEquals(JDefinedClass jclass) {
         Map<String, JFieldVar> fields = jclass.fields();
 
@@ -512,7 +781,13 @@ public class ObjectRule implements Rule<JPackage, JType> {
         }
 
         for (JFieldVar fieldVar : fields.values()) {
-            if ((fieldVar.mods().getValue() & JMod.STATIC) == JMod.STATIC) {
+            if (!isCompared(jclass, fieldVar)) {
+                continue;
+            }
+            if (isLazyAdditionalProperties(jclass, fieldVar)) {
+                equalsBuilderInvocation = equalsBuilderInvocation.invoke("append")
+                        .arg(JExpr.invoke(ADDITIONAL_PROPERTIES_GETTER))
+                        .arg(rhsVar.invoke(ADDITIONAL_PROPERTIES_GETTER));
                 continue;
             }
             equalsBuilderInvocation = equalsBuilderInvocation.invoke("append")
@@ -529,6 +804,118 @@ public class ObjectRule implements Rule<JPackage, JType> {
         equals.annotate(Override.class);
     }
 
+    /**
+     * Adds a hashCode method that combines the hash of each field as
+     * <code>31 * result + hash</code>, without creating a builder or boxing
+     * primitive values.
+     */
+    private void addAllocationFreeHashCode(JDefinedClass jclass) {
+        Map<String, JFieldVar> fields = jclass.fields();
+
+        JMethod hashCode = addHashCodeMethod(jclass);
+
+        JBlock body = hashCode.body();
+        JVar result = body.decl(jclass.owner().INT, "result", JExpr.lit(1));
+
+        if (!jclass._extends().fullName().equals(Object.class.getName())) {
+            body.assign(result, JExpr.lit(31).mul(result).plus(JExpr._super().invoke("hashCode")));
+        }
+
+        for (JFieldVar fieldVar : fields.values()) {
+            if (!isCompared(jclass, fieldVar)) {
+                continue;
+            }
+            JExpression value = isLazyAdditionalProperties(jclass, fieldVar) ? JExpr.invoke(ADDITIONAL_PROPERTIES_GETTER) : JExpr._this().ref(fieldVar);
+            body.assign(result, JExpr.lit(31).mul(result).plus(hashOf(jclass.owner(), fieldVar.type(), value)));
+        }
+
+        body._return(result);
+
+    }
+
+    private JExpression hashOf(JCodeModel owner, JType type, JExpression value) {
+        String name = type.fullName();
+
+        if (type.isArray()) {
+            return owner.ref(Arrays.class).staticInvoke("hashCode").arg(value);
+        } else if (name.equals("boolean")) {
+            return JOp.cond(value, JExpr.lit(1231), JExpr.lit(1237));
+        } else if (name.equals("long")) {
+            return JExpr.cast(owner.INT, JOp.xor(value, JOp.shrz(value, JExpr.lit(32))));
+        } else if (name.equals("double")) {
+            JExpression bits = owner.ref(Double.class).staticInvoke("doubleToLongBits").arg(value);
+            return JExpr.cast(owner.INT, JOp.xor(bits, JOp.shrz(bits, JExpr.lit(32))));
+        } else if (name.equals("float")) {
+            return owner.ref(Float.class).staticInvoke("floatToIntBits").arg(value);
+        } else if (type.isPrimitive()) {
+            return value;
+        } else {
+            return JOp.cond(value.eq(JExpr._null()), JExpr.lit(0), value.invoke("hashCode"));
+        }
+    }
+
+    /**
+     * Adds an equals method that compares each field directly, returning as
+     * soon as a field differs, without creating a builder or boxing primitive
+     * values.
+     */
+    private void addAllocationFreeEquals(JDefinedClass jclass) {
+        Map<String, JFieldVar> fields = jclass.fields();
+
+        JMethod equals = jclass.method(JMod.PUBLIC, boolean.class, "equals");
+        JVar otherObject = equals.param(Object.class, "other");
+
+        JBlock body = equals.body();
+
+        body._if(otherObject.eq(JExpr._this()))._then()._return(JExpr.TRUE);
+        body._if(otherObject._instanceof(jclass).eq(JExpr.FALSE))._then()._return(JExpr.FALSE);
+
+        JVar rhsVar = body.decl(jclass, "rhs").init(JExpr.cast(jclass, otherObject));
+
+        JExpression isEqual = null;
+
+        if (!jclass._extends().fullName().equals(Object.class.getName())) {
+            isEqual = JExpr._super().invoke("equals").arg(otherObject);
+        }
+
+        for (JFieldVar fieldVar : fields.values()) {
+            if (!isCompared(jclass, fieldVar)) {
+                continue;
+            }
+            JExpression fieldIsEqual;
+            if (isLazyAdditionalProperties(jclass, fieldVar)) {
+                fieldIsEqual = equalityOf(jclass.owner(), fieldVar.type(), JExpr.invoke(ADDITIONAL_PROPERTIES_GETTER), rhsVar.invoke(ADDITIONAL_PROPERTIES_GETTER));
+            } else {
+                fieldIsEqual = equalityOf(jclass.owner(), fieldVar.type(), JExpr._this().ref(fieldVar), rhsVar.ref(fieldVar.name()));
+            }
+            isEqual = isEqual == null ? fieldIsEqual : isEqual.cand(fieldIsEqual);
+        }
+
+        body._return(isEqual == null ? JExpr.TRUE : isEqual);
+
+        equals.annotate(Override.class);
+    }
+
+    private JExpression equalityOf(JCodeModel owner, JType type, JExpression lhs, JExpression rhs) {
+        String name = type.fullName();
+
+        if (type.isArray()) {
+            return owner.ref(Arrays.class).staticInvoke("equals").arg(lhs).arg(rhs);
+        } else if (name.equals("double")) {
+            JClass doubleClass = owner.ref(Double.class);
+            return doubleClass.staticInvoke("doubleToLongBits").arg(lhs).eq(doubleClass.staticInvoke("doubleToLongBits").arg(rhs));
+        } else if (name.equals("float")) {
+            JClass floatClass = owner.ref(Float.class);
+            return floatClass.staticInvoke("floatToIntBits").arg(lhs).eq(floatClass.staticInvoke("floatToIntBits").arg(rhs));
+        } else if (type.isPrimitive()) {
+            return lhs.eq(rhs);
+        } else if (LanguageFeatures.canUseJava7(ruleFactory.getGenerationConfig())) {
+            return owner.ref("java.util.Objects").staticInvoke("equals").arg(lhs).arg(rhs);
+        } else {
+            return lhs.eq(rhs).cor(lhs.ne(JExpr._null()).cand(lhs.invoke("equals").arg(rhs)));
+        }
+    }
+
     private void addInterfaces(JDefinedClass jclass, JsonNode javaInterfaces) {
         for (JsonNode i : javaInterfaces) {
             jclass._implements(resolveType(jclass._package(), i.asText()));
@@ -19,6 +19,7 @@ package org.jsonschema2pojo.rules;
 import java.util.Iterator;
 
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.ImmutableHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -70,7 +71,9 @@ public class PropertiesRule implements Rule<JDefinedClass, JDefinedClass> {
             ruleFactory.getPropertyRule().apply(property, node.get(property), jclass, schema);
         }
 
-        if (ruleFactory.getGenerationConfig().isGenerateBuilders() && !jclass._extends().name().equals("Object")) {
+        if (ruleFactory.getGenerationConfig().isImmutableTypes()) {
+            addOverrideBuilders(ImmutableHelper.getBuilder(jclass), ImmutableHelper.getBuilder(jclass._extends()));
+        } else if (ruleFactory.getGenerationConfig().isGenerateBuilders() && !jclass._extends().name().equals("Object")) {
             addOverrideBuilders(jclass, jclass.owner()._getClass(jclass._extends().fullName()));
         }
 
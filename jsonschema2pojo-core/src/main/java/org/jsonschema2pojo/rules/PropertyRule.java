@@ -20,12 +20,16 @@ import static org.apache.commons.lang3.StringUtils.*;
 
 import org.jsonschema2pojo.GenerationConfig;
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.ImmutableHelper;
+import org.jsonschema2pojo.util.PresenceHelper;
+import org.jsonschema2pojo.util.ValidatorHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JDocCommentable;
 import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JFieldVar;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
@@ -59,6 +63,21 @@ public class PropertyRule implements Rule<JDefinedClass, JDefinedClass> {
      * (see {@link GenerationConfig#isGenerateBuilders()} ),
      * then a builder method of the form <code>withFoo(Foo foo);</code> is also
      * added.
+     * <p>
+     * If this rule's schema mapper is configured to generate immutable types
+     * (see {@link GenerationConfig#isImmutableTypes()} ), then the field is
+     * final, no setter is added, and the builder method (along with a field
+     * holding the default value) is added to the builder of the type instead.
+     * <p>
+     * If this rule's schema mapper is configured to track presence (see
+     * {@link GenerationConfig#isTrackPresence()} ), then a primitive property
+     * is also given <code>hasFoo()</code> and <code>clearFoo()</code>
+     * methods, and a bit in the presence bitmask of the type that the setter
+     * (and builder method) sets.
+     * <p>
+     * If this rule's schema mapper is configured to generate reset methods
+     * (see {@link GenerationConfig#isGenerateReset()} ), then the reset method
+     * of the type returns the property to its default value.
      *
      * @param nodeName
      *            the name of the property to be applied
@@ -76,8 +95,10 @@ public class PropertyRule implements Rule<JDefinedClass, JDefinedClass> {
 
         node = resolveRefs(node, schema);
 
+        boolean immutable = ruleFactory.getGenerationConfig().isImmutableTypes();
+
         int accessModifier = ruleFactory.getGenerationConfig().isIncludeAccessors() ? JMod.PRIVATE : JMod.PUBLIC;
-        JFieldVar field = jclass.field(accessModifier, propertyType, propertyName);
+        JFieldVar field = jclass.field(immutable ? accessModifier | JMod.FINAL : accessModifier, propertyType, propertyName);
 
         propertyAnnotations(nodeName, node, schema, field);
 
@@ -85,25 +106,49 @@ public class PropertyRule implements Rule<JDefinedClass, JDefinedClass> {
 
         ruleFactory.getAnnotator().propertyField(field, jclass, nodeName, node);
 
+        JMethod setter = null;
         if (ruleFactory.getGenerationConfig().isIncludeAccessors()) {
             JMethod getter = addGetter(jclass, field, nodeName, node);
             ruleFactory.getAnnotator().propertyGetter(getter, nodeName);
             propertyAnnotations(nodeName, node, schema, getter);
 
-            JMethod setter = addSetter(jclass, field, nodeName, node);
-            ruleFactory.getAnnotator().propertySetter(setter, nodeName);
-            propertyAnnotations(nodeName, node, schema, setter);
+            if (!immutable) {
+                setter = addSetter(jclass, field, nodeName, node);
+                ruleFactory.getAnnotator().propertySetter(setter, nodeName);
+                propertyAnnotations(nodeName, node, schema, setter);
+            }
         }
 
-        if (ruleFactory.getGenerationConfig().isGenerateBuilders()) {
-            addBuilder(jclass, field);
+        JFieldVar defaultField = field;
+
+        JMethod builderMethod = null;
+        if (immutable) {
+            JDefinedClass builder = ImmutableHelper.getBuilder(jclass);
+            defaultField = builder.field(JMod.PRIVATE, propertyType, propertyName);
+            builderMethod = addBuilder(builder, defaultField);
+            ruleFactory.getAnnotator().propertySetter(builderMethod, nodeName);
+        } else if (ruleFactory.getGenerationConfig().isGenerateBuilders()) {
+            builderMethod = addBuilder(jclass, field);
+        }
+
+        if (PresenceHelper.isTracked(ruleFactory.getGenerationConfig()) && setter != null && field.type().isPrimitive()) {
+            JExpression defaultValue = DefaultRule.getDefaultRule(ruleFactory).getDefault(field.type(), node.get("default"));
+            if (builderMethod != null) {
+                PresenceHelper.addPresenceTracking(jclass, field, defaultValue, setter, builderMethod);
+            } else {
+                PresenceHelper.addPresenceTracking(jclass, field, defaultValue, setter);
+            }
         }
 
         if (node.has("pattern")) {
             ruleFactory.getPatternRule().apply(nodeName, node.get("pattern"), field, schema);
         }
 
-        ruleFactory.getDefaultRule().apply(nodeName, node.get("default"), field, schema);
+        ruleFactory.getDefaultRule().apply(nodeName, node.get("default"), defaultField, schema);
+
+        if (ruleFactory.getGenerationConfig().isGenerateReset()) {
+            ruleFactory.getResetRule().apply(nodeName, node, jclass, schema);
+        }
 
         ruleFactory.getMinimumMaximumRule().apply(nodeName, node, field, schema);
 
@@ -111,10 +156,15 @@ public class PropertyRule implements Rule<JDefinedClass, JDefinedClass> {
 
         ruleFactory.getMinLengthMaxLengthRule().apply(nodeName, node, field, schema);
 
-        if (isObject(node) || isArray(node)) {
+        // primitive arrays have no elements to cascade validation to
+        if (isObject(node) || isArray(node) && !field.type().isArray()) {
             ruleFactory.getValidRule().apply(nodeName, node, field, schema);
         }
 
+        if (ruleFactory.getGenerationConfig().isGenerateValidators()) {
+            ValidatorHelper.addPropertyChecks(jclass, field, nodeName, node);
+        }
+
         return jclass;
     }
 
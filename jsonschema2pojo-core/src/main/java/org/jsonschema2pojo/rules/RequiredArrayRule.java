@@ -24,6 +24,7 @@ import javax.annotation.Nonnull;
 import javax.validation.constraints.NotNull;
 
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.ValidatorHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JDefinedClass;
@@ -81,6 +82,10 @@ public class RequiredArrayRule implements Rule<JDefinedClass, JDefinedClass> {
                 addNonnullAnnotation(field);
             }
 
+            if (ruleFactory.getGenerationConfig().isGenerateValidators() && !isRequiredByPropertySchema(properties, requiredArrayItem, schema)) {
+                ValidatorHelper.addRequiredCheck(jclass, field, requiredArrayItem);
+            }
+
             requiredFieldMethods.add(getGetterName(fieldName, field.type(), node));
             requiredFieldMethods.add(getSetterName(fieldName, node));
         }
@@ -90,6 +95,18 @@ public class RequiredArrayRule implements Rule<JDefinedClass, JDefinedClass> {
         return jclass;
     }
 
+    /**
+     * Whether the schema of the given property is marked as required itself,
+     * in which case the property rule has already added a required check.
+     */
+    private boolean isRequiredByPropertySchema(JsonNode properties, String propertyName, Schema schema) {
+        JsonNode propertyNode = properties == null ? null : properties.get(propertyName);
+        while (propertyNode != null && propertyNode.has("$ref")) {
+            propertyNode = ruleFactory.getSchemaStore().create(schema, propertyNode.get("$ref").asText()).getContent();
+        }
+        return propertyNode != null && propertyNode.path("required").asBoolean();
+    }
+
     private void updateGetterSetterJavaDoc(JDefinedClass jclass, List<String> requiredFieldMethods) {
         for (Iterator<JMethod> methods = jclass.methods().iterator(); methods.hasNext();) {
             JMethod method = methods.next();
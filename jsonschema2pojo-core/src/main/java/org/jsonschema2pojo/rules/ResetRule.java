@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.rules;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.ResetHelper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JType;
+
+/**
+ * Returns a property to its default value in the reset method of a type (see
+ * {@link ResetHelper}).
+ */
+public class ResetRule implements Rule<JDefinedClass, JDefinedClass> {
+
+    private final RuleFactory ruleFactory;
+
+    protected ResetRule(RuleFactory ruleFactory) {
+        this.ruleFactory = ruleFactory;
+    }
+
+    /**
+     * Applies this schema rule to take the required code generation steps.
+     * <p>
+     * The field of the property is assigned the same default value that the
+     * default rule of the rule factory (a {@link DefaultRule}) gives it when an instance is created, or the Java
+     * default for its type if the schema has no default. A List or Set that is
+     * created by default is instead cleared (and refilled with the default
+     * values) when the field already holds one, so that no collection is
+     * allocated. Nothing is added if the type has no reset method.
+     *
+     * @param nodeName
+     *            the name of the property
+     * @param node
+     *            the node describing the characteristics of this property
+     * @param jclass
+     *            the Java class which has this property
+     * @return the given jclass
+     */
+    @Override
+    public JDefinedClass apply(String nodeName, JsonNode node, JDefinedClass jclass, Schema schema) {
+        JMethod reset = ResetHelper.getResetMethod(jclass);
+        JFieldVar field = jclass.fields().get(ruleFactory.getNameHelper().getPropertyName(nodeName, node));
+        if (reset == null || field == null) {
+            return jclass;
+        }
+
+        JBlock body = reset.body();
+        JFieldRef fieldRef = JExpr._this().ref(field);
+        JsonNode defaultNode = node.get("default");
+        DefaultRule defaultRule = DefaultRule.getDefaultRule(ruleFactory);
+        JExpression defaultValue = defaultRule.getDefault(field.type(), defaultNode);
+
+        if (isCreatedByDefault(field.type(), defaultNode)) {
+            JConditional held = body._if(fieldRef.ne(JExpr._null()));
+            held._then().invoke(fieldRef, "clear");
+            if (defaultNode instanceof ArrayNode) {
+                JClass elementType = ((JClass) field.type()).getTypeParameters().get(0);
+                for (JsonNode element : defaultNode) {
+                    held._then().invoke(fieldRef, "add").arg(defaultRule.getDefaultValue(elementType, element));
+                }
+            }
+            held._else().assign(fieldRef, defaultValue);
+        } else if (defaultValue != null) {
+            body.assign(fieldRef, defaultValue);
+        } else if (field.type().isPrimitive()) {
+            body.assign(fieldRef, field.type().fullName().equals("boolean") ? JExpr.FALSE : JExpr.lit(0));
+        } else {
+            body.assign(fieldRef, JExpr._null());
+        }
+
+        return jclass;
+    }
+
+    /**
+     * Whether the default value of a field of the given type is a new List or
+     * Set (see {@link DefaultRule}).
+     */
+    private boolean isCreatedByDefault(JType fieldType, JsonNode defaultNode) {
+        String fieldTypeName = fieldType.fullName();
+        if (!fieldTypeName.startsWith(List.class.getName()) && !fieldTypeName.startsWith(Set.class.getName())) {
+            return false;
+        }
+        if (defaultNode != null && defaultNode.isNull()) {
+            return false;
+        }
+        return defaultNode instanceof ArrayNode && defaultNode.size() > 0 || ruleFactory.getGenerationConfig().isInitializeCollections();
+    }
+
+}
@@ -225,6 +225,17 @@ public class RuleFactory {
         return new DefaultRule(this);
     }
 
+    /**
+     * Provides a rule instance that should be applied when a property
+     * declaration is found in the schema, to return that property to its
+     * default value in the reset method of the type.
+     *
+     * @return a schema rule that adds the reset of a property.
+     */
+    public Rule<JDefinedClass, JDefinedClass> getResetRule() {
+        return new ResetRule(this);
+    }
+
     /**
      * Provides a rule instance that should be applied when a property
      * declaration is found in the schema, to assign any minimum/maximum
@@ -24,6 +24,7 @@ import java.math.BigInteger;
 
 import org.jsonschema2pojo.GenerationConfig;
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.PresenceHelper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.codemodel.JClassContainer;
@@ -143,7 +144,8 @@ public class TypeRule implements Rule<JClassContainer, JType> {
     }
 
     private JType unboxIfNecessary(JType type, GenerationConfig config) {
-        if (config.isUsePrimitives()) {
+        // tracked properties are primitive, with their presence kept apart
+        if (config.isUsePrimitives() || PresenceHelper.isTracked(config)) {
             return type.unboxify();
         } else {
             return type;
@@ -0,0 +1,91 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class DigestUtil {
+
+    /**
+     * Create a hex encoded SHA-1 hash of the UTF-8 bytes of the given value.
+     *
+     * @param value
+     *            the value to hash
+     * @return a 40 character, lower case, hex encoded hash
+     */
+    public static String sha1Hex(String value) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-1").digest(value.getBytes("UTF-8")));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 algorithm not found", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 encoding not found", e);
+        }
+    }
+
+    /**
+     * Create a hex encoded SHA-1 hash of the given bytes.
+     *
+     * @param bytes
+     *            the content to hash
+     * @return a 40 character, lower case, hex encoded hash
+     */
+    public static String sha1Hex(byte[] bytes) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 algorithm not found", e);
+        }
+    }
+
+    /**
+     * Create a hex encoded SHA-1 hash of the bytes read from the given stream.
+     * The stream is read to its end in small chunks (it is never held in
+     * memory as a whole), but is not closed.
+     *
+     * @param stream
+     *            the content to hash
+     * @return a 40 character, lower case, hex encoded hash
+     * @throws IOException
+     *             if the stream can't be read
+     */
+    public static String sha1Hex(InputStream stream) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[8192];
+            for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 algorithm not found", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+}
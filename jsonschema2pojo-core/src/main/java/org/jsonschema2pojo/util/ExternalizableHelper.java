@@ -0,0 +1,276 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.codemodel.ClassType;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+/**
+ * Makes a generated type {@link Externalizable}, so that its fields are
+ * written in a compact binary form, in declaration order, without the field
+ * names and class descriptors written by default Java serialization:
+ * <ul>
+ * <li>primitives are written with the matching <code>DataOutput</code>
+ * method, and boxed primitives are preceded by a boolean null marker</li>
+ * <li>generated types are written inline, by calling their own
+ * <code>writeExternal</code> method (an instance of a subtype is written with
+ * <code>writeObject</code> instead, so that it's read back as the same
+ * type)</li>
+ * <li>primitive arrays, lists, sets and maps with string keys are written as
+ * a size (-1 for null) followed by their elements</li>
+ * <li>any other value (strings, enums, dates, etc.) is written with
+ * <code>writeObject</code></li>
+ * </ul>
+ * Because generated types are written inline, a graph of generated types is
+ * read back as a tree (a value referenced twice is read back as two equal
+ * values).
+ */
+public class ExternalizableHelper {
+
+    private ExternalizableHelper() {
+    }
+
+    public static void addExternalizableSupport(JDefinedClass jclass) {
+        jclass._implements(Externalizable.class);
+
+        addWriteExternal(jclass);
+        addReadExternal(jclass);
+    }
+
+    private static void addWriteExternal(JDefinedClass jclass) {
+        JMethod method = jclass.method(JMod.PUBLIC, void.class, "writeExternal");
+        JVar out = method.param(ObjectOutput.class, "out");
+        method._throws(IOException.class);
+
+        if (isExternalizable(jclass._extends())) {
+            method.body().invoke(JExpr._super(), "writeExternal").arg(out);
+        }
+
+        for (JFieldVar field : jclass.fields().values()) {
+            if ((field.mods().getValue() & JMod.STATIC) == JMod.STATIC) {
+                continue;
+            }
+            writeValue(method.body(), out, field.type(), JExpr._this().ref(field), field.name());
+        }
+    }
+
+    private static void addReadExternal(JDefinedClass jclass) {
+        JMethod method = jclass.method(JMod.PUBLIC, void.class, "readExternal");
+        JVar in = method.param(ObjectInput.class, "in");
+        method._throws(IOException.class);
+        method._throws(ClassNotFoundException.class);
+        method.annotate(SuppressWarnings.class).param("value", "unchecked");
+
+        if (isExternalizable(jclass._extends())) {
+            method.body().invoke(JExpr._super(), "readExternal").arg(in);
+        }
+
+        for (final JFieldVar field : jclass.fields().values()) {
+            if ((field.mods().getValue() & JMod.STATIC) == JMod.STATIC) {
+                continue;
+            }
+            readValue(method.body(), in, field.type(), field.name(), new ValueTarget() {
+                @Override
+                void set(JBlock block, JExpression value) {
+                    block.assign(JExpr._this().ref(field), value);
+                }
+            });
+        }
+    }
+
+    private static void writeValue(JBlock body, JVar out, JType type, JExpression value, String name) {
+        if (type.isPrimitive()) {
+            body.invoke(out, "write" + capitalize(type.name())).arg(value);
+        } else if (type.unboxify().isPrimitive()) {
+            JConditional isNull = body._if(value.eq(JExpr._null()));
+            isNull._then().invoke(out, "writeBoolean").arg(JExpr.FALSE);
+            isNull._else().invoke(out, "writeBoolean").arg(JExpr.TRUE);
+            isNull._else().invoke(out, "write" + capitalize(type.unboxify().name())).arg(value);
+        } else if (isGenerated(type)) {
+            JConditional isExactType = body._if(value.ne(JExpr._null()).cand(value.invoke("getClass").eq(((JClass) type).dotclass())));
+            isExactType._then().invoke(out, "writeBoolean").arg(JExpr.TRUE);
+            isExactType._then().invoke(value, "writeExternal").arg(out);
+            isExactType._else().invoke(out, "writeBoolean").arg(JExpr.FALSE);
+            isExactType._else().invoke(out, "writeObject").arg(value);
+        } else if (isPrimitiveArray(type)) {
+            JConditional isNull = body._if(value.eq(JExpr._null()));
+            isNull._then().invoke(out, "writeInt").arg(JExpr.lit(-1));
+            isNull._else().invoke(out, "writeInt").arg(value.ref("length"));
+
+            JForEach forEach = isNull._else().forEach(type.elementType(), name + "Item", value);
+            writeValue(forEach.body(), out, type.elementType(), forEach.var(), name + "Item");
+        } else if (isCollection(type)) {
+            JConditional isNull = body._if(value.eq(JExpr._null()));
+            isNull._then().invoke(out, "writeInt").arg(JExpr.lit(-1));
+            isNull._else().invoke(out, "writeInt").arg(value.invoke("size"));
+
+            JType itemType = typeParameter(type, 0);
+            JForEach forEach = isNull._else().forEach(itemType, name + "Item", value);
+            writeValue(forEach.body(), out, itemType, forEach.var(), name + "Item");
+        } else if (isStringKeyedMap(type)) {
+            JConditional isNull = body._if(value.eq(JExpr._null()));
+            isNull._then().invoke(out, "writeInt").arg(JExpr.lit(-1));
+            isNull._else().invoke(out, "writeInt").arg(value.invoke("size"));
+
+            JClass valueType = typeParameter(type, 1);
+            JClass entryType = type.owner().ref(Map.Entry.class).narrow(typeParameter(type, 0), valueType);
+            JForEach forEach = isNull._else().forEach(entryType, name + "Entry", value.invoke("entrySet"));
+            forEach.body().invoke(out, "writeObject").arg(forEach.var().invoke("getKey"));
+            writeValue(forEach.body(), out, valueType, forEach.var().invoke("getValue"), name + "Entry");
+        } else {
+            body.invoke(out, "writeObject").arg(value);
+        }
+    }
+
+    private static void readValue(JBlock body, JVar in, JType type, String name, ValueTarget target) {
+        if (type.isPrimitive()) {
+            target.set(body, in.invoke("read" + capitalize(type.name())));
+        } else if (type.unboxify().isPrimitive()) {
+            JConditional isPresent = body._if(in.invoke("readBoolean"));
+            target.set(isPresent._then(), in.invoke("read" + capitalize(type.unboxify().name())));
+            target.set(isPresent._else(), JExpr._null());
+        } else if (isGenerated(type)) {
+            JConditional isExactType = body._if(in.invoke("readBoolean"));
+            JVar value = isExactType._then().decl(type, name + "Value", JExpr._new(type));
+            isExactType._then().invoke(value, "readExternal").arg(in);
+            target.set(isExactType._then(), value);
+            target.set(isExactType._else(), JExpr.cast(type, in.invoke("readObject")));
+        } else if (isPrimitiveArray(type)) {
+            JVar size = body.decl(type.owner().INT, name + "Size", in.invoke("readInt"));
+            JConditional isNull = body._if(size.lt(JExpr.lit(0)));
+            target.set(isNull._then(), JExpr._null());
+
+            JVar value = isNull._else().decl(type, name + "Value", JExpr.newArray(type.elementType(), size));
+            JForLoop forLoop = isNull._else()._for();
+            JVar index = forLoop.init(type.owner().INT, name + "Index", JExpr.lit(0));
+            forLoop.test(index.lt(size));
+            forLoop.update(index.incr());
+            forLoop.body().assign(value.component(index), in.invoke("read" + capitalize(type.elementType().name())));
+
+            target.set(isNull._else(), value);
+        } else if (isCollection(type) || isStringKeyedMap(type)) {
+            JVar size = body.decl(type.owner().INT, name + "Size", in.invoke("readInt"));
+            JConditional isNull = body._if(size.lt(JExpr.lit(0)));
+            target.set(isNull._then(), JExpr._null());
+
+            final JVar value = isNull._else().decl(type, name + "Value", JExpr._new(implementationType(type)).arg(size));
+            JForLoop forLoop = isNull._else()._for();
+            JVar index = forLoop.init(type.owner().INT, name + "Index", JExpr.lit(0));
+            forLoop.test(index.lt(size));
+            forLoop.update(index.incr());
+
+            if (isCollection(type)) {
+                readValue(forLoop.body(), in, typeParameter(type, 0), name + "Item", new ValueTarget() {
+                    @Override
+                    void set(JBlock block, JExpression item) {
+                        block.invoke(value, "add").arg(item);
+                    }
+                });
+            } else {
+                final JVar key = forLoop.body().decl(typeParameter(type, 0), name + "Key", JExpr.cast(typeParameter(type, 0), in.invoke("readObject")));
+                readValue(forLoop.body(), in, typeParameter(type, 1), name + "Entry", new ValueTarget() {
+                    @Override
+                    void set(JBlock block, JExpression entryValue) {
+                        block.invoke(value, "put").arg(key).arg(entryValue);
+                    }
+                });
+            }
+
+            target.set(isNull._else(), value);
+        } else {
+            target.set(body, JExpr.cast(type, in.invoke("readObject")));
+        }
+    }
+
+    private static boolean isExternalizable(JClass type) {
+        return type != null && (isGenerated(type) || type.owner().ref(Externalizable.class).isAssignableFrom(type));
+    }
+
+    /**
+     * Generated object types are made externalizable too, though not
+     * necessarily before the types that refer to them.
+     */
+    private static boolean isGenerated(JType type) {
+        return type instanceof JDefinedClass && ((JDefinedClass) type).getClassType() == ClassType.CLASS;
+    }
+
+    private static boolean isPrimitiveArray(JType type) {
+        return type.isArray() && type.elementType().isPrimitive();
+    }
+
+    private static boolean isCollection(JType type) {
+        return hasErasure(type, List.class) || hasErasure(type, Set.class);
+    }
+
+    private static boolean isStringKeyedMap(JType type) {
+        return hasErasure(type, Map.class) && typeParameter(type, 0).fullName().equals(String.class.getName());
+    }
+
+    private static boolean hasErasure(JType type, Class<?> erasure) {
+        return type instanceof JClass && ((JClass) type).erasure().fullName().equals(erasure.getName())
+                && ((JClass) type).getTypeParameters().size() == (erasure == Map.class ? 2 : 1);
+    }
+
+    private static JClass typeParameter(JType type, int index) {
+        return ((JClass) type).getTypeParameters().get(index);
+    }
+
+    private static JClass implementationType(JType type) {
+        JClass implementation;
+        if (hasErasure(type, List.class)) {
+            implementation = type.owner().ref(ArrayList.class);
+        } else if (hasErasure(type, Set.class)) {
+            implementation = type.owner().ref(LinkedHashSet.class);
+        } else {
+            implementation = type.owner().ref(LinkedHashMap.class);
+        }
+        return implementation.narrow(((JClass) type).getTypeParameters());
+    }
+
+    /**
+     * Where a value that has been read is put (a field, or a collection).
+     */
+    private abstract static class ValueTarget {
+        abstract void set(JBlock block, JExpression value);
+    }
+
+}
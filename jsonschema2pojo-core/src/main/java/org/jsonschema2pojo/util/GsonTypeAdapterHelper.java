@@ -0,0 +1,439 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+import static org.jsonschema2pojo.util.SerializerSupport.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.sun.codemodel.JAnnotationUse;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JCatchBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JTryBlock;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JTypeVar;
+import com.sun.codemodel.JVar;
+
+/**
+ * Adds a Gson type adapter to a generated type, and registers it with a type
+ * adapter factory that is generated in the target package.
+ * <p>
+ * The type adapter is nested in the type, so it reads and writes its fields
+ * directly. Strings, numbers and booleans (and arrays of primitives) are read
+ * and written with the stream API, other values by the type adapters Gson
+ * provides for their type (which for enums honour the {@link SerializedName}
+ * of each constant). <code>date-time</code> properties that are given a
+ * format (see {@link GenerationConfig#isFormatDateTimes()} and
+ * <code>customDateTimePattern</code>) are formatted and parsed by the type
+ * adapter. When a type extends another generated type, the properties of the
+ * supertype are read and written by the type adapter nested in the
+ * supertype. Properties whose presence is tracked (see {@link PresenceHelper})
+ * are only written when they are set. When reset methods are generated (see
+ * {@link GenerationConfig#isGenerateReset()}), the type adapter can also read
+ * into an existing instance, with <code>read(in, instance)</code>.
+ */
+public class GsonTypeAdapterHelper {
+
+    private static final String TYPE_ADAPTER_NAME = "GsonTypeAdapter";
+    private static final String FACTORY_NAME = "GsonTypeAdapterFactory";
+    private static final String ISO8601_DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+
+    /**
+     * Adds a type adapter to the given type, if the type can be read and
+     * written without the Gson annotations it would otherwise need. Types
+     * whose properties use other Gson annotations (like
+     * <code>@JsonAdapter</code> or <code>@Since</code>) are left to Gson.
+     *
+     * @param jclass
+     *            the generated type, with all properties applied
+     * @param properties
+     *            the fields of the properties declared by the type, keyed by
+     *            property name
+     * @param propertiesNode
+     *            the properties of the schema, used to find date formats
+     * @param config
+     *            the generation config
+     * @return whether a type adapter was added
+     */
+    public static boolean addTypeAdapter(JDefinedClass jclass, Map<String, JFieldVar> properties, JsonNode propertiesNode, GenerationConfig config) {
+        if (!isSupported(jclass, properties)) {
+            return false;
+        }
+
+        JDefinedClass typeAdapter = addNestedClass(jclass, TYPE_ADAPTER_NAME);
+        typeAdapter._extends(jclass.owner().ref(TypeAdapter.class).narrow(jclass));
+
+        JMethod constructor = typeAdapter.constructor(JMod.PUBLIC);
+        JVar gson = constructor.param(Gson.class, "gson");
+
+        JDefinedClass superTypeAdapter = getNestedClass(jclass._extends(), TYPE_ADAPTER_NAME);
+        JFieldVar superAdapter = null;
+        if (superTypeAdapter != null) {
+            superAdapter = typeAdapter.field(JMod.PRIVATE | JMod.FINAL, superTypeAdapter, "superTypeAdapter");
+            constructor.body().assign(JExpr._this().ref(superAdapter), JExpr._new(superTypeAdapter).arg(gson));
+        }
+
+        addWrite(jclass, typeAdapter, constructor, gson, properties, propertiesNode, superAdapter, config);
+        addRead(jclass, typeAdapter, constructor, gson, properties, propertiesNode, superAdapter, config);
+
+        JMethod create = getFactory(jclass, config).methods().iterator().next();
+        JBlock createBody = create.body();
+        createBody.pos(createBody.getContents().size() - 1);
+        createBody._if(JExpr.ref("rawType").eq(jclass.dotclass()))._then()
+                ._return(JExpr.cast(create.type(), JExpr._new(typeAdapter).arg(create.params().get(0))));
+        createBody.pos(createBody.getContents().size());
+        return true;
+    }
+
+    private static boolean isSupported(JDefinedClass jclass, Map<String, JFieldVar> properties) {
+        JClass superType = jclass._extends();
+        if (!superType.fullName().equals(Object.class.getName()) && getNestedClass(superType, TYPE_ADAPTER_NAME) == null) {
+            return false;
+        }
+
+        for (JFieldVar field : properties.values()) {
+            for (JAnnotationUse annotation : field.annotations()) {
+                String annotationName = annotation.getAnnotationClass().fullName();
+                if (annotationName.startsWith("com.google.gson.")
+                        && !annotationName.equals(SerializedName.class.getName()) && !annotationName.equals(Expose.class.getName())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static void addWrite(JDefinedClass jclass, JDefinedClass typeAdapter, JMethod constructor, JVar gson, Map<String, JFieldVar> properties, JsonNode propertiesNode, JFieldVar superAdapter, GenerationConfig config) {
+        JMethod writeProperties = typeAdapter.method(JMod.PUBLIC, void.class, "writeProperties");
+        writeProperties._throws(IOException.class);
+        JVar out = writeProperties.param(JsonWriter.class, "out");
+        JVar value = writeProperties.param(jclass, "value");
+
+        for (Map.Entry<String, JFieldVar> property : properties.entrySet()) {
+            JFieldVar field = property.getValue();
+            JBlock block = writeProperties.body();
+            if (PresenceHelper.isTracked(jclass, field)) {
+                block = block._if(PresenceHelper.isPresent(value, field))._then();
+            }
+            block.invoke(out, "name").arg(JExpr.lit(property.getKey()));
+            writeValue(block, typeAdapter, constructor, gson, field.name(), field.type(), value.ref(field), out, getDateFormat(field, propertiesNode.path(property.getKey()), config));
+        }
+
+        if (superAdapter != null) {
+            writeProperties.body().invoke(superAdapter, "writeProperties").arg(out).arg(value);
+        }
+
+        JMethod write = typeAdapter.method(JMod.PUBLIC, void.class, "write");
+        write.annotate(Override.class);
+        write._throws(IOException.class);
+        out = write.param(JsonWriter.class, "out");
+        value = write.param(jclass, "value");
+
+        JBlock body = write.body();
+        JBlock ifNull = body._if(value.eq(JExpr._null()))._then();
+        ifNull.invoke(out, "nullValue");
+        ifNull._return();
+
+        body.invoke(out, "beginObject");
+        body.invoke(writeProperties).arg(out).arg(value);
+
+        JMethod additionalPropertiesGetter = findMethod(jclass, "getAdditionalProperties");
+        if (additionalPropertiesGetter != null) {
+            List<JClass> mapTypes = ((JClass) additionalPropertiesGetter.type()).getTypeParameters();
+            JFieldVar additionalPropertiesAdapter = getAdapter(typeAdapter, constructor, gson, "additionalProperties", mapTypes.get(1));
+            JForEach additionalProperties = body.forEach(jclass.owner().ref(Map.Entry.class).narrow(mapTypes), "additionalProperty",
+                    value.invoke(additionalPropertiesGetter).invoke("entrySet"));
+            JVar additionalProperty = additionalProperties.var();
+            additionalProperties.body().invoke(out, "name").arg(additionalProperty.invoke("getKey"));
+            additionalProperties.body().invoke(additionalPropertiesAdapter, "write").arg(out).arg(additionalProperty.invoke("getValue"));
+        }
+
+        body.invoke(out, "endObject");
+    }
+
+    private static void writeValue(JBlock block, JDefinedClass typeAdapter, JMethod constructor, JVar gson, String name, JType type, JExpression field, JVar out, String[] dateFormat) {
+        JCodeModel owner = type.owner();
+        String typeName = type.fullName();
+
+        if (type.isPrimitive()) {
+            JExpression primitiveValue = typeName.equals("float") ? owner.ref(Float.class).staticInvoke("valueOf").arg(field) : field;
+            block.invoke(out, "value").arg(primitiveValue);
+        } else if (typeName.equals(String.class.getName()) || isNumber(type)) {
+            block.invoke(out, "value").arg(field);
+        } else if (typeName.equals(Boolean.class.getName()) || dateFormat != null) {
+            JConditional ifNull = block._if(field.eq(JExpr._null()));
+            ifNull._then().invoke(out, "nullValue");
+            JExpression nonNullValue = dateFormat != null ? dateFormat(typeAdapter, dateFormat).invoke("format").arg(field) : field.invoke("booleanValue");
+            ifNull._else().invoke(out, "value").arg(nonNullValue);
+        } else if (isPrimitiveArray(type)) {
+            JConditional ifNull = block._if(field.eq(JExpr._null()));
+            ifNull._then().invoke(out, "nullValue");
+            JBlock notNull = ifNull._else();
+            notNull.invoke(out, "beginArray");
+            JForEach elements = notNull.forEach(type.elementType(), "element", field);
+            writeValue(elements.body(), typeAdapter, constructor, gson, name, type.elementType(), elements.var(), out, null);
+            notNull.invoke(out, "endArray");
+        } else {
+            block.invoke(getAdapter(typeAdapter, constructor, gson, name, type), "write").arg(out).arg(field);
+        }
+    }
+
+    private static void addRead(JDefinedClass jclass, JDefinedClass typeAdapter, JMethod constructor, JVar gson, Map<String, JFieldVar> properties, JsonNode propertiesNode, JFieldVar superAdapter, GenerationConfig config) {
+        JDefinedClass builder = config.isImmutableTypes() ? ImmutableHelper.getBuilder(jclass) : null;
+        JDefinedClass target = builder != null ? builder : jclass;
+        String targetName = builder != null ? "builder" : "instance";
+
+        JMethod readProperty = typeAdapter.method(JMod.PUBLIC, boolean.class, "readProperty");
+        readProperty._throws(IOException.class);
+        JVar in = readProperty.param(JsonReader.class, "in");
+        JVar name = readProperty.param(String.class, "name");
+        JVar instance = readProperty.param(target, targetName);
+
+        JExpression unknownProperty = superAdapter != null ? superAdapter.invoke("readProperty").arg(in).arg(name).arg(instance) : JExpr.FALSE;
+        Map<String, JBlock> branches = addPropertyBranches(readProperty.body(), name, properties.keySet(), unknownProperty, config);
+
+        for (Map.Entry<String, JFieldVar> property : properties.entrySet()) {
+            JBlock block = branches.get(property.getKey());
+            JFieldVar field = target.fields().get(property.getValue().name());
+            JBlock assigned = readValue(block, typeAdapter, constructor, gson, field.name(), field.type(), instance.ref(field), in, getDateFormat(property.getValue(), propertiesNode.path(property.getKey()), config));
+            PresenceHelper.markPresent(assigned, target, instance, field);
+            block._return(JExpr.TRUE);
+        }
+
+        JMethod read = typeAdapter.method(JMod.PUBLIC, jclass, "read");
+        read.annotate(Override.class);
+        read._throws(IOException.class);
+        in = read.param(JsonReader.class, "in");
+
+        JBlock body = read.body();
+        JClass tokenType = jclass.owner().ref(JsonToken.class);
+        JBlock ifNull = body._if(in.invoke("peek").eq(tokenType.staticRef("NULL")))._then();
+        ifNull.invoke(in, "nextNull");
+        ifNull._return(JExpr._null());
+
+        if (builder == null && config.isGenerateReset()) {
+            // populates an existing instance, such as one taken from a pool
+            JMethod readInto = typeAdapter.method(JMod.PUBLIC, jclass, "read");
+            readInto._throws(IOException.class);
+            body._return(JExpr.invoke(readInto).arg(in).arg(JExpr._new(jclass)));
+
+            in = readInto.param(JsonReader.class, "in");
+            instance = readInto.param(jclass, targetName);
+            body = readInto.body();
+            ifNull = body._if(in.invoke("peek").eq(tokenType.staticRef("NULL")))._then();
+            ifNull.invoke(in, "nextNull");
+            ifNull._return(JExpr._null());
+        } else {
+            instance = body.decl(target, targetName, JExpr._new(target));
+        }
+        body.invoke(in, "beginObject");
+
+        JBlock loop = body._while(in.invoke("hasNext")).body();
+        name = loop.decl(jclass.owner().ref(String.class), "name", in.invoke("nextName"));
+        JBlock unknown = loop._if(JExpr.invoke(readProperty).arg(in).arg(name).arg(instance).not())._then();
+
+        JMethod additionalPropertySetter = findMethod(target, builder != null ? "withAdditionalProperty" : "setAdditionalProperty");
+        if (additionalPropertySetter != null) {
+            JFieldVar additionalPropertiesAdapter = getAdapter(typeAdapter, constructor, gson, "additionalProperties", additionalPropertySetter.listParamTypes()[1]);
+            unknown.invoke(instance, additionalPropertySetter).arg(name).arg(additionalPropertiesAdapter.invoke("read").arg(in));
+        } else {
+            unknown.invoke(in, "skipValue");
+        }
+
+        body.invoke(in, "endObject");
+        body._return(builder != null ? instance.invoke("build") : instance);
+    }
+
+    /**
+     * Adds the statements that read a value into the given field.
+     *
+     * @return the block in which the value is assigned, if it isn't null
+     */
+    private static JBlock readValue(JBlock block, JDefinedClass typeAdapter, JMethod constructor, JVar gson, String name, JType type, JFieldRef field, JVar in, String[] dateFormat) {
+        JCodeModel owner = type.owner();
+        String typeName = type.unboxify().fullName();
+
+        if (isPrimitiveArray(type)) {
+            block.assign(field, JExpr.invoke(getPrimitiveArrayReader(typeAdapter, type, owner.ref(JsonReader.class), owner.ref(JsonToken.class))).arg(in));
+            return block;
+        }
+
+        JExpression scalarValue = null;
+        if (typeName.equals(String.class.getName())) {
+            scalarValue = in.invoke("nextString");
+        } else if (typeName.equals("int")) {
+            scalarValue = in.invoke("nextInt");
+        } else if (typeName.equals("long")) {
+            scalarValue = in.invoke("nextLong");
+        } else if (typeName.equals("double")) {
+            scalarValue = in.invoke("nextDouble");
+        } else if (typeName.equals("float")) {
+            scalarValue = JExpr.cast(owner.FLOAT, in.invoke("nextDouble"));
+        } else if (typeName.equals("boolean")) {
+            scalarValue = in.invoke("nextBoolean");
+        } else if (typeName.equals(BigDecimal.class.getName()) || typeName.equals(BigInteger.class.getName())) {
+            scalarValue = JExpr._new(type).arg(in.invoke("nextString"));
+        }
+
+        if (scalarValue == null && dateFormat == null) {
+            block.assign(field, getAdapter(typeAdapter, constructor, gson, name, type).invoke("read").arg(in));
+            return block;
+        }
+
+        JConditional ifNull = block._if(in.invoke("peek").eq(owner.ref(JsonToken.class).staticRef("NULL")));
+        ifNull._then().invoke(in, "nextNull");
+        if (!type.isPrimitive()) {
+            ifNull._then().assign(field, JExpr._null());
+        }
+
+        if (dateFormat != null) {
+            JTryBlock parse = ifNull._else()._try();
+            parse.body().assign(field, dateFormat(typeAdapter, dateFormat).invoke("parse").arg(in.invoke("nextString")));
+            JCatchBlock parseError = parse._catch(owner.ref(ParseException.class));
+            parseError.body()._throw(JExpr._new(owner.ref(JsonSyntaxException.class)).arg(parseError.param("e")));
+            return parse.body();
+        } else {
+            ifNull._else().assign(field, scalarValue);
+            return ifNull._else();
+        }
+    }
+
+    private static boolean isNumber(JType type) {
+        String typeName = type.fullName();
+        return type.unboxify().isPrimitive() && !typeName.equals(Boolean.class.getName()) && !typeName.equals(Character.class.getName())
+                || typeName.equals(BigDecimal.class.getName()) || typeName.equals(BigInteger.class.getName());
+    }
+
+    /**
+     * @return the pattern and time zone used to format the given field, or
+     *         null if the field is a date-time that Gson formats itself
+     */
+    private static String[] getDateFormat(JFieldVar field, JsonNode propertyNode, GenerationConfig config) {
+        if (!field.type().fullName().equals(Date.class.getName()) || !"date-time".equalsIgnoreCase(propertyNode.path("format").asText())) {
+            return null;
+        }
+
+        String pattern = config.isFormatDateTimes() ? ISO8601_DATE_TIME_FORMAT : null;
+        if (propertyNode.has("customDateTimePattern")) {
+            pattern = propertyNode.get("customDateTimePattern").asText();
+        }
+        String timezone = propertyNode.has("customTimezone") ? propertyNode.get("customTimezone").asText() : "UTC";
+
+        return pattern != null ? new String[] { pattern, timezone } : null;
+    }
+
+    private static JExpression dateFormat(JDefinedClass typeAdapter, String[] dateFormat) {
+        JCodeModel owner = typeAdapter.owner();
+
+        // date formats aren't thread-safe, so a new one is created each time
+        JMethod dateFormatMethod = typeAdapter.getMethod("dateFormat", new JType[] { owner.ref(String.class), owner.ref(String.class) });
+        if (dateFormatMethod == null) {
+            dateFormatMethod = typeAdapter.method(JMod.PRIVATE | JMod.STATIC, DateFormat.class, "dateFormat");
+            JVar pattern = dateFormatMethod.param(String.class, "pattern");
+            JVar timezone = dateFormatMethod.param(String.class, "timezone");
+            JVar format = dateFormatMethod.body().decl(owner.ref(DateFormat.class), "format", JExpr._new(owner.ref(SimpleDateFormat.class)).arg(pattern));
+            dateFormatMethod.body().invoke(format, "setTimeZone").arg(owner.ref(TimeZone.class).staticInvoke("getTimeZone").arg(timezone));
+            dateFormatMethod.body()._return(format);
+        }
+
+        return JExpr.invoke(dateFormatMethod).arg(JExpr.lit(dateFormat[0])).arg(JExpr.lit(dateFormat[1]));
+    }
+
+    private static JFieldVar getAdapter(JDefinedClass typeAdapter, JMethod constructor, JVar gson, String name, JType type) {
+        String adapterName = name + "Adapter";
+
+        JFieldVar adapter = typeAdapter.fields().get(adapterName);
+        if (adapter == null) {
+            JCodeModel owner = typeAdapter.owner();
+            JClass valueType = type.boxify();
+            adapter = typeAdapter.field(JMod.PRIVATE | JMod.FINAL, owner.ref(TypeAdapter.class).narrow(valueType), adapterName);
+
+            JExpression adapterType = valueType.dotclass();
+            if (!valueType.getTypeParameters().isEmpty()) {
+                adapterType = JExpr._new(owner.anonymousClass(owner.ref(TypeToken.class).narrow(valueType)));
+            }
+            constructor.body().assign(JExpr._this().ref(adapter), gson.invoke("getAdapter").arg(adapterType));
+        }
+        return adapter;
+    }
+
+    private static JDefinedClass getFactory(JDefinedClass jclass, GenerationConfig config) {
+        JPackage _package = jclass.owner()._package(defaultString(config.getTargetPackage()));
+
+        JDefinedClass factory = _package._getClass(FACTORY_NAME);
+        if (factory == null) {
+            try {
+                factory = _package._class(FACTORY_NAME);
+            } catch (JClassAlreadyExistsException e) {
+                throw new GenerationException(e);
+            }
+            factory._implements(TypeAdapterFactory.class);
+            factory.javadoc().add("Creates the generated type adapter of each type.");
+
+            JCodeModel owner = jclass.owner();
+            JMethod create = factory.method(JMod.PUBLIC, owner.VOID, "create");
+            create.annotate(Override.class);
+            create.annotate(SuppressWarnings.class).param("value", "unchecked");
+            JTypeVar t = create.generify("T");
+            create.type(owner.ref(TypeAdapter.class).narrow(t));
+            create.param(Gson.class, "gson");
+            JVar type = create.param(owner.ref(TypeToken.class).narrow(t), "type");
+            create.body().decl(owner.ref(Class.class).narrow(owner.wildcard()), "rawType", type.invoke("getRawType"));
+            create.body()._return(JExpr._null());
+        }
+        return factory;
+    }
+
+}
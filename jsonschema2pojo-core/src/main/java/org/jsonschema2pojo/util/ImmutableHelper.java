@@ -0,0 +1,202 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+/**
+ * Adds the builder, constructors and cached hashCode of an immutable type.
+ * <p>
+ * An immutable type has a nested builder class that holds a value (and the
+ * default value) for each property until the type is built. When a type
+ * extends another generated type, its builder extends the builder of the
+ * supertype.
+ */
+public class ImmutableHelper {
+
+    private static final String BUILDER_NAME = "Builder";
+    private static final String CACHED_HASH_CODE_NAME = "cachedHashCode";
+
+    /**
+     * Adds an empty builder to the given type. Builder fields and methods are
+     * added as each property is applied.
+     *
+     * @param jclass
+     *            the immutable type
+     * @return the builder class, nested in the given type
+     */
+    public static JDefinedClass addBuilder(JDefinedClass jclass) {
+        JDefinedClass builder;
+        try {
+            builder = jclass._class(JMod.PUBLIC | JMod.STATIC, builderName(jclass));
+        } catch (JClassAlreadyExistsException e) {
+            return e.getExistingClass();
+        }
+
+        JDefinedClass superBuilder = getBuilder(jclass._extends());
+        if (superBuilder != null) {
+            builder._extends(superBuilder);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Finds the builder of the given type.
+     *
+     * @param jclass
+     *            a type that may be an immutable generated type
+     * @return the builder nested in the given type, or null if the type has
+     *         no builder
+     */
+    public static JDefinedClass getBuilder(JClass jclass) {
+        if (jclass instanceof JDefinedClass) {
+            for (Iterator<JDefinedClass> classes = ((JDefinedClass) jclass).classes(); classes.hasNext();) {
+                JDefinedClass nestedClass = classes.next();
+                if (nestedClass.name().equals(builderName(jclass))) {
+                    return nestedClass;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String builderName(JClass jclass) {
+        return jclass.name().equals(BUILDER_NAME) ? jclass.name() + BUILDER_NAME : BUILDER_NAME;
+    }
+
+    /**
+     * Adds the constructors of an immutable type, and the method that builds
+     * it. Every final field of the type is assigned from the builder field of
+     * the same name, with collections copied into unmodifiable collections.
+     * A private no-args constructor creates an instance holding the default
+     * values, for use by libraries that assign fields directly.
+     *
+     * @param jclass
+     *            the immutable type, with all properties applied
+     */
+    public static void addConstructors(JDefinedClass jclass) {
+        JDefinedClass builder = getBuilder(jclass);
+
+        JMethod noargsConstructor = jclass.constructor(JMod.PRIVATE);
+        noargsConstructor.javadoc().add("No args constructor for use in serialization");
+        noargsConstructor.body().invoke("this").arg(JExpr._new(builder));
+
+        JMethod builderConstructor = jclass.constructor(JMod.PROTECTED);
+        JVar builderParam = builderConstructor.param(builder, "builder");
+        JBlock body = builderConstructor.body();
+
+        if (builder._extends() instanceof JDefinedClass) {
+            body.invoke("super").arg(builderParam);
+        }
+
+        for (JFieldVar field : jclass.fields().values()) {
+            int mods = field.mods().getValue();
+            if ((mods & JMod.STATIC) == JMod.STATIC || (mods & JMod.FINAL) != JMod.FINAL) {
+                continue;
+            }
+            body.assign(JExpr._this().ref(field), unmodifiableCopy(jclass.owner(), field.type(), builderParam.ref(field.name())));
+        }
+
+        JMethod build = builder.method(JMod.PUBLIC, jclass, "build");
+        if (builder._extends() instanceof JDefinedClass) {
+            build.annotate(Override.class);
+        }
+        build.body()._return(JExpr._new(jclass).arg(JExpr._this()));
+    }
+
+    private static JExpression unmodifiableCopy(JCodeModel owner, JType type, JExpression value) {
+        if (type.isArray()) {
+            return JOp.cond(value.eq(JExpr._null()), JExpr._null(), value.invoke("clone"));
+        }
+
+        String typeName = type.erasure().fullName();
+
+        Class<?> copyType;
+        String unmodifiableMethod;
+        if (typeName.equals(List.class.getName())) {
+            copyType = ArrayList.class;
+            unmodifiableMethod = "unmodifiableList";
+        } else if (typeName.equals(Set.class.getName())) {
+            copyType = LinkedHashSet.class;
+            unmodifiableMethod = "unmodifiableSet";
+        } else if (typeName.equals(Map.class.getName())) {
+            copyType = LinkedHashMap.class;
+            unmodifiableMethod = "unmodifiableMap";
+        } else {
+            return value;
+        }
+
+        JClass copyClass = owner.ref(copyType);
+        if (!((JClass) type).getTypeParameters().isEmpty()) {
+            copyClass = copyClass.narrow(((JClass) type).getTypeParameters());
+        }
+        JInvocation unmodifiableCopy = owner.ref(Collections.class).staticInvoke(unmodifiableMethod).arg(JExpr._new(copyClass).arg(value));
+
+        return JOp.cond(value.eq(JExpr._null()), JExpr._null(), unmodifiableCopy);
+    }
+
+    /**
+     * Adds a hashCode method that computes the hash code of an immutable type
+     * once, and then returns the cached value. The hash code is computed by a
+     * private method whose body is left for the caller to fill in.
+     *
+     * @param jclass
+     *            the immutable type
+     * @return the private method that must compute the hash code
+     */
+    public static JMethod addCachedHashCode(JDefinedClass jclass) {
+        JFieldVar cachedHashCode = jclass.field(JMod.PRIVATE | JMod.TRANSIENT, int.class, CACHED_HASH_CODE_NAME);
+
+        JMethod hashCode = jclass.method(JMod.PUBLIC, int.class, "hashCode");
+        JMethod computeHashCode = jclass.method(JMod.PRIVATE, int.class, "computeHashCode");
+
+        JBlock body = hashCode.body();
+        JVar result = body.decl(jclass.owner().INT, "result", JExpr._this().ref(cachedHashCode));
+        JBlock compute = body._if(result.eq(JExpr.lit(0)))._then();
+        compute.assign(result, JExpr.invoke(computeHashCode));
+        compute.assign(JExpr._this().ref(cachedHashCode), result);
+        body._return(result);
+
+        hashCode.annotate(Override.class);
+
+        return computeHashCode;
+    }
+
+}
@@ -0,0 +1,451 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+import static org.jsonschema2pojo.util.SerializerSupport.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.InclusionLevel;
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.sun.codemodel.JAnnotationUse;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+import com.sun.codemodel.JWhileLoop;
+
+/**
+ * Adds a Jackson 2.x serializer and deserializer to a generated type, and
+ * registers them with a module that is generated in the target package.
+ * <p>
+ * The serializer and deserializer are nested in the type, so they read and
+ * write its fields directly. When a type extends another generated type, the
+ * properties of the supertype are read and written by the static methods of
+ * the serializer and deserializer nested in the supertype. Arrays of
+ * primitives are written element by element. Values that aren't simple
+ * scalars are read and written by the Jackson serializers and deserializers
+ * found for their type. Properties whose presence is tracked (see
+ * {@link PresenceHelper}) are only written when they are set. When reset
+ * methods are generated (see {@link GenerationConfig#isGenerateReset()}), the
+ * deserializer supports updating an existing instance, as
+ * <code>ObjectMapper.readerForUpdating</code> does.
+ */
+public class Jackson2SerializerHelper {
+
+    private static final String SERIALIZER_NAME = "Jackson2Serializer";
+    private static final String DESERIALIZER_NAME = "Jackson2Deserializer";
+    private static final String MODULE_NAME = "Jackson2Module";
+
+    private static final Set<String> SUPPORTED_ANNOTATIONS = new HashSet<String>(Arrays.asList(
+            JsonProperty.class.getName(), JsonPropertyDescription.class.getName(), JsonDeserialize.class.getName()));
+
+    private static final Map<String, Scalar> SCALARS = new HashMap<String, Scalar>();
+
+    static {
+        scalar("java.lang.String", "VALUE_STRING", "getText", "writeStringField");
+        scalar("int", "VALUE_NUMBER_INT", "getIntValue", "writeNumberField");
+        scalar("java.lang.Integer", "VALUE_NUMBER_INT", "getIntValue", "writeNumberField");
+        scalar("long", "VALUE_NUMBER_INT", "getLongValue", "writeNumberField");
+        scalar("java.lang.Long", "VALUE_NUMBER_INT", "getLongValue", "writeNumberField");
+        scalar("java.math.BigInteger", "VALUE_NUMBER_INT", "getBigIntegerValue", null);
+        scalar("double", "isNumeric", "getDoubleValue", "writeNumberField");
+        scalar("java.lang.Double", "isNumeric", "getDoubleValue", "writeNumberField");
+        scalar("float", "isNumeric", "getFloatValue", "writeNumberField");
+        scalar("java.lang.Float", "isNumeric", "getFloatValue", "writeNumberField");
+        scalar("java.math.BigDecimal", "isNumeric", "getDecimalValue", "writeNumberField");
+        scalar("boolean", "isBoolean", "getBooleanValue", "writeBooleanField");
+        scalar("java.lang.Boolean", "isBoolean", "getBooleanValue", "writeBooleanField");
+    }
+
+    private static void scalar(String type, String token, String readMethod, String writeMethod) {
+        SCALARS.put(type, new Scalar(token, readMethod, writeMethod));
+    }
+
+    /**
+     * Adds a serializer and deserializer to the given type, if the type can
+     * be read and written without the annotations Jackson would otherwise
+     * apply. Types that use polymorphic deserialization, or have properties
+     * with formats, views or custom serializers, are left to Jackson.
+     *
+     * @param jclass
+     *            the generated type, with all properties applied
+     * @param properties
+     *            the fields of the properties declared by the type, keyed by
+     *            property name
+     * @param config
+     *            the generation config
+     * @return whether a serializer and deserializer were added
+     */
+    public static boolean addSerializers(JDefinedClass jclass, Map<String, JFieldVar> properties, GenerationConfig config) {
+        if (!isSupported(jclass, properties)) {
+            return false;
+        }
+
+        JDefinedClass serializer = addSerializer(jclass, properties, config);
+        JDefinedClass deserializer = addDeserializer(jclass, properties, config);
+
+        JBlock moduleConstructor = getModule(jclass, config).getConstructor(new JType[0]).body();
+        moduleConstructor.invoke("addSerializer").arg(jclass.dotclass()).arg(JExpr._new(serializer));
+        moduleConstructor.invoke("addDeserializer").arg(jclass.dotclass()).arg(JExpr._new(deserializer));
+        return true;
+    }
+
+    private static boolean isSupported(JDefinedClass jclass, Map<String, JFieldVar> properties) {
+        JClass superType = jclass._extends();
+        if (!superType.fullName().equals(Object.class.getName()) && getNestedClass(superType, SERIALIZER_NAME) == null) {
+            return false;
+        }
+
+        for (JAnnotationUse annotation : jclass.annotations()) {
+            if (annotation.getAnnotationClass().fullName().equals(JsonTypeInfo.class.getName())) {
+                return false;
+            }
+        }
+
+        for (JFieldVar field : properties.values()) {
+            for (JAnnotationUse annotation : field.annotations()) {
+                String annotationName = annotation.getAnnotationClass().fullName();
+                if (annotationName.startsWith("com.fasterxml.jackson.") && !SUPPORTED_ANNOTATIONS.contains(annotationName)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static JDefinedClass addSerializer(JDefinedClass jclass, Map<String, JFieldVar> properties, GenerationConfig config) {
+        JCodeModel owner = jclass.owner();
+        JDefinedClass serializer = addNestedClass(jclass, SERIALIZER_NAME);
+        serializer._extends(owner.ref(StdSerializer.class).narrow(jclass));
+        serializer.constructor(JMod.PUBLIC).body().invoke("super").arg(jclass.dotclass());
+
+        JMethod writeProperties = serializer.method(JMod.PUBLIC | JMod.STATIC, void.class, "writeProperties");
+        writeProperties._throws(IOException.class);
+        JVar value = writeProperties.param(jclass, "value");
+        JVar generator = writeProperties.param(JsonGenerator.class, "generator");
+        JVar provider = writeProperties.param(SerializerProvider.class, "provider");
+
+        for (Map.Entry<String, JFieldVar> property : properties.entrySet()) {
+            JFieldVar field = property.getValue();
+            JBlock block = writeProperties.body();
+            if (PresenceHelper.isTracked(jclass, field)) {
+                block = block._if(PresenceHelper.isPresent(value, field))._then();
+            }
+            writeProperty(block, property.getKey(), value.ref(field), field.type(), generator, provider, config.getInclusionLevel());
+        }
+
+        JDefinedClass superSerializer = getNestedClass(jclass._extends(), SERIALIZER_NAME);
+        if (superSerializer != null) {
+            writeProperties.body().add(superSerializer.staticInvoke(writeProperties).arg(value).arg(generator).arg(provider));
+        }
+
+        JMethod serialize = serializer.method(JMod.PUBLIC, void.class, "serialize");
+        serialize.annotate(Override.class);
+        serialize._throws(IOException.class);
+        value = serialize.param(jclass, "value");
+        generator = serialize.param(JsonGenerator.class, "generator");
+        provider = serialize.param(SerializerProvider.class, "provider");
+
+        JBlock body = serialize.body();
+        body.invoke(generator, "writeStartObject");
+        body.invoke(writeProperties).arg(value).arg(generator).arg(provider);
+
+        JMethod additionalPropertiesGetter = findMethod(jclass, "getAdditionalProperties");
+        if (additionalPropertiesGetter != null) {
+            List<JClass> mapTypes = ((JClass) additionalPropertiesGetter.type()).getTypeParameters();
+            JClass entryType = owner.ref(Map.Entry.class).narrow(mapTypes);
+            JForEach additionalProperties = body.forEach(entryType, "additionalProperty", value.invoke(additionalPropertiesGetter).invoke("entrySet"));
+            JVar additionalProperty = additionalProperties.var();
+            additionalProperties.body().invoke(provider, "defaultSerializeField")
+                    .arg(additionalProperty.invoke("getKey")).arg(additionalProperty.invoke("getValue")).arg(generator);
+        }
+
+        body.invoke(generator, "writeEndObject");
+
+        return serializer;
+    }
+
+    private static void writeProperty(JBlock block, String name, JExpression field, JType type, JVar generator, JVar provider, InclusionLevel inclusionLevel) {
+        if (isPrimitiveArray(type)) {
+            writeArrayProperty(block, name, field, type, generator, inclusionLevel);
+            return;
+        }
+
+        Scalar scalar = SCALARS.get(type.fullName());
+
+        boolean writesNull = scalar == null || scalar.writeMethod == null;
+
+        JInvocation write;
+        if (writesNull) {
+            write = provider.invoke("defaultSerializeField").arg(JExpr.lit(name)).arg(field).arg(generator);
+        } else {
+            write = generator.invoke(scalar.writeMethod).arg(JExpr.lit(name)).arg(field);
+        }
+
+        if (type.isPrimitive()) {
+            block.add(write);
+        } else if (inclusionLevel == InclusionLevel.ALWAYS || inclusionLevel == InclusionLevel.USE_DEFAULTS) {
+            if (writesNull) {
+                block.add(write);
+            } else {
+                JConditional ifNotNull = block._if(field.ne(JExpr._null()));
+                ifNotNull._then().add(write);
+                ifNotNull._else().invoke(generator, "writeNullField").arg(JExpr.lit(name));
+            }
+        } else {
+            JExpression include = field.ne(JExpr._null());
+            if (inclusionLevel == InclusionLevel.NON_EMPTY && hasIsEmpty(type)) {
+                include = include.cand(field.invoke("isEmpty").not());
+            }
+            block._if(include)._then().add(write);
+        }
+    }
+
+    private static void writeArrayProperty(JBlock block, String name, JExpression field, JType type, JVar generator, InclusionLevel inclusionLevel) {
+        JExpression include = field.ne(JExpr._null());
+        if (inclusionLevel == InclusionLevel.NON_EMPTY) {
+            include = include.cand(field.ref("length").gt(JExpr.lit(0)));
+        }
+
+        JConditional ifIncluded = block._if(include);
+        JBlock write = ifIncluded._then();
+        write.invoke(generator, "writeArrayFieldStart").arg(JExpr.lit(name));
+        JForEach elements = write.forEach(type.elementType(), "element", field);
+        elements.body().invoke(generator, type.elementType().equals(type.owner().BOOLEAN) ? "writeBoolean" : "writeNumber").arg(elements.var());
+        write.invoke(generator, "writeEndArray");
+
+        if (inclusionLevel == InclusionLevel.ALWAYS || inclusionLevel == InclusionLevel.USE_DEFAULTS) {
+            ifIncluded._else().invoke(generator, "writeNullField").arg(JExpr.lit(name));
+        }
+    }
+
+    private static boolean hasIsEmpty(JType type) {
+        String typeName = type.erasure().fullName();
+        return typeName.equals(String.class.getName()) || typeName.equals(Collection.class.getName())
+                || typeName.equals(List.class.getName()) || typeName.equals(Set.class.getName()) || typeName.equals(Map.class.getName());
+    }
+
+    private static JDefinedClass addDeserializer(JDefinedClass jclass, Map<String, JFieldVar> properties, GenerationConfig config) {
+        JCodeModel owner = jclass.owner();
+        JDefinedClass deserializer = addNestedClass(jclass, DESERIALIZER_NAME);
+        deserializer._extends(owner.ref(StdDeserializer.class).narrow(jclass));
+        deserializer.constructor(JMod.PUBLIC).body().invoke("super").arg(jclass.dotclass());
+
+        JDefinedClass builder = config.isImmutableTypes() ? ImmutableHelper.getBuilder(jclass) : null;
+        JDefinedClass target = builder != null ? builder : jclass;
+        String targetName = builder != null ? "builder" : "instance";
+
+        JMethod readProperty = deserializer.method(JMod.PUBLIC | JMod.STATIC, boolean.class, "readProperty");
+        readProperty._throws(IOException.class);
+        JVar instance = readProperty.param(target, targetName);
+        JVar name = readProperty.param(String.class, "name");
+        JVar token = readProperty.param(JsonToken.class, "token");
+        JVar parser = readProperty.param(JsonParser.class, "parser");
+        JVar context = readProperty.param(DeserializationContext.class, "context");
+
+        JExpression unknownProperty = JExpr.FALSE;
+        JDefinedClass superDeserializer = getNestedClass(jclass._extends(), DESERIALIZER_NAME);
+        if (superDeserializer != null) {
+            unknownProperty = superDeserializer.staticInvoke(readProperty).arg(instance).arg(name).arg(token).arg(parser).arg(context);
+        }
+
+        Map<String, JBlock> branches = addPropertyBranches(readProperty.body(), name, properties.keySet(), unknownProperty, config);
+        for (Map.Entry<String, JFieldVar> property : properties.entrySet()) {
+            readProperty(branches.get(property.getKey()), deserializer, property.getValue(), instance, target, token, parser, context);
+        }
+
+        JMethod deserialize = deserializer.method(JMod.PUBLIC, jclass, "deserialize");
+        deserialize.annotate(Override.class);
+        deserialize._throws(IOException.class);
+        parser = deserialize.param(JsonParser.class, "parser");
+        context = deserialize.param(DeserializationContext.class, "context");
+
+        JBlock body = deserialize.body();
+        JClass tokenType = owner.ref(JsonToken.class);
+        if (builder == null && config.isGenerateReset()) {
+            // the update method of a deserializer, used by ObjectMapper.readerForUpdating
+            JMethod deserializeInto = deserializer.method(JMod.PUBLIC, jclass, "deserialize");
+            deserializeInto.annotate(Override.class);
+            deserializeInto._throws(IOException.class);
+            body._return(JExpr.invoke(deserializeInto).arg(parser).arg(context).arg(JExpr._new(jclass)));
+
+            parser = deserializeInto.param(JsonParser.class, "parser");
+            context = deserializeInto.param(DeserializationContext.class, "context");
+            instance = deserializeInto.param(jclass, targetName);
+            body = deserializeInto.body();
+        } else {
+            instance = body.decl(target, targetName, JExpr._new(target));
+        }
+        token = body.decl(tokenType, "token", parser.invoke("getCurrentToken"));
+        body._if(token.eq(tokenType.staticRef("START_OBJECT")))._then().assign(token, parser.invoke("nextToken"));
+
+        JWhileLoop fields = body._while(token.eq(tokenType.staticRef("FIELD_NAME")));
+        JBlock loop = fields.body();
+        name = loop.decl(owner.ref(String.class), "name", parser.invoke("getCurrentName"));
+        loop.assign(token, parser.invoke("nextToken"));
+
+        JBlock unknown = loop._if(JExpr.invoke(readProperty).arg(instance).arg(name).arg(token).arg(parser).arg(context).not())._then();
+        JMethod additionalPropertySetter = findMethod(target, builder != null ? "withAdditionalProperty" : "setAdditionalProperty");
+        if (additionalPropertySetter != null) {
+            JType valueType = additionalPropertySetter.listParamTypes()[1];
+            unknown.invoke(instance, additionalPropertySetter).arg(name).arg(readValue(deserializer, valueType, "additionalProperties", token, parser, context));
+        } else {
+            unknown.invoke(context, "handleUnknownProperty").arg(parser).arg(JExpr._this()).arg(instance).arg(name);
+        }
+        loop.assign(token, parser.invoke("nextToken"));
+
+        body._if(token.ne(tokenType.staticRef("END_OBJECT")))._then()._throw(owner.ref(JsonMappingException.class).staticInvoke("from").arg(parser)
+                .arg(JExpr.lit("Expected an object for " + jclass.name() + ", found ").plus(token)));
+
+        body._return(builder != null ? instance.invoke("build") : instance);
+
+        return deserializer;
+    }
+
+    private static void readProperty(JBlock block, JDefinedClass deserializer, JFieldVar field, JVar instance, JDefinedClass target, JVar token, JVar parser, JVar context) {
+        JFieldVar targetField = target.fields().get(field.name());
+        JBlock assign = block;
+        if (PresenceHelper.isTracked(target, targetField)) {
+            // a null value leaves a tracked property unset
+            assign = block._if(token.ne(deserializer.owner().ref(JsonToken.class).staticRef("VALUE_NULL")))._then();
+        }
+        assign.assign(instance.ref(targetField), readValue(deserializer, targetField.type(), field.name(), token, parser, context));
+        PresenceHelper.markPresent(assign, target, instance, targetField);
+        block._return(JExpr.TRUE);
+    }
+
+    private static JExpression readValue(JDefinedClass deserializer, JType type, String name, JVar token, JVar parser, JVar context) {
+        JClass tokenType = deserializer.owner().ref(JsonToken.class);
+
+        JExpression value;
+        if (type.isPrimitive()) {
+            value = context.invoke("readValue").arg(parser).arg(type.boxify().staticRef("TYPE"));
+        } else if (((JClass) type).getTypeParameters().isEmpty()) {
+            value = JOp.cond(token.eq(tokenType.staticRef("VALUE_NULL")), JExpr._null(),
+                    context.invoke("readValue").arg(parser).arg(((JClass) type).dotclass()));
+        } else {
+            value = JOp.cond(token.eq(tokenType.staticRef("VALUE_NULL")), JExpr._null(),
+                    JExpr.cast(type, context.invoke("readValue").arg(parser).arg(getJavaType(deserializer, (JClass) type, name))));
+        }
+
+        Scalar scalar = SCALARS.get(type.fullName());
+        if (scalar == null) {
+            return value;
+        }
+
+        JExpression scalarValue = parser.invoke(scalar.readMethod);
+        if (!type.isPrimitive() && type.unboxify().isPrimitive()) {
+            scalarValue = ((JClass) type).staticInvoke("valueOf").arg(scalarValue);
+        }
+
+        JExpression isScalar = scalar.token.startsWith("is") ? token.invoke(scalar.token) : token.eq(tokenType.staticRef(scalar.token));
+        return JOp.cond(isScalar, scalarValue, value);
+    }
+
+    private static JFieldVar getJavaType(JDefinedClass deserializer, JClass type, String name) {
+        String constantName = name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_TYPE";
+
+        JFieldVar javaType = deserializer.fields().get(constantName);
+        if (javaType == null) {
+            JCodeModel owner = deserializer.owner();
+
+            JClass concreteType = type;
+            if (type.erasure().equals(owner.ref(Set.class))) {
+                concreteType = owner.ref(LinkedHashSet.class).narrow(type.getTypeParameters());
+            }
+
+            JDefinedClass typeReference = owner.anonymousClass(owner.ref(TypeReference.class).narrow(concreteType));
+            javaType = deserializer.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, JavaType.class, constantName,
+                    owner.ref(TypeFactory.class).staticInvoke("defaultInstance").invoke("constructType").arg(JExpr._new(typeReference)));
+        }
+        return javaType;
+    }
+
+    private static JDefinedClass getModule(JDefinedClass jclass, GenerationConfig config) {
+        JPackage _package = jclass.owner()._package(defaultString(config.getTargetPackage()));
+
+        JDefinedClass module = _package._getClass(MODULE_NAME);
+        if (module == null) {
+            try {
+                module = _package._class(MODULE_NAME);
+            } catch (JClassAlreadyExistsException e) {
+                throw new GenerationException(e);
+            }
+            module._extends(SimpleModule.class);
+            module.javadoc().add("Registers the generated serializers and deserializers of each type.");
+            module.constructor(JMod.PUBLIC).body().invoke("super").arg(JExpr.lit(MODULE_NAME));
+        }
+        return module;
+    }
+
+    private static class Scalar {
+
+        private final String token;
+        private final String readMethod;
+        private final String writeMethod;
+
+        Scalar(String token, String readMethod, String writeMethod) {
+            this.token = token;
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+    }
+
+}
@@ -0,0 +1,384 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+import static org.jsonschema2pojo.util.SerializerSupport.*;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.squareup.moshi.Json;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+import com.sun.codemodel.JAnnotationUse;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+/**
+ * Adds a Moshi JSON adapter to a generated type, and registers it with an
+ * adapter factory that is generated in the target package.
+ * <p>
+ * The adapter is nested in the type, so it reads and writes its fields
+ * directly instead of reflecting over them. Strings, numbers and booleans
+ * (and arrays of primitives) are read and written with the stream API, other
+ * values by the adapters Moshi
+ * provides for their type (which for enums honour the {@link Json} name of
+ * each constant). When a type extends another generated type, the properties
+ * of the supertype are read and written by the adapter nested in the
+ * supertype. Properties whose presence is tracked (see {@link PresenceHelper})
+ * are only written when they are set. When reset methods are generated (see
+ * {@link GenerationConfig#isGenerateReset()}), the adapter can also read into
+ * an existing instance, with <code>fromJson(reader, instance)</code>.
+ */
+public class MoshiJsonAdapterHelper {
+
+    private static final String JSON_ADAPTER_NAME = "MoshiJsonAdapter";
+    private static final String FACTORY_NAME = "MoshiJsonAdapterFactory";
+
+    /**
+     * Adds a JSON adapter to the given type, if the type can be read and
+     * written without the Moshi annotations it would otherwise need. Types
+     * whose properties use other Moshi annotations are left to Moshi.
+     *
+     * @param jclass
+     *            the generated type, with all properties applied
+     * @param properties
+     *            the fields of the properties declared by the type, keyed by
+     *            property name
+     * @param config
+     *            the generation config
+     * @return whether a JSON adapter was added
+     */
+    public static boolean addJsonAdapter(JDefinedClass jclass, Map<String, JFieldVar> properties, GenerationConfig config) {
+        if (!isSupported(jclass, properties)) {
+            return false;
+        }
+
+        JDefinedClass jsonAdapter = addNestedClass(jclass, JSON_ADAPTER_NAME);
+        jsonAdapter._extends(jclass.owner().ref(JsonAdapter.class).narrow(jclass));
+
+        JMethod constructor = jsonAdapter.constructor(JMod.PUBLIC);
+        JVar moshi = constructor.param(Moshi.class, "moshi");
+
+        JDefinedClass superJsonAdapter = getNestedClass(jclass._extends(), JSON_ADAPTER_NAME);
+        JFieldVar superAdapter = null;
+        if (superJsonAdapter != null) {
+            superAdapter = jsonAdapter.field(JMod.PRIVATE | JMod.FINAL, superJsonAdapter, "superJsonAdapter");
+            constructor.body().assign(JExpr._this().ref(superAdapter), JExpr._new(superJsonAdapter).arg(moshi));
+        }
+
+        addToJson(jclass, jsonAdapter, constructor, moshi, properties, superAdapter);
+        addFromJson(jclass, jsonAdapter, constructor, moshi, properties, superAdapter, config);
+
+        JMethod create = getFactory(jclass, config).methods().iterator().next();
+        JBlock createBody = create.body();
+        createBody.pos(createBody.getContents().size() - 1);
+        createBody._if(create.params().get(0).eq(jclass.dotclass()))._then()
+                ._return(JExpr._new(jsonAdapter).arg(create.params().get(2)));
+        createBody.pos(createBody.getContents().size());
+        return true;
+    }
+
+    private static boolean isSupported(JDefinedClass jclass, Map<String, JFieldVar> properties) {
+        JClass superType = jclass._extends();
+        if (!superType.fullName().equals(Object.class.getName()) && getNestedClass(superType, JSON_ADAPTER_NAME) == null) {
+            return false;
+        }
+
+        for (JFieldVar field : properties.values()) {
+            for (JAnnotationUse annotation : field.annotations()) {
+                String annotationName = annotation.getAnnotationClass().fullName();
+                if (annotationName.startsWith("com.squareup.moshi.") && !annotationName.equals(Json.class.getName())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static void addToJson(JDefinedClass jclass, JDefinedClass jsonAdapter, JMethod constructor, JVar moshi, Map<String, JFieldVar> properties, JFieldVar superAdapter) {
+        JMethod writeProperties = jsonAdapter.method(JMod.PUBLIC, void.class, "writeProperties");
+        writeProperties._throws(IOException.class);
+        JVar writer = writeProperties.param(JsonWriter.class, "writer");
+        JVar value = writeProperties.param(jclass, "value");
+
+        for (Map.Entry<String, JFieldVar> property : properties.entrySet()) {
+            JFieldVar field = property.getValue();
+            JBlock block = writeProperties.body();
+            if (PresenceHelper.isTracked(jclass, field)) {
+                block = block._if(PresenceHelper.isPresent(value, field))._then();
+            }
+            block.invoke(writer, "name").arg(JExpr.lit(property.getKey()));
+            writeValue(block, jsonAdapter, constructor, moshi, field.name(), field.type(), value.ref(field), writer);
+        }
+
+        if (superAdapter != null) {
+            writeProperties.body().invoke(superAdapter, "writeProperties").arg(writer).arg(value);
+        }
+
+        JMethod toJson = jsonAdapter.method(JMod.PUBLIC, void.class, "toJson");
+        toJson.annotate(Override.class);
+        toJson._throws(IOException.class);
+        writer = toJson.param(JsonWriter.class, "writer");
+        value = toJson.param(jclass, "value");
+
+        JBlock body = toJson.body();
+        JBlock ifNull = body._if(value.eq(JExpr._null()))._then();
+        ifNull.invoke(writer, "nullValue");
+        ifNull._return();
+
+        body.invoke(writer, "beginObject");
+        body.invoke(writeProperties).arg(writer).arg(value);
+
+        JMethod additionalPropertiesGetter = findMethod(jclass, "getAdditionalProperties");
+        if (additionalPropertiesGetter != null) {
+            List<JClass> mapTypes = ((JClass) additionalPropertiesGetter.type()).getTypeParameters();
+            JFieldVar additionalPropertiesAdapter = getAdapter(jsonAdapter, constructor, moshi, "additionalProperties", mapTypes.get(1));
+            JForEach additionalProperties = body.forEach(jclass.owner().ref(Map.Entry.class).narrow(mapTypes), "additionalProperty",
+                    value.invoke(additionalPropertiesGetter).invoke("entrySet"));
+            JVar additionalProperty = additionalProperties.var();
+            additionalProperties.body().invoke(writer, "name").arg(additionalProperty.invoke("getKey"));
+            additionalProperties.body().invoke(additionalPropertiesAdapter, "toJson").arg(writer).arg(additionalProperty.invoke("getValue"));
+        }
+
+        body.invoke(writer, "endObject");
+    }
+
+    private static void writeValue(JBlock block, JDefinedClass jsonAdapter, JMethod constructor, JVar moshi, String name, JType type, JExpression field, JVar writer) {
+        JCodeModel owner = type.owner();
+        String typeName = type.fullName();
+
+        if (type.isPrimitive()) {
+            JExpression primitiveValue = typeName.equals("float") ? owner.ref(Float.class).staticInvoke("valueOf").arg(field) : field;
+            block.invoke(writer, "value").arg(primitiveValue);
+        } else if (typeName.equals(String.class.getName()) || isNumber(type)) {
+            block.invoke(writer, "value").arg(field);
+        } else if (typeName.equals(Boolean.class.getName())) {
+            JConditional ifNull = block._if(field.eq(JExpr._null()));
+            ifNull._then().invoke(writer, "nullValue");
+            ifNull._else().invoke(writer, "value").arg(field.invoke("booleanValue"));
+        } else if (isPrimitiveArray(type)) {
+            JConditional ifNull = block._if(field.eq(JExpr._null()));
+            ifNull._then().invoke(writer, "nullValue");
+            JBlock notNull = ifNull._else();
+            notNull.invoke(writer, "beginArray");
+            JForEach elements = notNull.forEach(type.elementType(), "element", field);
+            writeValue(elements.body(), jsonAdapter, constructor, moshi, name, type.elementType(), elements.var(), writer);
+            notNull.invoke(writer, "endArray");
+        } else {
+            block.invoke(getAdapter(jsonAdapter, constructor, moshi, name, type), "toJson").arg(writer).arg(field);
+        }
+    }
+
+    private static void addFromJson(JDefinedClass jclass, JDefinedClass jsonAdapter, JMethod constructor, JVar moshi, Map<String, JFieldVar> properties, JFieldVar superAdapter, GenerationConfig config) {
+        JDefinedClass builder = config.isImmutableTypes() ? ImmutableHelper.getBuilder(jclass) : null;
+        JDefinedClass target = builder != null ? builder : jclass;
+        String targetName = builder != null ? "builder" : "instance";
+
+        JMethod readProperty = jsonAdapter.method(JMod.PUBLIC, boolean.class, "readProperty");
+        readProperty._throws(IOException.class);
+        JVar reader = readProperty.param(JsonReader.class, "reader");
+        JVar name = readProperty.param(String.class, "name");
+        JVar instance = readProperty.param(target, targetName);
+
+        JExpression unknownProperty = superAdapter != null ? superAdapter.invoke("readProperty").arg(reader).arg(name).arg(instance) : JExpr.FALSE;
+        Map<String, JBlock> branches = addPropertyBranches(readProperty.body(), name, properties.keySet(), unknownProperty, config);
+
+        for (Map.Entry<String, JFieldVar> property : properties.entrySet()) {
+            JBlock block = branches.get(property.getKey());
+            JFieldVar field = target.fields().get(property.getValue().name());
+            JBlock assigned = readValue(block, jsonAdapter, constructor, moshi, field.name(), field.type(), instance.ref(field), reader);
+            PresenceHelper.markPresent(assigned, target, instance, field);
+            block._return(JExpr.TRUE);
+        }
+
+        JMethod fromJson = jsonAdapter.method(JMod.PUBLIC, jclass, "fromJson");
+        fromJson.annotate(Override.class);
+        fromJson._throws(IOException.class);
+        reader = fromJson.param(JsonReader.class, "reader");
+
+        JBlock body = fromJson.body();
+        JClass tokenType = jclass.owner().ref(JsonReader.Token.class);
+        JBlock ifNull = body._if(reader.invoke("peek").eq(tokenType.staticRef("NULL")))._then();
+        ifNull._return(reader.invoke("nextNull"));
+
+        if (builder == null && config.isGenerateReset()) {
+            // populates an existing instance, such as one taken from a pool
+            JMethod fromJsonInto = jsonAdapter.method(JMod.PUBLIC, jclass, "fromJson");
+            fromJsonInto._throws(IOException.class);
+            body._return(JExpr.invoke(fromJsonInto).arg(reader).arg(JExpr._new(jclass)));
+
+            reader = fromJsonInto.param(JsonReader.class, "reader");
+            instance = fromJsonInto.param(jclass, targetName);
+            body = fromJsonInto.body();
+            ifNull = body._if(reader.invoke("peek").eq(tokenType.staticRef("NULL")))._then();
+            ifNull._return(reader.invoke("nextNull"));
+        } else {
+            instance = body.decl(target, targetName, JExpr._new(target));
+        }
+        body.invoke(reader, "beginObject");
+
+        JBlock loop = body._while(reader.invoke("hasNext")).body();
+        name = loop.decl(jclass.owner().ref(String.class), "name", reader.invoke("nextName"));
+        JBlock unknown = loop._if(JExpr.invoke(readProperty).arg(reader).arg(name).arg(instance).not())._then();
+
+        JMethod additionalPropertySetter = findMethod(target, builder != null ? "withAdditionalProperty" : "setAdditionalProperty");
+        if (additionalPropertySetter != null) {
+            JFieldVar additionalPropertiesAdapter = getAdapter(jsonAdapter, constructor, moshi, "additionalProperties", additionalPropertySetter.listParamTypes()[1]);
+            unknown.invoke(instance, additionalPropertySetter).arg(name).arg(additionalPropertiesAdapter.invoke("fromJson").arg(reader));
+        } else {
+            unknown.invoke(reader, "skipValue");
+        }
+
+        body.invoke(reader, "endObject");
+        body._return(builder != null ? instance.invoke("build") : instance);
+    }
+
+    /**
+     * Adds the statements that read a value into the given field.
+     *
+     * @return the block in which the value is assigned, if it isn't null
+     */
+    private static JBlock readValue(JBlock block, JDefinedClass jsonAdapter, JMethod constructor, JVar moshi, String name, JType type, JFieldRef field, JVar reader) {
+        JCodeModel owner = type.owner();
+        String typeName = type.unboxify().fullName();
+
+        if (isPrimitiveArray(type)) {
+            block.assign(field, JExpr.invoke(getPrimitiveArrayReader(jsonAdapter, type, owner.ref(JsonReader.class), owner.ref(JsonReader.Token.class))).arg(reader));
+            return block;
+        }
+
+        JExpression scalarValue = null;
+        if (typeName.equals(String.class.getName())) {
+            scalarValue = reader.invoke("nextString");
+        } else if (typeName.equals("int")) {
+            scalarValue = reader.invoke("nextInt");
+        } else if (typeName.equals("long")) {
+            scalarValue = reader.invoke("nextLong");
+        } else if (typeName.equals("double")) {
+            scalarValue = reader.invoke("nextDouble");
+        } else if (typeName.equals("float")) {
+            scalarValue = JExpr.cast(owner.FLOAT, reader.invoke("nextDouble"));
+        } else if (typeName.equals("boolean")) {
+            scalarValue = reader.invoke("nextBoolean");
+        } else if (typeName.equals(BigDecimal.class.getName()) || typeName.equals(BigInteger.class.getName())) {
+            scalarValue = JExpr._new(type).arg(reader.invoke("nextString"));
+        }
+
+        if (scalarValue == null) {
+            block.assign(field, getAdapter(jsonAdapter, constructor, moshi, name, type).invoke("fromJson").arg(reader));
+            return block;
+        }
+
+        JConditional ifNull = block._if(reader.invoke("peek").eq(owner.ref(JsonReader.Token.class).staticRef("NULL")));
+        ifNull._then().invoke(reader, "nextNull");
+        if (!type.isPrimitive()) {
+            ifNull._then().assign(field, JExpr._null());
+        }
+        ifNull._else().assign(field, scalarValue);
+        return ifNull._else();
+    }
+
+    private static boolean isNumber(JType type) {
+        String typeName = type.fullName();
+        return type.unboxify().isPrimitive() && !typeName.equals(Boolean.class.getName()) && !typeName.equals(Character.class.getName())
+                || typeName.equals(BigDecimal.class.getName()) || typeName.equals(BigInteger.class.getName());
+    }
+
+    private static JFieldVar getAdapter(JDefinedClass jsonAdapter, JMethod constructor, JVar moshi, String name, JType type) {
+        String adapterName = name + "Adapter";
+
+        JFieldVar adapter = jsonAdapter.fields().get(adapterName);
+        if (adapter == null) {
+            JClass valueType = type.boxify();
+            adapter = jsonAdapter.field(JMod.PRIVATE | JMod.FINAL, jsonAdapter.owner().ref(JsonAdapter.class).narrow(valueType), adapterName);
+            constructor.body().assign(JExpr._this().ref(adapter), moshi.invoke("adapter").arg(typeExpression(valueType)));
+        }
+        return adapter;
+    }
+
+    /**
+     * @return an expression creating the {@link Type} that represents the
+     *         given (possibly parameterized) class at runtime
+     */
+    private static JExpression typeExpression(JClass type) {
+        if (type.getTypeParameters().isEmpty()) {
+            return type.dotclass();
+        }
+
+        JInvocation parameterizedType = type.owner().ref(Types.class).staticInvoke("newParameterizedType").arg(type.erasure().dotclass());
+        for (JClass typeParameter : type.getTypeParameters()) {
+            parameterizedType.arg(typeExpression(typeParameter));
+        }
+        return parameterizedType;
+    }
+
+    private static JDefinedClass getFactory(JDefinedClass jclass, GenerationConfig config) {
+        JPackage _package = jclass.owner()._package(defaultString(config.getTargetPackage()));
+
+        JDefinedClass factory = _package._getClass(FACTORY_NAME);
+        if (factory == null) {
+            try {
+                factory = _package._class(FACTORY_NAME);
+            } catch (JClassAlreadyExistsException e) {
+                throw new GenerationException(e);
+            }
+            factory._implements(JsonAdapter.Factory.class);
+            factory.javadoc().add("Creates the generated JSON adapter of each type.");
+
+            JCodeModel owner = jclass.owner();
+            JMethod create = factory.method(JMod.PUBLIC, owner.ref(JsonAdapter.class).narrow(owner.wildcard()), "create");
+            create.annotate(Override.class);
+            create.param(Type.class, "type");
+            JVar annotations = create.param(owner.ref(Set.class).narrow(owner.ref(Annotation.class).wildcard()), "annotations");
+            create.param(Moshi.class, "moshi");
+            create.body()._if(annotations.invoke("isEmpty").not())._then()._return(JExpr._null());
+            create.body()._return(JExpr._null());
+        }
+        return factory;
+    }
+
+}
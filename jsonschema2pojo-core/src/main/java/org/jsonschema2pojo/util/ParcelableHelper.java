@@ -16,28 +16,63 @@
 
 package org.jsonschema2pojo.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import android.os.Parcel;
+import android.os.Parcelable;
 import android.os.Parcelable.Creator;
 import com.sun.codemodel.*;
 import static org.jsonschema2pojo.util.Models.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
+/**
+ * Adds the methods and <code>CREATOR</code> required to make a generated type
+ * {@link Parcelable}.
+ * <p>
+ * Each field is written with the {@link Parcel} method specific to its type,
+ * so that primitives aren't boxed and tagged and generated types aren't found
+ * by name through a class loader:
+ * <ul>
+ * <li>primitives use <code>writeInt</code>, <code>writeLong</code>, etc.
+ * (booleans are written as an int)</li>
+ * <li>boxed primitives are preceded by an int null marker (0 for null, 1
+ * otherwise)</li>
+ * <li>strings use <code>writeString</code> and enums write their constant
+ * name</li>
+ * <li>generated types are written inline, by calling their own
+ * <code>writeToParcel</code> method, and read with their <code>CREATOR</code>.
+ * They are preceded by an int marker (0 for null, 1 for an instance of the
+ * generated type, 2 for an instance of a subtype, which is written with
+ * <code>writeParcelable</code> so that it's read back as the same type)</li>
+ * <li>lists of generated types are written as their size (-1 for null)
+ * followed by each item, written in the same way as a field of a generated
+ * type</li>
+ * <li>other parcelable types use <code>writeParcelable</code>, lists of
+ * other parcelable types use <code>writeTypedList</code> and lists of strings
+ * use <code>writeStringList</code></li>
+ * </ul>
+ * Any other field is written with <code>writeValue</code> (or
+ * <code>writeList</code>). Fields are written in declaration order, so the
+ * parcelled form only changes when the schema does.
+ */
 public class ParcelableHelper {
 
+    private static final Set<String> PARCEL_PRIMITIVES = new HashSet<String>(Arrays.asList("int", "long", "double", "float", "byte", "boolean"));
+
     public void addWriteToParcel(JDefinedClass jclass) {
         JMethod method = jclass.method(JMod.PUBLIC, void.class, "writeToParcel");
         JVar dest = method.param(Parcel.class, "dest");
-        method.param(int.class, "flags");
+        JVar flags = method.param(int.class, "flags");
         
         for (JFieldVar f : jclass.fields().values()) {
             if( (f.mods().getValue() & JMod.STATIC) == JMod.STATIC ) {
                 continue;
             }
-            if (f.type().erasure().name().equals("List")) {
-                method.body().invoke(dest, "writeList").arg(f);
-            } else {
-                method.body().invoke(dest, "writeValue").arg(f);
-            }
+            addWriteField(method.body(), dest, flags, f);
         }
     }
     
@@ -72,28 +107,170 @@ public class ParcelableHelper {
             if( (f.mods().getValue() & JMod.STATIC) == JMod.STATIC ) {
                 continue;
             }
-            if (f.type().erasure().name().equals("List")) {
-                createFromParcel.body()
-                        .invoke(in, "readList")
-                        .arg(instance.ref(f))
-                        .arg(JExpr.direct(getListType(f.type()) + ".class.getClassLoader()"));
-             } else {
-                createFromParcel.body().assign(
-                        instance.ref(f),
-                        JExpr.cast(
-                                f.type(),
-                                in.invoke("readValue").arg(JExpr.direct(f.type().erasure().name() + ".class.getClassLoader()"))
-                        )
-                );
-            }
-
+            addReadField(createFromParcel.body(), in, instance, f);
         }
         createFromParcel.body()._return(instance);
     }
 
-    private String getListType(JType jType) {
-        final String typeName = jType.fullName();
-        return substringBeforeLast(substringAfter(typeName, "<"), ">");
+    private void addWriteField(JBlock body, JVar dest, JVar flags, JFieldVar f) {
+        JType type = f.type();
+        JFieldRef field = JExpr._this().ref(f);
+
+        if (isParcelPrimitive(type)) {
+            addWritePrimitive(body, dest, type, field);
+        } else if (isParcelPrimitive(type.unboxify())) {
+            JConditional isNull = body._if(field.eq(JExpr._null()));
+            isNull._then().invoke(dest, "writeInt").arg(JExpr.lit(0));
+            isNull._else().invoke(dest, "writeInt").arg(JExpr.lit(1));
+            addWritePrimitive(isNull._else(), dest, type.unboxify(), field);
+        } else if (isParcelPrimitiveArray(type)) {
+            body.invoke(dest, "write" + capitalize(type.elementType().name()) + "Array").arg(field);
+        } else if (isString(type)) {
+            body.invoke(dest, "writeString").arg(field);
+        } else if (isEnum(type)) {
+            body.invoke(dest, "writeString").arg(JOp.cond(field.eq(JExpr._null()), JExpr._null(), field.invoke("name")));
+        } else if (isGenerated(type)) {
+            addWriteGenerated(body, dest, flags, field, (JClass) type);
+        } else if (isParcelable(type)) {
+            body.invoke(dest, "writeParcelable").arg(field).arg(flags);
+        } else if (isList(type) && isString(getListType(type))) {
+            body.invoke(dest, "writeStringList").arg(field);
+        } else if (isList(type) && isGenerated(getListType(type))) {
+            // written item by item, so that subtypes keep their own type
+            JConditional isNull = body._if(field.eq(JExpr._null()));
+            isNull._then().invoke(dest, "writeInt").arg(JExpr.lit(-1));
+            isNull._else().invoke(dest, "writeInt").arg(field.invoke("size"));
+            JForEach forEach = isNull._else().forEach((JClass) getListType(type), f.name() + "Item", field);
+            addWriteGenerated(forEach.body(), dest, flags, forEach.var(), (JClass) getListType(type));
+        } else if (isList(type) && isParcelable(getListType(type))) {
+            body.invoke(dest, "writeTypedList").arg(field);
+        } else if (isList(type)) {
+            body.invoke(dest, "writeList").arg(field);
+        } else {
+            body.invoke(dest, "writeValue").arg(field);
+        }
+    }
+
+    private void addWriteGenerated(JBlock body, JVar dest, JVar flags, JExpression value, JClass type) {
+        JConditional isNull = body._if(value.eq(JExpr._null()));
+        isNull._then().invoke(dest, "writeInt").arg(JExpr.lit(0));
+        JConditional isExactType = isNull._else()._if(value.invoke("getClass").eq(type.dotclass()));
+        isExactType._then().invoke(dest, "writeInt").arg(JExpr.lit(1));
+        isExactType._then().invoke(value, "writeToParcel").arg(dest).arg(flags);
+        isExactType._else().invoke(dest, "writeInt").arg(JExpr.lit(2));
+        isExactType._else().invoke(dest, "writeParcelable").arg(value).arg(flags);
+    }
+
+    private void addWritePrimitive(JBlock body, JVar dest, JType primitiveType, JExpression value) {
+        if (primitiveType.name().equals("boolean")) {
+            body.invoke(dest, "writeInt").arg(JOp.cond(value, JExpr.lit(1), JExpr.lit(0)));
+        } else {
+            body.invoke(dest, "write" + capitalize(primitiveType.name())).arg(value);
+        }
+    }
+
+    private void addReadField(JBlock body, JVar in, JVar instance, JFieldVar f) {
+        JType type = f.type();
+        JFieldRef field = instance.ref(f);
+
+        if (isParcelPrimitive(type)) {
+            body.assign(field, readPrimitive(in, type));
+        } else if (isParcelPrimitive(type.unboxify())) {
+            JConditional isNull = body._if(in.invoke("readInt").eq(JExpr.lit(0)));
+            isNull._then().assign(field, JExpr._null());
+            isNull._else().assign(field, readPrimitive(in, type.unboxify()));
+        } else if (isParcelPrimitiveArray(type)) {
+            body.assign(field, in.invoke("create" + capitalize(type.elementType().name()) + "Array"));
+        } else if (isString(type)) {
+            body.assign(field, in.invoke("readString"));
+        } else if (isEnum(type)) {
+            JVar name = body.decl(type.owner().ref(String.class), f.name() + "Name", in.invoke("readString"));
+            body.assign(field, JOp.cond(name.eq(JExpr._null()), JExpr._null(), ((JClass) type).staticInvoke("valueOf").arg(name)));
+        } else if (isGenerated(type)) {
+            addReadGenerated(body, in, field, (JClass) type, f.name() + "Marker");
+        } else if (isParcelable(type)) {
+            body.assign(field, JExpr.cast(type, in.invoke("readParcelable").arg(classLoader(type))));
+        } else if (isList(type) && isString(getListType(type))) {
+            body.assign(field, in.invoke("createStringArrayList"));
+        } else if (isList(type) && isGenerated(getListType(type))) {
+            JClass itemType = (JClass) getListType(type);
+            JVar size = body.decl(type.owner().INT, f.name() + "Size", in.invoke("readInt"));
+            JConditional isNull = body._if(size.lt(JExpr.lit(0)));
+            isNull._then().assign(field, JExpr._null());
+            JVar list = isNull._else().decl(type, f.name() + "List", JExpr._new(type.owner().ref(ArrayList.class).narrow(itemType)).arg(size));
+            JForLoop forLoop = isNull._else()._for();
+            JVar i = forLoop.init(type.owner().INT, f.name() + "Index", JExpr.lit(0));
+            forLoop.test(i.lt(size));
+            forLoop.update(i.incr());
+            JVar item = forLoop.body().decl(itemType, f.name() + "Item");
+            addReadGenerated(forLoop.body(), in, item, itemType, f.name() + "Marker");
+            forLoop.body().invoke(list, "add").arg(item);
+            isNull._else().assign(field, list);
+        } else if (isList(type) && isParcelable(getListType(type))) {
+            body.assign(field, in.invoke("createTypedArrayList").arg(((JClass) getListType(type)).staticRef("CREATOR")));
+        } else if (isList(type)) {
+            body.invoke(in, "readList").arg(field).arg(classLoader(getListType(type)));
+        } else {
+            body.assign(field, JExpr.cast(type, in.invoke("readValue").arg(classLoader(type))));
+        }
+    }
+
+    private void addReadGenerated(JBlock body, JVar in, JAssignmentTarget target, JClass type, String markerName) {
+        JVar marker = body.decl(type.owner().INT, markerName, in.invoke("readInt"));
+        JConditional isExactType = body._if(marker.eq(JExpr.lit(1)));
+        isExactType._then().assign(target, type.staticRef("CREATOR").invoke("createFromParcel").arg(in));
+        JConditional isSubtype = isExactType._else()._if(marker.eq(JExpr.lit(2)));
+        isSubtype._then().assign(target, JExpr.cast(type, in.invoke("readParcelable").arg(classLoader(type))));
+        isSubtype._else().assign(target, JExpr._null());
+    }
+
+    private JExpression readPrimitive(JVar in, JType primitiveType) {
+        if (primitiveType.name().equals("boolean")) {
+            return in.invoke("readInt").ne(JExpr.lit(0));
+        } else {
+            return in.invoke("read" + capitalize(primitiveType.name()));
+        }
+    }
+
+    private JExpression classLoader(JType type) {
+        return type.boxify().erasure().dotclass().invoke("getClassLoader");
+    }
+
+    private boolean isParcelPrimitive(JType type) {
+        return type.isPrimitive() && PARCEL_PRIMITIVES.contains(type.name());
+    }
+
+    private boolean isParcelPrimitiveArray(JType type) {
+        return type.isArray() && isParcelPrimitive(type.elementType());
+    }
+
+    private boolean isString(JType type) {
+        return type.fullName().equals(String.class.getName());
+    }
+
+    private boolean isEnum(JType type) {
+        return type instanceof JDefinedClass && ((JDefinedClass) type).getClassType() == ClassType.ENUM;
+    }
+
+    /**
+     * Generated object types are made parcelable too, though not necessarily
+     * before the types that refer to them.
+     */
+    private boolean isGenerated(JType type) {
+        return type instanceof JDefinedClass && ((JDefinedClass) type).getClassType() == ClassType.CLASS;
+    }
+
+    private boolean isParcelable(JType type) {
+        return isGenerated(type) || type instanceof JClass && type.owner().ref(Parcelable.class).isAssignableFrom((JClass) type);
+    }
+
+    private boolean isList(JType type) {
+        return type instanceof JClass && ((JClass) type).erasure().fullName().equals(List.class.getName())
+                && ((JClass) type).getTypeParameters().size() == 1;
+    }
+
+    private JType getListType(JType type) {
+        return ((JClass) type).getTypeParameters().get(0);
     }
 
 }
@@ -0,0 +1,239 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jsonschema2pojo.GenerationConfig;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+/**
+ * Tracks which primitive properties of a generated type have been set, so
+ * that an absent property can be told from one that has been set to its
+ * default value without boxing the property.
+ * <p>
+ * Each tracked property is given a bit in a transient <code>int</code>
+ * presence field (a type with more than 32 tracked properties has more than
+ * one), which is set by the setter and builder method of the property, and
+ * cleared by a <code>clearX()</code> method that also restores the default
+ * value. A <code>hasX()</code> method tells whether the property is set.
+ * <p>
+ * A property is tracked if its type has a <code>hasX()</code> method for it,
+ * and its bit is given by its position among the tracked properties of the
+ * type, so the generated serializers can find the bit of a property again.
+ * <p>
+ * The reset method of the type (if it has one) clears every bit. The presence
+ * fields are compared by the generated equals method and included in the
+ * hash code, so an instance with a property set to its default value doesn't
+ * equal one where the property is absent, as they are serialized differently.
+ */
+public class PresenceHelper {
+
+    private static final String PRESENCE_FIELD_NAME = "presenceBits";
+    private static final int BITS_PER_WORD = 32;
+
+    private PresenceHelper() {
+    }
+
+    /**
+     * Whether presence is tracked with the given configuration. Presence is
+     * tracked through setters, so types without setters (immutable types, or
+     * types without accessors) aren't tracked.
+     *
+     * @param config
+     *            the generation config
+     * @return whether the primitive properties of generated types are tracked
+     */
+    public static boolean isTracked(GenerationConfig config) {
+        return config.isTrackPresence() && config.isIncludeAccessors() && !config.isImmutableTypes();
+    }
+
+    /**
+     * Adds presence tracking for a primitive property.
+     *
+     * @param jclass
+     *            the type that declares the property
+     * @param field
+     *            the field that holds the property value
+     * @param defaultValue
+     *            the default value of the property, as assigned by the
+     *            default rule (or null if the property has the Java default),
+     *            which the clear method restores
+     * @param mutators
+     *            the methods that set the property (the setter, and builder
+     *            method if there is one), which mark the property as present
+     */
+    public static void addPresenceTracking(JDefinedClass jclass, JFieldVar field, JExpression defaultValue, JMethod... mutators) {
+        int bit = getTrackedFields(jclass).size();
+        JFieldRef presence = JExpr._this().ref(getPresenceField(jclass, bit / BITS_PER_WORD));
+        int mask = 1 << (bit % BITS_PER_WORD);
+
+        for (JMethod mutator : mutators) {
+            JBlock body = mutator.body();
+            if (!mutator.type().equals(jclass.owner().VOID)) {
+                // a builder method, which ends by returning this
+                body.pos(body.getContents().size() - 1);
+            }
+            body.assign(presence, presence.bor(JExpr.lit(mask)));
+        }
+
+        JMethod has = jclass.method(JMod.PUBLIC, boolean.class, "has" + capitalize(field.name()));
+        has.body()._return(presence.band(JExpr.lit(mask)).ne(JExpr.lit(0)));
+
+        JMethod clear = jclass.method(JMod.PUBLIC, void.class, "clear" + capitalize(field.name()));
+        if (defaultValue == null) {
+            defaultValue = field.type().equals(jclass.owner().BOOLEAN) ? JExpr.FALSE : JExpr.lit(0);
+        }
+        clear.body().assign(JExpr._this().ref(field), defaultValue);
+        clear.body().assign(presence, presence.band(JExpr.lit(mask).complement()));
+    }
+
+    /**
+     * @return whether the presence of the given property of the given type is
+     *         tracked
+     */
+    public static boolean isTracked(JDefinedClass jclass, JFieldVar field) {
+        return jclass.getMethod("has" + capitalize(field.name()), new JType[0]) != null && field.type().isPrimitive();
+    }
+
+    /**
+     * @return whether the given type, or one of its generated supertypes, has
+     *         a tracked property
+     */
+    public static boolean hasTrackedProperties(JDefinedClass jclass) {
+        for (JClass type = jclass; type instanceof JDefinedClass; type = type._extends()) {
+            if (!getTrackedFields((JDefinedClass) type).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return an expression that tells whether the given (tracked) property
+     *         of the given instance is set
+     */
+    public static JExpression isPresent(JExpression instance, JFieldVar field) {
+        return instance.invoke("has" + capitalize(field.name()));
+    }
+
+    /**
+     * Adds a statement that marks the given property of the given instance as
+     * present, if its presence is tracked. The statement refers to the
+     * presence field directly, so it has to be added to the type itself or a
+     * class nested in it.
+     */
+    public static void markPresent(JBlock block, JDefinedClass jclass, JExpression instance, JFieldVar field) {
+        List<JFieldVar> trackedFields = getTrackedFields(jclass);
+        int bit = trackedFields.indexOf(field);
+        if (bit < 0) {
+            return;
+        }
+
+        JFieldRef presence = instance.ref(getPresenceField(jclass, bit / BITS_PER_WORD));
+        block.assign(presence, presence.bor(JExpr.lit(1 << (bit % BITS_PER_WORD))));
+    }
+
+    /**
+     * Adds <code>writeObject</code> and <code>readObject</code> methods to a
+     * serializable type with tracked properties, as default serialization
+     * skips the (transient) presence fields.
+     */
+    public static void addSerializationSupport(JDefinedClass jclass) {
+        List<JFieldVar> presenceFields = getPresenceFields(jclass);
+        if (presenceFields.isEmpty()) {
+            return;
+        }
+
+        JMethod writeObject = jclass.method(JMod.PRIVATE, void.class, "writeObject");
+        JVar out = writeObject.param(ObjectOutputStream.class, "out");
+        writeObject._throws(IOException.class);
+        writeObject.body().invoke(out, "defaultWriteObject");
+
+        JMethod readObject = jclass.method(JMod.PRIVATE, void.class, "readObject");
+        JVar in = readObject.param(ObjectInputStream.class, "in");
+        readObject._throws(IOException.class);
+        readObject._throws(ClassNotFoundException.class);
+        readObject.body().invoke(in, "defaultReadObject");
+
+        for (JFieldVar presenceField : presenceFields) {
+            writeObject.body().invoke(out, "writeInt").arg(JExpr._this().ref(presenceField));
+            readObject.body().assign(JExpr._this().ref(presenceField), in.invoke("readInt"));
+        }
+    }
+
+    /**
+     * @return whether the given field is one of the presence fields of the
+     *         given type
+     */
+    public static boolean isPresenceField(JDefinedClass jclass, JFieldVar field) {
+        return getPresenceFields(jclass).contains(field);
+    }
+
+    private static List<JFieldVar> getTrackedFields(JDefinedClass jclass) {
+        List<JFieldVar> trackedFields = new ArrayList<JFieldVar>();
+        for (JFieldVar field : jclass.fields().values()) {
+            if ((field.mods().getValue() & JMod.STATIC) == 0 && isTracked(jclass, field)) {
+                trackedFields.add(field);
+            }
+        }
+        return trackedFields;
+    }
+
+    private static List<JFieldVar> getPresenceFields(JDefinedClass jclass) {
+        List<JFieldVar> presenceFields = new ArrayList<JFieldVar>();
+        for (int word = 0; jclass.fields().containsKey(presenceFieldName(word)); word++) {
+            presenceFields.add(jclass.fields().get(presenceFieldName(word)));
+        }
+        return presenceFields;
+    }
+
+    private static JFieldVar getPresenceField(JDefinedClass jclass, int word) {
+        JFieldVar presenceField = jclass.fields().get(presenceFieldName(word));
+        if (presenceField == null) {
+            presenceField = jclass.field(JMod.PRIVATE | JMod.TRANSIENT, int.class, presenceFieldName(word));
+
+            JMethod reset = ResetHelper.getResetMethod(jclass);
+            if (reset != null) {
+                reset.body().assign(JExpr._this().ref(presenceField), JExpr.lit(0));
+            }
+        }
+        return presenceField;
+    }
+
+    private static String presenceFieldName(int word) {
+        return word == 0 ? PRESENCE_FIELD_NAME : PRESENCE_FIELD_NAME + word;
+    }
+
+}
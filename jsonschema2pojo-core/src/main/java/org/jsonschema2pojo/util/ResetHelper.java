@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+
+/**
+ * Adds the reset method of a type, which returns an instance to the default
+ * values of its properties so that it can be reused rather than allocating a
+ * new instance.
+ * <p>
+ * Collections that an instance already holds are cleared and kept, rather
+ * than replaced, so a reset instance keeps the capacity it has grown to.
+ */
+public class ResetHelper {
+
+    private static final String RESET_NAME = "reset";
+
+    private ResetHelper() {
+    }
+
+    /**
+     * Adds the reset method to the given type. Statements are added to it as
+     * each property is applied.
+     *
+     * @param jclass
+     *            the type being generated
+     */
+    public static void addResetMethod(JDefinedClass jclass) {
+        JMethod reset = jclass.method(JMod.PUBLIC, void.class, RESET_NAME);
+        reset.javadoc().add("Returns this object to the default values of its properties, so that it can be reused. Collections that it holds are cleared rather than replaced, so they must be modifiable.");
+
+        JMethod superReset = getResetMethod(jclass._extends());
+        if (superReset != null) {
+            reset.annotate(Override.class);
+            reset.body().invoke(JExpr._super(), superReset);
+        }
+    }
+
+    /**
+     * Gets the reset method of the given type.
+     *
+     * @param jclass
+     *            the type being generated
+     * @return the reset method, or null if the type has none
+     */
+    public static JMethod getResetMethod(JClass jclass) {
+        if (jclass instanceof JDefinedClass) {
+            for (JMethod method : ((JDefinedClass) jclass).methods()) {
+                if (method.name().equals(RESET_NAME) && method.params().isEmpty()) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a statement that clears the collection or map held by the given
+     * field to the reset method of the given type. Nothing is added if the
+     * type has no reset method.
+     *
+     * @param jclass
+     *            the type being generated
+     * @param field
+     *            the field that holds the collection or map (which may be
+     *            null)
+     */
+    public static void addClear(JDefinedClass jclass, JFieldVar field) {
+        JMethod reset = getResetMethod(jclass);
+        if (reset == null) {
+            return;
+        }
+
+        JFieldRef fieldRef = JExpr._this().ref(field);
+        reset.body()._if(fieldRef.ne(JExpr._null()))._then().invoke(fieldRef, "clear");
+    }
+
+    /**
+     * Adds a statement that assigns the given value to the given field to the
+     * reset method of the given type. Nothing is added if the type has no
+     * reset method.
+     *
+     * @param jclass
+     *            the type being generated
+     * @param field
+     *            the field to assign
+     * @param value
+     *            the value the field is reset to
+     */
+    public static void addAssign(JDefinedClass jclass, JFieldVar field, JExpression value) {
+        JMethod reset = getResetMethod(jclass);
+        if (reset == null) {
+            return;
+        }
+
+        reset.body().assign(JExpr._this().ref(field), value);
+    }
+
+}
@@ -18,6 +18,7 @@ package org.jsonschema2pojo.util;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
+import java.io.Externalizable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.security.MessageDigest;
@@ -153,7 +154,9 @@ public class SerializableHelper {
     }
 
     public static void addSerializableSupport(JDefinedClass jclass) {
-        jclass._implements(Serializable.class);
+        if (!jclass.owner().ref(Externalizable.class).isAssignableFrom(jclass)) {
+            jclass._implements(Serializable.class);
+        }
 
         try {
 
@@ -0,0 +1,192 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+/**
+ * Code generation steps shared by the helpers that add generated serializers
+ * to a type.
+ */
+class SerializerSupport {
+
+    private static final int INITIAL_ARRAY_CAPACITY = 16;
+
+    private SerializerSupport() {
+    }
+
+    static JDefinedClass addNestedClass(JDefinedClass jclass, String name) {
+        try {
+            return jclass._class(JMod.PUBLIC | JMod.STATIC, name);
+        } catch (JClassAlreadyExistsException e) {
+            throw new GenerationException(e);
+        }
+    }
+
+    /**
+     * @return the class with the given name nested in the given type, or
+     *         null if the type isn't a generated type or has no such class
+     */
+    static JDefinedClass getNestedClass(JClass jclass, String name) {
+        if (jclass instanceof JDefinedClass) {
+            for (Iterator<JDefinedClass> classes = ((JDefinedClass) jclass).classes(); classes.hasNext();) {
+                JDefinedClass nestedClass = classes.next();
+                if (nestedClass.name().equals(name)) {
+                    return nestedClass;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the first method with the given name declared by the given type
+     *         or one of its generated supertypes, or null if there is none
+     */
+    static JMethod findMethod(JClass jclass, String name) {
+        for (JClass type = jclass; type instanceof JDefinedClass; type = type._extends()) {
+            for (JMethod method : ((JDefinedClass) type).methods()) {
+                if (method.name().equals(name)) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a branch for each of the given property names, using a string
+     * switch if the target version allows it and a switch on the hash code of
+     * the name otherwise. Each branch is expected to end with a return
+     * statement.
+     *
+     * @param body
+     *            the block that the branches are added to
+     * @param name
+     *            the variable holding the name of the property being read
+     * @param propertyNames
+     *            the names of the properties to add branches for
+     * @param unknownProperty
+     *            the value returned if the name matches no property
+     * @param config
+     *            the generation config
+     * @return the block of each branch, keyed by property name
+     */
+    static Map<String, JBlock> addPropertyBranches(JBlock body, JVar name, Collection<String> propertyNames, JExpression unknownProperty, GenerationConfig config) {
+        Map<String, JBlock> branches = StringSwitchHelper.addSwitch(body, name, propertyNames, config);
+        body._return(unknownProperty);
+
+        return branches;
+    }
+
+    /**
+     * @return whether the given type is an array of primitives (other than
+     *         bytes and chars, which serializers treat as binary or text)
+     */
+    static boolean isPrimitiveArray(JType type) {
+        if (!type.isArray() || !type.elementType().isPrimitive()) {
+            return false;
+        }
+        String elementTypeName = type.elementType().fullName();
+        return !elementTypeName.equals("byte") && !elementTypeName.equals("char");
+    }
+
+    /**
+     * Gets (or adds) a static method to the given serializer that reads an
+     * array of primitives from a streaming reader, without boxing the
+     * elements. The elements are read into a buffer that grows as needed, and
+     * is trimmed to size once the end of the array is reached.
+     *
+     * @param serializer
+     *            the class that the method is added to
+     * @param arrayType
+     *            the type of array read by the method
+     * @param readerType
+     *            the streaming reader of the serializer library, which offers
+     *            <code>peek</code>, <code>nextNull</code>,
+     *            <code>beginArray</code>, <code>hasNext</code> and
+     *            <code>endArray</code> methods, as well as
+     *            <code>nextInt</code>, <code>nextLong</code>,
+     *            <code>nextDouble</code> and <code>nextBoolean</code>
+     * @param tokenType
+     *            the type of the tokens returned by <code>peek</code>, which
+     *            has a <code>NULL</code> constant
+     * @return the method that reads the array
+     */
+    static JMethod getPrimitiveArrayReader(JDefinedClass serializer, JType arrayType, JClass readerType, JClass tokenType) {
+        JCodeModel owner = serializer.owner();
+        JType elementType = arrayType.elementType();
+        String methodName = "read" + capitalize(elementType.name()) + "Array";
+
+        JMethod arrayReader = serializer.getMethod(methodName, new JType[] { readerType });
+        if (arrayReader != null) {
+            return arrayReader;
+        }
+
+        arrayReader = serializer.method(JMod.PRIVATE | JMod.STATIC, arrayType, methodName);
+        arrayReader._throws(IOException.class);
+        JVar reader = arrayReader.param(readerType, "reader");
+
+        JBlock body = arrayReader.body();
+        JBlock ifNull = body._if(reader.invoke("peek").eq(tokenType.staticRef("NULL")))._then();
+        ifNull.invoke(reader, "nextNull");
+        ifNull._return(JExpr._null());
+
+        JVar array = body.decl(arrayType, "array", JExpr.newArray(elementType, INITIAL_ARRAY_CAPACITY));
+        JVar size = body.decl(owner.INT, "size", JExpr.lit(0));
+        body.invoke(reader, "beginArray");
+
+        JBlock loop = body._while(reader.invoke("hasNext")).body();
+        loop._if(size.eq(array.ref("length")))._then()
+                .assign(array, owner.ref(Arrays.class).staticInvoke("copyOf").arg(array).arg(size.shl(JExpr.lit(1))));
+        JExpression element;
+        if (elementType.equals(owner.FLOAT)) {
+            element = JExpr.cast(owner.FLOAT, reader.invoke("nextDouble"));
+        } else {
+            element = reader.invoke("next" + capitalize(elementType.name()));
+        }
+        loop.assign(array.component(size.incr()), element);
+
+        body.invoke(reader, "endArray");
+        body._return(JOp.cond(size.eq(array.ref("length")), array, owner.ref(Arrays.class).staticInvoke("copyOf").arg(array).arg(size)));
+
+        return arrayReader;
+    }
+
+}
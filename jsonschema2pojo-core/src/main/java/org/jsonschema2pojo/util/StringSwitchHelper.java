@@ -0,0 +1,96 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jsonschema2pojo.GenerationConfig;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JSwitch;
+import com.sun.codemodel.JVar;
+
+/**
+ * Generates a switch on the value of a string.
+ * <p>
+ * When the target version allows it, a string switch is generated. Otherwise
+ * the switch is on the hash code of the string (computed when generating
+ * code, since {@link String#hashCode()} is specified), and each case compares
+ * the string with the values that have that hash code. This is what the
+ * compiler generates for a string switch, so both forms find a value without
+ * comparing the string with every other value.
+ */
+public class StringSwitchHelper {
+
+    /**
+     * Adds a switch on the given string to the given block, with a case for
+     * each of the given values. Each case is expected to end with a return or
+     * throw statement. If the string matches none of the values, execution
+     * continues after the switch.
+     *
+     * @param block
+     *            the block that the switch is added to
+     * @param string
+     *            the variable holding the string to switch on, which must not
+     *            be null
+     * @param values
+     *            the distinct values to add cases for
+     * @param config
+     *            the generation config, used to find the target version
+     * @return the block of each case, keyed by value
+     */
+    public static Map<String, JBlock> addSwitch(JBlock block, JVar string, Collection<String> values, GenerationConfig config) {
+        Map<String, JBlock> cases = new LinkedHashMap<String, JBlock>();
+
+        if (values.isEmpty()) {
+            return cases;
+        }
+
+        if (LanguageFeatures.canUseJava7(config)) {
+            JSwitch stringSwitch = block._switch(string);
+            for (String value : values) {
+                cases.put(value, stringSwitch._case(JExpr.lit(value)).body());
+            }
+        } else {
+            Map<Integer, List<String>> valuesByHashCode = new TreeMap<Integer, List<String>>();
+            for (String value : values) {
+                if (!valuesByHashCode.containsKey(value.hashCode())) {
+                    valuesByHashCode.put(value.hashCode(), new ArrayList<String>());
+                }
+                valuesByHashCode.get(value.hashCode()).add(value);
+            }
+
+            JSwitch hashSwitch = block._switch(string.invoke("hashCode"));
+            for (Map.Entry<Integer, List<String>> hashCase : valuesByHashCode.entrySet()) {
+                JBlock caseBody = hashSwitch._case(JExpr.lit(hashCase.getKey())).body();
+                for (String value : hashCase.getValue()) {
+                    cases.put(value, caseBody._if(JExpr.lit(value).invoke("equals").arg(string))._then());
+                }
+                caseBody._break();
+            }
+        }
+
+        return cases;
+    }
+
+}
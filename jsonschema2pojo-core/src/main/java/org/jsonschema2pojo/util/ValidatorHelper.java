@@ -0,0 +1,384 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.codemodel.ClassType;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+/**
+ * Adds validate methods that check the values of a generated type against the
+ * constraints of its schema, without reflection or a Bean Validation
+ * provider.
+ * <p>
+ * Each type gets a <code>validate(List&lt;String&gt;)</code> method that adds
+ * a description of each violated constraint to the given list, and calls the
+ * same method of its supertype and of each nested generated type. The checks
+ * are added as each property is applied. Patterns are compiled once, into
+ * static constants of the type.
+ */
+public class ValidatorHelper {
+
+    private static final String VALIDATE_NAME = "validate";
+    private static final String PREFIX_VIOLATIONS_NAME = "prefixViolations";
+
+    private static final Set<String> NUMBER_TYPES = new HashSet<String>(Arrays.asList(
+            "int", "long", "float", "double",
+            Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName()));
+
+    /**
+     * Adds the validate methods to the given type. Checks are added to them as
+     * each property is applied.
+     *
+     * @param jclass
+     *            the type being generated
+     */
+    public static void addValidateMethods(JDefinedClass jclass) {
+        JClass violationsType = jclass.owner().ref(List.class).narrow(String.class);
+        JMethod superValidate = getValidateMethod(jclass._extends());
+
+        if (superValidate == null) {
+            JMethod validate = jclass.method(JMod.PUBLIC, violationsType, VALIDATE_NAME);
+            validate.javadoc().add("Checks the values of this object against the constraints of its schema.");
+            validate.javadoc().addReturn().add("a description of each constraint that is violated, or an empty list if there are none");
+            JVar violations = validate.body().decl(violationsType, "violations", JExpr._new(jclass.owner().ref(ArrayList.class).narrow(String.class)));
+            validate.body().invoke(VALIDATE_NAME).arg(violations);
+            validate.body()._return(violations);
+        }
+
+        JMethod validate = jclass.method(JMod.PUBLIC, void.class, VALIDATE_NAME);
+        validate.javadoc().add("Checks the values of this object against the constraints of its schema, adding a description of each constraint that is violated to the given list.");
+        JVar violations = validate.param(violationsType, "violations");
+        if (superValidate != null) {
+            validate.annotate(Override.class);
+            validate.body().invoke(JExpr._super(), superValidate).arg(violations);
+        }
+    }
+
+    /**
+     * Adds the checks for the constraints of a property to the validate
+     * method of the given type. Nothing is added if the type has no validate
+     * method.
+     * <p>
+     * Patterns are compiled into static constants of the type, so a pattern
+     * that {@link Pattern} rejects fails generation here rather than the
+     * loading of the generated type.
+     *
+     * @param jclass
+     *            the type being generated
+     * @param field
+     *            the field that holds the property value
+     * @param propertyName
+     *            the name of the property in the schema, used to describe
+     *            violations
+     * @param node
+     *            the schema of the property
+     */
+    public static void addPropertyChecks(JDefinedClass jclass, JFieldVar field, String propertyName, JsonNode node) {
+        JMethod validate = getValidateMethod(jclass);
+        if (validate == null) {
+            return;
+        }
+
+        JBlock body = validate.body();
+        JVar violations = validate.params().get(0);
+        JExpression value = JExpr._this().ref(field);
+        JType type = field.type();
+
+        if (node.path("required").asBoolean()) {
+            addRequiredCheck(jclass, body, violations, field, propertyName);
+        }
+
+        if (node.has("pattern") && isString(type)) {
+            checkPattern(propertyName, node.get("pattern").asText());
+            JFieldVar pattern = jclass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, Pattern.class, constantName(jclass, field, "PATTERN"),
+                    jclass.owner().ref(Pattern.class).staticInvoke("compile").arg(node.get("pattern").asText()));
+            addViolation(jclass, field, body, JOp.not(pattern.invoke("matcher").arg(value).invoke("find")), violations,
+                    propertyName + " must match the pattern " + node.get("pattern").asText());
+        }
+
+        if (isString(type)) {
+            if (node.has("minLength")) {
+                addViolation(jclass, field, body, value.invoke("length").lt(JExpr.lit(node.get("minLength").asInt())), violations,
+                        propertyName + " must be at least " + node.get("minLength").asInt() + " characters long");
+            }
+            if (node.has("maxLength")) {
+                addViolation(jclass, field, body, value.invoke("length").gt(JExpr.lit(node.get("maxLength").asInt())), violations,
+                        propertyName + " must be at most " + node.get("maxLength").asInt() + " characters long");
+            }
+        }
+
+        if (isCollection(type) || type.isArray()) {
+            JExpression size = type.isArray() ? value.ref("length") : value.invoke("size");
+            if (node.has("minItems")) {
+                addViolation(jclass, field, body, size.lt(JExpr.lit(node.get("minItems").asInt())), violations,
+                        propertyName + " must have at least " + node.get("minItems").asInt() + " items");
+            }
+            if (node.has("maxItems")) {
+                addViolation(jclass, field, body, size.gt(JExpr.lit(node.get("maxItems").asInt())), violations,
+                        propertyName + " must have at most " + node.get("maxItems").asInt() + " items");
+            }
+        }
+
+        if (node.has("minimum")) {
+            boolean exclusive = node.path("exclusiveMinimum").asBoolean();
+            JExpression violated = violatesBound(jclass, field, value, node.get("minimum"), true, exclusive);
+            if (violated != null) {
+                addViolation(jclass, field, body, violated, violations,
+                        propertyName + " must be greater than " + (exclusive ? "" : "or equal to ") + node.get("minimum").asText());
+            }
+        }
+
+        if (node.has("maximum")) {
+            boolean exclusive = node.path("exclusiveMaximum").asBoolean();
+            JExpression violated = violatesBound(jclass, field, value, node.get("maximum"), false, exclusive);
+            if (violated != null) {
+                addViolation(jclass, field, body, violated, violations,
+                        propertyName + " must be less than " + (exclusive ? "" : "or equal to ") + node.get("maximum").asText());
+            }
+        }
+
+        if (isValidatedType(type)) {
+            JBlock notNull = body._if(value.ne(JExpr._null()))._then();
+            addNestedValidation(jclass, notNull, value, violations, JExpr.lit(propertyName + "."));
+        } else if (isCollection(type) && isValidatedType(((JClass) type).getTypeParameters().get(0))) {
+            addNestedValidation(jclass, body, value, ((JClass) type).getTypeParameters().get(0), violations, propertyName,
+                    type.erasure().fullName().equals(List.class.getName()));
+        }
+    }
+
+    /**
+     * Adds a check that a property declared as required by its parent schema
+     * has a value.
+     *
+     * @param jclass
+     *            the type being generated
+     * @param field
+     *            the field that holds the property value
+     * @param propertyName
+     *            the name of the property in the schema
+     */
+    public static void addRequiredCheck(JDefinedClass jclass, JFieldVar field, String propertyName) {
+        JMethod validate = getValidateMethod(jclass);
+        if (validate != null) {
+            addRequiredCheck(jclass, validate.body(), validate.params().get(0), field, propertyName);
+        }
+    }
+
+    /**
+     * Adds the validation of each additional property value to the validate
+     * method of the given type, if the values are of a generated type.
+     *
+     * @param jclass
+     *            the type being generated
+     * @param field
+     *            the field that holds the additional properties
+     */
+    public static void addAdditionalPropertiesChecks(JDefinedClass jclass, JFieldVar field) {
+        JMethod validate = getValidateMethod(jclass);
+        JClass valueType = ((JClass) field.type()).getTypeParameters().get(1);
+        if (validate == null || !isValidatedType(valueType)) {
+            return;
+        }
+
+        JVar violations = validate.params().get(0);
+        JExpression value = JExpr._this().ref(field);
+        JBlock notNull = validate.body()._if(value.ne(JExpr._null()))._then();
+        JClass entryType = jclass.owner().ref(Map.Entry.class).narrow(((JClass) field.type()).getTypeParameters());
+        JForEach forEach = notNull.forEach(entryType, "additionalProperty", value.invoke("entrySet"));
+        JVar element = forEach.body().decl(valueType, "element", forEach.var().invoke("getValue"));
+        addNestedValidation(jclass, forEach.body()._if(element.ne(JExpr._null()))._then(), element, violations,
+                forEach.var().invoke("getKey").plus(JExpr.lit(".")));
+    }
+
+    private static void addRequiredCheck(JDefinedClass jclass, JBlock body, JVar violations, JFieldVar field, String propertyName) {
+        JExpression missing;
+        if (PresenceHelper.isTracked(jclass, field)) {
+            missing = JOp.not(PresenceHelper.isPresent(JExpr._this(), field));
+        } else if (!field.type().isPrimitive()) {
+            missing = JExpr._this().ref(field).eq(JExpr._null());
+        } else {
+            return;
+        }
+        body._if(missing)._then().invoke(violations, "add").arg(JExpr.lit(propertyName + " is required"));
+    }
+
+    /**
+     * Adds a check that adds the given message if the property is set and
+     * the given condition is true. An absent tracked property isn't checked,
+     * as it only holds its default value.
+     */
+    private static void addViolation(JDefinedClass jclass, JFieldVar field, JBlock body, JExpression violated, JVar violations, String message) {
+        JExpression condition;
+        if (PresenceHelper.isTracked(jclass, field)) {
+            condition = PresenceHelper.isPresent(JExpr._this(), field).cand(violated);
+        } else if (field.type().isPrimitive()) {
+            condition = violated;
+        } else {
+            condition = JExpr._this().ref(field).ne(JExpr._null()).cand(violated);
+        }
+        body._if(condition)._then().invoke(violations, "add").arg(JExpr.lit(message));
+    }
+
+    /**
+     * @return an expression that is true if the value is beyond the given
+     *         minimum or maximum, or null if values of the field type can't be
+     *         compared
+     */
+    private static JExpression violatesBound(JDefinedClass jclass, JFieldVar field, JExpression value, JsonNode bound, boolean minimum, boolean exclusive) {
+        String typeName = field.type().fullName();
+
+        JExpression comparable;
+        JExpression limit;
+        if (NUMBER_TYPES.contains(typeName)) {
+            comparable = value;
+            limit = bound.isIntegralNumber() && bound.canConvertToLong() ? JExpr.lit(bound.longValue()) : JExpr.lit(bound.asDouble());
+        } else if (typeName.equals(BigDecimal.class.getName()) || typeName.equals(BigInteger.class.getName())) {
+            JClass bigDecimal = jclass.owner().ref(BigDecimal.class);
+            JFieldVar constant = jclass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, bigDecimal, constantName(jclass, field, minimum ? "MINIMUM" : "MAXIMUM"),
+                    JExpr._new(bigDecimal).arg(bound.asText()));
+            JExpression decimalValue = typeName.equals(BigDecimal.class.getName()) ? value : JExpr._new(bigDecimal).arg(value);
+            comparable = decimalValue.invoke("compareTo").arg(constant);
+            limit = JExpr.lit(0);
+        } else {
+            return null;
+        }
+
+        if (minimum) {
+            return exclusive ? comparable.lte(limit) : comparable.lt(limit);
+        } else {
+            return exclusive ? comparable.gte(limit) : comparable.gt(limit);
+        }
+    }
+
+    private static void addNestedValidation(JDefinedClass jclass, JBlock body, JExpression value, JType elementType, JVar violations, String propertyName, boolean indexed) {
+        JBlock notNull = body._if(value.ne(JExpr._null()))._then();
+        JVar index = indexed ? notNull.decl(jclass.owner().INT, "index", JExpr.lit(0)) : null;
+        JForEach forEach = notNull.forEach(elementType, "element", value);
+
+        JExpression prefix = indexed ? JExpr.lit(propertyName + "[").plus(index).plus(JExpr.lit("].")) : JExpr.lit(propertyName + ".");
+        addNestedValidation(jclass, forEach.body()._if(forEach.var().ne(JExpr._null()))._then(), forEach.var(), violations, prefix);
+
+        if (indexed) {
+            forEach.body().assignPlus(index, JExpr.lit(1));
+        }
+    }
+
+    /**
+     * Validates a nested value, then prefixes the violations it added with
+     * the given path. The path is only built if there are violations.
+     */
+    private static void addNestedValidation(JDefinedClass jclass, JBlock body, JExpression value, JVar violations, JExpression prefix) {
+        JVar start = body.decl(jclass.owner().INT, "start", violations.invoke("size"));
+        body.invoke(value, VALIDATE_NAME).arg(violations);
+        body._if(violations.invoke("size").gt(start))._then()
+                .invoke(getPrefixViolationsMethod(jclass)).arg(violations).arg(start).arg(prefix);
+    }
+
+    private static JMethod getPrefixViolationsMethod(JDefinedClass jclass) {
+        for (JMethod method : jclass.methods()) {
+            if (method.name().equals(PREFIX_VIOLATIONS_NAME)) {
+                return method;
+            }
+        }
+
+        JMethod method = jclass.method(JMod.PRIVATE | JMod.STATIC, void.class, PREFIX_VIOLATIONS_NAME);
+        JVar violations = method.param(jclass.owner().ref(List.class).narrow(String.class), "violations");
+        JVar start = method.param(int.class, "start");
+        JVar prefix = method.param(String.class, "prefix");
+
+        JForLoop loop = method.body()._for();
+        JVar i = loop.init(jclass.owner().INT, "i", start);
+        loop.test(i.lt(violations.invoke("size")));
+        loop.update(i.incr());
+        loop.body().invoke(violations, "set").arg(i).arg(prefix.plus(violations.invoke("get").arg(i)));
+
+        return method;
+    }
+
+    private static JMethod getValidateMethod(JClass jclass) {
+        if (jclass instanceof JDefinedClass) {
+            for (JMethod method : ((JDefinedClass) jclass).methods()) {
+                if (method.name().equals(VALIDATE_NAME) && method.params().size() == 1) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether values of the given type are validated by calling their own
+     * validate method. Generated types may not have their validate method
+     * yet (if they are still being generated), so any generated class is
+     * assumed to have one.
+     */
+    private static boolean isValidatedType(JType type) {
+        return type instanceof JDefinedClass && ((JDefinedClass) type).getClassType() == ClassType.CLASS;
+    }
+
+    private static void checkPattern(String propertyName, String pattern) {
+        try {
+            Pattern.compile(pattern);
+        } catch (PatternSyntaxException e) {
+            throw new GenerationException("The pattern of property '" + propertyName + "' isn't supported by java.util.regex: " + pattern, e);
+        }
+    }
+
+    private static boolean isString(JType type) {
+        return type.fullName().equals(String.class.getName());
+    }
+
+    private static boolean isCollection(JType type) {
+        String typeName = type.erasure().fullName();
+        return typeName.equals(List.class.getName()) || typeName.equals(Set.class.getName());
+    }
+
+    private static String constantName(JDefinedClass jclass, JFieldVar field, String suffix) {
+        String name = field.name().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_" + suffix;
+        while (jclass.fields().containsKey(name)) {
+            name = "_" + name;
+        }
+        return name;
+    }
+
+}
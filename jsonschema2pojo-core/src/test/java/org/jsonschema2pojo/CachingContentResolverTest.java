@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.apache.commons.io.FileUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class CachingContentResolverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File cacheDirectory;
+    private File schema;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDirectory = new File(folder.getRoot(), "cache");
+        schema = folder.newFile("schema.json");
+        writeStringToFile(schema, "{\"type\" : \"object\", \"default\" : 1.10}");
+    }
+
+    @Test
+    public void contentIsLoadedFromCacheByLaterResolvers() {
+
+        CachingContentResolver first = new CachingContentResolver(cacheDirectory, Long.MAX_VALUE);
+        JsonNode parsed = first.resolve(schema.toURI());
+
+        CachingContentResolver second = new CachingContentResolver(cacheDirectory, Long.MAX_VALUE);
+        JsonNode cached = second.resolve(schema.toURI());
+
+        assertThat(first.getHitCount(), is(0));
+        assertThat(first.getMissCount(), is(1));
+        assertThat(second.getHitCount(), is(1));
+        assertThat(second.getMissCount(), is(0));
+        assertThat(cached, is(equalTo(parsed)));
+        assertThat(cached.get("default").decimalValue().toString(), is("1.10"));
+
+    }
+
+    @Test
+    public void changedFilesAreParsedAgain() throws IOException {
+
+        new CachingContentResolver(cacheDirectory, Long.MAX_VALUE).resolve(schema.toURI());
+
+        writeStringToFile(schema, "{\"type\" : \"string\"}");
+        assertThat(schema.setLastModified(schema.lastModified() + 10000L), is(true));
+
+        CachingContentResolver resolver = new CachingContentResolver(cacheDirectory, Long.MAX_VALUE);
+        JsonNode content = resolver.resolve(schema.toURI());
+
+        assertThat(resolver.getMissCount(), is(1));
+        assertThat(content.get("type").asText(), is("string"));
+
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() throws IOException {
+
+        File other = folder.newFile("other.json");
+        writeStringToFile(other, "{\"type\" : \"string\"}");
+
+        new CachingContentResolver(cacheDirectory, Long.MAX_VALUE).resolve(schema.toURI());
+        File[] entries = cacheDirectory.listFiles();
+        assertThat(entries.length, is(1));
+        assertThat(entries[0].setLastModified(10000L), is(true));
+
+        new CachingContentResolver(cacheDirectory, entries[0].length()).resolve(other.toURI());
+
+        assertThat(entries[0].exists(), is(false));
+        assertThat(cacheDirectory.listFiles().length, is(1));
+
+    }
+
+}
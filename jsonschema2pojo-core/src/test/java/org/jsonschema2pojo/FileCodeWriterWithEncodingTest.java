@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JMod;
+
+public class FileCodeWriterWithEncodingTest {
+
+    private static final long OLD_TIMESTAMP = 10000L;
+
+    @Rule
+    public TemporaryFolder target = new TemporaryFolder();
+
+    @Test
+    public void unchangedFilesAreNotWrittenAgain() throws IOException, JClassAlreadyExistsException {
+
+        build(codeModel("name"), true);
+
+        File generated = new File(target.getRoot(), "com/example/Example.java");
+        assertThat(generated.setLastModified(OLD_TIMESTAMP), is(true));
+
+        FileCodeWriterWithEncoding writer = build(codeModel("name"), true);
+
+        assertThat(generated.lastModified(), is(OLD_TIMESTAMP));
+        assertThat(writer.getWrittenFileCount(), is(0));
+        assertThat(writer.getSkippedFileCount(), is(1));
+
+    }
+
+    @Test
+    public void changedFilesAreWritten() throws IOException, JClassAlreadyExistsException {
+
+        build(codeModel("name"), true);
+
+        File generated = new File(target.getRoot(), "com/example/Example.java");
+        assertThat(generated.setLastModified(OLD_TIMESTAMP), is(true));
+
+        FileCodeWriterWithEncoding writer = build(codeModel("otherName"), true);
+
+        assertThat(generated.lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(writer.getWrittenFileCount(), is(1));
+        assertThat(writer.getSkippedFileCount(), is(0));
+
+    }
+
+    @Test
+    public void everyFileIsWrittenByDefault() throws IOException, JClassAlreadyExistsException {
+
+        build(codeModel("name"), false);
+
+        File generated = new File(target.getRoot(), "com/example/Example.java");
+        assertThat(generated.setLastModified(OLD_TIMESTAMP), is(true));
+
+        FileCodeWriterWithEncoding writer = build(codeModel("name"), false);
+
+        assertThat(generated.lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(writer.getWrittenFileCount(), is(1));
+        assertThat(writer.getSkippedFileCount(), is(0));
+
+    }
+
+    private FileCodeWriterWithEncoding build(JCodeModel codeModel, boolean writeOnlyChanged) throws IOException {
+        FileCodeWriterWithEncoding writer = new FileCodeWriterWithEncoding(target.getRoot(), "UTF-8", writeOnlyChanged);
+        codeModel.build(writer);
+        return writer;
+    }
+
+    private static JCodeModel codeModel(String fieldName) throws JClassAlreadyExistsException {
+        JCodeModel codeModel = new JCodeModel();
+        codeModel._class("com.example.Example").field(JMod.PRIVATE, String.class, fieldName);
+        return codeModel;
+    }
+
+}
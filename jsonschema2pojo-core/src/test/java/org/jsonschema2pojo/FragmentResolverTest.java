@@ -19,8 +19,12 @@ package org.jsonschema2pojo;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -138,4 +142,95 @@ public class FragmentResolverTest {
 
     }
 
+    @Test
+    public void missingPathIsReportedByName() {
+
+        ObjectNode root = new ObjectMapper().createObjectNode();
+        root.set("a", root.objectNode());
+
+        resolver.resolve(root, "#/a");
+
+        try {
+            resolver.resolve(root, "#/a/b/c");
+            fail("Expected resolve to fail for a missing path");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Path not present: b"));
+        }
+
+    }
+
+    @Test
+    public void propertyNameOnArrayNodeIsReportedByName() {
+
+        ObjectNode root = new ObjectMapper().createObjectNode();
+        root.set("a", root.arrayNode());
+
+        try {
+            resolver.resolve(root, "#/a/b");
+            fail("Expected resolve to fail for a property name on an array");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Not a valid array index: b"));
+        }
+
+    }
+
+    @Test
+    public void pathsResolveAgainstTheirOwnDocument() {
+
+        ObjectNode first = new ObjectMapper().createObjectNode();
+        ObjectNode second = new ObjectMapper().createObjectNode();
+
+        ObjectNode a1 = first.putObject("a");
+        ObjectNode a2 = second.putObject("a");
+
+        assertThat(resolver.resolve(first, "#/a"), is(sameInstance((Object) a1)));
+        assertThat(resolver.resolve(second, "#/a"), is(sameInstance((Object) a2)));
+        assertThat(resolver.resolve(first, "#/a"), is(sameInstance((Object) a1)));
+
+    }
+
+    @Test
+    public void pathsThatShareAPrefixResolveToTheirOwnNodes() {
+
+        ObjectNode root = new ObjectMapper().createObjectNode();
+        ObjectNode definitions = root.putObject("definitions");
+        ObjectNode x = definitions.putObject("x");
+        ObjectNode y = definitions.putObject("y");
+
+        assertThat(resolver.resolve(root, "#/definitions/x"), is(sameInstance((Object) x)));
+        assertThat(resolver.resolve(root, "#/definitions/y"), is(sameInstance((Object) y)));
+        assertThat(resolver.resolve(root, "#/definitions"), is(sameInstance((Object) definitions)));
+        assertThat(resolver.resolve(root, "#/definitions/x"), is(sameInstance((Object) x)));
+
+    }
+
+    @Test
+    public void resolvedPathsAreAddedToTheGivenIndex() {
+
+        ObjectNode root = new ObjectMapper().createObjectNode();
+        ObjectNode definitions = root.putObject("definitions");
+        ObjectNode x = definitions.putObject("x");
+
+        Map<String, JsonNode> index = new HashMap<>();
+
+        assertThat(resolver.resolve(root, "#/definitions/x", index), is(sameInstance((Object) x)));
+        assertThat(index.get("/definitions"), is(sameInstance((Object) definitions)));
+        assertThat(index.get("#/definitions/x"), is(sameInstance((Object) x)));
+
+    }
+
+    @Test
+    public void pathsAreResolvedFromTheGivenIndex() {
+
+        ObjectNode root = new ObjectMapper().createObjectNode();
+        ObjectNode indexed = root.objectNode();
+        ObjectNode y = indexed.putObject("y");
+
+        Map<String, JsonNode> index = new HashMap<>();
+        index.put("/definitions", indexed);
+
+        assertThat(resolver.resolve(root, "#/definitions/y", index), is(sameInstance((Object) y)));
+
+    }
+
 }
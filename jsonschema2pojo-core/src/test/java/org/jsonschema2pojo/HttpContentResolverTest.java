@@ -0,0 +1,161 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpContentResolverTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final byte[] SCHEMA = "{\"type\" : \"object\"}".getBytes();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Integer> statuses = Collections.synchronizedList(new ArrayList<Integer>());
+    private volatile int failuresRemaining;
+
+    private HttpServer server;
+    private URI schemaUri;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/schema.json", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (failuresRemaining > 0) {
+                    failuresRemaining--;
+                    respond(exchange, 503, new byte[0]);
+                } else if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    respond(exchange, 304, null);
+                } else {
+                    exchange.getResponseHeaders().add("ETag", ETAG);
+                    respond(exchange, 200, SCHEMA);
+                }
+            }
+        });
+        server.createContext("/missing.json", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, 404, new byte[0]);
+            }
+        });
+        server.start();
+
+        schemaUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/schema.json");
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void cachedResponsesAreRevalidated() {
+
+        File cacheDirectory = folder.getRoot();
+
+        JsonNode fetched = new HttpContentResolver(cacheDirectory, false, 5000).resolve(schemaUri);
+        JsonNode revalidated = new HttpContentResolver(cacheDirectory, false, 5000).resolve(schemaUri);
+
+        assertThat(statuses, contains(200, 304));
+        assertThat(revalidated, is(equalTo(fetched)));
+        assertThat(revalidated.get("type").asText(), is("object"));
+
+    }
+
+    @Test
+    public void offlineModeServesCachedResponsesWithoutRequests() {
+
+        File cacheDirectory = folder.getRoot();
+
+        new HttpContentResolver(cacheDirectory, false, 5000).resolve(schemaUri);
+        JsonNode offline = new HttpContentResolver(cacheDirectory, true, 5000).resolve(schemaUri);
+
+        assertThat(statuses, contains(200));
+        assertThat(offline.get("type").asText(), is("object"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void offlineModeFailsWhenNothingIsCached() {
+        new HttpContentResolver(folder.getRoot(), true, 5000).resolve(schemaUri);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void offlineModeRequiresCacheDirectory() {
+        new HttpContentResolver(null, true, 5000);
+    }
+
+    @Test
+    public void serverErrorsAreRetried() {
+
+        failuresRemaining = 2;
+
+        JsonNode content = new HttpContentResolver(null, false, 5000).resolve(schemaUri);
+
+        assertThat(statuses, contains(503, 503, 200));
+        assertThat(content.get("type").asText(), is("object"));
+
+    }
+
+    @Test
+    public void clientErrorsAreNotRetried() {
+
+        try {
+            new HttpContentResolver(null, false, 5000).resolve(schemaUri.resolve("missing.json"));
+            fail("Expected resolve to fail for a missing document");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("404"));
+            assertThat(statuses, contains(404));
+        }
+
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        statuses.add(status);
+        exchange.sendResponseHeaders(status, body == null ? -1 : body.length);
+        OutputStream out = exchange.getResponseBody();
+        if (body != null) {
+            out.write(body);
+        }
+        out.close();
+    }
+
+}
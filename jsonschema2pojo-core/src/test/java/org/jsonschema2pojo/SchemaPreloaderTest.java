@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchemaPreloaderTest {
+
+    private final SchemaStore schemaStore = new SchemaStore();
+    private final ContentResolver contentResolver = spy(new ContentResolver());
+
+    private URI parentUri;
+    private URI childUri;
+    private URI addressUri;
+
+    @Before
+    public void setUp() throws URISyntaxException {
+        schemaStore.contentResolver = contentResolver;
+
+        parentUri = getClass().getResource("/schema/preload/parent.json").toURI();
+        childUri = getClass().getResource("/schema/preload/child.json").toURI();
+        addressUri = getClass().getResource("/schema/address.json").toURI();
+    }
+
+    @Test
+    public void preloadReadsReferencedDocumentsOnce() {
+
+        new SchemaPreloader(schemaStore, 4).preload(asList(parentUri, childUri));
+
+        verify(contentResolver, times(1)).resolve(parentUri);
+        verify(contentResolver, times(1)).resolve(childUri);
+        verify(contentResolver, times(1)).resolve(addressUri);
+
+    }
+
+    @Test
+    public void preloadedDocumentsAreNotReadAgain() {
+
+        new SchemaPreloader(schemaStore, 2).preload(asList(parentUri));
+
+        Schema child = schemaStore.create(childUri);
+        Schema postOfficeBox = schemaStore.create(URI.create(addressUri + "#/properties/post-office-box"));
+
+        verify(contentResolver, times(1)).resolve(childUri);
+        verify(contentResolver, times(1)).resolve(addressUri);
+        assertThat(child.getContent().has("properties"), is(true));
+        assertThat(postOfficeBox.getContent().get("type").asText(), is("string"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingDocumentsAreReportedWhenCreated() {
+
+        new SchemaPreloader(schemaStore, 2).preload(asList(childUri));
+
+        schemaStore.create(childUri.resolve("missing.json"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void atLeastOneThreadIsRequired() {
+        new SchemaPreloader(schemaStore, 0);
+    }
+
+}
@@ -23,9 +23,17 @@ import static org.mockito.Mockito.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JType;
 
@@ -140,4 +148,132 @@ public class SchemaStoreTest {
 
     }
 
+    @Test
+    public void concurrentCreateReadsDocumentOnceAndReturnsSameInstance() throws Exception {
+
+        final URI schemaUri = getClass().getResource("/schema/address.json").toURI();
+
+        final SchemaStore schemaStore = new SchemaStore();
+        schemaStore.contentResolver = spy(new ContentResolver());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Schema>> schemas = new ArrayList<Future<Schema>>();
+            for (int i = 0; i < 32; i++) {
+                schemas.add(executor.submit(new Callable<Schema>() {
+                    @Override
+                    public Schema call() {
+                        return schemaStore.create(URI.create(schemaUri + "#/properties/locality"));
+                    }
+                }));
+            }
+
+            Schema first = schemas.get(0).get();
+            for (Future<Schema> schema : schemas) {
+                assertThat(schema.get(), is(sameInstance(first)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(schemaStore.contentResolver, times(1)).resolve(schemaUri);
+
+    }
+
+    @Test
+    public void concurrentCreateWithSelfRefReturnsSameInstance() throws Exception {
+
+        final JsonNode content = new ObjectMapper().readTree("{\"definitions\" : {\"embedded\" : {\"type\" : \"string\"}}}");
+        final Schema parent = new Schema(null, content, content);
+
+        final SchemaStore schemaStore = new SchemaStore();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Schema>> schemas = new ArrayList<Future<Schema>>();
+            for (int i = 0; i < 32; i++) {
+                schemas.add(executor.submit(new Callable<Schema>() {
+                    @Override
+                    public Schema call() {
+                        return schemaStore.create(parent, "#/definitions/embedded");
+                    }
+                }));
+            }
+
+            Schema first = schemas.get(0).get();
+            for (Future<Schema> schema : schemas) {
+                assertThat(schema.get(), is(sameInstance(first)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    @Test
+    public void selfRefInAnotherDocumentWithoutIdIsNotShared() throws Exception {
+
+        JsonNode content = new ObjectMapper().readTree("{\"definitions\" : {\"embedded\" : {\"type\" : \"string\"}}}");
+        JsonNode otherContent = new ObjectMapper().readTree("{\"definitions\" : {\"embedded\" : {\"type\" : \"integer\"}}}");
+
+        SchemaStore schemaStore = new SchemaStore();
+        Schema schema = schemaStore.create(new Schema(null, content, content), "#/definitions/embedded");
+        Schema otherSchema = schemaStore.create(new Schema(null, otherContent, otherContent), "#/definitions/embedded");
+
+        assertThat(otherSchema, is(not(sameInstance(schema))));
+        assertThat(otherSchema.getContent().get("type").asText(), is("integer"));
+
+    }
+
+    @Test
+    public void digestIsTakenFromContentAlreadyRead() throws URISyntaxException {
+
+        URI schemaUri = getClass().getResource("/schema/address.json").toURI();
+
+        SchemaStore schemaStore = new SchemaStore();
+        schemaStore.contentResolver = spy(new ContentResolver());
+
+        Schema schema = schemaStore.create(schemaUri);
+        String digest = schemaStore.digest(URI.create(schemaUri + "#/properties/locality"));
+
+        assertThat(digest, is(new ContentResolver().digest(schema.getContent())));
+        verify(schemaStore.contentResolver, times(1)).resolve(schemaUri);
+        verify(schemaStore.contentResolver, never()).digest(schemaUri);
+
+    }
+
+    @Test
+    public void digestUsesContentFromCustomResolver() throws Exception {
+
+        final JsonNode content = new ObjectMapper().readTree("{\"type\" : \"string\"}");
+
+        SchemaStore schemaStore = new SchemaStore(new ContentResolver() {
+            @Override
+            public JsonNode resolve(URI uri) {
+                return content;
+            }
+        });
+
+        assertThat(schemaStore.digest(URI.create("custom:schema")), is(new ContentResolver().digest(content)));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failedReadIsNotRemembered() throws URISyntaxException {
+
+        URI schemaUri = getClass().getResource("/schema/address.json").toURI();
+        URI missingUri = schemaUri.resolve("missing.json");
+
+        SchemaStore schemaStore = new SchemaStore();
+
+        try {
+            schemaStore.create(missingUri);
+        } catch (IllegalArgumentException e) {
+            assertThat(schemaStore.contents.containsKey(missingUri), is(false));
+        }
+
+        schemaStore.create(missingUri);
+
+    }
+
 }
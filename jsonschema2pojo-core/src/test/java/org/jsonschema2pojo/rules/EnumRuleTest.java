@@ -23,6 +23,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 import org.jsonschema2pojo.Annotator;
+import org.jsonschema2pojo.DefaultGenerationConfig;
 import org.jsonschema2pojo.Schema;
 import org.jsonschema2pojo.util.NameHelper;
 import org.junit.Before;
@@ -53,6 +54,7 @@ public class EnumRuleTest {
         when(ruleFactory.getNameHelper()).thenReturn(nameHelper);
         when(ruleFactory.getAnnotator()).thenReturn(annotator);
         when(ruleFactory.getTypeRule()).thenReturn(typeRule);
+        when(ruleFactory.getGenerationConfig()).thenReturn(new DefaultGenerationConfig());
     }
 
     @Test
@@ -0,0 +1,103 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jsonschema2pojo.rules;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.StringWriter;
+
+import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.util.ResetHelper;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JFormatter;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JType;
+
+public class ResetRuleTest {
+
+    private static final String TARGET_CLASS_NAME = ResetRuleTest.class.getName() + ".DummyClass";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void applyRestoresDefaultOfTheFactoryDefaultRule() throws JClassAlreadyExistsException {
+
+        RuleFactory ruleFactory = new RuleFactory() {
+            @Override
+            public Rule<JFieldVar, JFieldVar> getDefaultRule() {
+                return new DefaultRule(this) {
+                    @Override
+                    JExpression getDefault(JType fieldType, JsonNode node) {
+                        return JExpr.lit(42);
+                    }
+                };
+            }
+        };
+
+        JDefinedClass jclass = new JCodeModel()._class(TARGET_CLASS_NAME);
+        jclass.field(JMod.PRIVATE, int.class, "count");
+        ResetHelper.addResetMethod(jclass);
+
+        ObjectNode propertyNode = mapper.createObjectNode();
+        propertyNode.put("type", "integer");
+        propertyNode.put("default", 5);
+
+        new ResetRule(ruleFactory).apply("count", propertyNode, jclass, null);
+
+        StringWriter reset = new StringWriter();
+        ResetHelper.getResetMethod(jclass).declare(new JFormatter(reset));
+
+        assertThat(reset.toString(), containsString("this.count = 42;"));
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void applyFailsWhenTheFactoryDefaultRuleIsNotADefaultRule() throws JClassAlreadyExistsException {
+
+        RuleFactory ruleFactory = new RuleFactory() {
+            @Override
+            public Rule<JFieldVar, JFieldVar> getDefaultRule() {
+                return new Rule<JFieldVar, JFieldVar>() {
+                    @Override
+                    public JFieldVar apply(String nodeName, JsonNode node, JFieldVar field, Schema currentSchema) {
+                        return field;
+                    }
+                };
+            }
+        };
+
+        JDefinedClass jclass = new JCodeModel()._class(TARGET_CLASS_NAME);
+        jclass.field(JMod.PRIVATE, int.class, "count");
+        ResetHelper.addResetMethod(jclass);
+
+        new ResetRule(ruleFactory).apply("count", mapper.createObjectNode(), jclass, null);
+
+    }
+
+}
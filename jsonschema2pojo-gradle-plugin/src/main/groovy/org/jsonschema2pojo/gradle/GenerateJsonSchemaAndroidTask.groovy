@@ -50,6 +50,7 @@ class GenerateJsonSchemaAndroidTask extends SourceTask {
     configuration.targetDirectory = outputDir
 
     logger.info 'Using this configuration:\n{}', configuration
-    Jsonschema2Pojo.generate(configuration)
+    def result = Jsonschema2Pojo.generateWithResult(configuration)
+    logger.info '{}', result
   }
 }
@@ -62,6 +62,7 @@ class GenerateJsonSchemaJavaTask extends DefaultTask {
   @TaskAction
   def generate() {
     logger.info 'Using this configuration:\n{}', configuration
-    Jsonschema2Pojo.generate(configuration)
+    def result = Jsonschema2Pojo.generateWithResult(configuration)
+    logger.info '{}', result
   }
 }
@@ -15,12 +15,14 @@
  */
 package org.jsonschema2pojo.gradle
 
+import org.gradle.api.GradleException
 import org.jsonschema2pojo.AnnotationStyle
 import org.jsonschema2pojo.Annotator
 import org.jsonschema2pojo.AllFileFilter
 import org.jsonschema2pojo.GenerationConfig
 import org.jsonschema2pojo.InclusionLevel
 import org.jsonschema2pojo.NoopAnnotator
+import org.jsonschema2pojo.OutputType
 import org.jsonschema2pojo.SourceType
 import org.jsonschema2pojo.rules.RuleFactory
 
@@ -73,6 +75,26 @@ public class JsonSchemaExtension implements GenerationConfig {
   boolean usePrimitives
   FileFilter fileFilter
   boolean formatDateTimes
+  int generationThreads
+  boolean incrementalGeneration
+  boolean writeOnlyChangedFiles
+  File contentCacheDirectory
+  long contentCacheMaxSize
+  File httpCacheDirectory
+  boolean httpOffline
+  int httpTimeout
+  boolean mergeExamples
+  boolean reflectionFreeToString
+  boolean allocationFreeHashcodeAndEquals
+  boolean immutableTypes
+  boolean generateSerializers
+  boolean lazyAdditionalProperties
+  boolean generateValidators
+  OutputType outputType
+  boolean externalizable
+  boolean usePrimitiveArrays
+  boolean trackPresence
+  boolean generateReset
 
   public JsonSchemaExtension() {
     // See DefaultGenerationConfig
@@ -116,6 +138,24 @@ public class JsonSchemaExtension implements GenerationConfig {
     targetVersion = '1.6'
     includeDynamicAccessors = false
     formatDateTimes = false
+    generationThreads = 1
+    incrementalGeneration = false
+    writeOnlyChangedFiles = false
+    contentCacheMaxSize = 52428800L
+    httpOffline = false
+    httpTimeout = 30000
+    mergeExamples = false
+    reflectionFreeToString = false
+    allocationFreeHashcodeAndEquals = false
+    immutableTypes = false
+    generateSerializers = false
+    lazyAdditionalProperties = false
+    generateValidators = false
+    outputType = OutputType.SOURCES
+    externalizable = false
+    usePrimitiveArrays = false
+    trackPresence = false
+    generateReset = false
   }
 
   @Override
@@ -160,6 +200,20 @@ public class JsonSchemaExtension implements GenerationConfig {
     sourceType = SourceType.valueOf(s.toUpperCase())
   }
 
+  public void setOutputType(String s) {
+    setOutputType(OutputType.valueOf(s.toUpperCase()))
+  }
+
+  public void setOutputType(OutputType type) {
+    // Compiled output would not reach compileJava's classpath, and the generator compiles
+    // against its own class loader rather than the project's dependencies
+    if (type != OutputType.SOURCES) {
+      throw new GradleException("generateJsonSchema: outputType '${type.name().toLowerCase()}' " +
+          "is not supported by the Gradle plugin, only 'sources'")
+    }
+    outputType = type
+  }
+
   @Override
   public String toString() {
     """|generateBuilders = ${generateBuilders}
@@ -201,6 +255,26 @@ public class JsonSchemaExtension implements GenerationConfig {
        |targetVersion = ${targetVersion}
        |includeDynamicAccessors = ${includeDynamicAccessors}
        |formatDateTimes = ${formatDateTimes}
+       |generationThreads = ${generationThreads}
+       |incrementalGeneration = ${incrementalGeneration}
+       |writeOnlyChangedFiles = ${writeOnlyChangedFiles}
+       |contentCacheDirectory = ${contentCacheDirectory}
+       |contentCacheMaxSize = ${contentCacheMaxSize}
+       |httpCacheDirectory = ${httpCacheDirectory}
+       |httpOffline = ${httpOffline}
+       |httpTimeout = ${httpTimeout}
+       |mergeExamples = ${mergeExamples}
+       |reflectionFreeToString = ${reflectionFreeToString}
+       |allocationFreeHashcodeAndEquals = ${allocationFreeHashcodeAndEquals}
+       |immutableTypes = ${immutableTypes}
+       |generateSerializers = ${generateSerializers}
+       |lazyAdditionalProperties = ${lazyAdditionalProperties}
+       |generateValidators = ${generateValidators}
+       |outputType = ${outputType.toString().toLowerCase()}
+       |externalizable = ${externalizable}
+       |usePrimitiveArrays = ${usePrimitiveArrays}
+       |trackPresence = ${trackPresence}
+       |generateReset = ${generateReset}
      """.stripMargin()
   }
   
@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jsonschema2pojo.gradle
+
+import static org.junit.Assert.assertEquals
+
+import org.gradle.api.GradleException
+import org.jsonschema2pojo.OutputType
+import org.junit.Test
+
+class JsonSchemaExtensionTest {
+
+  @Test
+  void sourcesOutputTypeIsAccepted() {
+    JsonSchemaExtension extension = new JsonSchemaExtension()
+    extension.outputType = 'sources'
+    assertEquals(OutputType.SOURCES, extension.outputType)
+  }
+
+  @Test(expected = GradleException)
+  void classesOutputTypeIsRejected() {
+    new JsonSchemaExtension().outputType = 'classes'
+  }
+
+  @Test(expected = GradleException)
+  void jarOutputTypeIsRejected() {
+    new JsonSchemaExtension().outputType = OutputType.JAR
+  }
+}
@@ -17,7 +17,9 @@
 package org.jsonschema2pojo.integration;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
+import static org.jsonschema2pojo.integration.util.FileSearchMatcher.containsText;
 import static org.junit.Assert.*;
 
 import java.lang.reflect.InvocationTargetException;
@@ -87,6 +89,33 @@ public class DynamicPropertiesIT {
                 "value");
     }
 
+    @Test
+    public void shouldSetStringFieldOnParentJava7() throws Throwable {
+        setDeclaredPropertyTest(
+                config("includeDynamicAccessors", true, "targetVersion", "1.7"),
+                "/schema/dynamic/childType.json",
+                "ChildType",
+                String.class,
+                "stringValue",
+                "getStringValue",
+                "value");
+    }
+
+    @Test
+    public void shouldFindParentPropertiesWithoutCallingParent() throws Throwable {
+        getDeclaredPropertyTest(
+                "/schema/dynamic/childType.json",
+                "ChildType",
+                String.class,
+                "stringValue",
+                "setStringValue",
+                "value");
+
+        assertThat(schemaRule.generated("com/example/ChildType.java"), containsText("switch (name.hashCode())"));
+        assertThat(schemaRule.generated("com/example/ChildType.java"), containsText("getStringValue()"));
+        assertThat(schemaRule.generated("com/example/ChildType.java"), not(containsText("super.declaredProperty")));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldThrowExceptionWhenSettingWrongType() throws Throwable {
         setDeclaredPropertyTest(
@@ -212,6 +241,22 @@ public class DynamicPropertiesIT {
                 equalTo("value"));
     }
 
+    @Test
+    public void shouldUseAdditionalPropertiesForNullName() throws Exception {
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/dynamic/childType.json", "com.example", config("includeDynamicAccessors", true));
+
+        Class<?> childType = resultsClassLoader.loadClass("com.example.ChildType");
+        Object instance = childType.newInstance();
+
+        childType.getMethod("set", String.class, Object.class)
+                .invoke(instance, null, "value");
+
+        assertThat("the null name was looked up in the additional properties",
+                childType.getMethod("get", String.class)
+                        .invoke(instance, (Object) null),
+                equalTo((Object) "value"));
+    }
+
     public void setDeclaredPropertyTest(String schemaLocation, String typeName, Class<?> fieldType, String fieldName, String fieldGetter, Object value) throws Throwable {
         setDeclaredPropertyTest(config("includeDynamicAccessors", true), schemaLocation, typeName, fieldType, fieldName, fieldGetter, value);
     }
@@ -19,6 +19,7 @@ package org.jsonschema2pojo.integration;
 import static java.lang.reflect.Modifier.*;
 import static org.hamcrest.Matchers.*;
 import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
+import static org.jsonschema2pojo.integration.util.FileSearchMatcher.*;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
@@ -145,6 +146,49 @@ public class EnumIT {
         assertThat(isPublic(rootEnumClass.getModifiers()), is(true));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void intEnumDeserializationMethodFindsConstantsAndRejectsInvalidValues() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/integerEnumAsRoot.json", "com.example");
+
+        Class<Enum> rootEnumClass = (Class<Enum>) resultsClassLoader.loadClass("com.example.enums.IntegerEnumAsRoot");
+        Method fromValue = rootEnumClass.getDeclaredMethod("fromValue", Integer.class);
+
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 1), is(sameInstance(rootEnumClass.getEnumConstants()[0])));
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 3), is(sameInstance(rootEnumClass.getEnumConstants()[2])));
+
+        for (Integer invalidValue : new Integer[] { 4, null }) {
+            try {
+                fromValue.invoke(rootEnumClass, invalidValue);
+                fail();
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void enumDeserializationMethodUsesStringSwitchWhenTargetingJava7() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/typeWithEnumProperty.json", "com.example",
+                config("propertyWordDelimiters", "_", "targetVersion", "1.7"));
+
+        Class<Enum> java7EnumClass = (Class<Enum>) resultsClassLoader.loadClass("com.example.TypeWithEnumProperty$EnumProperty");
+        Method fromValue = java7EnumClass.getMethod("fromValue", String.class);
+
+        assertThat(schemaRule.generated("com/example/TypeWithEnumProperty.java"), containsText("switch (value)"));
+        assertThat((Enum) fromValue.invoke(java7EnumClass, "secondOne"), is(sameInstance(java7EnumClass.getEnumConstants()[1])));
+
+        try {
+            fromValue.invoke(java7EnumClass, "something invalid");
+            fail();
+        } catch (InvocationTargetException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void doubleEnumAtRootCreatesIntBackedEnum() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
@@ -157,7 +201,77 @@ public class EnumIT {
         assertThat(rootEnumClass.getDeclaredMethod("fromValue", Double.class), is(notNullValue()));
         assertThat(isPublic(rootEnumClass.getModifiers()), is(true));
     }
-    
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void doubleEnumDeserializationMethodFindsConstantsAndRejectsInvalidValues() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/doubleEnumAsRoot.json", "com.example");
+
+        Class<Enum> rootEnumClass = (Class<Enum>) resultsClassLoader.loadClass("com.example.enums.DoubleEnumAsRoot");
+        Method fromValue = rootEnumClass.getDeclaredMethod("fromValue", Double.class);
+
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 1.0), is(sameInstance(rootEnumClass.getEnumConstants()[0])));
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 2.5), is(sameInstance(rootEnumClass.getEnumConstants()[1])));
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 3.0), is(sameInstance(rootEnumClass.getEnumConstants()[2])));
+
+        for (Double invalidValue : new Double[] { 2.0, -1.0, Double.NaN, null }) {
+            try {
+                fromValue.invoke(rootEnumClass, invalidValue);
+                fail();
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void longEnumDeserializationMethodFindsConstantsAndRejectsInvalidValues() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/longEnumAsRoot.json", "com.example",
+                config("useLongIntegers", true));
+
+        Class<Enum> rootEnumClass = (Class<Enum>) resultsClassLoader.loadClass("com.example.enums.LongEnumAsRoot");
+        Method fromValue = rootEnumClass.getDeclaredMethod("fromValue", Long.class);
+
+        // 0 and 4294967297 have the same hash code, so share a case
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 0L), is(sameInstance(rootEnumClass.getEnumConstants()[0])));
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 4294967297L), is(sameInstance(rootEnumClass.getEnumConstants()[1])));
+        assertThat((Enum) fromValue.invoke(rootEnumClass, 3000000000L), is(sameInstance(rootEnumClass.getEnumConstants()[2])));
+
+        // 8589934594 also has that hash code, but isn't one of the values
+        for (Long invalidValue : new Long[] { 1L, 4294967296L, 8589934594L, null }) {
+            try {
+                fromValue.invoke(rootEnumClass, invalidValue);
+                fail();
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void booleanEnumDeserializationMethodFindsConstantsAndRejectsInvalidValues() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/enum/booleanEnumAsRoot.json", "com.example");
+
+        Class<Enum> rootEnumClass = (Class<Enum>) resultsClassLoader.loadClass("com.example.enums.BooleanEnumAsRoot");
+        Method fromValue = rootEnumClass.getDeclaredMethod("fromValue", Boolean.class);
+
+        assertThat((Enum) fromValue.invoke(rootEnumClass, true), is(sameInstance(rootEnumClass.getEnumConstants()[0])));
+
+        for (Boolean invalidValue : new Boolean[] { false, null }) {
+            try {
+                fromValue.invoke(rootEnumClass, invalidValue);
+                fail();
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+            }
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void enumWithEmptyStringAsValue() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
@@ -17,9 +17,12 @@
 package org.jsonschema2pojo.integration.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.sun.codemodel.JType;
 import org.joda.time.LocalDate;
+import org.jsonschema2pojo.ContentResolver;
 import org.jsonschema2pojo.Schema;
+import org.jsonschema2pojo.SchemaStore;
 import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
 import org.jsonschema2pojo.rules.FormatRule;
 import org.jsonschema2pojo.rules.Rule;
@@ -27,6 +30,7 @@ import org.jsonschema2pojo.rules.RuleFactory;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.net.URI;
 
 import static org.hamcrest.Matchers.is;
 import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
@@ -50,6 +54,33 @@ public class CustomRuleFactoryIT {
         assertThat(returnType.equals(LocalDate.class), is(true));
     }
 
+    @Test
+    public void customRuleFactoryKeepsItsOwnSchemaStore() throws ClassNotFoundException, SecurityException, NoSuchMethodException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/properties/primitiveProperties.json", "com.example",
+                config("customRuleFactory", TestSchemaStoreRuleFactory.class.getName()));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.PrimitiveProperties");
+
+        // throws NoSuchMethodException if the store's resolver wasn't used
+        generatedType.getMethod("getAddedByResolver");
+    }
+
+    public static class TestSchemaStoreRuleFactory extends RuleFactory {
+
+        public TestSchemaStoreRuleFactory() {
+            setSchemaStore(new SchemaStore(new ContentResolver() {
+                @Override
+                public JsonNode resolve(URI uri) {
+                    JsonNode content = super.resolve(uri);
+                    ((ObjectNode) content.get("properties")).putObject("addedByResolver").put("type", "string");
+                    return content;
+                }
+            }));
+        }
+
+    }
+
     public static class TestRuleFactory extends RuleFactory {
 
         @Override
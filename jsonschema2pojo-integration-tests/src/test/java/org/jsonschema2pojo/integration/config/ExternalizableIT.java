@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ExternalizableIT {
+
+    private static final String DOCUMENT = "{\"id\":1,\"name\":\"n\",\"flag\":true,\"count\":2.5,\"big\":7,"
+            + "\"child\":{\"x\":\"cx\"},\"children\":[{\"y\":1},{\"y\":null}],\"nums\":[1,null,3],\"nested\":[[\"a\"],[]],"
+            + "\"tags\":[\"p\",\"q\"],\"color\":\"green\",\"when\":\"2016-01-01T00:00:00Z\",\"self\":{\"id\":2,\"nums\":null},"
+            + "\"props\":{\"k\":{\"z\":5}},\"extra\":\"e\"}";
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+    @Rule public Jsonschema2PojoRule serializableSchemaRule = new Jsonschema2PojoRule();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void typesImplementExternalizableWhenConfigIsSet() throws ClassNotFoundException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/externalizable/document.json", "com.example", config("serializable", true, "externalizable", true));
+
+        assertThat(Externalizable.class.isAssignableFrom(resultsClassLoader.loadClass("com.example.Document")), is(true));
+        assertThat(Externalizable.class.isAssignableFrom(resultsClassLoader.loadClass("com.example.Child")), is(true));
+
+    }
+
+    @Test
+    public void externalizableHasNoEffectUnlessSerializable() throws ClassNotFoundException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/externalizable/document.json", "com.example", config("externalizable", true));
+
+        assertThat(Serializable.class.isAssignableFrom(resultsClassLoader.loadClass("com.example.Document")), is(false));
+
+    }
+
+    @Test
+    public void valuesSurviveRoundTrip() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/externalizable/document.json", "com.example", config("serializable", true, "externalizable", true));
+        Class<?> documentType = resultsClassLoader.loadClass("com.example.Document");
+
+        for (String json : new String[] { DOCUMENT, "{}" }) {
+            Object document = mapper.readValue(json, documentType);
+            Object roundTripped = deserialize(serialize(document), resultsClassLoader);
+
+            assertThat(roundTripped, is(instanceOf(documentType)));
+            assertThat(roundTripped, is(equalTo(document)));
+            assertThat(mapper.writeValueAsString(roundTripped), is(mapper.writeValueAsString(document)));
+        }
+
+    }
+
+    @Test
+    public void externalizedFormIsSmallerThanDefaultSerializedForm() throws Exception {
+
+        ClassLoader externalizableClassLoader = schemaRule.generateAndCompile("/schema/externalizable/document.json", "com.example", config("serializable", true, "externalizable", true));
+        ClassLoader serializableClassLoader = serializableSchemaRule.generateAndCompile("/schema/externalizable/document.json", "com.example", config("serializable", true));
+
+        byte[] externalized = serialize(mapper.readValue(DOCUMENT, externalizableClassLoader.loadClass("com.example.Document")));
+        byte[] serialized = serialize(mapper.readValue(DOCUMENT, serializableClassLoader.loadClass("com.example.Document")));
+
+        assertThat(externalized.length, is(lessThan(serialized.length / 2)));
+
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes, final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                return Class.forName(desc.getName(), false, classLoader);
+            }
+        };
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.jsonschema2pojo.integration.util.FileSearchMatcher.*;
+import static org.jsonschema2pojo.integration.util.JsonAssert.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+public class GenerateSerializersIT {
+
+    private static final String STUDENT_JSON = "{\"school\":\"Springfield\",\"name\":\"Lisa\",\"age\":8,\"height\":1.2,\"active\":true,"
+            + "\"nicknames\":[\"Lis\"],\"address\":{\"street\":\"Evergreen Terrace\",\"number\":742},\"kind\":\"child\",\"pets\":[\"Snowball\"]}";
+
+    private static final String STUDENT_WITH_ADDITIONAL_PROPERTIES_JSON = "{\"school\":\"Springfield\",\"name\":\"Lisa\",\"age\":8,\"height\":1.2,\"active\":true,"
+            + "\"nicknames\":[\"Lis\"],\"address\":{\"street\":\"Evergreen Terrace\",\"city\":\"Springfield\"},\"kind\":\"child\",\"pets\":[\"Snowball\"]}";
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void serializersAndModuleAreGeneratedForEachType() throws ClassNotFoundException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example", config("generateSerializers", true));
+
+        for (String className : new String[] { "com.example.Person", "com.example.Student", "com.example.Address" }) {
+            assertThat(resultsClassLoader.loadClass(className + "$Jackson2Serializer"), is(notNullValue()));
+            assertThat(resultsClassLoader.loadClass(className + "$Jackson2Deserializer"), is(notNullValue()));
+        }
+        assertThat(resultsClassLoader.loadClass("com.example.Jackson2Module").getSuperclass().getSimpleName(), is("SimpleModule"));
+
+    }
+
+    @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void generatedSerializersReadAndWriteTheSameJsonAsReflection() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example", config("generateSerializers", true));
+        Class studentType = resultsClassLoader.loadClass("com.example.Student");
+
+        Object withReflection = new ObjectMapper().readValue(STUDENT_JSON, studentType);
+        Object withSerializers = mapperWithModule(resultsClassLoader).readValue(STUDENT_JSON, studentType);
+
+        assertThat(withSerializers, is(equalTo(withReflection)));
+        assertEqualsJson(STUDENT_JSON, mapperWithModule(resultsClassLoader).writeValueAsString(withSerializers));
+
+    }
+
+    @Test
+    public void propertyNamesAreSwitchedOnWhenTargetingJava7() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example",
+                config("generateSerializers", true, "targetVersion", "1.7"));
+
+        assertThat(schemaRule.generated("com/example/Person.java"), containsText("switch (name)"));
+
+        Object student = mapperWithModule(resultsClassLoader).readValue(STUDENT_JSON, resultsClassLoader.loadClass("com.example.Student"));
+        assertEqualsJson(STUDENT_JSON, mapperWithModule(resultsClassLoader).writeValueAsString(student));
+
+    }
+
+    @Test
+    public void examplesCanBeReadAndWrittenWithGeneratedSerializers() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/json/examples/", "com.example",
+                config("generateSerializers", true,
+                        "propertyWordDelimiters", "_",
+                        "sourceType", "json",
+                        "useLongIntegers", true));
+
+        for (String example : new String[] { "torrent", "GetUserData" }) {
+            String expectedJson = IOUtils.toString(getClass().getResource("/json/examples/" + example + ".json"));
+            Class<?> generatedType = resultsClassLoader.loadClass("com.example." + Character.toUpperCase(example.charAt(0)) + example.substring(1));
+
+            ObjectMapper mapper = mapperWithModule(resultsClassLoader);
+            assertEqualsJson(expectedJson, mapper.writeValueAsString(mapper.readValue(expectedJson, generatedType)));
+        }
+
+    }
+
+    @Test
+    public void typesUsingPolymorphicDeserializationAreLeftToJackson() throws ClassNotFoundException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/polymorphic/extendsSchema.json", "com.example", config("generateSerializers", true));
+
+        Class<?> subtype = resultsClassLoader.loadClass("com.example.ExtendsSchema");
+
+        for (Class<?> type : new Class<?>[] { subtype, subtype.getSuperclass() }) {
+            for (Class<?> nestedType : type.getClasses()) {
+                assertThat(nestedType.getSimpleName(), not(startsWith("Jackson2")));
+            }
+        }
+
+    }
+
+    @Test
+    public void gsonTypeAdaptersAndFactoryAreGeneratedForEachType() throws ClassNotFoundException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example",
+                config("generateSerializers", true, "annotationStyle", "gson"));
+
+        for (String className : new String[] { "com.example.Person", "com.example.Student", "com.example.Address" }) {
+            assertThat(resultsClassLoader.loadClass(className + "$GsonTypeAdapter").getSuperclass().getSimpleName(), is("TypeAdapter"));
+        }
+        assertThat(resultsClassLoader.loadClass("com.example.GsonTypeAdapterFactory").getInterfaces()[0].getSimpleName(), is("TypeAdapterFactory"));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void gsonTypeAdaptersReadAndWriteEnumsAndAdditionalProperties() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example",
+                config("generateSerializers", true, "annotationStyle", "gson"));
+        Class<?> studentType = resultsClassLoader.loadClass("com.example.Student");
+
+        Object student = gsonWithFactory(resultsClassLoader).fromJson(STUDENT_WITH_ADDITIONAL_PROPERTIES_JSON, studentType);
+
+        assertThat(studentType.getMethod("getKind").invoke(student).toString(), is("child"));
+        assertThat(((Map<String, Object>) studentType.getMethod("getAdditionalProperties").invoke(student)), hasKey("pets"));
+        assertEqualsJson(STUDENT_WITH_ADDITIONAL_PROPERTIES_JSON, gsonWithFactory(resultsClassLoader).toJson(student));
+
+    }
+
+    @Test
+    public void gsonTypeAdaptersFormatDateTimes() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/format/customDateTimeFormat.json", "com.example",
+                config("generateSerializers", true, "annotationStyle", "gson", "formatDateTimes", true));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.CustomDateTimeFormat");
+
+        String json = "{\"defaultFormat\":\"2016-01-02T03:04:05.006\",\"customFormatDefaultTZ\":\"2016-01-02T03:04:05\",\"customFormatCustomTZ\":\"2016-01-02\"}";
+        Object instance = gsonWithFactory(resultsClassLoader).fromJson(json, generatedType);
+
+        assertThat(((Date) generatedType.getMethod("getDefaultFormat").invoke(instance)).getTime(), is(1451703845006L));
+        assertEqualsJson(json, gsonWithFactory(resultsClassLoader).toJson(instance));
+
+    }
+
+    @Test
+    public void moshiJsonAdaptersAndFactoryAreGeneratedForEachType() throws ClassNotFoundException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example",
+                config("generateSerializers", true, "annotationStyle", "moshi1"));
+
+        for (String className : new String[] { "com.example.Person", "com.example.Student", "com.example.Address" }) {
+            assertThat(resultsClassLoader.loadClass(className + "$MoshiJsonAdapter").getSuperclass().getSimpleName(), is("JsonAdapter"));
+        }
+        assertThat(resultsClassLoader.loadClass("com.example.MoshiJsonAdapterFactory").getInterfaces()[0].getSimpleName(), is("Factory"));
+
+    }
+
+    @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void moshiJsonAdaptersReadAndWriteTheSameJsonAsReflection() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example",
+                config("generateSerializers", true, "annotationStyle", "moshi1", "includeAdditionalProperties", false));
+        Class studentType = resultsClassLoader.loadClass("com.example.Student");
+
+        JsonAdapter withReflection = new Moshi.Builder().build().adapter(studentType);
+        JsonAdapter withJsonAdapters = moshiWithFactory(resultsClassLoader).adapter(studentType);
+
+        Object student = withJsonAdapters.fromJson(STUDENT_JSON);
+
+        assertThat(student, is(equalTo(withReflection.fromJson(STUDENT_JSON))));
+        assertEqualsJson(withReflection.toJson(student), withJsonAdapters.toJson(student));
+
+    }
+
+    @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void moshiJsonAdaptersReadAndWriteEnumsAndAdditionalProperties() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/serializers/", "com.example",
+                config("generateSerializers", true, "annotationStyle", "moshi1"));
+        Class<?> studentType = resultsClassLoader.loadClass("com.example.Student");
+
+        JsonAdapter adapter = moshiWithFactory(resultsClassLoader).adapter(studentType);
+        Object student = adapter.fromJson(STUDENT_WITH_ADDITIONAL_PROPERTIES_JSON);
+
+        assertThat(studentType.getMethod("getKind").invoke(student).toString(), is("child"));
+        assertThat(((Map<String, Object>) studentType.getMethod("getAdditionalProperties").invoke(student)), hasKey("pets"));
+        assertEqualsJson(STUDENT_WITH_ADDITIONAL_PROPERTIES_JSON, adapter.toJson(student));
+
+    }
+
+    private static Moshi moshiWithFactory(ClassLoader resultsClassLoader) throws ReflectiveOperationException {
+        return new Moshi.Builder().add((JsonAdapter.Factory) resultsClassLoader.loadClass("com.example.MoshiJsonAdapterFactory").newInstance()).build();
+    }
+
+    private static Gson gsonWithFactory(ClassLoader resultsClassLoader) throws ReflectiveOperationException {
+        return new GsonBuilder().registerTypeAdapterFactory((TypeAdapterFactory) resultsClassLoader.loadClass("com.example.GsonTypeAdapterFactory").newInstance()).create();
+    }
+
+    private static ObjectMapper mapperWithModule(ClassLoader resultsClassLoader) throws ReflectiveOperationException {
+        return new ObjectMapper().registerModule((Module) resultsClassLoader.loadClass("com.example.Jackson2Module").newInstance());
+    }
+
+}
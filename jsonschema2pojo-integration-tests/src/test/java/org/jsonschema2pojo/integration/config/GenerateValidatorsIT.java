@@ -0,0 +1,139 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class GenerateValidatorsIT {
+
+    @ClassRule public static Jsonschema2PojoRule classSchemaRule = new Jsonschema2PojoRule();
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    private static ClassLoader resultsClassLoader;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeClass
+    public static void generateAndCompile() {
+        resultsClassLoader = classSchemaRule.generateAndCompile("/schema/validators", "com.example",
+                config("generateValidators", true));
+    }
+
+    @Test
+    public void validObjectHasNoViolations() throws Exception {
+
+        List<String> violations = validate("com.example.Order", "{\"id\":\"ABC-123\",\"quantity\":99,\"price\":0.5,\"lines\":[{\"sku\":\"a\"}],\"customer\":{\"name\":\"b\"}}");
+
+        assertThat(violations, is(empty()));
+
+    }
+
+    @Test
+    public void eachViolatedConstraintIsReported() throws Exception {
+
+        List<String> violations = validate("com.example.Order", "{\"id\":\"abc\",\"quantity\":100,\"price\":0.4,\"lines\":[{\"sku\":\"a\"},{\"sku\":\"b\"},{\"sku\":\"c\"},{\"sku\":\"d\"}]}");
+
+        assertThat(violations, contains(
+                "id must match the pattern ^[A-Z]{3}-[0-9]+$",
+                "id must be at least 5 characters long",
+                "quantity must be less than 100",
+                "price must be greater than or equal to 0.5",
+                "lines must have at most 3 items"));
+
+    }
+
+    @Test
+    public void requiredPropertiesAreReported() throws Exception {
+
+        List<String> violations = validate("com.example.Order", "{\"lines\":[{\"sku\":\"a\"}]}");
+
+        assertThat(violations, contains("id is required"));
+
+    }
+
+    @Test
+    public void violationsOfNestedTypesArePrefixedWithTheirPath() throws Exception {
+
+        List<String> violations = validate("com.example.Order", "{\"id\":\"ABC-123\",\"lines\":[{\"sku\":\"a\"},{}],\"customer\":{}}");
+
+        assertThat(violations, contains("lines[1].sku is required", "customer.name is required"));
+
+    }
+
+    @Test
+    public void subtypeChecksConstraintsOfSupertype() throws Exception {
+
+        List<String> violations = validate("com.example.SpecialOrder", "{\"id\":\"ABC-123\",\"quantity\":0,\"lines\":[{\"sku\":\"a\"}],\"code\":\"ABC\"}");
+
+        assertThat(violations, contains("quantity must be greater than or equal to 1", "code must match the pattern ^[a-z]+$"));
+
+    }
+
+    @Test
+    public void patternsAreCompiledIntoStaticConstants() throws Exception {
+
+        Field pattern = resultsClassLoader.loadClass("com.example.Order").getDeclaredField("ID_PATTERN");
+
+        assertThat(pattern.getType().getName(), is(Pattern.class.getName()));
+        assertThat(Modifier.isStatic(pattern.getModifiers()), is(true));
+        assertThat(Modifier.isFinal(pattern.getModifiers()), is(true));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void propertyRequiredInBothFormsIsReportedOnce() throws Exception {
+
+        ClassLoader classLoader = schemaRule.generateAndCompile("/schema/validation/requiredTwice.json", "com.example",
+                config("generateValidators", true));
+        Object instance = classLoader.loadClass("com.example.RequiredTwice").newInstance();
+
+        assertThat((List<String>) instance.getClass().getMethod("validate").invoke(instance), contains("id is required"));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void patternUnsupportedByJavaFailsGeneration() {
+
+        schemaRule.generate("/schema/validation/unsupportedPattern.json", "com.example", config("generateValidators", true));
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> validate(String className, String json) throws Exception {
+        Class<?> generatedType = resultsClassLoader.loadClass(className);
+        Object instance = mapper.readValue(json, generatedType);
+        return (List<String>) generatedType.getMethod("validate").invoke(instance);
+    }
+
+}
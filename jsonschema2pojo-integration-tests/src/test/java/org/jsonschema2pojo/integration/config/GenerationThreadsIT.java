@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+
+import org.apache.commons.io.FileUtils;
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class GenerationThreadsIT {
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void multipleThreadsProduceTheSameOutputAsOneThread() throws IOException {
+
+        URL schemas = getClass().getResource("/schema/extends");
+
+        File serialOutput = schemaRule.generate(schemas, "com.example", config("generationThreads", 1));
+        File parallelOutput = generate(schemas, "com.example", config("generationThreads", 4));
+
+        Collection<File> serialFiles = FileUtils.listFiles(serialOutput, new String[] { "java" }, true);
+        Collection<File> parallelFiles = FileUtils.listFiles(parallelOutput, new String[] { "java" }, true);
+
+        assertThat(serialFiles, is(not(empty())));
+        assertThat(parallelFiles.size(), is(serialFiles.size()));
+
+        for (File serialFile : serialFiles) {
+            String relativePath = serialOutput.toURI().relativize(serialFile.toURI()).getPath();
+            File parallelFile = new File(parallelOutput, relativePath);
+
+            assertThat(FileUtils.readFileToString(parallelFile), is(equalTo(FileUtils.readFileToString(serialFile))));
+        }
+
+    }
+
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.squareup.moshi.Moshi;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class ImmutableTypesIT {
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void immutableTypesHaveFinalFieldsAndNoSetters() throws Exception {
+
+        Class generatedType = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true)).loadClass("com.example.Immutable");
+
+        for (String fieldName : new String[] { "name", "count", "tags", "additionalProperties" }) {
+            assertThat(Modifier.isFinal(generatedType.getDeclaredField(fieldName).getModifiers()), is(true));
+        }
+
+        for (Method method : generatedType.getMethods()) {
+            assertThat(method.getName(), not(startsWith("set")));
+        }
+
+    }
+
+    @Test
+    public void builderAppliesDefaultsAndCollectionsAreUnmodifiable() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true));
+        Class builderType = resultsClassLoader.loadClass("com.example.Immutable$Builder");
+
+        Object builder = builderType.newInstance();
+        builderType.getMethod("withTags", List.class).invoke(builder, asList("a", "b"));
+        Object instance = builderType.getMethod("build").invoke(builder);
+
+        assertThat(instance.getClass().getMethod("getName").invoke(instance), is((Object) "unnamed"));
+        assertThat((List<String>) instance.getClass().getMethod("getTags").invoke(instance), contains("a", "b"));
+
+        try {
+            ((List<String>) instance.getClass().getMethod("getTags").invoke(instance)).add("c");
+            fail("tags should be unmodifiable");
+        } catch (UnsupportedOperationException e) {
+        }
+
+        try {
+            ((Map<String, Object>) instance.getClass().getMethod("getAdditionalProperties").invoke(instance)).put("c", 1);
+            fail("additional properties should be unmodifiable");
+        } catch (UnsupportedOperationException e) {
+        }
+
+    }
+
+    @Test
+    public void hashCodeIsComputedOnceAndCached() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true));
+        Class builderType = resultsClassLoader.loadClass("com.example.Immutable$Builder");
+
+        Object first = builderType.getMethod("build").invoke(builderType.getMethod("withCount", Integer.class).invoke(builderType.newInstance(), 5));
+        Object second = builderType.getMethod("build").invoke(builderType.getMethod("withCount", Integer.class).invoke(builderType.newInstance(), 5));
+
+        Field cachedHashCode = first.getClass().getDeclaredField("cachedHashCode");
+        cachedHashCode.setAccessible(true);
+        assertThat(Modifier.isTransient(cachedHashCode.getModifiers()), is(true));
+        assertThat(cachedHashCode.getInt(first), is(0));
+
+        assertThat(first, is(equalTo(second)));
+        assertThat(first.hashCode(), is(second.hashCode()));
+        assertThat(cachedHashCode.getInt(first), is(first.hashCode()));
+
+    }
+
+    @Test
+    public void subtypeBuilderSetsPropertiesOfSupertype() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true));
+        Class builderType = resultsClassLoader.loadClass("com.example.ExtendsImmutable$Builder");
+
+        assertThat(builderType.getSuperclass().getName(), is("com.example.Immutable$Builder"));
+        assertThat(builderType.getMethod("withName", String.class).getReturnType(), is((Object) builderType));
+
+        Object builder = builderType.newInstance();
+        builderType.getMethod("withName", String.class).invoke(builder, "parent value");
+        builderType.getMethod("withChild", String.class).invoke(builder, "child value");
+        Object instance = builderType.getMethod("build").invoke(builder);
+
+        assertThat(instance.getClass().getName(), is("com.example.ExtendsImmutable"));
+        assertThat(instance.getClass().getMethod("getName").invoke(instance), is((Object) "parent value"));
+        assertThat(instance.getClass().getMethod("getChild").invoke(instance), is((Object) "child value"));
+
+    }
+
+    @Test
+    public void jackson2ReadsImmutableTypesUsingTheBuilder() throws Exception {
+
+        Class generatedType = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true)).loadClass("com.example.ExtendsImmutable");
+
+        Object instance = new ObjectMapper().readValue("{\"child\":\"c\",\"count\":2,\"tags\":[\"x\"],\"other\":true}", generatedType);
+
+        assertThat(generatedType.getMethod("getChild").invoke(instance), is((Object) "c"));
+        assertThat(generatedType.getMethod("getCount").invoke(instance), is((Object) 2));
+        assertThat(generatedType.getMethod("getName").invoke(instance), is((Object) "unnamed"));
+        assertThat((List<String>) generatedType.getMethod("getTags").invoke(instance), contains("x"));
+        assertThat((Map<String, Object>) generatedType.getMethod("getAdditionalProperties").invoke(instance), hasEntry("other", (Object) true));
+        assertThat(new ObjectMapper().readValue(new ObjectMapper().writeValueAsString(instance), generatedType), is(equalTo(instance)));
+
+    }
+
+    @Test
+    public void gsonReadsImmutableTypes() throws Exception {
+
+        Class generatedType = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true, "annotationStyle", "gson")).loadClass("com.example.Immutable");
+
+        Object instance = new Gson().fromJson("{\"count\":2,\"tags\":[\"x\"]}", generatedType);
+
+        assertThat(generatedType.getMethod("getCount").invoke(instance), is((Object) 2));
+        assertThat(generatedType.getMethod("getName").invoke(instance), is((Object) "unnamed"));
+        assertThat((List<String>) generatedType.getMethod("getTags").invoke(instance), contains("x"));
+
+    }
+
+    @Test
+    public void moshiReadsImmutableTypes() throws Exception {
+
+        Class generatedType = schemaRule.generateAndCompile("/schema/immutable/", "com.example", config("immutableTypes", true, "annotationStyle", "moshi1")).loadClass("com.example.Immutable");
+
+        Object instance = new Moshi.Builder().build().adapter(generatedType).fromJson("{\"count\":2,\"tags\":[\"x\"]}");
+
+        assertThat(generatedType.getMethod("getCount").invoke(instance), is((Object) 2));
+        assertThat(generatedType.getMethod("getName").invoke(instance), is((Object) "unnamed"));
+        assertThat((List<String>) generatedType.getMethod("getTags").invoke(instance), contains("x"));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void immutableTypesCantBeParcelable() {
+
+        schemaRule.generate("/schema/immutable/", "com.example", config("immutableTypes", true, "parcelable", true));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void immutableTypesCantIncludeConstructors() {
+
+        schemaRule.generate("/schema/immutable/", "com.example", config("immutableTypes", true, "includeConstructors", true));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void immutableTypesCantBeExternalizable() {
+
+        schemaRule.generate("/schema/immutable/", "com.example", config("immutableTypes", true, "serializable", true, "externalizable", true));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void immutableTypesCantGenerateReset() {
+
+        schemaRule.generate("/schema/immutable/", "com.example", config("immutableTypes", true, "generateReset", true));
+
+    }
+
+}
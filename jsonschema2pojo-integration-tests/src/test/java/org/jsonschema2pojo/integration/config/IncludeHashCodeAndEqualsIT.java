@@ -135,6 +135,70 @@ public class IncludeHashCodeAndEqualsIT {
         assertEquals(gen1Type.newInstance().hashCode(), gen1Type.newInstance().hashCode());
     }
 
+    @Test
+    public void allocationFreeMethodsUseSuperEqualsWhenParentIsNotObject() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/hashCodeAndEquals/types.json", "com.example", config("includeAdditionalProperties", false, "allocationFreeHashcodeAndEquals", true));
+
+        Class emptyType = resultsClassLoader.loadClass("com.example.Empty");
+        assertEquals(emptyType.newInstance(), emptyType.newInstance());
+        assertEquals(emptyType.newInstance().hashCode(), emptyType.newInstance().hashCode());
+
+        Class extendsJavaType = resultsClassLoader.loadClass("com.example.ExtendsJavaType");
+        assertNotEquals(extendsJavaType.newInstance(), extendsJavaType.newInstance());
+
+        Class extendsJavaTypeWithEquals = resultsClassLoader.loadClass("com.example.ExtendsJavaTypeWithEquals");
+        assertEquals(extendsJavaTypeWithEquals.newInstance(), extendsJavaTypeWithEquals.newInstance());
+        assertEquals(extendsJavaTypeWithEquals.newInstance().hashCode(), extendsJavaTypeWithEquals.newInstance().hashCode());
+    }
+
+    @Test
+    public void allocationFreeMethodsComparePrimitiveFields() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/properties/primitiveProperties.json", "com.example", config("usePrimitives", true, "allocationFreeHashcodeAndEquals", true));
+        Class genType = resultsClassLoader.loadClass("com.example.PrimitiveProperties");
+
+        java.lang.Object first = withValues(genType, 1, Double.NaN, true);
+        java.lang.Object second = withValues(genType, 1, Double.NaN, true);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, withValues(genType, 2, Double.NaN, true));
+        assertNotEquals(first, withValues(genType, 1, 0.5d, true));
+        assertNotEquals(first, withValues(genType, 1, Double.NaN, false));
+    }
+
+    @Test
+    public void allocationFreeMethodsCompareReferenceFieldsWithoutJava7() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/properties/primitiveProperties.json", "com.example", config("targetVersion", "1.6", "allocationFreeHashcodeAndEquals", true));
+        Class genType = resultsClassLoader.loadClass("com.example.PrimitiveProperties");
+
+        java.lang.Object first = withValues(genType, 1, 0.5d, null);
+        java.lang.Object second = withValues(genType, 1, 0.5d, null);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, withValues(genType, 1, 0.5d, false));
+        assertNotEquals(withValues(genType, 1, 0.5d, false), first);
+    }
+
+    private static java.lang.Object withValues(Class genType, java.lang.Object a, java.lang.Object b, java.lang.Object c) throws Exception {
+        java.lang.Object instance = genType.newInstance();
+        setValue(instance, "setA", a);
+        setValue(instance, "setB", b);
+        setValue(instance, "setC", c);
+        return instance;
+    }
+
+    private static void setValue(java.lang.Object instance, String setterName, java.lang.Object value) throws Exception {
+        for (java.lang.reflect.Method method : instance.getClass().getMethods()) {
+            if (method.getName().equals(setterName)) {
+                method.invoke(instance, value);
+            }
+        }
+    }
+
     public static class Object extends java.lang.Object {
     }
 
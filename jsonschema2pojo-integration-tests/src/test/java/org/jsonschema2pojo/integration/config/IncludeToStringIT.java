@@ -16,7 +16,9 @@
 
 package org.jsonschema2pojo.integration.config;
 
+import static org.hamcrest.Matchers.*;
 import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.generateAndCompile;
 import static org.junit.Assert.*;
 
 import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
@@ -54,4 +56,65 @@ public class IncludeToStringIT {
         }
     }
 
+    @Test
+    public void reflectionFreeToStringGivesTheSameOutputAsReflectionToString() throws Exception {
+
+        ClassLoader reflectionClassLoader = schemaRule.generateAndCompile("/schema/extends/subtypeOfB.json", "com.example");
+        ClassLoader reflectionFreeClassLoader = generateAndCompile("/schema/extends/subtypeOfB.json", "com.example", config("reflectionFreeToString", true));
+
+        assertThat(describe(reflectionFreeClassLoader.loadClass("com.example.SubtypeOfB")), is(describe(reflectionClassLoader.loadClass("com.example.SubtypeOfB"))));
+        assertThat(describe(reflectionFreeClassLoader.loadClass("com.example.B")), is(describe(reflectionClassLoader.loadClass("com.example.B"))));
+
+    }
+
+    @Test
+    public void reflectionFreeToStringIsUsedForPrimitives() throws Exception {
+
+        ClassLoader reflectionClassLoader = schemaRule.generateAndCompile("/schema/properties/primitiveProperties.json", "com.example", config("usePrimitives", true));
+        ClassLoader reflectionFreeClassLoader = generateAndCompile("/schema/properties/primitiveProperties.json", "com.example", config("usePrimitives", true, "reflectionFreeToString", true));
+
+        Object reflectionInstance = reflectionClassLoader.loadClass("com.example.PrimitiveProperties").newInstance();
+        Object reflectionFreeInstance = reflectionFreeClassLoader.loadClass("com.example.PrimitiveProperties").newInstance();
+
+        assertThat(withoutIdentity(reflectionFreeInstance.toString()), is(withoutIdentity(reflectionInstance.toString())));
+        assertThat(reflectionFreeInstance.toString(), containsString("[a=0,b=0.0,c=false,additionalProperties={}]"));
+
+    }
+
+    @Test
+    public void reflectionFreeToStringPrintsNullArrayElementsAsReflectionToStringDoes() throws Exception {
+
+        ClassLoader reflectionClassLoader = schemaRule.generateAndCompile("/schema/type/javaTypeArray.json", "com.example");
+        ClassLoader reflectionFreeClassLoader = generateAndCompile("/schema/type/javaTypeArray.json", "com.example", config("reflectionFreeToString", true));
+
+        Object reflectionInstance = reflectionClassLoader.loadClass("com.example.JavaTypeArray").newInstance();
+        Object reflectionFreeInstance = reflectionFreeClassLoader.loadClass("com.example.JavaTypeArray").newInstance();
+        String[] names = new String[] { "a", null, "c" };
+        reflectionInstance.getClass().getMethod("setNames", String[].class).invoke(reflectionInstance, (Object) names);
+        reflectionFreeInstance.getClass().getMethod("setNames", String[].class).invoke(reflectionFreeInstance, (Object) names);
+
+        assertThat(withoutIdentity(reflectionFreeInstance.toString()), is(withoutIdentity(reflectionInstance.toString())));
+        assertThat(reflectionFreeInstance.toString(), containsString("names={a,<null>,c}"));
+
+    }
+
+    private static String describe(Class<?> type) throws Exception {
+        Object instance = type.newInstance();
+        String empty = instance.toString();
+
+        for (String property : new String[] { "parentProperty", "childProperty" }) {
+            try {
+                type.getMethod("set" + property.substring(0, 1).toUpperCase() + property.substring(1), String.class).invoke(instance, "value of " + property);
+            } catch (NoSuchMethodException e) {
+            }
+        }
+        type.getMethod("setAdditionalProperty", String.class, Object.class).invoke(instance, "extra", 1);
+
+        return withoutIdentity(empty) + " " + withoutIdentity(instance.toString());
+    }
+
+    private static String withoutIdentity(String toString) {
+        return toString.replaceFirst("@[0-9a-f]+\\[", "[");
+    }
+
 }
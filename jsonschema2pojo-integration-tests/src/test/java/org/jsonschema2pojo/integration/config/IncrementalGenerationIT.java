@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.apache.commons.io.FileUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalGenerationIT {
+
+    private static final long OLD_TIMESTAMP = 10000L;
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+    @Rule public TemporaryFolder sourceFolder = new TemporaryFolder();
+
+    private File schemas;
+
+    @Before
+    public void writeSchemas() throws IOException {
+        schemas = sourceFolder.newFolder("schemas");
+
+        writeStringToFile(new File(schemas, "standalone.json"), "{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}");
+        writeStringToFile(new File(schemas, "referencing.json"), "{\"type\":\"object\",\"properties\":{\"b\":{\"$ref\":\"shared/referenced.json\"}}}");
+        writeStringToFile(new File(schemas, "shared/referenced.json"), "{\"type\":\"object\",\"javaType\":\"com.example.Referenced\",\"properties\":{\"c\":{\"type\":\"string\"}}}");
+    }
+
+    @Test
+    public void unchangedSourcesAreNotGeneratedAgain() throws IOException {
+
+        generate();
+        ageGeneratedFiles();
+
+        generate();
+
+        assertThat(schemaRule.generated("com/example/Standalone.java").lastModified(), is(OLD_TIMESTAMP));
+        assertThat(schemaRule.generated("com/example/Referencing.java").lastModified(), is(OLD_TIMESTAMP));
+
+    }
+
+    @Test
+    public void changeToReferencedDocumentCausesReferencingSourceToBeGeneratedAgain() throws IOException {
+
+        generate();
+        ageGeneratedFiles();
+
+        writeStringToFile(new File(schemas, "shared/referenced.json"), "{\"type\":\"object\",\"javaType\":\"com.example.Referenced\",\"properties\":{\"d\":{\"type\":\"string\"}}}");
+        generate();
+
+        assertThat(schemaRule.generated("com/example/Standalone.java").lastModified(), is(OLD_TIMESTAMP));
+        assertThat(schemaRule.generated("com/example/Referencing.java").lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(readFileToString(schemaRule.generated("com/example/Referenced.java")), containsString("getD()"));
+
+    }
+
+    @Test
+    public void outputOfRemovedSourceIsDeleted() throws IOException {
+
+        generate();
+
+        assertThat(new File(schemas, "standalone.json").delete(), is(true));
+        generate();
+
+        assertThat(schemaRule.generated("com/example/Standalone.java").exists(), is(false));
+        assertThat(schemaRule.generated("com/example/Referencing.java").exists(), is(true));
+        assertThat(schemaRule.generated("com/example/Referenced.java").exists(), is(true));
+
+    }
+
+    @Test
+    public void configChangeCausesAllSourcesToBeGeneratedAgain() throws IOException {
+
+        generate();
+        ageGeneratedFiles();
+
+        schemaRule.generate(schemas.toURI().toURL(), "com.example", config("incrementalGeneration", true, "includeToString", false));
+
+        assertThat(schemaRule.generated("com/example/Standalone.java").lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(readFileToString(schemaRule.generated("com/example/Standalone.java")), not(containsString("toString")));
+
+    }
+
+    @Test
+    public void changeToLaterValueOfNewlineDelimitedExampleCausesSourceToBeGeneratedAgain() throws IOException {
+
+        File examples = sourceFolder.newFolder("examples");
+        writeStringToFile(new File(examples, "records.json"), "{\"a\":1}\n{\"b\":\"x\"}\n");
+
+        schemaRule.generate(examples.toURI().toURL(), "com.example", config("incrementalGeneration", true, "sourceType", "json"));
+        ageGeneratedFiles();
+
+        writeStringToFile(new File(examples, "records.json"), "{\"a\":1}\n{\"c\":\"x\"}\n");
+        schemaRule.generate(examples.toURI().toURL(), "com.example", config("incrementalGeneration", true, "sourceType", "json"));
+
+        assertThat(schemaRule.generated("com/example/Records.java").lastModified(), is(not(OLD_TIMESTAMP)));
+        assertThat(readFileToString(schemaRule.generated("com/example/Records.java")), containsString("getC()"));
+
+    }
+
+    private void generate() throws IOException {
+        schemaRule.generate(schemas.toURI().toURL(), "com.example", config("incrementalGeneration", true));
+    }
+
+    private void ageGeneratedFiles() {
+        for (File generated : listFiles(schemaRule.getGenerateDir(), new String[] { "java" }, true)) {
+            assertThat(generated.setLastModified(OLD_TIMESTAMP), is(true));
+        }
+    }
+
+}
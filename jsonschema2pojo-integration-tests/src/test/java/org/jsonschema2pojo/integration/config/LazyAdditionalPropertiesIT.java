@@ -0,0 +1,145 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class LazyAdditionalPropertiesIT {
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mapIsNotAllocatedUntilAnAdditionalPropertyIsSet() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/additionalProperties/defaultAdditionalProperties.json", "com.example",
+                config("lazyAdditionalProperties", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.DefaultAdditionalProperties");
+        Object instance = generatedType.newInstance();
+
+        assertThat(additionalPropertiesField(generatedType).get(instance), is(nullValue()));
+        assertThat(((Map<String, Object>) generatedType.getMethod("getAdditionalProperties").invoke(instance)).isEmpty(), is(true));
+
+        generatedType.getMethod("setAdditionalProperty", String.class, Object.class).invoke(instance, "a", "1");
+
+        assertThat(additionalPropertiesField(generatedType).get(instance), is(instanceOf(LinkedHashMap.class)));
+        assertThat((String) ((Map<String, Object>) generatedType.getMethod("getAdditionalProperties").invoke(instance)).get("a"), is("1"));
+
+    }
+
+    @Test
+    public void jacksonReadsAndWritesLazyAdditionalPropertiesInOrder() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/additionalProperties/defaultAdditionalProperties.json", "com.example",
+                config("lazyAdditionalProperties", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.DefaultAdditionalProperties");
+
+        Object withoutAdditionalProperties = mapper.readValue("{}", generatedType);
+        assertThat(additionalPropertiesField(generatedType).get(withoutAdditionalProperties), is(nullValue()));
+        assertThat(mapper.writeValueAsString(withoutAdditionalProperties), is("{}"));
+
+        String json = "{\"z\":\"1\",\"a\":2,\"m\":true}";
+        assertThat(mapper.writeValueAsString(mapper.readValue(json, generatedType)), is(json));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void immutableTypeBuilderAllocatesMapLazily() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/additionalProperties/defaultAdditionalProperties.json", "com.example",
+                config("lazyAdditionalProperties", true, "immutableTypes", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.DefaultAdditionalProperties");
+        Class<?> builderType = resultsClassLoader.loadClass("com.example.DefaultAdditionalProperties$Builder");
+
+        Object empty = builderType.getMethod("build").invoke(builderType.newInstance());
+        assertThat(additionalPropertiesField(generatedType).get(empty), is(nullValue()));
+        assertThat(((Map<String, Object>) generatedType.getMethod("getAdditionalProperties").invoke(empty)).isEmpty(), is(true));
+
+        Object builder = builderType.getMethod("withAdditionalProperty", String.class, Object.class).invoke(builderType.newInstance(), "a", "1");
+        Object instance = builderType.getMethod("build").invoke(builder);
+        assertThat((String) ((Map<String, Object>) generatedType.getMethod("getAdditionalProperties").invoke(instance)).get("a"), is("1"));
+
+    }
+
+    @Test
+    public void unallocatedAndEmptiedMapsAreEqual() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/additionalProperties/defaultAdditionalProperties.json", "com.example",
+                config("lazyAdditionalProperties", true, "generateReset", true));
+
+        assertFreshClearedAndResetInstancesAreEqual(resultsClassLoader.loadClass("com.example.DefaultAdditionalProperties"));
+
+    }
+
+    @Test
+    public void unallocatedAndEmptiedMapsAreEqualWithAllocationFreeEquals() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/additionalProperties/defaultAdditionalProperties.json", "com.example",
+                config("lazyAdditionalProperties", true, "generateReset", true, "allocationFreeHashcodeAndEquals", true));
+
+        assertFreshClearedAndResetInstancesAreEqual(resultsClassLoader.loadClass("com.example.DefaultAdditionalProperties"));
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertFreshClearedAndResetInstancesAreEqual(Class<?> generatedType) throws Exception {
+        Method setAdditionalProperty = generatedType.getMethod("setAdditionalProperty", String.class, Object.class);
+
+        Object fresh = generatedType.newInstance();
+
+        Object cleared = generatedType.newInstance();
+        setAdditionalProperty.invoke(cleared, "a", "1");
+        ((Map<String, Object>) generatedType.getMethod("getAdditionalProperties").invoke(cleared)).clear();
+
+        Object reset = generatedType.newInstance();
+        setAdditionalProperty.invoke(reset, "a", "1");
+        generatedType.getMethod("reset").invoke(reset);
+
+        assertThat(cleared, is(equalTo(fresh)));
+        assertThat(fresh, is(equalTo(cleared)));
+        assertThat(cleared.hashCode(), is(fresh.hashCode()));
+        assertThat(reset, is(equalTo(fresh)));
+        assertThat(reset.hashCode(), is(fresh.hashCode()));
+        assertThat(additionalPropertiesField(generatedType).get(reset), is(nullValue()));
+    }
+
+    private static Field additionalPropertiesField(Class<?> generatedType) throws NoSuchFieldException {
+        Field field = generatedType.getDeclaredField("additionalProperties");
+        field.setAccessible(true);
+        return field;
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.apache.commons.io.FileUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OutputTypeIT {
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+    @Rule public TemporaryFolder sourceFolder = new TemporaryFolder();
+
+    @Test
+    public void classesOutputWritesCompiledTypes() throws Exception {
+
+        schemaRule.generate("/schema/properties/primitiveProperties.json", "com.example", config("outputType", "classes"));
+
+        assertThat(schemaRule.generated("com/example/PrimitiveProperties.java").exists(), is(false));
+        assertThat(schemaRule.generated("com/example/PrimitiveProperties.class").exists(), is(true));
+
+        Class<?> generatedType = loadClass(schemaRule.getGenerateDir(), "com.example.PrimitiveProperties");
+        assertThat(generatedType.getMethod("getA").getReturnType().getName(), is("java.lang.Integer"));
+
+    }
+
+    @Test
+    public void jarOutputWritesCompiledTypesToSingleJar() throws Exception {
+
+        schemaRule.generate("/schema/properties/primitiveProperties.json", "com.example", config("outputType", "jar"));
+
+        assertThat(schemaRule.generated("com/example").exists(), is(false));
+        assertThat(schemaRule.generated("jsonschema2pojo.jar").isFile(), is(true));
+
+        Class<?> generatedType = loadClass(schemaRule.generated("jsonschema2pojo.jar"), "com.example.PrimitiveProperties");
+        assertThat(generatedType.getMethod("getA").getReturnType().getName(), is("java.lang.Integer"));
+
+    }
+
+    @Test
+    public void incrementalClassesOutputDeletesClassesOfRemovedSource() throws IOException {
+
+        File schemas = sourceFolder.newFolder("schemas");
+        writeStringToFile(new File(schemas, "standalone.json"), "{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"}}}");
+        writeStringToFile(new File(schemas, "other.json"), "{\"type\":\"object\",\"properties\":{\"b\":{\"type\":\"string\"}}}");
+
+        schemaRule.generate(schemas.toURI().toURL(), "com.example", config("outputType", "classes", "incrementalGeneration", true));
+
+        assertThat(new File(schemas, "standalone.json").delete(), is(true));
+        schemaRule.generate(schemas.toURI().toURL(), "com.example", config("outputType", "classes", "incrementalGeneration", true));
+
+        assertThat(schemaRule.generated("com/example/Standalone.class").exists(), is(false));
+        assertThat(schemaRule.generated("com/example/Other.class").exists(), is(true));
+
+    }
+
+    private Class<?> loadClass(File classpathEntry, String className) throws IOException, ClassNotFoundException {
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classpathEntry.toURI().toURL() }, getClass().getClassLoader());
+        return classLoader.loadClass(className);
+    }
+
+}
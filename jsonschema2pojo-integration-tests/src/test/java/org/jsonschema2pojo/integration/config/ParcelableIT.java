@@ -16,12 +16,15 @@
 
 package org.jsonschema2pojo.integration.config;
 
+import static java.util.Arrays.*;
+import static org.apache.commons.io.FileUtils.*;
 import static org.hamcrest.Matchers.*;
 import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.config;
 import static org.jsonschema2pojo.integration.util.ParcelUtils.*;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
 import org.junit.Rule;
@@ -55,4 +58,75 @@ public class ParcelableIT {
         assertThat(instance, is(equalTo(unparceledInstance)));
     }
 
+    @Test
+    public void parcelableTreeWithPrimitivesIsParcelable() throws ClassNotFoundException, IOException {
+        Class<?> parcelableType = schemaRule.generateAndCompile("/schema/parcelable/parcelable-schema.json", "com.example",
+                config("parcelable", true, "usePrimitives", true))
+                .loadClass("com.example.ParcelableSchema");
+
+        Parcelable instance = (Parcelable) new ObjectMapper().readValue(ParcelableIT.class.getResourceAsStream("/schema/parcelable/parcelable-data.json"), parcelableType);
+        String key = "example";
+        Parcel parcel = writeToParcel(instance, key);
+        Parcelable unparceledInstance = readFromParcel(parcel, parcelableType, key);
+
+        assertThat(instance, is(equalTo(unparceledInstance)));
+    }
+
+    @Test
+    public void nullPropertiesRemainNullWhenParcelled() throws ClassNotFoundException, IOException {
+        Class<?> parcelableType = schemaRule.generateAndCompile("/schema/parcelable/parcelable-schema.json", "com.example",
+                config("parcelable", true, "initializeCollections", false))
+                .loadClass("com.example.ParcelableSchema");
+
+        Parcelable instance = (Parcelable) new ObjectMapper().readValue("{}", parcelableType);
+        String key = "example";
+        Parcel parcel = writeToParcel(instance, key);
+        Parcelable unparceledInstance = readFromParcel(parcel, parcelableType, key);
+
+        assertThat(instance, is(equalTo(unparceledInstance)));
+    }
+
+    @Test
+    public void subtypesInListsKeepTheirTypeWhenParcelled() throws Exception {
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/parcelable/list", "com.example", config("parcelable", true));
+        Class<?> containerType = resultsClassLoader.loadClass("com.example.Container");
+        Class<?> itemType = resultsClassLoader.loadClass("com.example.Item");
+        Class<?> subItemType = resultsClassLoader.loadClass("com.example.SubItem");
+
+        Object item = itemType.newInstance();
+        itemType.getMethod("setName", String.class).invoke(item, "item");
+        Object subItem = subItemType.newInstance();
+        subItemType.getMethod("setName", String.class).invoke(subItem, "subItem");
+        subItemType.getMethod("setDetail", String.class).invoke(subItem, "detail");
+
+        Parcelable instance = (Parcelable) containerType.newInstance();
+        containerType.getMethod("setItems", List.class).invoke(instance, asList(item, subItem, null));
+
+        String key = "example";
+        Parcel parcel = writeToParcel(instance, key);
+        Parcelable unparceledInstance = readFromParcel(parcel, containerType, key);
+
+        List<?> items = (List<?>) containerType.getMethod("getItems").invoke(unparceledInstance);
+        assertThat(items.get(0).getClass(), is(equalTo((Object) itemType)));
+        assertThat(items.get(1).getClass(), is(equalTo((Object) subItemType)));
+        assertThat(items.get(2), is(nullValue()));
+        assertThat(instance, is(equalTo(unparceledInstance)));
+    }
+
+    @Test
+    public void propertiesAreWrittenWithTypeSpecificMethods() throws IOException {
+        schemaRule.generate("/schema/parcelable/parcelable-schema.json", "com.example", config("parcelable", true));
+
+        String source = readFileToString(schemaRule.generated("com/example/ParcelableSchema.java"));
+
+        assertThat(source, containsString("dest.writeInt(this.integerProperty);"));
+        assertThat(source, containsString("dest.writeDouble(this.numberProperty);"));
+        assertThat(source, containsString("dest.writeString(this.stringProperty);"));
+        assertThat(source, containsString("this.objectProperty.writeToParcel(dest, flags);"));
+        assertThat(source, containsString("ObjectProperty.CREATOR.createFromParcel(in)"));
+        assertThat(source, containsString("dest.writeInt(this.complexTypesArray.size());"));
+        assertThat(source, not(containsString("writeValue(this.integerProperty)")));
+        assertThat(source, not(containsString("writeValue(this.enumProperty)")));
+    }
+
 }
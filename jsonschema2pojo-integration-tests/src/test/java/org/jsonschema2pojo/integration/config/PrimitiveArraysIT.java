@@ -0,0 +1,197 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.jsonschema2pojo.integration.util.JsonAssert.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+public class PrimitiveArraysIT {
+
+    private static final String SAMPLES_JSON = "{\"counts\":[1,2,3],\"values\":[0.5,1.5,2.5,3.5,4.5,5.5,6.5,7.5,8.5,9.5,10.5,11.5,12.5,13.5,14.5,15.5,16.5],"
+            + "\"flags\":[true,false,true],\"uniqueCounts\":[4,5],\"labels\":[\"a\",\"b\"]}";
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void arraysOfPrimitivesAreCollectionsByDefault() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example");
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Samples");
+
+        assertThat(generatedType.getMethod("getCounts").getReturnType(), is(equalTo((Object) List.class)));
+        assertThat(generatedType.getMethod("getValues").getReturnType(), is(equalTo((Object) List.class)));
+
+    }
+
+    @Test
+    public void arraysOfPrimitivesArePrimitiveArraysWhenConfigIsSet() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example", config("usePrimitiveArrays", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Samples");
+
+        assertThat(generatedType.getMethod("getCounts").getReturnType(), is(equalTo((Object) int[].class)));
+        assertThat(generatedType.getMethod("getValues").getReturnType(), is(equalTo((Object) double[].class)));
+        assertThat(generatedType.getMethod("getFlags").getReturnType(), is(equalTo((Object) boolean[].class)));
+        assertThat(generatedType.getMethod("getUniqueCounts").getReturnType(), is(equalTo((Object) Set.class)));
+        assertThat(generatedType.getMethod("getLabels").getReturnType(), is(equalTo((Object) List.class)));
+
+    }
+
+    @Test
+    public void primitiveArraysAreInitializedWithDefaults() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example", config("usePrimitiveArrays", true));
+
+        Object samples = resultsClassLoader.loadClass("com.example.Samples").newInstance();
+
+        assertThat((int[]) invoke(samples, "getCounts"), is(new int[0]));
+        assertThat((boolean[]) invoke(samples, "getFlags"), is(new boolean[] { true, false }));
+
+    }
+
+    @Test
+    public void primitiveArraysAreNullWhenCollectionsAreNotInitialized() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example",
+                config("usePrimitiveArrays", true, "initializeCollections", false));
+
+        Object samples = resultsClassLoader.loadClass("com.example.Samples").newInstance();
+
+        assertThat(invoke(samples, "getCounts"), is(nullValue()));
+
+    }
+
+    @Test
+    public void primitiveArraysAreReadAndWrittenByJackson() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example", config("usePrimitiveArrays", true));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Samples");
+
+        ObjectMapper mapper = new ObjectMapper();
+        Object samples = mapper.readValue(SAMPLES_JSON, generatedType);
+
+        assertThat((int[]) invoke(samples, "getCounts"), is(new int[] { 1, 2, 3 }));
+        assertEqualsJson(SAMPLES_JSON, mapper.writeValueAsString(samples));
+
+    }
+
+    @Test
+    public void primitiveArraysAreReadAndWrittenByGeneratedSerializers() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example",
+                config("usePrimitiveArrays", true, "generateSerializers", true));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Samples");
+
+        ObjectMapper mapper = new ObjectMapper().registerModule((Module) resultsClassLoader.loadClass("com.example.Jackson2Module").newInstance());
+        Object samples = mapper.readValue(SAMPLES_JSON, generatedType);
+
+        assertThat(samples, is(equalTo(new ObjectMapper().readValue(SAMPLES_JSON, generatedType))));
+        assertEqualsJson(SAMPLES_JSON, mapper.writeValueAsString(samples));
+        assertEqualsJson("{\"values\":[]}", mapper.writeValueAsString(mapper.readValue("{\"counts\":null,\"values\":[],\"flags\":null,\"uniqueCounts\":null,\"labels\":null}", generatedType)));
+
+    }
+
+    @Test
+    public void primitiveArraysAreReadAndWrittenByGeneratedGsonTypeAdapters() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example",
+                config("usePrimitiveArrays", true, "generateSerializers", true, "annotationStyle", "gson"));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Samples");
+
+        Object samples = new GsonBuilder().registerTypeAdapterFactory((TypeAdapterFactory) resultsClassLoader.loadClass("com.example.GsonTypeAdapterFactory").newInstance())
+                .create().fromJson(SAMPLES_JSON, generatedType);
+
+        assertThat(samples, is(equalTo(new GsonBuilder().create().fromJson(SAMPLES_JSON, generatedType))));
+        assertThat((double[]) invoke(samples, "getValues"), is(equalTo(new GsonBuilder().create().fromJson("[0.5,1.5,2.5,3.5,4.5,5.5,6.5,7.5,8.5,9.5,10.5,11.5,12.5,13.5,14.5,15.5,16.5]", double[].class))));
+
+    }
+
+    @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void primitiveArraysAreReadAndWrittenByGeneratedMoshiAdapters() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example",
+                config("usePrimitiveArrays", true, "generateSerializers", true, "annotationStyle", "moshi1"));
+        Class generatedType = resultsClassLoader.loadClass("com.example.Samples");
+
+        JsonAdapter adapter = new Moshi.Builder().add((JsonAdapter.Factory) resultsClassLoader.loadClass("com.example.MoshiJsonAdapterFactory").newInstance()).build()
+                .adapter(generatedType);
+        Object samples = adapter.fromJson(SAMPLES_JSON);
+
+        assertThat((boolean[]) invoke(samples, "getFlags"), is(new boolean[] { true, false, true }));
+        assertEqualsJson(SAMPLES_JSON, adapter.toJson(samples));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void sizeOfPrimitiveArraysIsValidated() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example",
+                config("usePrimitiveArrays", true, "generateValidators", true));
+
+        Object samples = resultsClassLoader.loadClass("com.example.Samples").newInstance();
+        samples.getClass().getMethod("setCounts", int[].class).invoke(samples, new int[] { 1, 2, 3, 4, 5 });
+
+        assertThat((List<String>) invoke(samples, "validate"), contains("counts must have at most 4 items"));
+
+    }
+
+    @Test
+    public void immutableTypesCopyPrimitiveArrays() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/primitiveArrays/samples.json", "com.example",
+                config("usePrimitiveArrays", true, "immutableTypes", true));
+
+        Class<?> builderType = resultsClassLoader.loadClass("com.example.Samples$Builder");
+        int[] counts = new int[] { 1, 2 };
+        Object builder = builderType.newInstance();
+        builderType.getMethod("withCounts", int[].class).invoke(builder, counts);
+        Object samples = invoke(builder, "build");
+        counts[0] = 3;
+
+        assertThat((int[]) invoke(samples, "getCounts"), is(new int[] { 1, 2 }));
+
+    }
+
+    private static Object invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getMethod(methodName);
+        return method.invoke(target);
+    }
+
+}
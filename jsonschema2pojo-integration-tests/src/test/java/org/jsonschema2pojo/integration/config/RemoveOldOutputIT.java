@@ -16,8 +16,11 @@
 
 package org.jsonschema2pojo.integration.config;
 
+import static org.hamcrest.Matchers.*;
 import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
 
+import java.io.File;
 import java.net.URL;
 
 import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
@@ -41,6 +44,35 @@ public class RemoveOldOutputIT {
 
     }
 
+    @Test(expected = ClassNotFoundException.class)
+    public void removeOldOutputCausesOldTypesToBeDeletedWhenWritingOnlyChangedFiles() throws ClassNotFoundException {
+
+        URL schema1 = getClass().getResource("/schema/properties/primitiveProperties.json");
+        URL schema2 = getClass().getResource("/schema/properties/orderedProperties.json");
+
+        schemaRule.generate(schema1, "com.example", config("removeOldOutput", true, "writeOnlyChangedFiles", true));
+        schemaRule.generate(schema2, "com.example", config("removeOldOutput", true, "writeOnlyChangedFiles", true));
+
+        schemaRule.compile().loadClass("com.example.PrimitiveProperties");
+
+    }
+
+    @Test
+    public void removeOldOutputKeepsUnchangedFilesWhenWritingOnlyChangedFiles() {
+
+        URL schema = getClass().getResource("/schema/properties/primitiveProperties.json");
+
+        File outputDirectory = schemaRule.generate(schema, "com.example", config("removeOldOutput", true, "writeOnlyChangedFiles", true));
+        File generatedFile = new File(outputDirectory, "com/example/PrimitiveProperties.java");
+        assertThat(generatedFile.setLastModified(10000L), is(true));
+
+        schemaRule.generate(schema, "com.example", config("removeOldOutput", true, "writeOnlyChangedFiles", true));
+
+        assertThat(generatedFile.exists(), is(true));
+        assertThat(generatedFile.lastModified(), is(10000L));
+
+    }
+
     @Test
     public void byDefaultPluginDoesNotRemoveOldOutput() throws ClassNotFoundException {
 
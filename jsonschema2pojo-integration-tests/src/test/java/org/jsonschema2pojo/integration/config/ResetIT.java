@@ -0,0 +1,168 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.stream.JsonReader;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+
+import okio.Buffer;
+
+public class ResetIT {
+
+    private static final String POOLED_JSON = "{\"count\":1,\"names\":[\"x\"],\"tags\":[\"t\"],\"label\":\"l\",\"enabled\":true,\"ratio\":2.5,\"extra\":3}";
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void resetIsNotGeneratedByDefault() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/reset/pooled.json", "com.example");
+
+        assertThat(hasMethod(resultsClassLoader.loadClass("com.example.Pooled"), "reset"), is(false));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void resetRestoresDefaultsAndKeepsCollections() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/reset/extendedPooled.json", "com.example", config("generateReset", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.ExtendedPooled");
+        Object pooled = new ObjectMapper().readValue(POOLED_JSON, generatedType);
+        List<String> names = (List<String>) invoke(pooled, "getNames");
+        Map<String, Object> additionalProperties = (Map<String, Object>) invoke(pooled, "getAdditionalProperties");
+
+        invoke(pooled, "reset");
+
+        assertThat(pooled, is(equalTo(generatedType.newInstance())));
+        assertThat((Integer) invoke(pooled, "getCount"), is(5));
+        assertThat((Double) invoke(pooled, "getRatio"), is(0.5));
+        assertThat(invoke(pooled, "getLabel"), is(nullValue()));
+        assertThat(invoke(pooled, "getNames"), is(sameInstance((Object) names)));
+        assertThat(names, contains("a", "b"));
+        assertThat(invoke(pooled, "getAdditionalProperties"), is(sameInstance((Object) additionalProperties)));
+        assertThat(additionalProperties.isEmpty(), is(true));
+
+    }
+
+    @Test
+    public void resetClearsPresence() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example",
+                config("generateReset", true, "trackPresence", true, "generateSerializers", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+        Object reading = generatedType.newInstance();
+        generatedType.getMethod("setCount", int.class).invoke(reading, 0);
+
+        invoke(reading, "reset");
+
+        assertThat((Integer) invoke(reading, "getCount"), is(5));
+        assertThat((Boolean) invoke(reading, "hasCount"), is(false));
+
+    }
+
+    @Test
+    public void generatedDeserializerUpdatesExistingInstance() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/reset/extendedPooled.json", "com.example",
+                config("generateReset", true, "generateSerializers", true));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.ExtendedPooled");
+
+        ObjectMapper mapper = new ObjectMapper().registerModule((Module) resultsClassLoader.loadClass("com.example.Jackson2Module").newInstance());
+        Object pooled = generatedType.newInstance();
+        Object read = mapper.readerForUpdating(pooled).readValue(POOLED_JSON);
+
+        assertThat(read, is(sameInstance(pooled)));
+        assertThat(pooled, is(equalTo(new ObjectMapper().readValue(POOLED_JSON, generatedType))));
+
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void generatedGsonTypeAdapterReadsIntoExistingInstance() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/reset/extendedPooled.json", "com.example",
+                config("generateReset", true, "generateSerializers", true, "annotationStyle", "gson"));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.ExtendedPooled");
+
+        TypeAdapter adapter = new GsonBuilder().registerTypeAdapterFactory((TypeAdapterFactory) resultsClassLoader.loadClass("com.example.GsonTypeAdapterFactory").newInstance())
+                .create().getAdapter(generatedType);
+        Object pooled = generatedType.newInstance();
+        Object read = adapter.getClass().getMethod("read", JsonReader.class, generatedType).invoke(adapter, new JsonReader(new StringReader(POOLED_JSON)), pooled);
+
+        assertThat(read, is(sameInstance(pooled)));
+        assertThat(pooled, is(equalTo(adapter.fromJson(POOLED_JSON))));
+
+    }
+
+    @Test
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void generatedMoshiAdapterReadsIntoExistingInstance() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/reset/extendedPooled.json", "com.example",
+                config("generateReset", true, "generateSerializers", true, "annotationStyle", "moshi1"));
+        Class generatedType = resultsClassLoader.loadClass("com.example.ExtendedPooled");
+
+        JsonAdapter adapter = new Moshi.Builder().add((JsonAdapter.Factory) resultsClassLoader.loadClass("com.example.MoshiJsonAdapterFactory").newInstance()).build()
+                .adapter(generatedType);
+        Object pooled = generatedType.newInstance();
+        Object read = adapter.getClass().getMethod("fromJson", com.squareup.moshi.JsonReader.class, generatedType)
+                .invoke(adapter, com.squareup.moshi.JsonReader.of(new Buffer().writeUtf8(POOLED_JSON)), pooled);
+
+        assertThat(read, is(sameInstance(pooled)));
+        assertThat(pooled, is(equalTo(adapter.fromJson(POOLED_JSON))));
+
+    }
+
+    private static boolean hasMethod(Class<?> type, String methodName) {
+        try {
+            type.getMethod(methodName);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Object invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getMethod(methodName);
+        return method.invoke(target);
+    }
+
+}
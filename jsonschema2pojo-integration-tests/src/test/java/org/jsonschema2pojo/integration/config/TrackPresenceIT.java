@@ -0,0 +1,271 @@
+/**
+ * Copyright © 2010-2014 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jsonschema2pojo.integration.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.jsonschema2pojo.integration.util.CodeGenerationHelper.*;
+import static org.jsonschema2pojo.integration.util.JsonAssert.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.jsonschema2pojo.exception.GenerationException;
+import org.jsonschema2pojo.integration.util.Jsonschema2PojoRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+
+public class TrackPresenceIT {
+
+    private static final String READING_JSON = "{\"count\":0,\"enabled\":null,\"offset\":7}";
+
+    @Rule public Jsonschema2PojoRule schemaRule = new Jsonschema2PojoRule();
+
+    @Test
+    public void presenceIsNotTrackedByDefault() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example");
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+
+        assertThat(generatedType.getMethod("getCount").getReturnType(), is(equalTo((Object) Integer.class)));
+        assertThat(hasMethod(generatedType, "hasCount"), is(false));
+
+    }
+
+    @Test
+    public void trackedPropertiesArePrimitiveWithHasAndClearMethods() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example", config("trackPresence", true, "generateSerializers", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+
+        assertThat(generatedType.getMethod("getCount").getReturnType(), is(equalTo((Object) int.class)));
+        assertThat(generatedType.getMethod("getRatio").getReturnType(), is(equalTo((Object) double.class)));
+        assertThat(generatedType.getMethod("getEnabled").getReturnType(), is(equalTo((Object) boolean.class)));
+        assertThat(generatedType.getMethod("hasCount").getReturnType(), is(equalTo((Object) boolean.class)));
+        assertThat(hasMethod(generatedType, "clearRatio"), is(true));
+        assertThat(hasMethod(generatedType, "hasLabel"), is(false));
+
+    }
+
+    @Test
+    public void settersMarkPropertiesPresentAndClearRestoresDefault() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example", config("trackPresence", true, "generateSerializers", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+        Object reading = generatedType.newInstance();
+
+        assertThat((Integer) invoke(reading, "getCount"), is(5));
+        assertThat((Boolean) invoke(reading, "hasCount"), is(false));
+
+        generatedType.getMethod("setCount", int.class).invoke(reading, 0);
+
+        assertThat((Integer) invoke(reading, "getCount"), is(0));
+        assertThat((Boolean) invoke(reading, "hasCount"), is(true));
+        assertThat((Boolean) invoke(reading, "hasRatio"), is(false));
+
+        invoke(reading, "clearCount");
+
+        assertThat((Integer) invoke(reading, "getCount"), is(5));
+        assertThat((Boolean) invoke(reading, "hasCount"), is(false));
+
+    }
+
+    @Test
+    public void subtypesTrackTheirOwnPropertiesAlongsideInheritedOnes() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/calibratedReading.json", "com.example", config("trackPresence", true, "generateSerializers", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.CalibratedReading");
+        Object reading = generatedType.newInstance();
+        generatedType.getMethod("setOffset", long.class).invoke(reading, 7L);
+
+        assertThat((Boolean) invoke(reading, "hasOffset"), is(true));
+        assertThat((Boolean) invoke(reading, "hasCount"), is(false));
+
+    }
+
+    @Test
+    public void generatedSerializersWriteOnlyPresentProperties() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/calibratedReading.json", "com.example",
+                config("trackPresence", true, "generateSerializers", true));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.CalibratedReading");
+
+        ObjectMapper mapper = new ObjectMapper().registerModule((Module) resultsClassLoader.loadClass("com.example.Jackson2Module").newInstance());
+        Object reading = mapper.readValue(READING_JSON, generatedType);
+
+        assertThat((Boolean) invoke(reading, "hasCount"), is(true));
+        assertThat((Boolean) invoke(reading, "hasEnabled"), is(false));
+        assertThat((Boolean) invoke(reading, "hasRatio"), is(false));
+        assertEqualsJson("{\"count\":0,\"offset\":7}", mapper.writeValueAsString(reading));
+        assertEqualsJson("{}", mapper.writeValueAsString(generatedType.newInstance()));
+
+    }
+
+    @Test
+    public void generatedGsonTypeAdaptersWriteOnlyPresentProperties() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/calibratedReading.json", "com.example",
+                config("trackPresence", true, "generateSerializers", true, "annotationStyle", "gson"));
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.CalibratedReading");
+
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory((TypeAdapterFactory) resultsClassLoader.loadClass("com.example.GsonTypeAdapterFactory").newInstance())
+                .create();
+        Object reading = gson.fromJson(READING_JSON, generatedType);
+
+        assertThat((Boolean) invoke(reading, "hasCount"), is(true));
+        assertThat((Boolean) invoke(reading, "hasEnabled"), is(false));
+        assertEqualsJson("{\"count\":0,\"offset\":7}", gson.toJson(reading));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void missingRequiredPrimitiveIsReportedByValidator() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example",
+                config("trackPresence", true, "generateSerializers", true, "generateValidators", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+        Object reading = generatedType.newInstance();
+
+        assertThat((List<String>) invoke(reading, "validate"), contains("count is required"));
+
+        generatedType.getMethod("setCount", int.class).invoke(reading, 0);
+
+        assertThat((List<String>) invoke(reading, "validate"), is(empty()));
+
+    }
+
+    @Test
+    public void presenceSurvivesJavaSerialization() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example",
+                config("trackPresence", true, "generateSerializers", true, "serializable", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+        Object reading = generatedType.newInstance();
+        generatedType.getMethod("setCount", int.class).invoke(reading, 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(reading);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        assertThat((Boolean) invoke(copy, "hasCount"), is(true));
+        assertThat((Boolean) invoke(copy, "hasRatio"), is(false));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void absentPropertiesAreNotValidated() throws ReflectiveOperationException, IOException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example",
+                config("trackPresence", true, "generateSerializers", true, "generateValidators", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertThat((List<String>) invoke(generatedType.newInstance(), "validate"), contains("count is required"));
+        assertThat((List<String>) invoke(mapper.readValue("{\"count\":1}", generatedType), "validate"), is(empty()));
+        assertThat((List<String>) invoke(mapper.readValue("{\"count\":1,\"ratio\":0.1}", generatedType), "validate"),
+                contains("ratio must be greater than or equal to 0.5"));
+
+    }
+
+    @Test
+    public void presenceIsComparedByEqualsAndHashCode() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example", config("trackPresence", true, "generateSerializers", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+        Object absent = generatedType.newInstance();
+        Object present = generatedType.newInstance();
+        generatedType.getMethod("setRatio", double.class).invoke(present, 0.0);
+
+        assertThat(present, is(not(equalTo(absent))));
+
+        invoke(present, "clearRatio");
+
+        assertThat(present, is(equalTo(absent)));
+        assertThat(present.hashCode(), is(absent.hashCode()));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void trackPresenceWithoutGeneratedSerializersIsRejected() {
+
+        schemaRule.generate("/schema/presence/reading.json", "com.example", config("trackPresence", true));
+
+    }
+
+    @Test(expected = GenerationException.class)
+    public void trackPresenceWithoutSerializerForAnnotationStyleIsRejected() {
+
+        schemaRule.generate("/schema/presence/reading.json", "com.example",
+                config("trackPresence", true, "generateSerializers", true, "annotationStyle", "jackson1"));
+
+    }
+
+    @Test
+    public void immutableTypesAreNotTracked() throws ReflectiveOperationException {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/schema/presence/reading.json", "com.example",
+                config("trackPresence", true, "immutableTypes", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Reading");
+
+        assertThat(generatedType.getMethod("getCount").getReturnType(), is(equalTo((Object) Integer.class)));
+        assertThat(hasMethod(generatedType, "hasCount"), is(false));
+
+    }
+
+    private static boolean hasMethod(Class<?> type, String methodName) {
+        try {
+            type.getMethod(methodName);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Object invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getMethod(methodName);
+        return method.invoke(target);
+    }
+
+}
@@ -88,6 +88,70 @@ public class JsonTypesIT {
         assertThat((BigDecimal) generatedType.getMethod("getC").invoke(deserialisedValue), is(new BigDecimal("12999999999999999999999.99")));
     }
 
+    @Test
+    public void arrayItemsOfASingleExampleTakeTheTypeOfTheLastValue() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/json/mixedArrayItems.json", "com.example",
+                config("sourceType", "json"));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.MixedArrayItems");
+        Class<?> itemType = resultsClassLoader.loadClass("com.example.Reading");
+
+        assertThat(itemType.getMethod("getNullable").getReturnType(), is(equalTo((Object) Object.class)));
+        assertThat(itemType.getMethod("getNumber").getReturnType(), is(equalTo((Object) Integer.class)));
+        assertThat(((ParameterizedType) generatedType.getMethod("getNumbers").getGenericReturnType()).getActualTypeArguments()[0],
+                is(equalTo((Object) Integer.class)));
+
+    }
+
+    @Test
+    public void newlineDelimitedExamplesAreMergedIntoOneType() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/json/newlineDelimited.json", "com.example",
+                config("sourceType", "json"));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.NewlineDelimited");
+        Class<?> cType = resultsClassLoader.loadClass("com.example.C");
+
+        assertThat(generatedType.getMethod("getA").getReturnType(), is(equalTo((Object) String.class)));
+        assertThat(generatedType.getMethod("getB").getReturnType(), is(equalTo((Object) Integer.class)));
+        assertThat(generatedType.getMethod("getC").getReturnType(), is(equalTo((Object) cType)));
+        assertThat(generatedType.getMethod("getF").getReturnType(), is(equalTo((Object) Double.class)));
+        assertThat(cType.getMethod("getD").getReturnType(), is(equalTo((Object) Boolean.class)));
+        assertThat(cType.getMethod("getE").getReturnType(), is(equalTo((Object) List.class)));
+
+    }
+
+    @Test
+    public void examplesInADirectoryCanBeMergedIntoOneType() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/json/merged", "com.example",
+                config("sourceType", "json", "mergeExamples", true, "generationThreads", 2));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.Merged");
+
+        assertThat(generatedType.getMethod("getA").getReturnType(), is(equalTo((Object) String.class)));
+        assertThat(generatedType.getMethod("getB").getReturnType(), is(equalTo((Object) Double.class)));
+        assertThat(generatedType.getMethod("getC").getReturnType(), is(equalTo((Object) String.class)));
+        assertThat(generatedType.getMethod("getD").getReturnType(), is(equalTo((Object) Boolean.class)));
+
+    }
+
+    @Test
+    public void examplesOfDifferentKindsAreMergedIntoUntypedProperties() throws Exception {
+
+        ClassLoader resultsClassLoader = schemaRule.generateAndCompile("/json/mergedConflicts", "com.example",
+                config("sourceType", "json", "mergeExamples", true));
+
+        Class<?> generatedType = resultsClassLoader.loadClass("com.example.MergedConflicts");
+
+        assertThat(generatedType.getMethod("getA").getReturnType(), is(equalTo((Object) Object.class)));
+        assertThat(generatedType.getMethod("getB").getReturnType(), is(equalTo((Object) Object.class)));
+        assertThat(((ParameterizedType) generatedType.getMethod("getD").getGenericReturnType()).getActualTypeArguments()[0], is(equalTo((Type) Object.class)));
+        assertThat(generatedType.getMethod("getE").getReturnType(), is(equalTo((Object) Double.class)));
+
+    }
+
     @Test(expected = ClassNotFoundException.class)
     public void simpleTypeAtRootProducesNoJavaTypes() throws ClassNotFoundException {
 
@@ -37,9 +37,11 @@ import org.jsonschema2pojo.AnnotationStyle;
 import org.jsonschema2pojo.Annotator;
 import org.jsonschema2pojo.AnnotatorFactory;
 import org.jsonschema2pojo.GenerationConfig;
+import org.jsonschema2pojo.GenerationResult;
 import org.jsonschema2pojo.InclusionLevel;
 import org.jsonschema2pojo.Jsonschema2Pojo;
 import org.jsonschema2pojo.NoopAnnotator;
+import org.jsonschema2pojo.OutputType;
 import org.jsonschema2pojo.SourceType;
 import org.jsonschema2pojo.rules.RuleFactory;
 import org.jsonschema2pojo.util.URLUtil;
@@ -122,6 +124,7 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
     /**
      * Add the output directory to the project as a source root, so that the
      * generated java types are compiled and included in the project artifact.
+     * Ignored unless the <code>outputType</code> is <code>sources</code>.
      *
      * @parameter expression="${jsonschema2pojo.addCompileSourceRoot}"
      *            default-value="true"
@@ -579,6 +582,272 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
      */
     private boolean formatDateTimes = false;
 
+    /**
+     * The number of threads used to read and parse schema documents, and the
+     * documents they reference, before types are generated. Types are still
+     * generated in order, so the output is the same as a single threaded run.
+     *
+     * @parameter expression="${jsonschema2pojo.generationThreads}"
+     *            default-value="1"
+     * @since 0.4.31
+     */
+    private int generationThreads = 1;
+
+    /**
+     * Whether to generate types only for sources whose content, or the content
+     * of the documents they reference, has changed since the last run. A
+     * manifest of each source's documents and generated classes is kept in the
+     * target directory, and output that is no longer generated is deleted.
+     *
+     * @parameter expression="${jsonschema2pojo.incrementalGeneration}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean incrementalGeneration = false;
+
+    /**
+     * Whether to leave existing output files untouched when their content is
+     * unchanged. Each file is rendered in memory and compared with the existing
+     * file, so the modification time of unchanged files is preserved and
+     * downstream compilation can be skipped. With <code>removeOldOutput</code>,
+     * files that are not part of the new output are deleted after generation
+     * instead of emptying the target directory first.
+     *
+     * @parameter expression="${jsonschema2pojo.writeOnlyChangedFiles}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean writeOnlyChangedFiles = false;
+
+    /**
+     * The directory used to cache the parsed content of schema files. Content
+     * is stored in a binary (Smile) form keyed by the file URI, size and
+     * modification time, so that later builds can load it without parsing the
+     * JSON text again. The cache may be shared by many builds.
+     *
+     * @parameter expression="${jsonschema2pojo.contentCacheDirectory}"
+     * @since 0.4.31
+     */
+    private File contentCacheDirectory;
+
+    /**
+     * The maximum size, in bytes, of the content cache directory (see
+     * contentCacheDirectory). When the cache grows beyond this size, the least
+     * recently used entries are removed.
+     *
+     * @parameter expression="${jsonschema2pojo.contentCacheMaxSize}"
+     *            default-value="52428800"
+     * @since 0.4.31
+     */
+    private long contentCacheMaxSize = 52428800L;
+
+    /**
+     * The directory used to cache schemas read over http/https. Cached
+     * responses are revalidated using conditional requests
+     * (ETag/If-Modified-Since), so unchanged schemas are not transferred again.
+     *
+     * @parameter expression="${jsonschema2pojo.httpCacheDirectory}"
+     * @since 0.4.31
+     */
+    private File httpCacheDirectory;
+
+    /**
+     * Whether schemas referenced using http/https should only be read from the
+     * HTTP cache (see httpCacheDirectory), without making any requests.
+     *
+     * @parameter expression="${jsonschema2pojo.httpOffline}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean httpOffline = false;
+
+    /**
+     * The connect and read timeout, in milliseconds, used when reading schemas
+     * over http/https. Requests that fail (or receive a server error) are
+     * retried twice before generation fails.
+     *
+     * @parameter expression="${jsonschema2pojo.httpTimeout}"
+     *            default-value="30000"
+     * @since 0.4.31
+     */
+    private int httpTimeout = 30000;
+
+    /**
+     * Whether to merge every JSON example found in a source directory into one
+     * type, named after the directory, rather than generating a type for each
+     * example. Only applies when the source type is json. Examples are read in
+     * parallel when generationThreads is greater than one, and the generated
+     * type does not depend on the order in which the examples are read.
+     *
+     * @parameter expression="${jsonschema2pojo.mergeExamples}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean mergeExamples = false;
+
+    /**
+     * Whether generated toString methods should append each field to a
+     * StringBuilder directly, rather than calling
+     * ToStringBuilder.reflectionToString. The output has the same format. Only
+     * applies when includeToString is true.
+     *
+     * @parameter expression="${jsonschema2pojo.reflectionFreeToString}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean reflectionFreeToString = false;
+
+    /**
+     * Whether generated hashCode and equals methods should compare and combine
+     * each field directly, rather than creating a HashCodeBuilder or
+     * EqualsBuilder. Primitive fields are not boxed, equals returns on the
+     * first field that differs, and super.hashCode and super.equals are still
+     * used for types that extend another type. Only applies when
+     * includeHashcodeAndEquals is true.
+     *
+     * @parameter expression="${jsonschema2pojo.allocationFreeHashcodeAndEquals}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean allocationFreeHashcodeAndEquals = false;
+
+    /**
+     * Whether to generate immutable types. Fields are final, no setters are
+     * generated and each type has a nested Builder that is used to create
+     * instances. Collections are copied into unmodifiable collections and
+     * hashCode, when included, is computed once and cached. Immutable types can
+     * be read by Jackson 2.x (using the builder), Gson and Moshi. Immutable
+     * types can't be combined with 'parcelable' or 'includeConstructors',
+     * generation fails if either is also set.
+     *
+     * @parameter expression="${jsonschema2pojo.immutableTypes}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean immutableTypes = false;
+
+    /**
+     * Whether to generate a serializer and deserializer for each type that
+     * reads and writes its fields directly, so that types can be read and
+     * written without reflection. With Jackson 2.x, each type gets a nested
+     * Jackson2Serializer and Jackson2Deserializer, and a Jackson2Module that
+     * registers them is generated in the target package. With Gson, each type
+     * gets a nested GsonTypeAdapter, and a GsonTypeAdapterFactory that creates
+     * them is generated in the target package. With Moshi, each type gets a
+     * nested MoshiJsonAdapter, and a MoshiJsonAdapterFactory that creates them
+     * is generated in the target package. Additional properties are then
+     * supported with Gson and Moshi too. Types that use polymorphic
+     * deserialization, custom formats or views are still handled by
+     * reflection. When generating incrementally, every source is generated
+     * again on each run so that the module or factory registers all types.
+     *
+     * @parameter expression="${jsonschema2pojo.generateSerializers}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean generateSerializers = false;
+
+    /**
+     * Whether to leave the additionalProperties map of each type null until the
+     * first additional property is set. The getter returns an empty map until
+     * then, and the map that is allocated is an insertion-ordered map sized for
+     * a few properties. Only useful when additional properties are included.
+     *
+     * @parameter expression="${jsonschema2pojo.lazyAdditionalProperties}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean lazyAdditionalProperties = false;
+
+    /**
+     * Whether to generate a validate method for each type that checks its
+     * values against the required, pattern, minLength, maxLength, minimum,
+     * maximum, minItems and maxItems constraints of the schema, and validates
+     * nested generated types. Violations are reported as a list of
+     * descriptions, without reflection or a Bean Validation provider. Patterns
+     * are compiled once, into static constants.
+     *
+     * @parameter expression="${jsonschema2pojo.generateValidators}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean generateValidators = false;
+
+    /**
+     * The type of output written to the target directory.
+     * <p>
+     * Supported values:
+     * <ul>
+     * <li><code>sources</code> (Java source files)</li>
+     * <li><code>classes</code> (class files, compiled in-process by the system
+     * Java compiler against the project classpath)</li>
+     * <li><code>jar</code> (a single jar of class files, named
+     * jsonschema2pojo.jar)</li>
+     * </ul>
+     * Compiling requires the build to run on a JDK.
+     *
+     * @parameter expression="${jsonschema2pojo.outputType}"
+     *            default-value="sources"
+     * @since 0.4.31
+     */
+    private String outputType = "sources";
+
+    /**
+     * Whether serializable types should implement Externalizable, writing their
+     * fields in declaration order in a compact binary form rather than relying
+     * on default Java serialization. Only applies when serializable is enabled,
+     * and can't be combined with immutableTypes.
+     *
+     * @parameter expression="${jsonschema2pojo.externalizable}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean externalizable = false;
+
+    /**
+     * Whether array properties whose items are integers, numbers or booleans
+     * (and which do not require uniqueItems) should be generated as primitive
+     * arrays, e.g. <code>int[]</code>, <code>long[]</code> or
+     * <code>double[]</code>, rather than lists of boxed values.
+     *
+     * @parameter expression="${jsonschema2pojo.usePrimitiveArrays}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean usePrimitiveArrays = false;
+
+    /**
+     * Whether to track which properties have been set, so that properties can
+     * use primitive types and still tell a value that is absent from one that
+     * has been set to the default. Each primitive property gets a bit in a
+     * presence bitmask, along with <code>hasX()</code> and
+     * <code>clearX()</code> methods, and generated serializers skip properties
+     * that aren't set. Requires generateSerializers with Jackson 2.x, Gson or
+     * Moshi, since a serializer that reflects over fields would write unset
+     * properties; a type that can't be given a generated serializer fails
+     * generation. Implies primitive property types. Has no effect on
+     * immutable types, or when accessors are not included.
+     *
+     * @parameter expression="${jsonschema2pojo.trackPresence}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean trackPresence = false;
+
+    /**
+     * Whether to generate a <code>reset()</code> method for each type, which
+     * returns an instance to its schema defaults so that it can be reused (for
+     * instance from a pool), clearing and refilling the collections it already
+     * holds rather than allocating new ones. Generated serializers (see
+     * generateSerializers) also get a method that populates an existing
+     * instance. Can't be combined with immutableTypes.
+     *
+     * @parameter expression="${jsonschema2pojo.generateReset}"
+     *            default-value="false"
+     * @since 0.4.31
+     */
+    private boolean generateReset = false;
+
     private FileFilter fileFilter = new AllFileFilter();
 
     /**
@@ -599,6 +868,12 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
             throw new MojoExecutionException("Not a valid annotation style: " + annotationStyle);
         }
 
+        try {
+            getOutputType();
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Not a valid output type: " + outputType);
+        }
+
         try {
             new AnnotatorFactory(this).getAnnotator(getCustomAnnotator());
         } catch (IllegalArgumentException e) {
@@ -643,12 +918,13 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
             fileFilter = createFileFilter();
         }
 
-        if (addCompileSourceRoot) {
+        if (addCompileSourceRoot && getOutputType() == OutputType.SOURCES) {
             project.addCompileSourceRoot(outputDirectory.getPath());
         }
 
         try {
-            Jsonschema2Pojo.generate(this);
+            GenerationResult result = Jsonschema2Pojo.generateWithResult(this);
+            getLog().info(result.toString());
         } catch (IOException e) {
             throw new MojoExecutionException("Error generating classes from JSON Schema file(s) " + sourceDirectory, e);
         }
@@ -917,4 +1193,104 @@ public class Jsonschema2PojoMojo extends AbstractMojo implements GenerationConfi
         return formatDateTimes;
     }
 
+    @Override
+    public int getGenerationThreads() {
+        return generationThreads;
+    }
+
+    @Override
+    public boolean isIncrementalGeneration() {
+        return incrementalGeneration;
+    }
+
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return writeOnlyChangedFiles;
+    }
+
+    @Override
+    public File getContentCacheDirectory() {
+        return contentCacheDirectory;
+    }
+
+    @Override
+    public long getContentCacheMaxSize() {
+        return contentCacheMaxSize;
+    }
+
+    @Override
+    public File getHttpCacheDirectory() {
+        return httpCacheDirectory;
+    }
+
+    @Override
+    public boolean isHttpOffline() {
+        return httpOffline;
+    }
+
+    @Override
+    public int getHttpTimeout() {
+        return httpTimeout;
+    }
+
+    @Override
+    public boolean isMergeExamples() {
+        return mergeExamples;
+    }
+
+    @Override
+    public boolean isReflectionFreeToString() {
+        return reflectionFreeToString;
+    }
+
+    @Override
+    public boolean isAllocationFreeHashcodeAndEquals() {
+        return allocationFreeHashcodeAndEquals;
+    }
+
+    @Override
+    public boolean isImmutableTypes() {
+        return immutableTypes;
+    }
+
+    @Override
+    public boolean isGenerateSerializers() {
+        return generateSerializers;
+    }
+
+    @Override
+    public boolean isLazyAdditionalProperties() {
+        return lazyAdditionalProperties;
+    }
+
+    @Override
+    public boolean isGenerateValidators() {
+        return generateValidators;
+    }
+
+    @Override
+    public OutputType getOutputType() {
+        return OutputType.valueOf(outputType.toUpperCase());
+    }
+
+    @Override
+    public boolean isExternalizable() {
+        return externalizable;
+    }
+
+    @Override
+    public boolean isUsePrimitiveArrays() {
+        return usePrimitiveArrays;
+    }
+
+    @Override
+    public boolean isTrackPresence() {
+        return trackPresence;
+    }
+
+    @Override
+    public boolean isGenerateReset() {
+        return generateReset;
+    }
+
 }